@@ -0,0 +1,451 @@
+package de.custom.godlogger;
+
+import de.custom.godlogger.GodLogger.LogFormatter;
+import de.custom.godlogger.GodLogger.LogFormatter.Theme;
+import de.custom.godlogger.GodLogger.LogFormatter.TimestampCache;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Loads the levels, colors and detail of loggers from a properties file and reloads them whenever the file
+ * changes, watched through a {@link WatchService}, so they can be changed on a running application. The file may
+ * contain:
+ * <ul>
+ *     <li><code>level</code>: The {@link Level} of all loggers of the file, {@link Level#ALL} if it is missing</li>
+ *     <li><code>level.&lt;name&gt;</code>: The {@link Level} of the logger with that name or of the loggers below it,
+ *     e.g. <code>level.com.example=FINE</code></li>
+ *     <li><code>detailed</code>: Whether the messages print their method of origin, <code>false</code> if missing</li>
+ *     <li><code>color.&lt;level&gt;</code>: The {@link LogFormatter.FormatColor FormatColor} constant of a level,
+ *     e.g. <code>color.info=GREEN_BRIGHT</code>; without any, the global colors of the {@link LogFormatter} are
+ *     used</li>
+ * </ul>
+ * Each load publishes a new, immutable {@link Snapshot} through a single volatile field. The {@link LogFormatter} of
+ * {@link #getFormatter()} reads that field once per record and formats the whole record with the snapshot it got, so
+ * a reload never mixes two configurations in one line and never takes a lock. {@link Handler}s are not replaced on a
+ * reload, which is why records being written are not lost. A file that cannot be read or parsed is reported to the
+ * {@link ErrorManager} and the previous snapshot stays in place. <br>
+ * The {@link Handler}s using the {@link #getFormatter() formatter} of a watcher belong to that watcher: A watcher
+ * created for the same file after this one was {@link #close() closed} has a formatter and {@link #getKey() key} of
+ * its own.
+ */
+@SuppressWarnings("unused")
+public final class ConfigWatcher implements AutoCloseable {
+
+    /**
+     * The watchers by their absolute, normalised file
+     */
+    private static final Map<Path, ConfigWatcher> WATCHERS = new ConcurrentHashMap<>();
+
+    /**
+     * The time waited after a change before the file is read, so an editor can finish writing it: 50 milliseconds
+     */
+    private static final long SETTLE_MILLIS = 50;
+
+    /**
+     * The number of watchers created so far, telling their {@link #getKey() keys} apart
+     */
+    private static final AtomicLong CREATED = new AtomicLong();
+
+    /**
+     * The key of the {@link Handler}s using the {@link #formatter}, unique to this watcher
+     */
+    private final String key;
+
+    /**
+     * The watched file
+     */
+    private final Path file;
+
+    /**
+     * The {@link WatchService} watching the directory of the {@link #file}
+     */
+    private final WatchService watchService;
+
+    /**
+     * The {@link LogFormatter} formatting every record with the current {@link #snapshot}
+     */
+    private final LogFormatter formatter = new WatchedFormatter(this);
+
+    /**
+     * The loggers whose {@link Level} follows the file
+     */
+    private final Set<Logger> loggers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The {@link ErrorManager} failed reloads are reported to
+     */
+    private final ErrorManager errorManager = new ErrorManager();
+
+    /**
+     * The {@link ReentrantLock} serialising reloads, so an older file never replaces a newer one
+     */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /**
+     * The thread waiting for changes of the {@link #file}
+     */
+    private final Thread watcher;
+
+    /**
+     * The configuration loaded last
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Loads the file and starts watching it.
+     * @param file A {@link Path}: The absolute, normalised file
+     * @throws IOException if the file cannot be read or its directory cannot be watched
+     */
+    private ConfigWatcher(Path file) throws IOException {
+        this.file = file;
+        this.key = file + "#" + CREATED.incrementAndGet();
+        this.snapshot = load(file);
+        this.watchService = file.getFileSystem().newWatchService();
+        try {
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            watchService.close();
+            throw e;
+        }
+        watcher = new Thread(this::watch, "ConfigWatcher-" + file.getFileName());
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Gets the watcher of a file, loading the file and starting to watch it if nobody does yet.
+     * @param file A {@link Path}: The properties file
+     * @return A {@link ConfigWatcher}: The watcher of the file
+     * @throws IOException if the file cannot be read or its directory cannot be watched
+     * @throws IllegalArgumentException if the file contains an invalid level or color
+     */
+    public static ConfigWatcher watch(Path file) throws IOException {
+        Path normalised = file.toAbsolutePath().normalize();
+        ConfigWatcher existing = WATCHERS.get(normalised);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (WATCHERS) {
+            existing = WATCHERS.get(normalised);
+            if (existing != null) {
+                return existing;
+            }
+            ConfigWatcher created = new ConfigWatcher(normalised);
+            WATCHERS.put(normalised, created);
+            return created;
+        }
+    }
+
+    /**
+     * Lets the {@link Level} of the logger follow the file, setting it right away.
+     * @param logger A {@link Logger}: The logger
+     */
+    public void attach(Logger logger) {
+        loggers.add(logger);
+        logger.setLevel(snapshot.getLevel(logger.getName()));
+    }
+
+    /**
+     * Stops the {@link Level} of the logger from following the file. Its current {@link Level} is kept.
+     * @param logger A {@link Logger}: The logger
+     */
+    public void detach(Logger logger) {
+        loggers.remove(logger);
+    }
+
+    /**
+     * Reads the file again and publishes the new configuration, as if the file had changed.
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file contains an invalid level or color
+     */
+    public void reload() throws IOException {
+        reloadLock.lock();
+        try {
+            Snapshot loaded = load(file);
+            snapshot = loaded;
+            for (Logger logger : loggers) {
+                logger.setLevel(loaded.getLevel(logger.getName()));
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the {@link LogFormatter} formatting with the current configuration of the file. It can be shared by any
+     * number of {@link Handler}s.
+     * @return A {@link LogFormatter}: The {@link #formatter}
+     */
+    public LogFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Gets the configuration loaded last.
+     * @return A {@link Snapshot}: The current {@link #snapshot}
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the key identifying the {@link Handler}s that use the {@link #getFormatter() formatter} of this watcher,
+     * e.g. for a {@link LoggerRegistry.HandlerSpec}. It is the file, numbered with the watcher, so the
+     * {@link Handler}s of a {@link #close() closed} watcher are never shared with the one replacing it.
+     * @return A {@link String}: The {@link #key}
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the watched file.
+     * @return A {@link Path}: The absolute, normalised {@link #file}
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stops watching the file. The loggers keep their {@link Level}s and the {@link #getFormatter() formatter} keeps
+     * the last configuration.
+     */
+    @Override
+    public void close() {
+        WATCHERS.remove(file, this);
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            errorManager.error("Failed to close the watch service of " + file, e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+
+    /**
+     * Waits for changes of the file and reloads it, until the {@link #watchService} is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    drainEvents();
+                    reloadQuietly();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // closed, stop watching
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Discards the events that came in while the file settled, as the following reload covers them.
+     */
+    private void drainEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    /**
+     * Reloads the file, reporting failures to the {@link ErrorManager} and keeping the previous configuration.
+     */
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (IOException e) {
+            errorManager.error("Failed to read " + file, e, ErrorManager.GENERIC_FAILURE);
+        } catch (RuntimeException e) {
+            errorManager.error("Invalid configuration in " + file, e, ErrorManager.GENERIC_FAILURE);
+        }
+    }
+
+    /**
+     * Reads and parses the file.
+     * @param file A {@link Path}: The properties file
+     * @return A {@link Snapshot}: The parsed configuration
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file contains an invalid level or color
+     */
+    private static Snapshot load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        LoggerConfig.Builder builder = LoggerConfig.builder()
+                .detailed(Boolean.parseBoolean(properties.getProperty("detailed", "false").trim()));
+        Level level = Level.ALL;
+        Map<String, Level> levels = new HashMap<>();
+        Theme theme = null;
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            if (key.equals("level")) {
+                level = Level.parse(value);
+            } else if (key.startsWith("level.")) {
+                levels.put(key.substring("level.".length()), Level.parse(value));
+            } else if (key.startsWith("color.")) {
+                Level colored = Level.parse(key.substring("color.".length()).toUpperCase(Locale.ROOT));
+                theme = (theme == null ? Theme.DEFAULT : theme).withColor(colored, Theme.colorNamed(value));
+            }
+        }
+        LoggerConfig config = builder.theme(theme).build();
+        return new Snapshot(config, level, levels);
+    }
+
+    /**
+     * One immutable configuration loaded from the file.
+     */
+    public static final class Snapshot {
+
+        /**
+         * The detail and theme of the messages
+         */
+        private final LoggerConfig config;
+
+        /**
+         * The {@link LogFormatter} built from the {@link #config}
+         */
+        private final LogFormatter formatter;
+
+        /**
+         * The {@link Level} of the loggers without a {@link Level} of their own
+         */
+        private final Level level;
+
+        /**
+         * The {@link Level}s of single loggers and their children, by logger name
+         */
+        private final Map<String, Level> levels;
+
+        /**
+         * Creates a snapshot, building its {@link LogFormatter}.
+         * @param config A {@link LoggerConfig}: The detail and theme of the messages
+         * @param level A {@link Level}: The {@link Level} of the loggers without a {@link Level} of their own
+         * @param levels A {@link Map}: The {@link Level}s of single loggers and their children
+         */
+        private Snapshot(LoggerConfig config, Level level, Map<String, Level> levels) {
+            this.config = config;
+            this.formatter = config.newFormatter();
+            this.level = level;
+            this.levels = Map.copyOf(levels);
+        }
+
+        /**
+         * Gets the detail and theme of the messages.
+         * @return A {@link LoggerConfig}: The {@link #config}
+         */
+        public LoggerConfig getConfig() {
+            return config;
+        }
+
+        /**
+         * Gets the {@link Level} of a logger: the one set for its name or the closest parent name, otherwise the
+         * {@link Level} of all loggers.
+         * @param name A {@link String}: The name of the logger
+         * @return A {@link Level}: The {@link Level} of the logger
+         */
+        public Level getLevel(String name) {
+            String current = name;
+            while (current != null) {
+                Level found = levels.get(current);
+                if (found != null) {
+                    return found;
+                }
+                int dot = current.lastIndexOf('.');
+                current = dot < 0 ? null : current.substring(0, dot);
+            }
+            return level;
+        }
+    }
+
+    /**
+     * The {@link LogFormatter} of a {@link ConfigWatcher}, formatting every record with the {@link LogFormatter} of
+     * the snapshot current when the record comes in.
+     */
+    private static final class WatchedFormatter extends LogFormatter {
+
+        /**
+         * The {@link ConfigWatcher} publishing the snapshots
+         */
+        private final ConfigWatcher owner;
+
+        /**
+         * Creates the {@link LogFormatter} of a {@link ConfigWatcher}.
+         * @param owner A {@link ConfigWatcher}: The {@link ConfigWatcher} publishing the snapshots
+         */
+        private WatchedFormatter(ConfigWatcher owner) {
+            super(false);
+            this.owner = owner;
+        }
+
+        /**
+         * Formats the record with the current snapshot.
+         * @param logRecord A {@link LogRecord}: The log record to be formatted
+         * @return A {@link String}: The formatted log record
+         */
+        @Override
+        public String format(LogRecord logRecord) {
+            return owner.snapshot.formatter.format(logRecord);
+        }
+
+        /**
+         * Gets whether the current snapshot prints the method of origin.
+         * @return A {@link Boolean}: The current detail
+         */
+        @Override
+        public boolean isDetailed() {
+            return owner.snapshot.formatter.isDetailed();
+        }
+
+        /**
+         * Gets the {@link TimestampCache} of the current snapshot.
+         * @return A {@link TimestampCache}: The current {@link TimestampCache}
+         */
+        @Override
+        public TimestampCache getTimestamps() {
+            return owner.snapshot.formatter.getTimestamps();
+        }
+
+        /**
+         * Gets the {@link Theme} of the current snapshot.
+         * @return A {@link Theme}: The current {@link Theme}, or null for the global colors
+         */
+        @Override
+        public Theme getTheme() {
+            return owner.snapshot.formatter.getTheme();
+        }
+    }
+}
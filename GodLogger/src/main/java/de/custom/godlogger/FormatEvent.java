@@ -0,0 +1,61 @@
+package de.custom.godlogger;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.logging.LogRecord;
+
+/**
+ * A JDK Flight Recorder event for a {@link LogRecord} formatted by a {@link GodLogger.LogFormatter}, its duration
+ * being the time it took to format. <br>
+ * The event is disabled unless a recording turns it on, e.g. with the settings file <code>jfr/custom-logger.jfc</code>.
+ * While it is disabled, creating and committing it costs next to nothing and none of its fields are filled in.
+ */
+@Name(FormatEvent.NAME)
+@Label("Log Format")
+@Description("A log record formatted by a GodLogger.LogFormatter")
+@Category({"Logging", "GodLogger"})
+@Enabled(false)
+@StackTrace(false)
+@SuppressWarnings("unused")
+public class FormatEvent extends Event {
+
+    /**
+     * The name of the event in a recording
+     */
+    public static final String NAME = "de.custom.godlogger.Format";
+
+    /**
+     * The name of the logger of the record
+     */
+    @Label("Logger")
+    String loggerName;
+
+    /**
+     * The name of the level of the record
+     */
+    @Label("Level")
+    String level;
+
+    /**
+     * The number of characters the record was formatted into
+     */
+    @Label("Characters")
+    long characters;
+
+    /**
+     * Fills in the fields of the event.
+     * @param logRecord A {@link LogRecord}: The formatted record
+     * @param characters An {@link Integer}: The number of characters the record was formatted into
+     */
+    void set(LogRecord logRecord, int characters) {
+        this.loggerName = logRecord.getLoggerName();
+        this.level = logRecord.getLevel().getName();
+        this.characters = characters;
+    }
+}
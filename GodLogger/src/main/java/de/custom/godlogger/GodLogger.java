@@ -1,17 +1,62 @@
 package de.custom.godlogger;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import de.custom.godlogger.LoggerConfig.Sink;
+import de.custom.godlogger.LoggerRegistry.HandlerSpec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.*;
 
+/**
+ * A {@link Logger} with its {@link LogFormatter} and console {@link Handler}. The module does not depend on any other,
+ * so the overrides passing records straight to the {@link Handler}s repeat those of the ColorLogger of the Logger
+ * library instead of sharing them.
+ */
 @SuppressWarnings("unused")
 public class GodLogger extends Logger {
 
     /**
-     * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
+     * The {@link Integer} value of {@link Level#OFF}
+     */
+    private static final int OFF_VALUE = Level.OFF.intValue();
+
+    /**
+     * The {@link LoggerMetrics} the records of all {@link GodLogger}s are counted in
+     */
+    private static final LoggerMetrics METRICS = LoggerMetrics.global();
+
+    /**
+     * The {@link Level} set on this logger, or null if it takes the {@link Level} of its parent
+     */
+    private volatile Level ownLevel;
+
+    /**
+     * The {@link Handler}s the records are passed to straight away, or null while a {@link Filter} or the parent
+     * {@link Handler}s require the usual way through {@link Logger#log(LogRecord)}
      */
-    private static boolean isDetailed = false;
+    private volatile Handler[] directHandlers;
+
     /**
      * Protected method to construct a logger for a named subsystem.
      * <p>
@@ -35,33 +80,371 @@ public class GodLogger extends Logger {
 
     /**
      * Creates a new {@link Logger} with the passed name, {@link Logger#setLevel(Level) sets} the {@link Handler}s and
-     * the {@link Logger}s {@link Level} to log {@link Level#ALL all} messages and adds the {@link LogFormatter}.
+     * the {@link Logger}s {@link Level} to log {@link Level#ALL all} messages and adds the {@link LogFormatter}. <br>
+     * Asking for the same logger again returns it as it is, and all loggers share one console {@link Handler}, see
+     * the {@link LoggerRegistry}.
      * @param name A {@link String}: The name of the logger
      * @return A {@link Logger}: A {@link Logger}, customised with the {@link LogFormatter}
      */
     public static Logger newLogger(String name) {
-        Logger logger = Logger.getLogger(name);
-        Handler handlerObj = new ConsoleHandler();
-        handlerObj.setLevel(Level.ALL);
-        Formatter f = new LogFormatter();
-        handlerObj.setFormatter(f);
-        logger.addHandler(handlerObj);
-        logger.setLevel(Level.ALL);
-        logger.setUseParentHandlers(false);
+        return register(name, LoggerConfig.builder().build());
+    }
 
-        return logger;
+    /**
+     * Creates a new {@link Logger} with the passed name, writing to the {@link Sink}s of the {@link LoggerConfig} with
+     * a {@link LogFormatter} built from it, and logging {@link Level#ALL all} messages. <br>
+     * Asking for the same logger with an equal configuration returns it as it is, asking for it with another
+     * configuration replaces its {@link Handler}s. Loggers with the same format share their console {@link Handler},
+     * see the {@link LoggerRegistry}.
+     * @param name A {@link String}: The name of the logger
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Logger}: A {@link Logger}, customised with the {@link LogFormatter}
+     * @throws IOException if a file cannot be opened
+     */
+    public static Logger newLogger(String name, LoggerConfig config) throws IOException {
+        List<HandlerSpec> specs = new ArrayList<>(config.getSinks().size());
+        for (Sink sink : config.getSinks()) {
+            specs.add(specOf(sink, config));
+        }
+        return LoggerRegistry.configure(name, GodLogger::getOrCreate, specs);
     }
 
     /**
-     * Sets {@link #isDetailed} to true and then returns the {@link Logger} from
-     * {@link #newLogger(String) newLogger()}. <br>
-     * This logger will also print its method of origin as well as its class.
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, which also prints the method of origin
+     * of its messages as well as their class. Other loggers are not affected.
      * @param name A {@link String}: The name of the logger
      * @return A {@link Logger}: A detailed {@link Logger}, customised with the {@link LogFormatter}
      */
     public static Logger newDetailedLogger(String name) {
-        isDetailed = true;
-        return newLogger(name);
+        return register(name, LoggerConfig.builder().detailed(true).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()} and wraps it into a {@link LazyLogger},
+     * whose messages and parameters are only created if they are logged.
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link LazyLogger}: A {@link LazyLogger} over a {@link Logger}, customised with the
+     *         {@link LogFormatter}
+     */
+    public static LazyLogger newLazyLogger(String name) {
+        return new LazyLogger(newLogger(name));
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, which additionally writes every message
+     * to a series of numbered, rolling files through a {@link RollingFileHandler} with its default limits.
+     * @param name A {@link String}: The name of the logger
+     * @param file A {@link Path}: The log file, e.g. <code>logs/app.log</code>, which is numbered when rolling over
+     * @return A {@link Logger}: A {@link Logger} logging to the console and the files, customised with the
+     *         {@link LogFormatter}
+     * @throws IOException if the first file cannot be opened
+     */
+    public static Logger newRollingFileLogger(String name, Path file) throws IOException {
+        return newLogger(name, LoggerConfig.builder().sink(Sink.console()).sink(Sink.rollingFile(file)).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} writing to the console, whose {@link Level}, colors and detail are loaded from a
+     * properties file and reloaded whenever the file changes, see {@link ConfigWatcher}. All loggers of a file share
+     * one console {@link Handler}.
+     * @param name A {@link String}: The name of the logger
+     * @param configFile A {@link Path}: The properties file
+     * @return A {@link Logger}: A {@link Logger} following the file, customised with the {@link LogFormatter}
+     * @throws IOException if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file contains an invalid level or color
+     */
+    public static Logger newWatchedLogger(String name, Path configFile) throws IOException {
+        ConfigWatcher watcher = ConfigWatcher.watch(configFile);
+        Logger logger = LoggerRegistry.configure(name, GodLogger::getOrCreate, List.of(
+                new HandlerSpec("watched:" + watcher.getKey(), () -> {
+                    Handler handlerObj = new GodConsoleHandler();
+                    handlerObj.setLevel(Level.ALL);
+                    handlerObj.setFormatter(watcher.getFormatter());
+                    return handlerObj;
+                })));
+        watcher.attach(logger);
+        return logger;
+    }
+
+    /**
+     * Creates the specification of the {@link Handler} writing to a {@link Sink}. The console {@link Handler} is
+     * shared by the loggers formatting alike, a file {@link Handler} by all loggers writing to the same file.
+     * @param sink A {@link Sink}: The target of the {@link Handler}
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link HandlerSpec}: The specification of the {@link Handler}
+     */
+    private static HandlerSpec specOf(Sink sink, LoggerConfig config) {
+        if (sink.isConsole()) {
+            return new HandlerSpec("console:" + config.formatKey(), () -> newConsoleHandler(config));
+        }
+        return new HandlerSpec("rolling:" + sink.file(), () -> {
+            Handler fileHandler = new RollingFileHandler(sink.file());
+            fileHandler.setFormatter(config.newFormatter());
+            return fileHandler;
+        });
+    }
+
+    /**
+     * Gets the {@link Logger} with the passed name from the {@link LoggerRegistry}, configured with a configuration
+     * that writes to the console only and therefore cannot fail.
+     * @param name A {@link String}: The name of the logger
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Logger}: The configured {@link Logger}
+     */
+    private static Logger register(String name, LoggerConfig config) {
+        try {
+            return newLogger(name, config);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a console {@link Handler}, logging {@link Level#ALL all} messages with the {@link LogFormatter} of the
+     * configuration.
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Handler}: The {@link GodConsoleHandler}
+     */
+    private static Handler newConsoleHandler(LoggerConfig config) {
+        Handler handlerObj = new GodConsoleHandler();
+        handlerObj.setLevel(Level.ALL);
+        handlerObj.setFormatter(config.newFormatter());
+        return handlerObj;
+    }
+
+    /**
+     * Gets the counters of all {@link GodLogger}s and the {@link Handler}s of this package: records per level, bytes
+     * written, records dropped, and the format and write latencies. They are also registered over JMX as
+     * {@value LoggerMetrics#OBJECT_NAME}.
+     * @return A {@link LoggerMetrics}: The global metrics, see {@link LoggerMetrics#snapshot()}
+     */
+    public static LoggerMetrics getMetrics() {
+        return METRICS;
+    }
+
+    /**
+     * Gets the {@link Logger} with the passed name. A new logger is created as a {@link GodLogger}, which passes its
+     * records straight to its {@link Handler}s. A logger that already exists is returned as it is; if it is a plain
+     * {@link Logger} created elsewhere, which does not take this shortcut, this is reported to an {@link ErrorManager}.
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: The existing or new {@link Logger}
+     */
+    private static Logger getOrCreate(String name) {
+        LogManager manager = LogManager.getLogManager();
+        Logger logger = manager.getLogger(name);
+        if (logger == null) {
+            LoggerMetrics.registerMBean();
+            Logger created = new GodLogger(name, null);
+            logger = manager.addLogger(created) ? created : Logger.getLogger(name);
+        }
+        if (!(logger instanceof GodLogger)) {
+            new ErrorManager().error("The logger " + name + " already exists as a " + logger.getClass().getName()
+                    + " and is configured without the shortcuts of a GodLogger", null, ErrorManager.GENERIC_FAILURE);
+        }
+        return logger;
+    }
+
+    /**
+     * Checks, whether a message of the passed {@link Level} would be logged. While the {@link Level} of this logger is
+     * set, it is compared to the {@link #ownLevel} directly, otherwise the check is left to {@link Logger}, which
+     * takes the {@link Level} of the parent.
+     * @param level A {@link Level}: The {@link Level} of a message
+     * @return A {@link Boolean}: Whether the message would be logged
+     */
+    @Override
+    public boolean isLoggable(Level level) {
+        Level own = ownLevel;
+        if (own == null) {
+            return super.isLoggable(level);
+        }
+        int value = own.intValue();
+        return level.intValue() >= value && value != OFF_VALUE;
+    }
+
+    /**
+     * Logs a {@link LogRecord}. If it is logged, the record is counted in the {@link LoggerMetrics} and, without a
+     * {@link Filter} and parent {@link Handler}s, passed straight to the {@link #directHandlers}, otherwise it takes
+     * the usual way through {@link Logger#log(LogRecord)}.
+     * @param record A {@link LogRecord}: The record to log
+     */
+    @Override
+    public void log(LogRecord record) {
+        if (!isLoggable(record.getLevel())) {
+            return;
+        }
+        METRICS.recordLogged(record.getLevel());
+        Handler[] handlers = directHandlers;
+        if (handlers == null) {
+            super.log(record);
+            return;
+        }
+        for (Handler handler : handlers) {
+            handler.publish(record);
+        }
+    }
+
+    /**
+     * Sets the {@link Level} of this logger and keeps it for {@link #isLoggable(Level)}.
+     * @param newLevel A {@link Level}: The new {@link Level}, or null to take the {@link Level} of the parent
+     */
+    @Override
+    public void setLevel(Level newLevel) {
+        super.setLevel(newLevel);
+        ownLevel = newLevel;
+    }
+
+    /**
+     * Adds a {@link Handler} and updates the {@link #directHandlers}.
+     * @param handler A {@link Handler}: The {@link Handler} to add
+     */
+    @Override
+    public synchronized void addHandler(Handler handler) {
+        super.addHandler(handler);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Removes a {@link Handler} and updates the {@link #directHandlers}.
+     * @param handler A {@link Handler}: The {@link Handler} to remove
+     */
+    @Override
+    public synchronized void removeHandler(Handler handler) {
+        super.removeHandler(handler);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Sets the {@link Filter} and updates the {@link #directHandlers}.
+     * @param newFilter A {@link Filter}: The new {@link Filter}, or null
+     */
+    @Override
+    public synchronized void setFilter(Filter newFilter) {
+        super.setFilter(newFilter);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Sets, whether the records are passed on to the parent {@link Handler}s, and updates the {@link #directHandlers}.
+     * @param useParentHandlers A {@link Boolean}: Whether the parent {@link Handler}s are used
+     */
+    @Override
+    public synchronized void setUseParentHandlers(boolean useParentHandlers) {
+        super.setUseParentHandlers(useParentHandlers);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Takes a snapshot of the {@link Handler}s, if the records can be passed to them directly.
+     */
+    private void updateDirectHandlers() {
+        directHandlers = getFilter() == null && !getUseParentHandlers() ? getHandlers() : null;
+    }
+
+    /**
+     * A replacement for the {@link ConsoleHandler}, writing to the standard error stream as well. <br>
+     * The {@link ConsoleHandler} writes while holding its monitor, which pins the carrier thread of a virtual thread
+     * for the whole write. This handler formats the record before taking any lock and then writes it under a
+     * {@link ReentrantLock}, which a virtual thread can wait for and hold without pinning its carrier.
+     */
+    public static class GodConsoleHandler extends Handler {
+
+        /**
+         * The {@link ReentrantLock} keeping the records written by different threads apart
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The {@link OutputStream} the records are written to
+         */
+        private final OutputStream out;
+
+        /**
+         * The {@link LoggerMetrics} the formatting and writing is counted in
+         */
+        private final LoggerMetrics metrics = LoggerMetrics.global();
+
+        /**
+         * Creates a {@link GodConsoleHandler} writing to {@link System#err}, logging {@link Level#ALL all} messages.
+         */
+        public GodConsoleHandler() {
+            this(System.err);
+        }
+
+        /**
+         * Creates a {@link GodConsoleHandler} writing to the passed {@link OutputStream}, logging {@link Level#ALL all}
+         * messages.
+         * @param out An {@link OutputStream}: The {@link OutputStream} the records are written to
+         */
+        public GodConsoleHandler(OutputStream out) {
+            if (out == null) {
+                throw new NullPointerException("out");
+            }
+            this.out = out;
+            setLevel(Level.ALL);
+        }
+
+        /**
+         * Formats the {@link LogRecord} and writes it to the console, emitting a {@link PublishEvent} while a flight
+         * recording has it enabled.
+         * @param logRecord A {@link LogRecord}: The record to be logged
+         */
+        @Override
+        public void publish(LogRecord logRecord) {
+            if (!isLoggable(logRecord)) {
+                return;
+            }
+            PublishEvent event = new PublishEvent();
+            event.begin();
+            byte[] bytes;
+            long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+            try {
+                bytes = getFormatter().format(logRecord).getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                metrics.recordDropped();
+                reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+                return;
+            }
+            long formatted = metrics.recordFormat(start);
+            lock.lock();
+            try {
+                out.write(bytes);
+                out.flush();
+                metrics.recordWrite(formatted, bytes.length);
+                if (event.shouldCommit()) {
+                    event.set(logRecord, this, bytes.length);
+                    event.commit();
+                }
+            } catch (IOException e) {
+                metrics.recordDropped();
+                reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Flushes the console.
+         */
+        @Override
+        public void flush() {
+            lock.lock();
+            try {
+                out.flush();
+            } catch (IOException e) {
+                reportError("Failed to flush", e, ErrorManager.FLUSH_FAILURE);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Flushes the console, but does not close it, just like {@link ConsoleHandler#close()} leaves
+         * {@link System#err} open.
+         */
+        @Override
+        public void close() {
+            flush();
+        }
     }
 
     /**
@@ -69,49 +452,95 @@ public class GodLogger extends Logger {
      * outputs for the different {@link Level}s.
      */
     public static class LogFormatter extends Formatter {
+
+        /**
+         * The global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own. The color
+         * setters replace it as a whole, so a changed color becomes visible to all threads at once.
+         */
+        private static final AtomicReference<Theme> GLOBAL_THEME = new AtomicReference<>(Theme.DEFAULT);
+
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
+         * The {@link TimestampCache} shared by all {@link LogFormatter}s that do not configure their own
          */
-        private static String severeColor = FormatColor.RED_BOLD_BRIGHT;
+        private static final TimestampCache DEFAULT_TIMESTAMPS = new TimestampCache();
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#WARNING WARNING}
+         * The {@link TimestampCache} rendering the date and time of the log messages
          */
-        private static String warningColor = FormatColor.YELLOW_BRIGHT;
+        private final TimestampCache timestamps;
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#INFO INFO}
+         * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
          */
-        private static String infoColor = FormatColor.GREEN_BACKGROUND;
+        private final boolean isDetailed;
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
+         * The {@link Theme} coloring the log messages, or null if the global colors are used
          */
-        private static String configColor = FormatColor.CYAN;
+        private final Theme theme;
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINE FINE}
+         * The Constructor: Renders the date and time of the log messages as <code>yyyy-MM-dd HH:mm:ss</code> in the
+         * system default time zone, without the method of origin
          */
-        private static String fineColor = FormatColor.BLUE;
+        public LogFormatter() {
+            this(false);
+        }
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINER FINER}
+         * The Constructor: Sets how the date and time of the log messages are rendered, e.g. with milliseconds or in
+         * another time zone
+         * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
          */
-        private static String finerColor = FormatColor.PURPLE;
+        public LogFormatter(TimestampCache timestamps) {
+            this(false, timestamps, null);
+        }
 
         /**
-         * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINEST FINEST}
+         * The Constructor: Sets, whether the created {@link Logger} is a detailed logger, meaning it will print its
+         * method of origin as well as its class
+         * @param isDetailedLogger Whether the Logger is detailed or not
          */
-        private static String finestColor = FormatColor.BLACK_BRIGHT;
+        public LogFormatter(boolean isDetailedLogger) {
+            this(isDetailedLogger, DEFAULT_TIMESTAMPS, null);
+        }
+
+        /**
+         * The Constructor: Sets, whether the created {@link Logger} is a detailed logger and the fixed {@link Theme}
+         * coloring the log messages
+         * @param isDetailedLogger Whether the Logger is detailed or not
+         * @param theme A {@link Theme}: The colors of the {@link Level}s, or null to use the global colors
+         */
+        public LogFormatter(boolean isDetailedLogger, Theme theme) {
+            this(isDetailedLogger, DEFAULT_TIMESTAMPS, theme);
+        }
+
+        /**
+         * The Constructor: Sets, whether the created {@link Logger} is a detailed logger, how the date and time of the
+         * log messages are rendered and the fixed {@link Theme} coloring them
+         * @param isDetailedLogger Whether the Logger is detailed or not
+         * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+         * @param theme A {@link Theme}: The colors of the {@link Level}s, or null to use the global colors
+         */
+        public LogFormatter(boolean isDetailedLogger, TimestampCache timestamps, Theme theme) {
+            if (timestamps == null) {
+                throw new NullPointerException("timestamps");
+            }
+            this.timestamps = timestamps;
+            isDetailed = isDetailedLogger;
+            this.theme = theme;
+        }
 
         /**
          * This method is called each time a {@link Logger} {@link Logger#log(Level, String) logs} anything into the
-         * console.
+         * console. Emits a {@link FormatEvent} while a flight recording has it enabled.
          * @param logRecord the log record to be formatted.
          * @return A {@link String}: The formatted log record
          */
         @Override
         public String format(LogRecord logRecord) {
+            FormatEvent event = new FormatEvent();
+            event.begin();
             StringBuilder builder = new StringBuilder();
 
             //sets the color depending on the level by calling getLevelColor()
@@ -119,7 +548,7 @@ public class GodLogger extends Logger {
 
             //add the date and time of the log message
             builder.append("[");
-            builder.append(calcDate(logRecord.getMillis()));
+            timestamps.formatTo(logRecord.getInstant(), builder);
             builder.append("]");
 
             //add the source class of the log message
@@ -158,157 +587,722 @@ public class GodLogger extends Logger {
             //resets the color and adds a line break
             builder.append(FormatColor.RESET);
             builder.append(System.lineSeparator());
+            if (event.shouldCommit()) {
+                event.set(logRecord, builder.length());
+                event.commit();
+            }
             return builder.toString();
         }
 
         /**
-         * Gets the time of the log message and formats it to show the date and time.
-         * @param milliSecs A {@link Long}: The time of the log message
-         * @return The time of the log message, converted to <code>yyyy-MM-dd HH:mm:ss</code>
+         * Gets the {@link TimestampCache} rendering the date and time of the log messages.
+         * @return A {@link TimestampCache}: The {@link #timestamps}
          */
-        private String calcDate(long milliSecs) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            Date resultDate = new Date(milliSecs);
-            return dateFormat.format(resultDate);
+        public TimestampCache getTimestamps() {
+            return timestamps;
         }
 
         /**
-         * Determines the color for the log message depending on the {@link Level}.
+         * Gets whether the log messages print their method of origin as well as their class.
+         * @return A {@link Boolean}: The {@link #isDetailed} flag
+         */
+        public boolean isDetailed() {
+            return isDetailed;
+        }
+
+        /**
+         * Gets the {@link Theme} coloring the log messages.
+         * @return A {@link Theme}: The {@link #theme}, or null if the global colors are used
+         */
+        public Theme getTheme() {
+            return theme;
+        }
+
+        /**
+         * Determines the color for the log message depending on the {@link Level}, using the {@link Theme} of this
+         * formatter or the global one.
          * @param level A {@link Level}: The {@link Level} of the log message
          * @return A {@link String}: The appropriate color for the log message
          */
         private String getLevelColor(Level level) {
-            String color;
-            switch (level.toString()) {
-                case "SEVERE" -> color = severeColor;
-                case "WARNING" -> color = warningColor;
-                case "INFO" -> color = infoColor;
-                case "CONFIG" -> color = configColor;
-                case "FINE" -> color = fineColor;
-                case "FINER" -> color = finerColor;
-                case "FINEST" -> color = finestColor;
-                default -> color = FormatColor.WHITE;
+            return (theme != null ? theme : GLOBAL_THEME.get()).colorOf(level);
+        }
+
+        /**
+         * Gets the global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own.
+         * @return A {@link Theme}: The global {@link Theme}
+         */
+        public static Theme getGlobalTheme() {
+            return GLOBAL_THEME.get();
+        }
+
+        /**
+         * Replaces the global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own.
+         * @param theme A {@link Theme}: The new global {@link Theme}
+         */
+        public static void setGlobalTheme(Theme theme) {
+            if (theme == null) {
+                throw new NullPointerException("theme");
             }
-            return color;
+            GLOBAL_THEME.set(theme);
         }
 
         /**
-         * Gets the {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
-         * @return A {@link String}: The {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
+         * Gets the color for the {@link Level} {@link Level#SEVERE SEVERE}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#SEVERE SEVERE}
          */
         public static String getSevereColor() {
-            return severeColor;
+            return GLOBAL_THEME.get().severeColor();
         }
 
         /**
-         * Sets the {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
-         * @param severeColor A {@link String}:    The {@link #severeColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#SEVERE SEVERE}
+         * @param severeColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#SEVERE SEVERE}
          */
         public static void setSevereColor(String severeColor) {
-            LogFormatter.severeColor = severeColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.SEVERE, severeColor));
         }
 
         /**
-         * Sets the {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
-         * @return A {@link String}: The {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
+         * Sets the color for the {@link Level} {@link Level#WARNING WARNING}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#WARNING WARNING}
          */
         public static String getWarningColor() {
-            return warningColor;
+            return GLOBAL_THEME.get().warningColor();
         }
 
         /**
-         * Sets the {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
-         * @param warningColor A {@link String}:    The {@link #warningColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#WARNING WARNING}
+         * @param warningColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#WARNING WARNING}
          */
         public static void setWarningColor(String warningColor) {
-            LogFormatter.warningColor = warningColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.WARNING, warningColor));
         }
 
         /**
-         * Gets the {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
-         * @return A {@link String}: The {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
+         * Gets the color for the {@link Level} {@link Level#INFO INFO}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#INFO INFO}
          */
         public static String getInfoColor() {
-            return infoColor;
+            return GLOBAL_THEME.get().infoColor();
         }
 
         /**
-         * Sets the {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
-         * @param infoColor A {@link String}:    The {@link #infoColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#INFO INFO}
+         * @param infoColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#INFO INFO}
          */
         public static void setInfoColor(String infoColor) {
-            LogFormatter.infoColor = infoColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.INFO, infoColor));
         }
 
         /**
-         * Gets the {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
-         * @return A {@link String}: The {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
+         * Gets the color for the {@link Level} {@link Level#CONFIG CONFIG}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#CONFIG CONFIG}
          */
         public static String getConfigColor() {
-            return configColor;
+            return GLOBAL_THEME.get().configColor();
         }
 
         /**
-         * Sets the {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
-         * @param configColor A {@link String}:    The {@link #configColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#CONFIG CONFIG}
+         * @param configColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#CONFIG CONFIG}
          */
         public static void setConfigColor(String configColor) {
-            LogFormatter.configColor = configColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.CONFIG, configColor));
         }
 
         /**
-         * Gets the {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
-         * @return A {@link String}: The {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
+         * Gets the color for the {@link Level} {@link Level#FINE FINE}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#FINE FINE}
          */
         public static String getFineColor() {
-            return fineColor;
+            return GLOBAL_THEME.get().fineColor();
         }
 
         /**
-         * Sets the {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
-         * @param fineColor A {@link String}:    The {@link #fineColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#FINE FINE}
+         * @param fineColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#FINE FINE}
          */
         public static void setFineColor(String fineColor) {
-            LogFormatter.fineColor = fineColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINE, fineColor));
         }
 
         /**
-         * Gets the {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
-         * @return A {@link String}: The {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
+         * Gets the color for the {@link Level} {@link Level#FINER FINER}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#FINER FINER}
          */
         public static String getFinerColor() {
-            return finerColor;
+            return GLOBAL_THEME.get().finerColor();
         }
 
         /**
-         * Sets the {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
-         * @param finerColor A {@link String}:    The {@link #finerColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#FINER FINER}
+         * @param finerColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#FINER FINER}
          */
         public static void setFinerColor(String finerColor) {
-            LogFormatter.finerColor = finerColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINER, finerColor));
         }
 
         /**
-         * Gets the {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
-         * @return A {@link String}: The {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
+         * Gets the color for the {@link Level} {@link Level#FINEST FINEST}
+         * @return A {@link String}: The color for the {@link Level} {@link Level#FINEST FINEST}
          */
         public static String getFinestColor() {
-            return finestColor;
+            return GLOBAL_THEME.get().finestColor();
         }
 
         /**
-         * Sets the {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
-         * @param finestColor A {@link String}:    The {@link #finestColor color} for the {@link Level}
+         * Sets the color for the {@link Level} {@link Level#FINEST FINEST}
+         * @param finestColor A {@link String}:    The color for the {@link Level}
          *                                          {@link Level#FINEST FINEST}
          */
         public static void setFinestColor(String finestColor) {
-            LogFormatter.finestColor = finestColor;
+            GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINEST, finestColor));
+        }
+
+        /**
+         * An immutable set of {@link FormatColor colors} for the {@link Level}s. The global colors of the
+         * {@link LogFormatter} are a {@link Theme} replaced as a whole whenever a color changes, so every thread sees
+         * all colors of one theme; a {@link LogFormatter} created with a theme of its own keeps it no matter what the
+         * global colors are changed to. <br>
+         * The colors of levels whose {@link Level#intValue() value} is a multiple of 100 between 0 and 1000, which
+         * includes all standard levels, are found by indexing an array with the value divided by 100, without
+         * comparing any names. Colors of other custom levels are kept in a small map.
+         * Levels without a color are {@link FormatColor#WHITE white}.
+         */
+        public static final class Theme {
+
+            /**
+             * The number of array slots: one per multiple of 100 from 0 to 1000
+             */
+            private static final int SLOTS = 11;
+
+            /**
+             * The color of levels without one
+             */
+            private static final String WHITE = FormatColor.WHITE;
+
+            /**
+             * The colors a {@link LogFormatter} starts with
+             */
+            public static final Theme DEFAULT = new Theme(FormatColor.RED_BOLD_BRIGHT, FormatColor.YELLOW_BRIGHT,
+                    FormatColor.GREEN_BACKGROUND, FormatColor.CYAN, FormatColor.BLUE, FormatColor.PURPLE,
+                    FormatColor.BLACK_BRIGHT);
+
+            /**
+             * The colors of the levels whose value is a multiple of 100, by the value divided by 100
+             */
+            private final String[] slots;
+
+            /**
+             * The colors of the other levels, by their value
+             */
+            private final Map<Integer, String> custom;
+
+            /**
+             * The Constructor: Sets the colors of the seven standard {@link Level}s
+             * @param severeColor A {@link String}: The color for the {@link Level} {@link Level#SEVERE SEVERE}
+             * @param warningColor A {@link String}: The color for the {@link Level} {@link Level#WARNING WARNING}
+             * @param infoColor A {@link String}: The color for the {@link Level} {@link Level#INFO INFO}
+             * @param configColor A {@link String}: The color for the {@link Level} {@link Level#CONFIG CONFIG}
+             * @param fineColor A {@link String}: The color for the {@link Level} {@link Level#FINE FINE}
+             * @param finerColor A {@link String}: The color for the {@link Level} {@link Level#FINER FINER}
+             * @param finestColor A {@link String}: The color for the {@link Level} {@link Level#FINEST FINEST}
+             */
+            public Theme(String severeColor, String warningColor, String infoColor, String configColor,
+                         String fineColor, String finerColor, String finestColor) {
+                this(new String[SLOTS], Map.of());
+                slots[slotOf(Level.SEVERE.intValue())] = Objects.requireNonNull(severeColor, "color");
+                slots[slotOf(Level.WARNING.intValue())] = Objects.requireNonNull(warningColor, "color");
+                slots[slotOf(Level.INFO.intValue())] = Objects.requireNonNull(infoColor, "color");
+                slots[slotOf(Level.CONFIG.intValue())] = Objects.requireNonNull(configColor, "color");
+                slots[slotOf(Level.FINE.intValue())] = Objects.requireNonNull(fineColor, "color");
+                slots[slotOf(Level.FINER.intValue())] = Objects.requireNonNull(finerColor, "color");
+                slots[slotOf(Level.FINEST.intValue())] = Objects.requireNonNull(finestColor, "color");
+            }
+
+            /**
+             * The Constructor: Stores the colors
+             * @param slots A {@link String} array: The colors of the levels whose value is a multiple of 100
+             * @param custom A {@link Map}: The colors of the other levels, sorted by value
+             */
+            private Theme(String[] slots, Map<Integer, String> custom) {
+                this.slots = slots;
+                this.custom = custom;
+            }
+
+            /**
+             * Gets the global colors of the {@link LogFormatter}.
+             * @return A {@link Theme}: The colors currently set on the {@link LogFormatter}
+             */
+            public static Theme current() {
+                return LogFormatter.getGlobalTheme();
+            }
+
+            /**
+             * Looks up a {@link FormatColor} constant by its name.
+             * @param name A {@link String}: The name of the constant, e.g. <code>RED_BOLD_BRIGHT</code>
+             * @return A {@link String}: The ANSI escape sequence
+             * @throws IllegalArgumentException if there is no such constant
+             */
+            public static String colorNamed(String name) {
+                if (name != null) {
+                    try {
+                        Field field = FormatColor.class.getField(name.trim());
+                        if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                            return (String) field.get(null);
+                        }
+                    } catch (NoSuchFieldException | IllegalAccessException e) {
+                        // reported below
+                    }
+                }
+                throw new IllegalArgumentException("Unknown color: " + name);
+            }
+
+            /**
+             * Determines the color for the log message depending on the {@link Level}.
+             * @param level A {@link Level}: The {@link Level} of the log message
+             * @return A {@link String}: The color of the {@link Level}, {@link FormatColor#WHITE} if it has none
+             */
+            public String colorOf(Level level) {
+                return colorOf(level.intValue());
+            }
+
+            /**
+             * Creates a copy of this theme with another color for one {@link Level}, which may be a custom
+             * {@link Level}.
+             * @param level A {@link Level}: The {@link Level}, except {@link Level#ALL} and {@link Level#OFF}
+             * @param color A {@link String}: The new color of the {@link Level}
+             * @return A {@link Theme}: The changed copy
+             * @throws IllegalArgumentException if the {@link Level} is {@link Level#ALL} or {@link Level#OFF}
+             */
+            public Theme withColor(Level level, String color) {
+                int value = level.intValue();
+                if (value == Level.ALL.intValue() || value == Level.OFF.intValue()) {
+                    throw new IllegalArgumentException("Cannot color the level " + level);
+                }
+                Objects.requireNonNull(color, "color");
+                int slot = slotOf(value);
+                if (slot >= 0) {
+                    String[] copy = slots.clone();
+                    copy[slot] = color;
+                    return new Theme(copy, custom);
+                }
+                Map<Integer, String> copy = new TreeMap<>(custom);
+                copy.put(value, color);
+                return new Theme(slots, Collections.unmodifiableMap(copy));
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#SEVERE SEVERE}.
+             * @return A {@link String}: The color
+             */
+            public String severeColor() {
+                return colorOf(Level.SEVERE);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#WARNING WARNING}.
+             * @return A {@link String}: The color
+             */
+            public String warningColor() {
+                return colorOf(Level.WARNING);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#INFO INFO}.
+             * @return A {@link String}: The color
+             */
+            public String infoColor() {
+                return colorOf(Level.INFO);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#CONFIG CONFIG}.
+             * @return A {@link String}: The color
+             */
+            public String configColor() {
+                return colorOf(Level.CONFIG);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#FINE FINE}.
+             * @return A {@link String}: The color
+             */
+            public String fineColor() {
+                return colorOf(Level.FINE);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#FINER FINER}.
+             * @return A {@link String}: The color
+             */
+            public String finerColor() {
+                return colorOf(Level.FINER);
+            }
+
+            /**
+             * Gets the color for the {@link Level} {@link Level#FINEST FINEST}.
+             * @return A {@link String}: The color
+             */
+            public String finestColor() {
+                return colorOf(Level.FINEST);
+            }
+
+            /**
+             * Compares the colors of two themes.
+             * @param o An {@link Object}: The other theme
+             * @return A {@link Boolean}: Whether both themes have the same colors for all levels
+             */
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Theme other && Arrays.equals(slots, other.slots) && custom.equals(other.custom);
+            }
+
+            /**
+             * Hashes the colors of this theme.
+             * @return An {@link Integer}: The hash code
+             */
+            @Override
+            public int hashCode() {
+                return 31 * Arrays.hashCode(slots) + custom.hashCode();
+            }
+
+            /**
+             * Describes the colors of this theme, by level value.
+             * @return A {@link String}: The colors
+             */
+            @Override
+            public String toString() {
+                StringBuilder builder = new StringBuilder("Theme[");
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    if (slots[slot] != null) {
+                        builder.append(slot * 100).append('=').append(slots[slot]).append(", ");
+                    }
+                }
+                for (Map.Entry<Integer, String> entry : custom.entrySet()) {
+                    builder.append(entry.getKey()).append('=').append(entry.getValue()).append(", ");
+                }
+                builder.setLength(builder.length() - 2);
+                return builder.append(']').toString();
+            }
+
+            /**
+             * Finds the color of a level value.
+             * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+             * @return A {@link String}: The color, {@link #WHITE} if the level has none
+             */
+            private String colorOf(int value) {
+                int slot = slotOf(value);
+                String color = slot >= 0 ? slots[slot] : custom.isEmpty() ? null : custom.get(value);
+                return color != null ? color : WHITE;
+            }
+
+            /**
+             * Gets the array slot of a level value.
+             * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+             * @return An {@link Integer}: The slot, or -1 if the value is not a multiple of 100 between 0 and 1000
+             */
+            private static int slotOf(int value) {
+                return value >= 0 && value <= 1000 && value % 100 == 0 ? value / 100 : -1;
+            }
+        }
+
+        /**
+         * Renders timestamps as <code>yyyy-MM-dd HH:mm:ss</code>, optionally followed by milliseconds or microseconds. <br>
+         * The rendered date and time is cached per second: Within the same minute only the two second digits are patched into
+         * the previous text, and only a new minute is rendered from scratch. The cache is an immutable snapshot published
+         * through a volatile field, so one instance can be shared by any number of formatters on any number of threads.
+         */
+        public static final class TimestampCache {
+
+            /**
+             * The precision of the fraction printed after the seconds
+             */
+            public enum Precision {
+                /**
+                 * Prints no fraction: <code>yyyy-MM-dd HH:mm:ss</code>
+                 */
+                SECONDS(0),
+                /**
+                 * Prints milliseconds: <code>yyyy-MM-dd HH:mm:ss.SSS</code>
+                 */
+                MILLISECONDS(3),
+                /**
+                 * Prints microseconds: <code>yyyy-MM-dd HH:mm:ss.SSSSSS</code>
+                 */
+                MICROSECONDS(6);
+
+                /**
+                 * The number of digits printed after the seconds
+                 */
+                private final int digits;
+
+                /**
+                 * The Constructor: Sets the number of digits printed after the seconds
+                 * @param digits An {@link Integer}: The number of fraction digits
+                 */
+                Precision(int digits) {
+                    this.digits = digits;
+                }
+
+                /**
+                 * Gets the number of digits printed after the seconds.
+                 * @return An {@link Integer}: The number of fraction digits
+                 */
+                public int getDigits() {
+                    return digits;
+                }
+            }
+
+            /**
+             * The length of <code>yyyy-MM-dd HH:mm:ss</code>
+             */
+            private static final int PREFIX_LENGTH = 19;
+
+            /**
+             * The powers of ten used to cut the nanoseconds down to the configured precision
+             */
+            private static final int[] POWERS_OF_TEN = {
+                    1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+            };
+
+            /**
+             * The {@link ZoneId time zone} the timestamps are rendered in
+             */
+            private final ZoneId zone;
+
+            /**
+             * The {@link ZoneRules} of the {@link #zone}
+             */
+            private final ZoneRules rules;
+
+            /**
+             * The {@link Precision} of the fraction printed after the seconds
+             */
+            private final Precision precision;
+
+            /**
+             * The last rendered second, replaced as a whole whenever a new second is rendered
+             */
+            private volatile Entry cache;
+
+            /**
+             * Creates a {@link TimestampCache} printing whole seconds in the system default time zone.
+             */
+            public TimestampCache() {
+                this(ZoneId.systemDefault(), Precision.SECONDS);
+            }
+
+            /**
+             * Creates a {@link TimestampCache} for the passed time zone and precision.
+             * @param zone A {@link ZoneId}: The time zone the timestamps are rendered in
+             * @param precision A {@link Precision}: The precision of the fraction printed after the seconds
+             */
+            public TimestampCache(ZoneId zone, Precision precision) {
+                if (zone == null || precision == null) {
+                    throw new NullPointerException(zone == null ? "zone" : "precision");
+                }
+                this.zone = zone;
+                this.rules = zone.getRules();
+                this.precision = precision;
+            }
+
+            /**
+             * Gets the time zone the timestamps are rendered in.
+             * @return A {@link ZoneId}: The time zone
+             */
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            /**
+             * Gets the precision of the fraction printed after the seconds.
+             * @return A {@link Precision}: The precision
+             */
+            public Precision getPrecision() {
+                return precision;
+            }
+
+            /**
+             * Renders the passed point in time.
+             * @param instant An {@link Instant}: The point in time to render
+             * @return A {@link String}: The rendered timestamp
+             */
+            public String format(Instant instant) {
+                StringBuilder builder = new StringBuilder(PREFIX_LENGTH + 1 + precision.digits);
+                formatTo(instant, builder);
+                return builder.toString();
+            }
+
+            /**
+             * Renders the passed milliseconds since the epoch.
+             * @param milliSecs A {@link Long}: The point in time to render
+             * @return A {@link String}: The rendered timestamp
+             */
+            public String format(long milliSecs) {
+                return format(Instant.ofEpochMilli(milliSecs));
+            }
+
+            /**
+             * Appends the rendered point in time to the passed {@link StringBuilder}, without creating any object as long as
+             * the second is already cached.
+             * @param instant An {@link Instant}: The point in time to render
+             * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+             */
+            public void formatTo(Instant instant, StringBuilder builder) {
+                builder.append(secondOf(instant.getEpochSecond()).text);
+                if (precision.digits > 0) {
+                    builder.append('.');
+                    int fraction = instant.getNano() / POWERS_OF_TEN[9 - precision.digits];
+                    for (int divisor = POWERS_OF_TEN[precision.digits - 1]; divisor > 0; divisor /= 10) {
+                        builder.append((char) ('0' + fraction / divisor % 10));
+                    }
+                }
+            }
+
+            /**
+             * Gets the cached {@link Entry} for the passed second, rendering it if it is not the cached one.
+             * @param epochSecond A {@link Long}: The seconds since the epoch
+             * @return An {@link Entry}: The rendered second
+             */
+            private Entry secondOf(long epochSecond) {
+                Entry entry = cache;
+                if (entry != null && entry.epochSecond == epochSecond) {
+                    return entry;
+                }
+                entry = render(entry, epochSecond);
+                cache = entry;
+                return entry;
+            }
+
+            /**
+             * Renders the passed second. If it lies in the same local minute as the previous {@link Entry} and no offset
+             * transition happened in between, only the second digits are patched into the previous text.
+             * @param previous An {@link Entry}: The previously cached second, may be null
+             * @param epochSecond A {@link Long}: The seconds since the epoch
+             * @return An {@link Entry}: The rendered second
+             */
+            private Entry render(Entry previous, long epochSecond) {
+                int offset;
+                long offsetValidFrom;
+                long offsetValidUntil;
+                if (previous != null && epochSecond >= previous.offsetValidFrom && epochSecond < previous.offsetValidUntil) {
+                    offset = previous.offset;
+                    offsetValidFrom = previous.offsetValidFrom;
+                    offsetValidUntil = previous.offsetValidUntil;
+                } else {
+                    Instant instant = Instant.ofEpochSecond(epochSecond);
+                    offset = rules.getOffset(instant).getTotalSeconds();
+                    ZoneOffsetTransition last = rules.previousTransition(instant.plusSeconds(1));
+                    ZoneOffsetTransition next = rules.nextTransition(instant);
+                    offsetValidFrom = last == null ? Long.MIN_VALUE : last.toEpochSecond();
+                    offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+                }
+
+                long localSecond = epochSecond + offset;
+                char[] text;
+                if (previous != null && previous.offset == offset
+                        && Math.floorDiv(previous.localSecond, 60) == Math.floorDiv(localSecond, 60)) {
+                    text = previous.chars.clone();
+                } else {
+                    LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+                    text = new char[PREFIX_LENGTH];
+                    writeDigits(text, 0, dateTime.getYear(), 4);
+                    text[4] = '-';
+                    writeDigits(text, 5, dateTime.getMonthValue(), 2);
+                    text[7] = '-';
+                    writeDigits(text, 8, dateTime.getDayOfMonth(), 2);
+                    text[10] = ' ';
+                    writeDigits(text, 11, dateTime.getHour(), 2);
+                    text[13] = ':';
+                    writeDigits(text, 14, dateTime.getMinute(), 2);
+                    text[16] = ':';
+                }
+                writeDigits(text, 17, Math.floorMod(localSecond, 60), 2);
+                return new Entry(epochSecond, localSecond, offset, offsetValidFrom, offsetValidUntil, text);
+            }
+
+            /**
+             * Writes a zero-padded number into the passed array.
+             * @param text A char array: The array to write into
+             * @param start An {@link Integer}: The index of the first digit
+             * @param value An {@link Integer}: The number to write
+             * @param width An {@link Integer}: The number of digits to write
+             */
+            private static void writeDigits(char[] text, int start, int value, int width) {
+                for (int i = start + width - 1; i >= start; i--) {
+                    text[i] = (char) ('0' + value % 10);
+                    value /= 10;
+                }
+            }
+
+            /**
+             * An immutable, rendered second together with the time zone offset it was rendered with.
+             */
+            private static final class Entry {
+
+                /**
+                 * The seconds since the epoch
+                 */
+                private final long epochSecond;
+
+                /**
+                 * The seconds since the epoch, shifted by the {@link #offset}
+                 */
+                private final long localSecond;
+
+                /**
+                 * The offset of the time zone in seconds
+                 */
+                private final int offset;
+
+                /**
+                 * The first epoch second the {@link #offset} is valid for
+                 */
+                private final long offsetValidFrom;
+
+                /**
+                 * The first epoch second the {@link #offset} is no longer valid for
+                 */
+                private final long offsetValidUntil;
+
+                /**
+                 * The rendered <code>yyyy-MM-dd HH:mm:ss</code>
+                 */
+                private final char[] chars;
+
+                /**
+                 * The {@link #chars} as a {@link String}, so appending them does not copy the array again
+                 */
+                private final String text;
+
+                /**
+                 * The Constructor: Stores the rendered second.
+                 * @param epochSecond A {@link Long}: The seconds since the epoch
+                 * @param localSecond A {@link Long}: The seconds since the epoch, shifted by the offset
+                 * @param offset An {@link Integer}: The offset of the time zone in seconds
+                 * @param offsetValidFrom A {@link Long}: The first epoch second the offset is valid for
+                 * @param offsetValidUntil A {@link Long}: The first epoch second the offset is no longer valid for
+                 * @param chars A char array: The rendered <code>yyyy-MM-dd HH:mm:ss</code>
+                 */
+                private Entry(long epochSecond, long localSecond, int offset, long offsetValidFrom, long offsetValidUntil,
+                              char[] chars) {
+                    this.epochSecond = epochSecond;
+                    this.localSecond = localSecond;
+                    this.offset = offset;
+                    this.offsetValidFrom = offsetValidFrom;
+                    this.offsetValidUntil = offsetValidUntil;
+                    this.chars = chars;
+                    this.text = new String(chars);
+                }
+            }
         }
 
         /**
@@ -0,0 +1,388 @@
+package de.custom.godlogger;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A facade over a {@link Logger} whose messages and parameters are only created once it is clear they are logged. <br>
+ * Every method first checks the {@link Logger#isLoggable(Level) level} of the {@link Logger}, which is a single
+ * volatile read on a {@link GodLogger} with a level of its own, and returns right away if the message is not logged: no
+ * message, parameter array or {@link java.util.logging.LogRecord LogRecord} is created and no {@link Supplier} is
+ * called. Suppliers that do not capture any local variable, like method references to constants, cost nothing at all;
+ * capturing lambdas are usually optimised away once the call is inlined. <br>
+ * Only when a message is logged, its source class and method are found with a {@link StackWalker} looking at no more
+ * than {@link #MAX_DEPTH} frames, skipping the frames of this facade.
+ */
+@SuppressWarnings("unused")
+public final class LazyLogger {
+
+    /**
+     * The number of frames looked at when finding the caller, which is far more than the frames of this facade
+     */
+    private static final int MAX_DEPTH = 8;
+
+    /**
+     * The {@link StackWalker} finding the caller, keeping the {@link Class} of each frame to skip this facade by type
+     */
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * The {@link Logger} the messages are logged with
+     */
+    private final Logger logger;
+
+    /**
+     * Creates a {@link LazyLogger} logging with the passed {@link Logger}.
+     * @param logger A {@link Logger}: The {@link Logger} the messages are logged with
+     */
+    public LazyLogger(Logger logger) {
+        if (logger == null) {
+            throw new NullPointerException("logger");
+        }
+        this.logger = logger;
+    }
+
+    /**
+     * Gets the {@link Logger} the messages are logged with.
+     * @return A {@link Logger}: The underlying {@link Logger}
+     */
+    public Logger getLogger() {
+        return logger;
+    }
+
+    /**
+     * Checks, whether a message of the passed {@link Level} would be logged.
+     * @param level A {@link Level}: The {@link Level} of a message
+     * @return A {@link Boolean}: Whether the message would be logged
+     */
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    /**
+     * Logs a lazily created message.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void log(Level level, Supplier<String> msgSupplier) {
+        if (logger.isLoggable(level)) {
+            logLazily(level, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a lazily created message with a {@link Throwable}.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param thrown A {@link Throwable}: The {@link Throwable} associated with the message
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void log(Level level, Throwable thrown, Supplier<String> msgSupplier) {
+        if (logger.isLoggable(level)) {
+            Optional<StackWalker.StackFrame> caller = findCaller();
+            if (caller.isPresent()) {
+                logger.logp(level, caller.get().getClassName(), caller.get().getMethodName(), msgSupplier.get(),
+                        thrown);
+            } else {
+                logger.log(level, msgSupplier.get(), thrown);
+            }
+        }
+    }
+
+    /**
+     * Logs a message with one lazily evaluated parameter.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void log(Level level, String msg, Supplier<?> param1) {
+        if (logger.isLoggable(level)) {
+            logLazily(level, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a message with two lazily evaluated parameters.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void log(Level level, String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(level)) {
+            logLazily(level, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a message with three lazily evaluated parameters.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     * @param param3 A {@link Supplier}: Creates the third parameter, only called if the message is logged
+     */
+    public void log(Level level, String msg, Supplier<?> param1, Supplier<?> param2, Supplier<?> param3) {
+        if (logger.isLoggable(level)) {
+            logLazily(level, msg, new Object[] {param1.get(), param2.get(), param3.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#SEVERE} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void severe(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.SEVERE)) {
+            logLazily(Level.SEVERE, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#SEVERE} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void severe(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.SEVERE)) {
+            logLazily(Level.SEVERE, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#SEVERE} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void severe(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.SEVERE)) {
+            logLazily(Level.SEVERE, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#WARNING} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void warning(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.WARNING)) {
+            logLazily(Level.WARNING, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#WARNING} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void warning(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.WARNING)) {
+            logLazily(Level.WARNING, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#WARNING} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void warning(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.WARNING)) {
+            logLazily(Level.WARNING, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#INFO} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void info(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.INFO)) {
+            logLazily(Level.INFO, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#INFO} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void info(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.INFO)) {
+            logLazily(Level.INFO, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#INFO} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void info(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.INFO)) {
+            logLazily(Level.INFO, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#CONFIG} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void config(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.CONFIG)) {
+            logLazily(Level.CONFIG, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#CONFIG} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void config(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.CONFIG)) {
+            logLazily(Level.CONFIG, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#CONFIG} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void config(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.CONFIG)) {
+            logLazily(Level.CONFIG, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#FINE} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void fine(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.FINE)) {
+            logLazily(Level.FINE, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINE} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void fine(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.FINE)) {
+            logLazily(Level.FINE, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINE} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void fine(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.FINE)) {
+            logLazily(Level.FINE, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#FINER} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void finer(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.FINER)) {
+            logLazily(Level.FINER, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINER} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void finer(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.FINER)) {
+            logLazily(Level.FINER, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINER} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void finer(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.FINER)) {
+            logLazily(Level.FINER, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a lazily created {@link Level#FINEST} message.
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    public void finest(Supplier<String> msgSupplier) {
+        if (logger.isLoggable(Level.FINEST)) {
+            logLazily(Level.FINEST, msgSupplier.get(), null);
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINEST} message with one lazily evaluated parameter.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the parameter, only called if the message is logged
+     */
+    public void finest(String msg, Supplier<?> param1) {
+        if (logger.isLoggable(Level.FINEST)) {
+            logLazily(Level.FINEST, msg, new Object[] {param1.get()});
+        }
+    }
+
+    /**
+     * Logs a {@link Level#FINEST} message with two lazily evaluated parameters.
+     * @param msg A {@link String}: The message
+     * @param param1 A {@link Supplier}: Creates the first parameter, only called if the message is logged
+     * @param param2 A {@link Supplier}: Creates the second parameter, only called if the message is logged
+     */
+    public void finest(String msg, Supplier<?> param1, Supplier<?> param2) {
+        if (logger.isLoggable(Level.FINEST)) {
+            logLazily(Level.FINEST, msg, new Object[] {param1.get(), param2.get()});
+        }
+    }
+
+    /**
+     * Logs a message that is known to be logged from the caller of this facade.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param params An {@link Object} array: The evaluated parameters of the message, or null if it has none
+     */
+    private void logLazily(Level level, String msg, Object[] params) {
+        Optional<StackWalker.StackFrame> caller = findCaller();
+        if (caller.isPresent()) {
+            logger.logp(level, caller.get().getClassName(), caller.get().getMethodName(), msg, params);
+        } else {
+            logger.log(level, msg, params);
+        }
+    }
+
+    /**
+     * Finds the first frame on the stack of the current thread outside this facade.
+     * @return An {@link Optional}: The frame of the caller, or empty if none was found within {@link #MAX_DEPTH} frames
+     */
+    private static Optional<StackWalker.StackFrame> findCaller() {
+        return WALKER.walk(frames -> frames
+                .limit(MAX_DEPTH)
+                .filter(frame -> frame.getDeclaringClass() != LazyLogger.class)
+                .findFirst());
+    }
+}
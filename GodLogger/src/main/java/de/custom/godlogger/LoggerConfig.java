@@ -0,0 +1,272 @@
+package de.custom.godlogger;
+
+import de.custom.godlogger.GodLogger.GodConsoleHandler;
+import de.custom.godlogger.GodLogger.LogFormatter;
+import de.custom.godlogger.GodLogger.LogFormatter.Theme;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Handler;
+
+/**
+ * The immutable configuration of a logger created through {@link GodLogger#newLogger(String, LoggerConfig)}: the
+ * detail of its messages, their {@link Theme}, and the {@link Sink}s they are written to. <br>
+ * Every {@link Handler} of the logger gets a {@link LogFormatter} of its own, built from this configuration, which
+ * keeps all of it in final fields. Nothing a configuration sets is shared with loggers of another configuration. A
+ * configuration built without a {@link Theme} takes the {@link Theme#current() global colors} of the moment it is
+ * built, so changing them later does not change it.
+ */
+@SuppressWarnings("unused")
+public final class LoggerConfig {
+
+    /**
+     * Plain messages on the console, in the {@link Theme#DEFAULT default colors}
+     */
+    public static final LoggerConfig DEFAULT = builder().theme(Theme.DEFAULT).build();
+
+    /**
+     * Detailed messages on the console, in the {@link Theme#DEFAULT default colors}
+     */
+    public static final LoggerConfig DETAILED = builder().detailed(true).theme(Theme.DEFAULT).build();
+
+    /**
+     * Whether the messages print their method of origin as well as their class
+     */
+    private final boolean detailed;
+
+    /**
+     * The {@link Theme} coloring the messages
+     */
+    private final Theme theme;
+
+    /**
+     * The {@link Sink}s the messages are written to
+     */
+    private final List<Sink> sinks;
+
+    /**
+     * The Constructor: Copies the settings of the {@link Builder}
+     * @param builder A {@link Builder}: The {@link Builder} holding the settings
+     */
+    private LoggerConfig(Builder builder) {
+        detailed = builder.detailed;
+        theme = builder.theme != null ? builder.theme : Theme.current();
+        sinks = builder.sinks.isEmpty() ? List.of(Sink.console()) : List.copyOf(builder.sinks);
+    }
+
+    /**
+     * Creates a {@link Builder} for plain messages on the console.
+     * @return A {@link Builder}: A new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a {@link Builder} starting with the settings of this configuration.
+     * @return A {@link Builder}: A new {@link Builder}
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.detailed = detailed;
+        builder.theme = theme;
+        builder.sinks.addAll(sinks);
+        return builder;
+    }
+
+    /**
+     * Creates a new {@link LogFormatter} with the detail and {@link #theme} of this configuration.
+     * @return A {@link LogFormatter}: The {@link LogFormatter} for one {@link Handler}
+     */
+    public LogFormatter newFormatter() {
+        return new LogFormatter(detailed, theme);
+    }
+
+    /**
+     * Gets whether the messages print their method of origin as well as their class.
+     * @return A {@link Boolean}: The {@link #detailed} flag
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+
+    /**
+     * Gets the {@link Theme} coloring the messages.
+     * @return A {@link Theme}: The {@link #theme}, the global colors at the time of building unless one was set
+     */
+    public Theme getTheme() {
+        return theme;
+    }
+
+    /**
+     * Gets the {@link Sink}s the messages are written to.
+     * @return A {@link List}: The unmodifiable {@link #sinks}
+     */
+    public List<Sink> getSinks() {
+        return sinks;
+    }
+
+    /**
+     * Gets the part of a {@link LoggerRegistry.HandlerSpec#key() handler key} telling apart {@link Handler}s that
+     * format differently, so loggers only share a {@link Handler} if it formats exactly like their own would.
+     * @return A {@link String}: The detail and theme of this configuration
+     */
+    String formatKey() {
+        return (detailed ? "detailed|" : "plain|") + theme;
+    }
+
+    /**
+     * Compares the settings of two configurations.
+     * @param o An {@link Object}: The other configuration
+     * @return A {@link Boolean}: Whether both configurations have the same settings
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LoggerConfig other && detailed == other.detailed && Objects.equals(theme, other.theme)
+                && sinks.equals(other.sinks);
+    }
+
+    /**
+     * Hashes the settings of this configuration.
+     * @return An {@link Integer}: The hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(detailed, theme, sinks);
+    }
+
+    /**
+     * Describes the settings of this configuration.
+     * @return A {@link String}: The settings
+     */
+    @Override
+    public String toString() {
+        return "LoggerConfig[detailed=" + detailed + ", theme=" + theme + ", sinks=" + sinks + "]";
+    }
+
+    /**
+     * Collects the settings of a {@link LoggerConfig}. A {@link Builder} is not thread-safe, the
+     * {@link LoggerConfig} it builds is.
+     */
+    public static final class Builder {
+
+        /**
+         * Whether the messages print their method of origin as well as their class
+         */
+        private boolean detailed;
+
+        /**
+         * The {@link Theme} coloring the messages, or null for the global colors at the time of building
+         */
+        private Theme theme;
+
+        /**
+         * The {@link Sink}s the messages are written to, the console if none are added
+         */
+        private final List<Sink> sinks = new ArrayList<>();
+
+        /**
+         * A private constructor, see {@link LoggerConfig#builder()}
+         */
+        private Builder() {}
+
+        /**
+         * Sets whether the messages print their method of origin as well as their class.
+         * @param detailed A {@link Boolean}: Whether the messages are detailed
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder detailed(boolean detailed) {
+            this.detailed = detailed;
+            return this;
+        }
+
+        /**
+         * Sets the fixed colors of the messages.
+         * @param theme A {@link Theme}: The colors of the {@link java.util.logging.Level Level}s, or null to use the
+         *              global colors of the {@link LogFormatter} as they are when {@link #build()} is called
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder theme(Theme theme) {
+            this.theme = theme;
+            return this;
+        }
+
+        /**
+         * Adds a {@link Sink} the messages are written to.
+         * @param sink A {@link Sink}: The {@link Sink} to add
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder sink(Sink sink) {
+            if (sink == null) {
+                throw new NullPointerException("sink");
+            }
+            sinks.add(sink);
+            return this;
+        }
+
+        /**
+         * Removes all {@link Sink}s added so far.
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder clearSinks() {
+            sinks.clear();
+            return this;
+        }
+
+        /**
+         * Builds the immutable {@link LoggerConfig}.
+         * @return A {@link LoggerConfig}: The configuration with the settings of this {@link Builder}
+         */
+        public LoggerConfig build() {
+            return new LoggerConfig(this);
+        }
+    }
+
+    /**
+     * A target the messages of a logger are written to. A file is written by a single {@link Handler}, so loggers
+     * sharing a file share the format of the logger that opened it first.
+     * @param file A {@link Path}: The absolute, normalised file of a {@link RollingFileHandler}, or null for the
+     *             console
+     */
+    public record Sink(Path file) {
+
+        /**
+         * The Constructor: Normalises the file
+         */
+        public Sink {
+            if (file != null) {
+                file = file.toAbsolutePath().normalize();
+            }
+        }
+
+        /**
+         * Creates the console target, written through a {@link GodConsoleHandler}.
+         * @return A {@link Sink}: The console
+         */
+        public static Sink console() {
+            return new Sink(null);
+        }
+
+        /**
+         * Creates a rolling file target, written through a {@link RollingFileHandler}.
+         * @param file A {@link Path}: The log file, which is numbered when rolling over
+         * @return A {@link Sink}: The rolling files
+         */
+        public static Sink rollingFile(Path file) {
+            if (file == null) {
+                throw new NullPointerException("file");
+            }
+            return new Sink(file);
+        }
+
+        /**
+         * Gets whether this is the console target.
+         * @return A {@link Boolean}: Whether there is no {@link #file}
+         */
+        public boolean isConsole() {
+            return file == null;
+        }
+    }
+}
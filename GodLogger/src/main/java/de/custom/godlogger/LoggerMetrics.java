@@ -0,0 +1,405 @@
+package de.custom.godlogger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * The counters of the loggers and their {@link java.util.logging.Handler Handler}s: records per level, bytes written,
+ * records dropped, and how long formatting and writing take. <br>
+ * All counters are {@link LongAdder}s and the durations go into {@link LatencyHistogram}s, so counting takes no lock
+ * and allocates nothing, and threads logging at the same time do not contend on a shared counter. Reading the clock
+ * costs more than counting, so only every {@value #SAMPLE_INTERVAL}th record, picked by its sequence number, and every
+ * {@value #SAMPLE_INTERVAL}th write of a handler are timed; the counters themselves are exact. The counters of the
+ * standard levels, and of all levels whose value is a multiple of 100, are found by indexing an array. <br>
+ * The counters are read through {@link #snapshot()} or over JMX as {@value #OBJECT_NAME}, which
+ * {@link GodLogger} registers when it creates its first logger. Setting the system property
+ * {@value #ENABLED_PROPERTY} to <code>false</code> turns all counting off.
+ */
+@SuppressWarnings("unused")
+public final class LoggerMetrics implements LoggerMetricsMXBean {
+
+    /**
+     * The name the {@link LoggerMetrics} are registered under with the platform {@link MBeanServer}
+     */
+    public static final String OBJECT_NAME = "de.custom.godlogger:type=LoggerMetrics";
+
+    /**
+     * The system property turning the counting off when set to <code>false</code>
+     */
+    public static final String ENABLED_PROPERTY = "de.custom.godlogger.metrics";
+
+    /**
+     * One in how many records and writes is timed, a power of two
+     */
+    public static final int SAMPLE_INTERVAL = 16;
+
+    /**
+     * Whether anything is counted
+     */
+    private static final boolean ENABLED = !"false".equals(System.getProperty(ENABLED_PROPERTY));
+
+    /**
+     * The number of array slots: one per multiple of 100 from 0 to 1000
+     */
+    private static final int SLOTS = 11;
+
+    /**
+     * The standard {@link Level}s, which name the counters of their values
+     */
+    private static final Level[] STANDARD_LEVELS = {Level.FINEST, Level.FINER, Level.FINE, Level.CONFIG, Level.INFO,
+            Level.WARNING, Level.SEVERE};
+
+    /**
+     * The metrics shared by all loggers and handlers
+     */
+    private static final LoggerMetrics GLOBAL = new LoggerMetrics();
+
+    /**
+     * Whether the {@link #GLOBAL} metrics were registered with the platform {@link MBeanServer}
+     */
+    private static volatile boolean registered;
+
+    /**
+     * The record counters of the levels whose value is a multiple of 100, by the value divided by 100
+     */
+    private final LongAdder[] slots = new LongAdder[SLOTS];
+
+    /**
+     * The record counters of the other levels
+     */
+    private final Map<Level, LongAdder> custom = new ConcurrentHashMap<>();
+
+    /**
+     * The number of bytes written
+     */
+    private final LongAdder bytesWritten = new LongAdder();
+
+    /**
+     * The number of records dropped
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The time to format and encode a record
+     */
+    private final LatencyHistogram formatLatency = new LatencyHistogram();
+
+    /**
+     * The time of a write to the console or a file
+     */
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+
+    /**
+     * A private constructor, see {@link #global()}
+     */
+    private LoggerMetrics() {
+        for (int i = 0; i < SLOTS; i++) {
+            slots[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Gets the metrics shared by all loggers and handlers.
+     * @return A {@link LoggerMetrics}: The global metrics
+     */
+    public static LoggerMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Registers the {@link #global() global} metrics with the platform {@link MBeanServer} as {@value #OBJECT_NAME}.
+     * Calling this method again has no further effect.
+     * @return A {@link Boolean}: Whether the metrics are registered, false if JMX refused them
+     */
+    public static boolean registerMBean() {
+        if (registered) {
+            return true;
+        }
+        synchronized (LoggerMetrics.class) {
+            if (!registered) {
+                try {
+                    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                    ObjectName name = new ObjectName(OBJECT_NAME);
+                    if (!server.isRegistered(name)) {
+                        server.registerMBean(GLOBAL, name);
+                    }
+                    registered = true;
+                } catch (JMException | SecurityException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads the clock if a duration is to be timed.
+     * @param sample A {@link Long}: The sequence number of the record, or the number of writes of the handler
+     * @return A {@link Long}: {@link System#nanoTime()} for every {@value #SAMPLE_INTERVAL}th sample, 0 otherwise or
+     *         while counting is turned off
+     */
+    static long startTimer(long sample) {
+        return ENABLED && (sample & (SAMPLE_INTERVAL - 1)) == 0 ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Counts a record passed to the handlers.
+     * @param level A {@link Level}: The {@link Level} of the record
+     */
+    void recordLogged(Level level) {
+        if (ENABLED) {
+            int slot = slotOf(level.intValue());
+            (slot >= 0 ? slots[slot] : custom.computeIfAbsent(level, key -> new LongAdder())).increment();
+        }
+    }
+
+    /**
+     * Records the time taken to format and encode a record, if it was timed.
+     * @param start A {@link Long}: The time formatting started, from {@link #startTimer(long)}
+     * @return A {@link Long}: The time formatting ended, or 0 if the record is not timed
+     */
+    long recordFormat(long start) {
+        if (start == 0) {
+            return 0;
+        }
+        long end = System.nanoTime();
+        formatLatency.record(end - start);
+        return end;
+    }
+
+    /**
+     * Records a write to the console or a file, and its duration if it was timed.
+     * @param start A {@link Long}: The time the write started, from {@link #startTimer(long)}, or 0
+     * @param bytes An {@link Integer}: The number of bytes written
+     */
+    void recordWrite(long start, int bytes) {
+        if (ENABLED) {
+            if (start != 0) {
+                writeLatency.record(System.nanoTime() - start);
+            }
+            bytesWritten.add(bytes);
+        }
+    }
+
+    /**
+     * Counts a record that was lost.
+     */
+    void recordDropped() {
+        if (ENABLED) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Gets the array slot of a level value.
+     * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+     * @return An {@link Integer}: The slot, or -1 if the value is not a multiple of 100 between 0 and 1000
+     */
+    private static int slotOf(int value) {
+        return value >= 0 && value <= 1000 && value % 100 == 0 ? value / 100 : -1;
+    }
+
+    /**
+     * Names a level value by the standard {@link Level} with that value.
+     * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+     * @return A {@link String}: The name of the standard {@link Level}, or the value if there is none
+     */
+    private static String nameOf(int value) {
+        for (Level level : STANDARD_LEVELS) {
+            if (level.intValue() == value) {
+                return level.getName();
+            }
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Takes a copy of all counters. The counters are read one after another while records may still be logged.
+     * @return A {@link Snapshot}: The current values
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(getRecordsPerLevel(), bytesWritten.sum(), dropped.sum(), formatLatency.snapshot(),
+                writeLatency.snapshot());
+    }
+
+    /**
+     * Gets the number of records passed to the handlers.
+     * @return A {@link Long}: The number of records of all levels
+     */
+    @Override
+    public long getRecordCount() {
+        long count = 0;
+        for (LongAdder slot : slots) {
+            count += slot.sum();
+        }
+        for (LongAdder counter : custom.values()) {
+            count += counter.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of records passed to the handlers, by level. Levels that have not been logged are left out.
+     * @return A {@link Map}: The number of records by the name of their level, ordered by level value
+     */
+    @Override
+    public Map<String, Long> getRecordsPerLevel() {
+        Map<Integer, Map.Entry<String, Long>> byValue = new TreeMap<>();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            long count = slots[slot].sum();
+            if (count > 0) {
+                int value = slot * 100;
+                byValue.put(value, Map.entry(nameOf(value), count));
+            }
+        }
+        for (Map.Entry<Level, LongAdder> entry : custom.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                byValue.put(entry.getKey().intValue(), Map.entry(entry.getKey().getName(), count));
+            }
+        }
+        Map<String, Long> byName = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : byValue.values()) {
+            byName.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Gets the number of bytes written to the console and files.
+     * @return A {@link Long}: The number of bytes
+     */
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    /**
+     * Gets the number of records lost because they could not be formatted or written.
+     * @return A {@link Long}: The number of dropped records
+     */
+    @Override
+    public long getDroppedRecords() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the average time to format and encode a record.
+     * @return A {@link Double}: The mean duration in nanoseconds
+     */
+    @Override
+    public double getFormatLatencyMeanNanos() {
+        return formatLatency.snapshot().meanNanos();
+    }
+
+    /**
+     * Gets the 99th percentile of the time to format and encode a record.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    @Override
+    public long getFormatLatencyP99Nanos() {
+        return formatLatency.snapshot().percentileNanos(99);
+    }
+
+    /**
+     * Gets the longest time to format and encode a record.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    @Override
+    public long getFormatLatencyMaxNanos() {
+        return formatLatency.snapshot().maxNanos();
+    }
+
+    /**
+     * Gets the counts of the format latency histogram.
+     * @return A {@link Long} array: The counts, indexed like the buckets of the {@link LatencyHistogram}
+     */
+    @Override
+    public long[] getFormatLatencyHistogram() {
+        return formatLatency.snapshot().counts();
+    }
+
+    /**
+     * Gets the average time of a write to the console or a file.
+     * @return A {@link Double}: The mean duration in nanoseconds
+     */
+    @Override
+    public double getWriteLatencyMeanNanos() {
+        return writeLatency.snapshot().meanNanos();
+    }
+
+    /**
+     * Gets the 99th percentile of the time of a write to the console or a file.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    @Override
+    public long getWriteLatencyP99Nanos() {
+        return writeLatency.snapshot().percentileNanos(99);
+    }
+
+    /**
+     * Gets the longest write to the console or a file.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    @Override
+    public long getWriteLatencyMaxNanos() {
+        return writeLatency.snapshot().maxNanos();
+    }
+
+    /**
+     * Gets the counts of the write latency histogram.
+     * @return A {@link Long} array: The counts, indexed like the buckets of the {@link LatencyHistogram}
+     */
+    @Override
+    public long[] getWriteLatencyHistogram() {
+        return writeLatency.snapshot().counts();
+    }
+
+    /**
+     * Sets all counters and histograms back to zero.
+     */
+    @Override
+    public void reset() {
+        for (LongAdder slot : slots) {
+            slot.reset();
+        }
+        custom.clear();
+        bytesWritten.reset();
+        dropped.reset();
+        formatLatency.reset();
+        writeLatency.reset();
+    }
+
+    /**
+     * A copy of the {@link LoggerMetrics} at one point in time.
+     * @param recordsPerLevel A {@link Map}: The number of records by the name of their level, ordered by level value
+     * @param bytesWritten A {@link Long}: The number of bytes written to the console and files
+     * @param droppedRecords A {@link Long}: The number of records lost
+     * @param formatLatency A {@link LatencyHistogram.Snapshot}: The time to format and encode a record
+     * @param writeLatency A {@link LatencyHistogram.Snapshot}: The time of a write to the console or a file
+     */
+    public record Snapshot(Map<String, Long> recordsPerLevel, long bytesWritten, long droppedRecords,
+                           LatencyHistogram.Snapshot formatLatency, LatencyHistogram.Snapshot writeLatency) {
+
+        /**
+         * Gets the number of records of all levels.
+         * @return A {@link Long}: The sum of the {@link #recordsPerLevel}
+         */
+        public long recordCount() {
+            long count = 0;
+            for (long records : recordsPerLevel.values()) {
+                count += records;
+            }
+            return count;
+        }
+    }
+}
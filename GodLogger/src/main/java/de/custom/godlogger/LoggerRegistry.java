@@ -0,0 +1,258 @@
+package de.custom.godlogger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of the {@link Logger}s configured by the {@link GodLogger} factories and the {@link Handler}s they
+ * share, so asking for the same logger twice does not add a second {@link Handler} and every line is still written
+ * once. <br>
+ * A logger is configured with a list of {@link HandlerSpec}s. Asking again for a logger with the same specifications
+ * returns it as it is, without taking any lock. Asking for it with different specifications replaces its
+ * {@link Handler}s, as a {@link Logger} of a given name exists only once: the new {@link Handler}s are added before
+ * the old ones are removed, so records logged meanwhile reach at least one of them and none are lost. Loggers with
+ * equal specifications share the same {@link Handler} instances, which are counted and closed once no logger uses
+ * them any more.
+ */
+@SuppressWarnings("unused")
+public final class LoggerRegistry {
+
+    /**
+     * The configured loggers by name
+     */
+    private static final Map<String, Registration> LOGGERS = new ConcurrentHashMap<>();
+
+    /**
+     * The shared {@link Handler}s by the key of their {@link HandlerSpec}
+     */
+    private static final Map<String, SharedHandler> HANDLERS = new ConcurrentHashMap<>();
+
+    /**
+     * The lock serialising changes to the registry, which only happen when loggers are created or released
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * A private constructor to hide the implicitly public one
+     */
+    private LoggerRegistry() {}
+
+    /**
+     * Gets the configured {@link Logger} with the passed name, configuring it with the {@link Handler}s of the passed
+     * specifications first, unless it already is. A logger configured before keeps the {@link Handler}s both
+     * configurations share and gets the new ones before it loses the others. The {@link Logger} logs
+     * {@link Level#ALL all} messages and does not use the {@link Handler}s of its parent.
+     * @param name A {@link String}: The name of the logger
+     * @param factory A {@link Function}: Gets or creates the {@link Logger} of a name
+     * @param specs A {@link List}: The specifications of the {@link Handler}s of the logger
+     * @return A {@link Logger}: The configured {@link Logger}
+     * @throws IOException if a {@link Handler} cannot be created
+     */
+    public static Logger configure(String name, Function<String, Logger> factory, List<HandlerSpec> specs)
+            throws IOException {
+        List<String> keys = keysOf(specs);
+        Registration registration = LOGGERS.get(name);
+        if (registration != null && registration.keys().equals(keys)) {
+            return registration.logger();
+        }
+        synchronized (LOCK) {
+            registration = LOGGERS.get(name);
+            if (registration != null && registration.keys().equals(keys)) {
+                return registration.logger();
+            }
+            List<Handler> handlers = new ArrayList<>(specs.size());
+            try {
+                for (HandlerSpec spec : specs) {
+                    handlers.add(acquire(spec));
+                }
+            } catch (IOException | RuntimeException e) {
+                for (int i = 0; i < handlers.size(); i++) {
+                    giveBack(keys.get(i));
+                }
+                throw e;
+            }
+            Logger logger = registration != null ? registration.logger() : factory.apply(name);
+            List<Handler> previous = registration != null ? registration.handlers() : List.of();
+            for (Handler handler : handlers) {
+                if (!previous.contains(handler)) {
+                    logger.addHandler(handler);
+                }
+            }
+            if (registration != null) {
+                for (Handler handler : previous) {
+                    if (!handlers.contains(handler)) {
+                        logger.removeHandler(handler);
+                    }
+                }
+                for (String key : registration.keys()) {
+                    giveBack(key);
+                }
+            }
+            logger.setLevel(Level.ALL);
+            logger.setUseParentHandlers(false);
+            LOGGERS.put(name, new Registration(logger, keys, handlers));
+            return logger;
+        }
+    }
+
+    /**
+     * Removes the {@link Handler}s the registry added to the {@link Logger} with the passed name and forgets the
+     * logger. {@link Handler}s no other logger uses are closed.
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Boolean}: Whether the logger was registered
+     */
+    public static boolean release(String name) {
+        synchronized (LOCK) {
+            Registration registration = LOGGERS.remove(name);
+            if (registration == null) {
+                return false;
+            }
+            detach(registration);
+            return true;
+        }
+    }
+
+    /**
+     * Gets the number of loggers in the registry.
+     * @return An {@link Integer}: The number of configured loggers
+     */
+    public static int getLoggerCount() {
+        return LOGGERS.size();
+    }
+
+    /**
+     * Gets the number of {@link Handler}s shared by the loggers in the registry.
+     * @return An {@link Integer}: The number of open {@link Handler}s
+     */
+    public static int getHandlerCount() {
+        return HANDLERS.size();
+    }
+
+    /**
+     * Gets the number of loggers using the {@link Handler} of a specification.
+     * @param key A {@link String}: The {@link HandlerSpec#key() key} of the specification
+     * @return An {@link Integer}: The number of loggers using the {@link Handler}, 0 if there is none
+     */
+    public static int getHandlerUsers(String key) {
+        SharedHandler shared = HANDLERS.get(key);
+        return shared == null ? 0 : shared.users;
+    }
+
+    /**
+     * Gets the shared {@link Handler} of a specification, creating it if no logger uses it yet. Called while holding
+     * the {@link #LOCK}.
+     * @param spec A {@link HandlerSpec}: The specification of the {@link Handler}
+     * @return A {@link Handler}: The shared {@link Handler}
+     * @throws IOException if the {@link Handler} cannot be created
+     */
+    private static Handler acquire(HandlerSpec spec) throws IOException {
+        SharedHandler shared = HANDLERS.get(spec.key());
+        if (shared == null) {
+            shared = new SharedHandler(spec.factory().create());
+            HANDLERS.put(spec.key(), shared);
+        }
+        shared.users++;
+        return shared.handler;
+    }
+
+    /**
+     * Gives back a shared {@link Handler}, closing it if no logger uses it any more. Called while holding the
+     * {@link #LOCK}.
+     * @param key A {@link String}: The {@link HandlerSpec#key() key} of the specification
+     */
+    private static void giveBack(String key) {
+        SharedHandler shared = HANDLERS.get(key);
+        if (shared != null && --shared.users == 0) {
+            HANDLERS.remove(key);
+            shared.handler.close();
+        }
+    }
+
+    /**
+     * Removes the {@link Handler}s of a registration from its logger and gives them back. Called while holding the
+     * {@link #LOCK}.
+     * @param registration A {@link Registration}: The registration of the logger
+     */
+    private static void detach(Registration registration) {
+        for (Handler handler : registration.handlers()) {
+            registration.logger().removeHandler(handler);
+        }
+        for (String key : registration.keys()) {
+            giveBack(key);
+        }
+    }
+
+    /**
+     * Collects the keys of the specifications.
+     * @param specs A {@link List}: The specifications of the {@link Handler}s
+     * @return A {@link List}: The keys, in the same order
+     */
+    private static List<String> keysOf(List<HandlerSpec> specs) {
+        List<String> keys = new ArrayList<>(specs.size());
+        for (HandlerSpec spec : specs) {
+            keys.add(spec.key());
+        }
+        return keys;
+    }
+
+    /**
+     * Creates a {@link Handler}.
+     */
+    @FunctionalInterface
+    public interface HandlerFactory {
+
+        /**
+         * Creates a new {@link Handler}.
+         * @return A {@link Handler}: The new {@link Handler}
+         * @throws IOException if the {@link Handler} cannot be created
+         */
+        Handler create() throws IOException;
+    }
+
+    /**
+     * Describes a {@link Handler} of a logger. All specifications with the same key share one {@link Handler}, so the
+     * key has to tell apart everything that makes two {@link Handler}s different, e.g. the target file.
+     * @param key A {@link String}: The key identifying the {@link Handler}
+     * @param factory A {@link HandlerFactory}: Creates the {@link Handler} if no logger uses it yet
+     */
+    public record HandlerSpec(String key, HandlerFactory factory) {}
+
+    /**
+     * A configured logger.
+     * @param logger A {@link Logger}: The configured {@link Logger}
+     * @param keys A {@link List}: The keys of the specifications it was configured with
+     * @param handlers A {@link List}: The {@link Handler}s the registry added to it
+     */
+    private record Registration(Logger logger, List<String> keys, List<Handler> handlers) {}
+
+    /**
+     * A {@link Handler} shared by several loggers, with the number of loggers using it.
+     */
+    private static final class SharedHandler {
+
+        /**
+         * The shared {@link Handler}
+         */
+        private final Handler handler;
+
+        /**
+         * The number of loggers using the {@link #handler}, only changed while holding the {@link #LOCK}
+         */
+        private volatile int users;
+
+        /**
+         * Creates a {@link SharedHandler} no logger uses yet.
+         * @param handler A {@link Handler}: The shared {@link Handler}
+         */
+        private SharedHandler(Handler handler) {
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.custom.godlogger;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * A JDK Flight Recorder event for a {@link LogRecord} published to a {@link Handler} of this package, its duration
+ * being the time the logging thread spent in {@link Handler#publish(LogRecord)}: formatting, encoding and writing the
+ * record. <br>
+ * The event is disabled unless a recording turns it on, e.g. with the settings file <code>jfr/custom-logger.jfc</code>.
+ * While it is disabled, creating and committing it costs next to nothing and none of its fields are filled in.
+ */
+@Name(PublishEvent.NAME)
+@Label("Log Publish")
+@Description("A log record published to a handler")
+@Category({"Logging", "GodLogger"})
+@Enabled(false)
+@StackTrace(false)
+@SuppressWarnings("unused")
+public class PublishEvent extends Event {
+
+    /**
+     * The name of the event in a recording
+     */
+    public static final String NAME = "de.custom.godlogger.Publish";
+
+    /**
+     * The name of the logger of the record
+     */
+    @Label("Logger")
+    String loggerName;
+
+    /**
+     * The name of the level of the record
+     */
+    @Label("Level")
+    String level;
+
+    /**
+     * The class of the {@link Handler} the record was published to
+     */
+    @Label("Handler")
+    Class<?> handler;
+
+    /**
+     * The number of bytes the record was encoded into
+     */
+    @Label("Bytes")
+    @DataAmount(DataAmount.BYTES)
+    long bytes;
+
+    /**
+     * Fills in the fields of the event.
+     * @param logRecord A {@link LogRecord}: The published record
+     * @param handler A {@link Handler}: The {@link Handler} the record was published to
+     * @param bytes An {@link Integer}: The number of bytes the record was encoded into
+     */
+    void set(LogRecord logRecord, Handler handler, int bytes) {
+        this.loggerName = logRecord.getLoggerName();
+        this.level = logRecord.getLevel().getName();
+        this.handler = handler.getClass();
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,606 @@
+package de.custom.godlogger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A {@link Handler} writing the formatted records to a series of numbered files, rolling over to the next file when
+ * the current one reaches a maximum size or age. <br>
+ * For a log file <code>logs/app.log</code> the records are written to <code>logs/app.1.log</code>,
+ * <code>logs/app.2.log</code> and so on. The next file is always opened ahead of time on a background thread, so
+ * rolling over only swaps the file the records go to. The same background thread then closes the previous file,
+ * compresses it to <code>app.N.log.gz</code> and deletes the oldest compressed files once there are more than
+ * {@link #getMaxFiles() maxFiles} of them or they take up more than {@link #getMaxTotalSize() maxTotalSize} bytes.
+ * Neither rolling over nor compressing ever blocks a thread that logs. <br>
+ * The duration of each roll over and each compression is kept in {@link #getLastRotationNanos()} and
+ * {@link #getLastCompressionNanos()} and reported at {@link Level#FINE} through the logger of this class.
+ */
+@SuppressWarnings("unused")
+public class RollingFileHandler extends Handler {
+
+    /**
+     * The default maximum size of a single file: 10 MiB
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+
+    /**
+     * The default maximum age of a single file: one day
+     */
+    public static final Duration DEFAULT_ROLL_INTERVAL = Duration.ofDays(1);
+
+    /**
+     * The default number of compressed files kept
+     */
+    public static final int DEFAULT_MAX_FILES = 10;
+
+    /**
+     * The default total size of the compressed files kept: 100 MiB
+     */
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 100L * 1024 * 1024;
+
+    /**
+     * The suffix of the compressed files
+     */
+    private static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * The {@link Logger} the durations of roll overs and compressions are reported through
+     */
+    private static final Logger REPORT = Logger.getLogger(RollingFileHandler.class.getName());
+
+    /**
+     * The {@link ReentrantLock} guarding the current file, used instead of a monitor so a virtual thread writing a
+     * record does not pin its carrier thread
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The {@link LoggerMetrics} the formatting and writing is counted in
+     */
+    private final LoggerMetrics metrics = LoggerMetrics.global();
+
+    /**
+     * The directory of the log files
+     */
+    private final Path directory;
+
+    /**
+     * The name of the log file without its extension, e.g. <code>app</code>
+     */
+    private final String stem;
+
+    /**
+     * The extension of the log file including the dot, e.g. <code>.log</code>, or an empty {@link String}
+     */
+    private final String extension;
+
+    /**
+     * Matches the names of the numbered files, capturing the number and the optional {@link #GZIP_SUFFIX}
+     */
+    private final Pattern fileNames;
+
+    /**
+     * The maximum size of a single file in bytes
+     */
+    private final long maxFileSize;
+
+    /**
+     * The maximum age of a single file in milliseconds, or {@link Long#MAX_VALUE} to roll over by size only
+     */
+    private final long rollIntervalMillis;
+
+    /**
+     * The number of compressed files kept
+     */
+    private final int maxFiles;
+
+    /**
+     * The total size of the compressed files kept in bytes
+     */
+    private final long maxTotalSize;
+
+    /**
+     * The background thread opening, closing and compressing the files
+     */
+    private final ExecutorService worker;
+
+    /**
+     * The file currently written to
+     */
+    private LogFile current;
+
+    /**
+     * The next file, opened ahead of time on the {@link #worker}
+     */
+    private CompletableFuture<LogFile> next;
+
+    /**
+     * The number of the last file opened
+     */
+    private long sequence;
+
+    /**
+     * Whether the handler was {@link #close() closed}
+     */
+    private boolean closed;
+
+    /**
+     * The number of roll overs
+     */
+    private final AtomicLong rotations = new AtomicLong();
+
+    /**
+     * The duration of the last roll over in nanoseconds
+     */
+    private volatile long lastRotationNanos;
+
+    /**
+     * The number of compressed files
+     */
+    private final AtomicLong compressions = new AtomicLong();
+
+    /**
+     * The duration of the last compression in nanoseconds
+     */
+    private volatile long lastCompressionNanos;
+
+    /**
+     * Creates a {@link RollingFileHandler} with the default limits: 10 MiB or one day per file, and at most 10
+     * compressed files taking up 100 MiB.
+     * @param file A {@link Path}: The log file, e.g. <code>logs/app.log</code>, which is numbered when rolling over
+     * @throws IOException if the first file cannot be opened
+     */
+    public RollingFileHandler(Path file) throws IOException {
+        this(file, DEFAULT_MAX_FILE_SIZE, DEFAULT_ROLL_INTERVAL, DEFAULT_MAX_FILES, DEFAULT_MAX_TOTAL_SIZE);
+    }
+
+    /**
+     * Creates a {@link RollingFileHandler}, logging {@link Level#ALL all} messages with a
+     * {@link GodLogger.LogFormatter}.
+     * @param file A {@link Path}: The log file, e.g. <code>logs/app.log</code>, which is numbered when rolling over
+     * @param maxFileSize A {@link Long}: The maximum size of a single file in bytes
+     * @param rollInterval A {@link Duration}: The maximum age of a single file, or null to roll over by size only
+     * @param maxFiles An {@link Integer}: The number of compressed files kept
+     * @param maxTotalSize A {@link Long}: The total size of the compressed files kept in bytes
+     * @throws IOException if the first file cannot be opened
+     */
+    public RollingFileHandler(Path file, long maxFileSize, Duration rollInterval, int maxFiles, long maxTotalSize)
+            throws IOException {
+        if (maxFileSize < 1 || maxFiles < 0 || maxTotalSize < 0) {
+            throw new IllegalArgumentException("Limits must not be negative and the file size must be positive");
+        }
+        Path absolute = file.toAbsolutePath();
+        String name = absolute.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        this.directory = absolute.getParent();
+        this.stem = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        this.fileNames = Pattern.compile(Pattern.quote(stem) + "\\.(\\d+)" + Pattern.quote(extension)
+                + "(" + Pattern.quote(GZIP_SUFFIX) + ")?");
+        this.maxFileSize = maxFileSize;
+        this.rollIntervalMillis = rollInterval == null ? Long.MAX_VALUE : Math.max(1, rollInterval.toMillis());
+        this.maxFiles = maxFiles;
+        this.maxTotalSize = maxTotalSize;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RollingFileHandler-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Files.createDirectories(directory);
+        List<Path> leftovers = new ArrayList<>();
+        for (Path rolled : rolledFiles()) {
+            sequence = Math.max(sequence, sequenceOf(rolled));
+            if (!rolled.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+                leftovers.add(rolled);
+            }
+        }
+        try {
+            current = open(++sequence);
+        } catch (IOException e) {
+            worker.shutdownNow();
+            throw e;
+        }
+        for (Path leftover : leftovers) {
+            worker.execute(() -> compress(leftover));
+        }
+        openNext();
+        setLevel(Level.ALL);
+        setFormatter(new GodLogger.LogFormatter());
+    }
+
+    /**
+     * Formats the {@link LogRecord} and writes it to the current file, rolling over first if the file is full or too
+     * old and the next file is already open. Emits a {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record to be logged
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (!isLoggable(logRecord)) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        byte[] bytes;
+        long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+        try {
+            bytes = getFormatter().format(logRecord).getBytes(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            metrics.recordDropped();
+            reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        int length = bytes.length;
+        long formatted = metrics.recordFormat(start);
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+
+            if (current.size > 0 && (current.size + length > maxFileSize
+                    || logRecord.getMillis() - current.openedAt >= rollIntervalMillis)) {
+                rollOver(logRecord.getMillis());
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                current.channel.write(buffer);
+            }
+            current.size += length;
+            metrics.recordWrite(formatted, length);
+            if (event.shouldCommit()) {
+                event.set(logRecord, this, length);
+                event.commit();
+            }
+        } catch (IOException e) {
+            metrics.recordDropped();
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Swaps the current file for the one opened ahead of time and hands the previous file to the {@link #worker} for
+     * compression. If the next file is not open yet, the current one is kept a little longer instead of waiting.
+     * @param now A {@link Long}: The time of the record that triggered the roll over, in milliseconds since the epoch
+     */
+    private void rollOver(long now) {
+        if (!next.isDone()) {
+            return;
+        }
+        long start = System.nanoTime();
+        LogFile opened = next.exceptionally(e -> null).join();
+        if (opened == null) {
+            reportError("Failed to open the next log file", null, ErrorManager.OPEN_FAILURE);
+            openNext();
+            return;
+        }
+        opened.openedAt = now;
+        LogFile previous = current;
+        current = opened;
+        openNext();
+
+        long duration = System.nanoTime() - start;
+        lastRotationNanos = duration;
+        rotations.incrementAndGet();
+        worker.execute(() -> {
+            REPORT.log(Level.FINE, "Rolled over from {0} to {1} in {2} ns",
+                    new Object[] {previous.path.getFileName(), opened.path.getFileName(), duration});
+            retire(previous);
+        });
+    }
+
+    /**
+     * Starts opening the next file on the {@link #worker}.
+     */
+    private void openNext() {
+        long nextSequence = ++sequence;
+        next = CompletableFuture.supplyAsync(() -> {
+            try {
+                return open(nextSequence);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, worker);
+    }
+
+    /**
+     * Opens a numbered file for appending.
+     * @param fileSequence A {@link Long}: The number of the file
+     * @return A {@link LogFile}: The opened file
+     * @throws IOException if the file cannot be opened
+     */
+    private LogFile open(long fileSequence) throws IOException {
+        Path path = directory.resolve(stem + "." + fileSequence + extension);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new LogFile(path, channel, channel.size(), System.currentTimeMillis());
+    }
+
+    /**
+     * Closes a file that was rolled over, compresses it and applies the retention limits. Runs on the
+     * {@link #worker}.
+     * @param logFile A {@link LogFile}: The file that was rolled over
+     */
+    private void retire(LogFile logFile) {
+        try {
+            logFile.channel.close();
+        } catch (IOException e) {
+            reportError("Failed to close " + logFile.path, e, ErrorManager.CLOSE_FAILURE);
+        }
+        compress(logFile.path);
+    }
+
+    /**
+     * Compresses a closed file with GZIP, deletes the uncompressed file and applies the retention limits. Runs on the
+     * {@link #worker}.
+     * @param path A {@link Path}: The file to compress
+     */
+    private void compress(Path path) {
+        long start = System.nanoTime();
+        Path target = path.resolveSibling(path.getFileName() + GZIP_SUFFIX);
+        try (InputStream in = Files.newInputStream(path);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024) {
+                 {
+                     def.setLevel(Deflater.BEST_SPEED);
+                 }
+             }) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            reportError("Failed to compress " + path, e, ErrorManager.GENERIC_FAILURE);
+            return;
+        }
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            reportError("Failed to delete " + path, e, ErrorManager.GENERIC_FAILURE);
+        }
+        long duration = System.nanoTime() - start;
+        lastCompressionNanos = duration;
+        compressions.incrementAndGet();
+        REPORT.log(Level.FINE, "Compressed {0} in {1} ns", new Object[] {target.getFileName(), duration});
+        applyRetention();
+    }
+
+    /**
+     * Deletes the oldest compressed files until at most {@link #maxFiles} files taking up at most
+     * {@link #maxTotalSize} bytes are left. Runs on the {@link #worker}.
+     */
+    private void applyRetention() {
+        List<Path> compressed = new ArrayList<>();
+        for (Path rolled : rolledFiles()) {
+            if (rolled.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+                compressed.add(rolled);
+            }
+        }
+        compressed.sort(Comparator.comparingLong(this::sequenceOf).reversed());
+        long totalSize = 0;
+        for (int i = 0; i < compressed.size(); i++) {
+            Path path = compressed.get(i);
+            try {
+                totalSize += Files.size(path);
+                if (i >= maxFiles || totalSize > maxTotalSize) {
+                    Files.delete(path);
+                }
+            } catch (IOException e) {
+                reportError("Failed to delete " + path, e, ErrorManager.GENERIC_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * Lists the numbered files in the {@link #directory}, compressed or not.
+     * @return A {@link List}: The numbered files
+     */
+    private List<Path> rolledFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> fileNames.matcher(path.getFileName().toString()).matches()).toList();
+        } catch (IOException e) {
+            reportError("Failed to list " + directory, e, ErrorManager.GENERIC_FAILURE);
+            return List.of();
+        }
+    }
+
+    /**
+     * Gets the number of a numbered file.
+     * @param path A {@link Path}: The numbered file
+     * @return A {@link Long}: The number of the file
+     */
+    private long sequenceOf(Path path) {
+        Matcher matcher = fileNames.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    /**
+     * Gets the file currently written to.
+     * @return A {@link Path}: The current file
+     */
+    public Path getCurrentFile() {
+        lock.lock();
+        try {
+            return current.path;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of compressed files kept.
+     * @return An {@link Integer}: The maximum number of compressed files
+     */
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    /**
+     * Gets the total size of the compressed files kept.
+     * @return A {@link Long}: The maximum total size in bytes
+     */
+    public long getMaxTotalSize() {
+        return maxTotalSize;
+    }
+
+    /**
+     * Gets the number of roll overs so far.
+     * @return A {@link Long}: The number of roll overs
+     */
+    public long getRotations() {
+        return rotations.get();
+    }
+
+    /**
+     * Gets the duration of the last roll over, as seen by the thread that logged.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    public long getLastRotationNanos() {
+        return lastRotationNanos;
+    }
+
+    /**
+     * Gets the number of files compressed so far.
+     * @return A {@link Long}: The number of compressed files
+     */
+    public long getCompressions() {
+        return compressions.get();
+    }
+
+    /**
+     * Gets the duration of the last compression on the background thread.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    public long getLastCompressionNanos() {
+        return lastCompressionNanos;
+    }
+
+    /**
+     * Forces the current file to be written to the storage device.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (!closed) {
+                current.channel.force(false);
+            }
+        } catch (IOException e) {
+            reportError("Failed to flush", e, ErrorManager.FLUSH_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the current file, deletes the file opened ahead of time and waits for the pending compressions. The
+     * current file is left uncompressed, or deleted if it is empty; it is compressed when the next
+     * {@link RollingFileHandler} for the same log file starts. Calling this method more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        CompletableFuture<LogFile> pending;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                current.channel.close();
+                if (current.size == 0) {
+                    Files.deleteIfExists(current.path);
+                }
+            } catch (IOException e) {
+                reportError("Failed to close " + current.path, e, ErrorManager.CLOSE_FAILURE);
+            }
+            pending = next;
+        } finally {
+            lock.unlock();
+        }
+        worker.execute(() -> {
+            LogFile opened = pending.exceptionally(e -> null).join();
+            if (opened != null) {
+                try {
+                    opened.channel.close();
+                    Files.deleteIfExists(opened.path);
+                } catch (IOException e) {
+                    reportError("Failed to delete " + opened.path, e, ErrorManager.CLOSE_FAILURE);
+                }
+            }
+        });
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(1, TimeUnit.MINUTES)) {
+                reportError("Timed out waiting for the compression of log files", null, ErrorManager.CLOSE_FAILURE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * An open, numbered log file.
+     */
+    private static final class LogFile {
+
+        /**
+         * The path of the file
+         */
+        private final Path path;
+
+        /**
+         * The {@link FileChannel} writing to the file
+         */
+        private final FileChannel channel;
+
+        /**
+         * The time the file was opened at, or became the current file at, in milliseconds since the epoch
+         */
+        private long openedAt;
+
+        /**
+         * The number of bytes in the file
+         */
+        private long size;
+
+        /**
+         * The Constructor: Stores the opened file
+         * @param path A {@link Path}: The path of the file
+         * @param channel A {@link FileChannel}: The {@link FileChannel} writing to the file
+         * @param size A {@link Long}: The number of bytes already in the file
+         * @param openedAt A {@link Long}: The time the file was opened at, in milliseconds since the epoch
+         */
+        private LogFile(Path path, FileChannel channel, long size, long openedAt) {
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.openedAt = openedAt;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package de.custom.logger;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -45,18 +43,42 @@ public class LogFormatter extends Formatter {
      */
     private static String finestColor = FormatColor.BLACK_BRIGHT;
 
+    /**
+     * The {@link TimestampCache} shared by all {@link LogFormatter}s that do not configure their own
+     */
+    private static final TimestampCache DEFAULT_TIMESTAMPS = new TimestampCache();
+
     /**
      * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
      */
     private final boolean isDetailed;
 
+    /**
+     * The {@link TimestampCache} rendering the date and time of the log messages
+     */
+    private final TimestampCache timestamps;
+
     /**
      * The Constructor: Sets, whether the created {@link Logger Logger} is a detailed logger, meaning
      * it will print its method of origin as well as its class
      * @param isDetailedLogger Whether the Logger is detailed or not
      */
     public LogFormatter(boolean isDetailedLogger) {
+        this(isDetailedLogger, DEFAULT_TIMESTAMPS);
+    }
+
+    /**
+     * The Constructor: Sets, whether the created {@link Logger Logger} is a detailed logger and how the date and time
+     * of the log messages are rendered, e.g. with milliseconds or in another time zone
+     * @param isDetailedLogger Whether the Logger is detailed or not
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     */
+    public LogFormatter(boolean isDetailedLogger, TimestampCache timestamps) {
+        if (timestamps == null) {
+            throw new NullPointerException("timestamps");
+        }
         isDetailed = isDetailedLogger;
+        this.timestamps = timestamps;
     }
 
     /**
@@ -73,7 +95,7 @@ public class LogFormatter extends Formatter {
         builder.append(getLevelColor(logRecord.getLevel()));
 
         builder.append("[");
-        builder.append(calcDate(logRecord.getMillis()));
+        timestamps.formatTo(logRecord.getInstant(), builder);
         builder.append("]");
 
         builder.append(" [");
@@ -109,14 +131,11 @@ public class LogFormatter extends Formatter {
     }
 
     /**
-     * Gets the time of the log message and formats it to show the date and time.
-     * @param milliSecs A {@link Long}: The time of the log message
-     * @return The time of the log message, converted to <code>yyyy-MM-dd HH:mm:ss</code>
+     * Gets the {@link TimestampCache} rendering the date and time of the log messages.
+     * @return A {@link TimestampCache}: The {@link #timestamps}
      */
-    private static String calcDate(long milliSecs) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        Date resultDate = new Date(milliSecs);
-        return dateFormat.format(resultDate);
+    public TimestampCache getTimestamps() {
+        return timestamps;
     }
 
     /**
@@ -0,0 +1,80 @@
+package de.custom.benchmarks;
+
+import de.custom.logger.LogFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+/**
+ * Measures the throughput of {@link LogFormatter#format(LogRecord)} of the Logger module. Run with
+ * <code>-prof gc</code> for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+    /**
+     * The kind of the formatted {@link LogRecord}
+     */
+    @Param({"plain", "detailed", "parameterised"})
+    public String kind;
+
+    /**
+     * The {@link System#err} before the benchmark
+     */
+    private PrintStream console;
+
+    /**
+     * The formatted {@link LogRecord}
+     */
+    private LogRecord logRecord;
+
+    /**
+     * The {@link LogFormatter} of the Logger module
+     */
+    private LogFormatter formatter;
+
+    /**
+     * Creates the record and the formatter.
+     */
+    @Setup
+    public void setUp() {
+        console = Records.redirectConsole();
+        logRecord = Records.create(kind);
+        formatter = new LogFormatter("detailed".equals(kind));
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown
+    public void tearDown() {
+        System.setErr(console);
+    }
+
+    /**
+     * Formats the record with the {@link LogFormatter} of the Logger module.
+     * @return A {@link String}: The formatted record
+     */
+    @Benchmark
+    public String format() {
+        return formatter.format(logRecord);
+    }
+}
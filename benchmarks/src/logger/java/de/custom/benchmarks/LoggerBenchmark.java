@@ -0,0 +1,94 @@
+package de.custom.benchmarks;
+
+import de.custom.logger.ColorLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures the end-to-end cost of {@link Logger#log(Level, String)} through the logger of
+ * {@link ColorLogger#newLogger(String)} of the Logger module with 1, 4 and 16 threads. The console output goes to a
+ * null sink, so the terminal does not dominate the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark {
+
+    /**
+     * The logged message
+     */
+    private static final String MESSAGE = "Processed request for order 4711 in 12 ms";
+
+    /**
+     * The {@link System#err} before the benchmark
+     */
+    private PrintStream console;
+
+    /**
+     * The {@link Logger} of {@link ColorLogger#newLogger(String)}
+     */
+    private Logger colorLogger;
+
+    /**
+     * Redirects the console into the null sink, before the handler captures {@link System#err}, and creates the
+     * logger.
+     */
+    @Setup
+    public void setUp() {
+        console = Records.redirectConsole();
+        colorLogger = ColorLogger.newLogger("de.custom.benchmarks.LoggerBenchmark.color");
+    }
+
+    /**
+     * Restores the console.
+     */
+    @TearDown
+    public void tearDown() {
+        System.setErr(console);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public void colorLogger1Thread() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with 4 threads.
+     */
+    @Benchmark
+    @Threads(4)
+    public void colorLogger4Threads() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with 16 threads.
+     */
+    @Benchmark
+    @Threads(16)
+    public void colorLogger16Threads() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+}
@@ -0,0 +1,47 @@
+package de.custom.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * The {@link LogRecord}s and the console sink shared by the benchmarks.
+ */
+final class Records {
+
+    /**
+     * A private constructor to hide the implicitly public one
+     */
+    private Records() {}
+
+    /**
+     * Creates a {@link LogRecord} of the passed kind, with its source already set, so formatting it never walks the
+     * stack.
+     * @param kind A {@link String}: <code>plain</code>, <code>detailed</code> or <code>parameterised</code>
+     * @return A {@link LogRecord}: The record to be formatted
+     */
+    static LogRecord create(String kind) {
+        LogRecord logRecord = new LogRecord(Level.INFO, "Processed request for order 4711 in 12 ms");
+        logRecord.setLoggerName("de.custom.benchmarks");
+        logRecord.setSourceClassName("de.custom.benchmarks.OrderService");
+        logRecord.setSourceMethodName("processOrder");
+        if ("parameterised".equals(kind)) {
+            logRecord.setParameters(new Object[] {"order", 4711, 12.5, Boolean.TRUE});
+        } else if (!"plain".equals(kind) && !"detailed".equals(kind)) {
+            throw new IllegalArgumentException("Unknown record kind: " + kind);
+        }
+        return logRecord;
+    }
+
+    /**
+     * Replaces {@link System#err}, which every console handler writes to, with a stream discarding everything, so the
+     * benchmarks measure the logging and not the terminal.
+     * @return A {@link PrintStream}: The previous {@link System#err}, to be restored afterwards
+     */
+    static PrintStream redirectConsole() {
+        PrintStream previous = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        return previous;
+    }
+}
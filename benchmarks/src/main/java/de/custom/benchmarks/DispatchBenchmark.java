@@ -0,0 +1,183 @@
+package de.custom.benchmarks;
+
+import de.custom.godlogger.GodLogger;
+import de.custom.logger.ColorLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Measures the cost of the dispatch alone: a stock {@link Logger} against the loggers of
+ * {@link ColorLogger#newLogger(String)} and {@link GodLogger#newLogger(String)}, all logging at {@link Level#INFO} to a
+ * {@link Handler} that only counts the records. The <code>enabled</code> benchmarks pass a prepared {@link LogRecord}
+ * to the {@link Handler}, the <code>disabled</code> ones log a {@link Level#FINE} message that is filtered out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+
+    /**
+     * The logged message
+     */
+    private static final String MESSAGE = "Processed request for order 4711 in 12 ms";
+
+    /**
+     * The prepared {@link Level#INFO} record
+     */
+    private LogRecord logRecord;
+
+    /**
+     * The {@link Handler} counting the records, shared by all loggers
+     */
+    private CountingHandler handler;
+
+    /**
+     * A stock {@link Logger}
+     */
+    private Logger stockLogger;
+
+    /**
+     * The {@link Logger} of {@link ColorLogger#newLogger(String)}
+     */
+    private Logger colorLogger;
+
+    /**
+     * The {@link Logger} of {@link GodLogger#newLogger(String)}
+     */
+    private Logger godLogger;
+
+    /**
+     * Creates the loggers and replaces their console {@link Handler}s with the {@link CountingHandler}.
+     */
+    @Setup
+    public void setUp() {
+        logRecord = Records.create("plain");
+        handler = new CountingHandler();
+        stockLogger = configure(Logger.getAnonymousLogger());
+        colorLogger = configure(ColorLogger.newLogger("de.custom.benchmarks.DispatchBenchmark.color"));
+        godLogger = configure(GodLogger.newLogger("de.custom.benchmarks.DispatchBenchmark.god"));
+    }
+
+    /**
+     * Replaces the {@link Handler}s of the {@link Logger} with the {@link #handler} and sets its {@link Level} to
+     * {@link Level#INFO}.
+     * @param logger A {@link Logger}: The {@link Logger} to configure
+     * @return A {@link Logger}: The configured {@link Logger}
+     */
+    private Logger configure(Logger logger) {
+        for (Handler existing : logger.getHandlers()) {
+            logger.removeHandler(existing);
+        }
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+        logger.setLevel(Level.INFO);
+        return logger;
+    }
+
+    /**
+     * Passes the prepared record through the stock {@link Logger}.
+     * @return A {@link Long}: The number of records counted so far
+     */
+    @Benchmark
+    public long stockEnabled() {
+        stockLogger.log(logRecord);
+        return handler.count;
+    }
+
+    /**
+     * Passes the prepared record through the {@link ColorLogger}.
+     * @return A {@link Long}: The number of records counted so far
+     */
+    @Benchmark
+    public long colorEnabled() {
+        colorLogger.log(logRecord);
+        return handler.count;
+    }
+
+    /**
+     * Passes the prepared record through the {@link GodLogger}.
+     * @return A {@link Long}: The number of records counted so far
+     */
+    @Benchmark
+    public long godEnabled() {
+        godLogger.log(logRecord);
+        return handler.count;
+    }
+
+    /**
+     * Logs a filtered message through the stock {@link Logger}.
+     */
+    @Benchmark
+    public void stockDisabled() {
+        stockLogger.log(Level.FINE, MESSAGE);
+    }
+
+    /**
+     * Logs a filtered message through the {@link ColorLogger}.
+     */
+    @Benchmark
+    public void colorDisabled() {
+        colorLogger.log(Level.FINE, MESSAGE);
+    }
+
+    /**
+     * Logs a filtered message through the {@link GodLogger}.
+     */
+    @Benchmark
+    public void godDisabled() {
+        godLogger.log(Level.FINE, MESSAGE);
+    }
+
+    /**
+     * A {@link Handler} counting the records it gets, without formatting them.
+     */
+    private static final class CountingHandler extends Handler {
+
+        /**
+         * The number of records published so far
+         */
+        private long count;
+
+        /**
+         * Counts the record.
+         * @param logRecord A {@link LogRecord}: The record to be logged
+         */
+        @Override
+        public void publish(LogRecord logRecord) {
+            count++;
+        }
+
+        /**
+         * Does nothing, there is nothing to flush.
+         */
+        @Override
+        public void flush() {
+            // nothing is buffered
+        }
+
+        /**
+         * Does nothing, there is nothing to close.
+         */
+        @Override
+        public void close() {
+            // nothing is open
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.custom.benchmarks;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.godlogger.GodLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogRecord;
+
+/**
+ * Measures the throughput of {@link LogFormatter#format(LogRecord)} of the root project and of
+ * {@link GodLogger.LogFormatter#format(LogRecord)}. Run with <code>-prof gc</code> for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+    /**
+     * The kind of the formatted {@link LogRecord}
+     */
+    @Param({"plain", "detailed", "parameterised"})
+    public String kind;
+
+    /**
+     * The formatted {@link LogRecord}
+     */
+    private LogRecord logRecord;
+
+    /**
+     * The {@link LogFormatter} of the root project
+     */
+    private LogFormatter rootFormatter;
+
+    /**
+     * The {@link GodLogger.LogFormatter}
+     */
+    private GodLogger.LogFormatter godFormatter;
+
+    /**
+     * Creates the record and the formatters.
+     */
+    @Setup
+    public void setUp() {
+        logRecord = Records.create(kind);
+        boolean detailed = "detailed".equals(kind);
+        rootFormatter = new LogFormatter(detailed);
+        godFormatter = new GodLogger.LogFormatter(detailed);
+    }
+
+    /**
+     * Formats the record with the {@link LogFormatter} of the root project.
+     * @return A {@link String}: The formatted record
+     */
+    @Benchmark
+    public String rootFormat() {
+        return rootFormatter.format(logRecord);
+    }
+
+    /**
+     * Formats the record with the {@link GodLogger.LogFormatter}.
+     * @return A {@link String}: The formatted record
+     */
+    @Benchmark
+    public String godFormat() {
+        return godFormatter.format(logRecord);
+    }
+}
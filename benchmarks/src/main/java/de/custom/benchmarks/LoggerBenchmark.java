@@ -0,0 +1,163 @@
+package de.custom.benchmarks;
+
+import de.custom.godlogger.GodLogger;
+import de.custom.logger.ColorConsoleHandler;
+import de.custom.logger.ColorLogger;
+import de.custom.logger.PerThreadBufferHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures the end-to-end cost of {@link Logger#log(Level, String)} through the loggers of
+ * {@link ColorLogger#newLogger(String)}, {@link ColorLogger#newPerThreadLogger(String)} and
+ * {@link GodLogger#newLogger(String)} with 1, 4 and 16 threads. The console
+ * output goes to a null sink, so the terminal does not dominate the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerBenchmark {
+
+    /**
+     * The logged message
+     */
+    private static final String MESSAGE = "Processed request for order 4711 in 12 ms";
+
+    /**
+     * The {@link Logger} of {@link ColorLogger#newLogger(String)}
+     */
+    private Logger colorLogger;
+
+    /**
+     * The {@link Logger} of {@link ColorLogger#newPerThreadLogger(String)}
+     */
+    private Logger perThreadLogger;
+
+    /**
+     * The {@link Logger} of {@link GodLogger#newLogger(String)}
+     */
+    private Logger godLogger;
+
+    /**
+     * Creates the loggers and gives each a console {@link java.util.logging.Handler Handler} of its kind writing to the
+     * null sink.
+     */
+    @Setup
+    public void setUp() {
+        OutputStream sink = OutputStream.nullOutputStream();
+        colorLogger = Records.writeTo(ColorLogger.newLogger("de.custom.benchmarks.LoggerBenchmark.color"),
+                new ColorConsoleHandler(sink));
+        perThreadLogger = Records.writeTo(
+                ColorLogger.newPerThreadLogger("de.custom.benchmarks.LoggerBenchmark.perThread"),
+                new PerThreadBufferHandler(sink, PerThreadBufferHandler.DEFAULT_CAPACITY));
+        godLogger = Records.writeTo(GodLogger.newLogger("de.custom.benchmarks.LoggerBenchmark.god"),
+                new GodLogger.GodConsoleHandler(sink));
+    }
+
+    /**
+     * Closes the {@link java.util.logging.Handler Handler}s writing to the null sink.
+     */
+    @TearDown
+    public void tearDown() {
+        Records.close(colorLogger, perThreadLogger, godLogger);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public void colorLogger1Thread() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with 4 threads.
+     */
+    @Benchmark
+    @Threads(4)
+    public void colorLogger4Threads() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with 16 threads.
+     */
+    @Benchmark
+    @Threads(16)
+    public void colorLogger16Threads() {
+        colorLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with per-thread buffers with a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public void perThreadLogger1Thread() {
+        perThreadLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with per-thread buffers with 4 threads.
+     */
+    @Benchmark
+    @Threads(4)
+    public void perThreadLogger4Threads() {
+        perThreadLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link ColorLogger} with per-thread buffers with 16 threads.
+     */
+    @Benchmark
+    @Threads(16)
+    public void perThreadLogger16Threads() {
+        perThreadLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link GodLogger} with a single thread.
+     */
+    @Benchmark
+    @Threads(1)
+    public void godLogger1Thread() {
+        godLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link GodLogger} with 4 threads.
+     */
+    @Benchmark
+    @Threads(4)
+    public void godLogger4Threads() {
+        godLogger.log(Level.INFO, MESSAGE);
+    }
+
+    /**
+     * Logs through the {@link GodLogger} with 16 threads.
+     */
+    @Benchmark
+    @Threads(16)
+    public void godLogger16Threads() {
+        godLogger.log(Level.INFO, MESSAGE);
+    }
+}
@@ -0,0 +1,64 @@
+package de.custom.benchmarks;
+
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * The {@link LogRecord}s and the console {@link Handler}s shared by the benchmarks.
+ */
+final class Records {
+
+    /**
+     * A private constructor to hide the implicitly public one
+     */
+    private Records() {}
+
+    /**
+     * Creates a {@link LogRecord} of the passed kind, with its source already set, so formatting it never walks the
+     * stack.
+     * @param kind A {@link String}: <code>plain</code>, <code>detailed</code> or <code>parameterised</code>
+     * @return A {@link LogRecord}: The record to be formatted
+     */
+    static LogRecord create(String kind) {
+        LogRecord logRecord = new LogRecord(Level.INFO, "Processed request for order 4711 in 12 ms");
+        logRecord.setLoggerName("de.custom.benchmarks");
+        logRecord.setSourceClassName("de.custom.benchmarks.OrderService");
+        logRecord.setSourceMethodName("processOrder");
+        if ("parameterised".equals(kind)) {
+            logRecord.setParameters(new Object[] {"order", 4711, 12.5, Boolean.TRUE});
+        } else if (!"plain".equals(kind) && !"detailed".equals(kind)) {
+            throw new IllegalArgumentException("Unknown record kind: " + kind);
+        }
+        return logRecord;
+    }
+
+    /**
+     * Replaces the {@link Handler}s of the {@link Logger} with the passed one, which keeps the formatter of the
+     * replaced console {@link Handler}, so the benchmarks measure the logging and not the terminal.
+     * @param logger A {@link Logger}: The {@link Logger} to redirect
+     * @param handler A {@link Handler}: The {@link Handler} of the same kind, writing to a null sink
+     * @return A {@link Logger}: The redirected {@link Logger}
+     */
+    static Logger writeTo(Logger logger, Handler handler) {
+        for (Handler existing : logger.getHandlers()) {
+            handler.setFormatter(existing.getFormatter());
+            logger.removeHandler(existing);
+        }
+        logger.addHandler(handler);
+        return logger;
+    }
+
+    /**
+     * Closes the {@link Handler}s of the {@link Logger}s.
+     * @param loggers An array of {@link Logger}s: The {@link Logger}s whose {@link Handler}s are closed
+     */
+    static void close(Logger... loggers) {
+        for (Logger logger : loggers) {
+            for (Handler handler : logger.getHandlers()) {
+                handler.close();
+            }
+        }
+    }
+}
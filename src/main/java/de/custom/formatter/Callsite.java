@@ -0,0 +1,177 @@
+package de.custom.formatter;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * The location a log message was logged from: its source class and method, together with the already rendered
+ * <code>class#method</code> text printed by detailed loggers. <br>
+ * A {@link Callsite} can be created once, e.g. in a <code>static final</code> field, and passed with every message, so
+ * the location never has to be found by walking the stack.
+ */
+@SuppressWarnings("unused")
+public final class Callsite {
+
+    /**
+     * The {@link Callsite} of a message whose location is not known
+     */
+    public static final Callsite UNKNOWN = new Callsite(null, null);
+
+    /**
+     * The name of the source class
+     */
+    private final String className;
+
+    /**
+     * The name of the source method
+     */
+    private final String methodName;
+
+    /**
+     * The rendered <code>class#method</code>
+     */
+    private final String rendered;
+
+    /**
+     * The Constructor: Stores the location and renders it
+     * @param className A {@link String}: The name of the source class
+     * @param methodName A {@link String}: The name of the source method
+     */
+    private Callsite(String className, String methodName) {
+        this.className = className;
+        this.methodName = methodName;
+        this.rendered = className + "#" + methodName;
+    }
+
+    /**
+     * Creates the {@link Callsite} of a method.
+     * @param sourceClass A {@link Class}: The source class
+     * @param methodName A {@link String}: The name of the source method
+     * @return A {@link Callsite}: The location
+     */
+    public static Callsite of(Class<?> sourceClass, String methodName) {
+        return new Callsite(sourceClass.getName(), methodName);
+    }
+
+    /**
+     * Creates the {@link Callsite} of a method.
+     * @param className A {@link String}: The name of the source class
+     * @param methodName A {@link String}: The name of the source method
+     * @return A {@link Callsite}: The location
+     */
+    public static Callsite of(String className, String methodName) {
+        return new Callsite(className, methodName);
+    }
+
+    /**
+     * Creates a {@link LogRecord} logged from this location, which carries the rendered location along for the
+     * {@link LogFormatter}.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @return A {@link LogRecord}: The record, with its source class and method set
+     */
+    public LogRecord newRecord(Level level, String msg) {
+        return new Record(level, msg, this);
+    }
+
+    /**
+     * Checks, whether a {@link LogRecord} was created by {@link #newRecord(Level, String)}.
+     * @param logRecord A {@link LogRecord}: The record
+     * @return A {@link Boolean}: Whether the record belongs to a {@link Callsite}
+     */
+    static boolean isRecord(LogRecord logRecord) {
+        return logRecord instanceof Record;
+    }
+
+    /**
+     * Gets the name of the source class.
+     * @return A {@link String}: The name of the source class
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets the name of the source method.
+     * @return A {@link String}: The name of the source method
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Gets the rendered location.
+     * @return A {@link String}: The rendered <code>class#method</code>
+     */
+    @Override
+    public String toString() {
+        return rendered;
+    }
+
+    /**
+     * Appends the location of the record as <code>class#method</code>, using the rendered text if the record was
+     * created by a {@link Callsite} or is a {@link LogEvent} claimed with one. A record without a source class, e.g.
+     * of the {@link #UNKNOWN} location, is located by the name of its logger instead, like the
+     * {@link java.util.logging.SimpleFormatter SimpleFormatter} does.
+     * @param logRecord A {@link LogRecord}: The log record
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    static void appendLocation(LogRecord logRecord, StringBuilder builder) {
+        if (logRecord instanceof Record callsiteRecord && callsiteRecord.isUnchanged()
+                && callsiteRecord.callsite != UNKNOWN) {
+            builder.append(callsiteRecord.callsite.rendered);
+        } else if (logRecord instanceof LogEvent event && event.getCallsite() != null && event.getCallsite() != UNKNOWN
+                && event.getSourceClassName() == event.getCallsite().className
+                && event.getSourceMethodName() == event.getCallsite().methodName) {
+            builder.append(event.getCallsite().rendered);
+        } else if (logRecord.getSourceClassName() == null) {
+            builder.append(logRecord.getLoggerName());
+        } else {
+            builder.append(logRecord.getSourceClassName());
+            builder.append("#");
+            builder.append(logRecord.getSourceMethodName());
+        }
+    }
+
+    /**
+     * A {@link LogRecord} remembering the {@link Callsite} it was logged from. Its sequence number is taken from the
+     * counter of the {@link LogEvent}s, so both are ordered correctly among each other.
+     */
+    private static final class Record extends LogRecord {
+
+        /**
+         * The serial version of this class
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The location the record was logged from
+         */
+        private final transient Callsite callsite;
+
+        /**
+         * The Constructor: Creates the record and sets its source class and method
+         * @param level A {@link Level}: The {@link Level} of the message
+         * @param msg A {@link String}: The message
+         * @param callsite A {@link Callsite}: The location the record was logged from
+         */
+        private Record(Level level, String msg, Callsite callsite) {
+            super(level, msg);
+            this.callsite = callsite;
+            setSequenceNumber(LogEvent.nextSequenceNumber());
+            setSourceClassName(callsite.className);
+            setSourceMethodName(callsite.methodName);
+        }
+
+        /**
+         * Checks, whether the source class and method are still the ones of the {@link #callsite}, as they can be
+         * changed after the record was created, and the {@link #callsite} is lost when the record is deserialized.
+         * @return A {@link Boolean}: Whether the rendered location of the {@link #callsite} is still correct
+         */
+        private boolean isUnchanged() {
+            return callsite != null
+                    && getSourceClassName() == callsite.className
+                    && getSourceMethodName() == callsite.methodName;
+        }
+    }
+}
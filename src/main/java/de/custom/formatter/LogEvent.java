@@ -0,0 +1,272 @@
+package de.custom.formatter;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A mutable, reusable {@link LogRecord}, so logging a message does not create a new record every time. <br>
+ * Each thread has one event, which is {@link #claim(Level, String, Callsite) claimed}, filled, published and
+ * {@link #release() released} again. Up to three parameters are kept in arrays owned by the event, and the date and
+ * time are kept as plain numbers, which the {@link PatternLayout} reads without creating an {@link Instant}. As it is
+ * still a {@link LogRecord}, every {@link Handler} and {@link java.util.logging.Formatter Formatter} can take it. <br>
+ * An event must not be kept after it has been published, as it is reused for the next message of the thread. A
+ * {@link Handler} that keeps records keeps a {@link #toLogRecord() copy} instead. Events take their
+ * {@link #getSequenceNumber() sequence numbers} from the same counter as the records of a {@link Callsite}, and any
+ * other record can be {@link #renumber(LogRecord) renumbered} from it, so they are all ordered correctly among
+ * each other.
+ */
+@SuppressWarnings("unused")
+public final class LogEvent extends LogRecord {
+
+    /**
+     * The serial version of this class, which is only serialised as a {@link #toLogRecord() copy}
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The sequence numbers of the events and the records created by a {@link Callsite}
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * The event of each thread
+     */
+    private static final ThreadLocal<LogEvent> EVENTS = ThreadLocal.withInitial(LogEvent::new);
+
+    /**
+     * The reused array of a single parameter
+     */
+    private final transient Object[] oneParameter = new Object[1];
+
+    /**
+     * The reused array of two parameters
+     */
+    private final transient Object[] twoParameters = new Object[2];
+
+    /**
+     * The reused array of three parameters
+     */
+    private final transient Object[] threeParameters = new Object[3];
+
+    /**
+     * The {@link Callsite} the message was logged from, or null
+     */
+    private transient Callsite callsite;
+
+    /**
+     * The seconds since the epoch of the moment the event was claimed
+     */
+    private transient long epochSecond;
+
+    /**
+     * The nanoseconds within the {@link #epochSecond}
+     */
+    private transient int nano;
+
+    /**
+     * Whether the event is claimed and not yet released
+     */
+    private transient boolean claimed;
+
+    /**
+     * The Constructor: Creates an event of the current thread, which sets its {@link #getLongThreadID() thread ID}
+     */
+    private LogEvent() {
+        super(Level.OFF, null);
+    }
+
+    /**
+     * Claims the event of the current thread and fills it for a new message: its {@link Level}, message, location,
+     * time and sequence number are set, everything else is cleared. If the event is still claimed, e.g. because a
+     * parameter logs something itself while the outer message is formatted, a new event is returned instead.
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param callsite A {@link Callsite}: The location the message is logged from
+     * @return A {@link LogEvent}: The event, to be {@link #release() released} once it is published
+     */
+    public static LogEvent claim(Level level, String msg, Callsite callsite) {
+        LogEvent event = EVENTS.get();
+        if (event.claimed) {
+            event = new LogEvent();
+        }
+        event.claimed = true;
+        event.callsite = callsite;
+        event.setLevel(level);
+        event.setMessage(msg);
+        event.setSourceClassName(callsite.getClassName());
+        event.setSourceMethodName(callsite.getMethodName());
+        event.setSequenceNumber(nextSequenceNumber());
+        Instant now = Instant.now();
+        event.epochSecond = now.getEpochSecond();
+        event.nano = now.getNano();
+        return event;
+    }
+
+    /**
+     * Releases the event, so the thread can claim it for its next message. The references to the parameters, the
+     * {@link Throwable} and the resource bundle are dropped, so they do not outlive the message.
+     */
+    public void release() {
+        oneParameter[0] = null;
+        twoParameters[0] = null;
+        twoParameters[1] = null;
+        threeParameters[0] = null;
+        threeParameters[1] = null;
+        threeParameters[2] = null;
+        setParameters(null);
+        setThrown(null);
+        setResourceBundle(null);
+        setResourceBundleName(null);
+        setLoggerName(null);
+        claimed = false;
+    }
+
+    /**
+     * Sets a single parameter of the message, without creating an array.
+     * @param param1 An {@link Object}: The parameter
+     */
+    public void setParameter(Object param1) {
+        oneParameter[0] = param1;
+        setParameters(oneParameter);
+    }
+
+    /**
+     * Sets two parameters of the message, without creating an array.
+     * @param param1 An {@link Object}: The first parameter
+     * @param param2 An {@link Object}: The second parameter
+     */
+    public void setParameters(Object param1, Object param2) {
+        twoParameters[0] = param1;
+        twoParameters[1] = param2;
+        setParameters(twoParameters);
+    }
+
+    /**
+     * Sets three parameters of the message, without creating an array.
+     * @param param1 An {@link Object}: The first parameter
+     * @param param2 An {@link Object}: The second parameter
+     * @param param3 An {@link Object}: The third parameter
+     */
+    public void setParameters(Object param1, Object param2, Object param3) {
+        threeParameters[0] = param1;
+        threeParameters[1] = param2;
+        threeParameters[2] = param3;
+        setParameters(threeParameters);
+    }
+
+    /**
+     * Gets the seconds since the epoch of the event, without creating an {@link Instant}.
+     * @return A {@link Long}: The {@link #epochSecond}
+     */
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    /**
+     * Gets the nanoseconds within the {@link #getEpochSecond() second} of the event, without creating an
+     * {@link Instant}.
+     * @return An {@link Integer}: The {@link #nano}
+     */
+    public int getNano() {
+        return nano;
+    }
+
+    /**
+     * Gets the time of the event as an {@link Instant}, which is created on every call.
+     * @return An {@link Instant}: The time of the event
+     */
+    @Override
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    /**
+     * Sets the time of the event.
+     * @param instant An {@link Instant}: The time of the event
+     */
+    @Override
+    public void setInstant(Instant instant) {
+        epochSecond = instant.getEpochSecond();
+        nano = instant.getNano();
+    }
+
+    /**
+     * Gets the time of the event in milliseconds since the epoch.
+     * @return A {@link Long}: The time of the event
+     */
+    @Override
+    public long getMillis() {
+        return epochSecond * 1000 + nano / 1_000_000;
+    }
+
+    /**
+     * Sets the time of the event in milliseconds since the epoch.
+     * @param millis A {@link Long}: The time of the event
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setMillis(long millis) {
+        epochSecond = Math.floorDiv(millis, 1000);
+        nano = Math.floorMod(millis, 1000) * 1_000_000;
+    }
+
+    /**
+     * Creates an independent copy of the event, which can be kept after the event is released.
+     * @return A {@link LogRecord}: The copy, carrying the location along like a record of a {@link Callsite}
+     */
+    public LogRecord toLogRecord() {
+        LogRecord copy = (callsite != null ? callsite : Callsite.UNKNOWN).newRecord(getLevel(), getMessage());
+        copy.setInstant(getInstant());
+        copy.setSequenceNumber(getSequenceNumber());
+        copy.setLongThreadID(getLongThreadID());
+        copy.setLoggerName(getLoggerName());
+        copy.setSourceClassName(getSourceClassName());
+        copy.setSourceMethodName(getSourceMethodName());
+        Object[] params = getParameters();
+        copy.setParameters(params == null ? null : params.clone());
+        copy.setThrown(getThrown());
+        copy.setResourceBundle(getResourceBundle());
+        copy.setResourceBundleName(getResourceBundleName());
+        return copy;
+    }
+
+    /**
+     * Gets the {@link Callsite} the message was logged from.
+     * @return A {@link Callsite}: The {@link #callsite}, or null
+     */
+    Callsite getCallsite() {
+        return callsite;
+    }
+
+    /**
+     * Gives a record the next sequence number of the counter of the events, unless it is an event or a record of a
+     * {@link Callsite}, which took one from it already. A record created by the {@link LogRecord} constructor has a
+     * number of its own counter, which says nothing about its order among the events.
+     * @param record A {@link LogRecord}: The record to renumber
+     */
+    public static void renumber(LogRecord record) {
+        if (!(record instanceof LogEvent) && !Callsite.isRecord(record)) {
+            record.setSequenceNumber(nextSequenceNumber());
+        }
+    }
+
+    /**
+     * Takes the next sequence number of an event or a record of a {@link Callsite}.
+     * @return A {@link Long}: The sequence number
+     */
+    static long nextSequenceNumber() {
+        return SEQUENCE.getAndIncrement();
+    }
+
+    /**
+     * Serialises a {@link #toLogRecord() copy} instead of the event, whose time and location are not kept in the
+     * fields of {@link LogRecord}.
+     * @return An {@link Object}: The copy
+     */
+    private Object writeReplace() {
+        return toLogRecord();
+    }
+}
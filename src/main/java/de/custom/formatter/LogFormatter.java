@@ -2,8 +2,11 @@ package de.custom.formatter;
 
 import de.custom.colors.FormatColor;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -13,44 +16,53 @@ import java.util.logging.Logger;
 public class LogFormatter extends Formatter {
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
+     * The global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own. The color
+     * setters replace it as a whole, so a changed color becomes visible to all threads at once.
      */
-    private static String severeColor = FormatColor.RED_BOLD_BRIGHT;
+    private static final AtomicReference<Theme> GLOBAL_THEME = new AtomicReference<>(Theme.DEFAULT);
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#WARNING WARNING}
+     * The initial capacity of the {@link StringBuilder}s the log records are formatted into
      */
-    private static String warningColor = FormatColor.YELLOW_BRIGHT;
+    private static final int INITIAL_CAPACITY = 256;
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#INFO INFO}
+     * The {@link StringBuilder} of each thread, reused for every log record formatted into an {@link Appendable} or a
+     * {@link ByteBuffer}
      */
-    private static String infoColor = FormatColor.GREEN_BACKGROUND;
+    private static final ThreadLocal<StringBuilder> BUILDERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_CAPACITY));
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
+     * The {@link Utf8Buffer} of each thread, which a log record formatted into a {@link ByteBuffer} is encoded into
      */
-    private static String configColor = FormatColor.CYAN;
+    private static final ThreadLocal<Utf8Buffer> ENCODED =
+            ThreadLocal.withInitial(() -> new Utf8Buffer(INITIAL_CAPACITY));
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINE FINE}
+     * The {@link TimestampCache} shared by all {@link LogFormatter}s that do not configure their own
      */
-    private static String fineColor = FormatColor.BLUE;
+    private static final TimestampCache DEFAULT_TIMESTAMPS = new TimestampCache();
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINER FINER}
+     * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
      */
-    private static String finerColor = FormatColor.PURPLE;
+    private final boolean isDetailed;
 
     /**
-     * The {@link String} storing the {@link FormatColor color} for the {@link Level} {@link Level#FINEST FINEST}
+     * The {@link TimestampCache} rendering the date and time of the log messages
      */
-    private static String finestColor = FormatColor.BLACK_BRIGHT;
+    private final TimestampCache timestamps;
 
     /**
-     * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
+     * The compiled {@link PatternLayout} of the log messages
      */
-    private final boolean isDetailed;
+    private final PatternLayout layout;
+
+    /**
+     * The {@link Theme} coloring the log messages, or null if the global colors are used
+     */
+    private final Theme theme;
 
     /**
      * The Constructor: Sets, whether the created {@link java.util.logging.Logger Logger} is a detailed logger, meaning
@@ -58,7 +70,78 @@ public class LogFormatter extends Formatter {
      * @param isDetailedLogger Whether the Logger is detailed or not
      */
     public LogFormatter(boolean isDetailedLogger) {
-        isDetailed = isDetailedLogger;
+        this(isDetailedLogger, DEFAULT_TIMESTAMPS);
+    }
+
+    /**
+     * The Constructor: Sets, whether the created {@link java.util.logging.Logger Logger} is a detailed logger and how
+     * the date and time of the log messages are rendered, e.g. with milliseconds or in another time zone
+     * @param isDetailedLogger Whether the Logger is detailed or not
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     */
+    public LogFormatter(boolean isDetailedLogger, TimestampCache timestamps) {
+        this(timestamps, null, PatternLayout.compile(
+                isDetailedLogger ? PatternLayout.DETAILED_PATTERN : PatternLayout.DEFAULT_PATTERN, timestamps));
+    }
+
+    /**
+     * The Constructor: Sets the pattern the log messages are laid out with, see {@link PatternLayout} for the
+     * supported conversions
+     * @param pattern A {@link String}: The pattern, e.g. <code>"%d{HH:mm:ss.SSS} %c{1}#%M %p - %m%n"</code>
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public LogFormatter(String pattern) {
+        this(pattern, DEFAULT_TIMESTAMPS);
+    }
+
+    /**
+     * The Constructor: Sets the pattern the log messages are laid out with and how the date and time of
+     * <code>%d</code> is rendered
+     * @param pattern A {@link String}: The pattern, e.g. <code>"%d{HH:mm:ss.SSS} %c{1}#%M %p - %m%n"</code>
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public LogFormatter(String pattern, TimestampCache timestamps) {
+        this(pattern, timestamps, null);
+    }
+
+    /**
+     * The Constructor: Sets the pattern the log messages are laid out with and the fixed {@link Theme} coloring them
+     * @param pattern A {@link String}: The pattern, e.g. <code>"%d{HH:mm:ss.SSS} %c{1}#%M %p - %m%n"</code>
+     * @param theme A {@link Theme}: The colors of the {@link Level}s, or null to use the global colors
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public LogFormatter(String pattern, Theme theme) {
+        this(pattern, DEFAULT_TIMESTAMPS, theme);
+    }
+
+    /**
+     * The Constructor: Sets the pattern the log messages are laid out with, how the date and time of <code>%d</code>
+     * is rendered and the fixed {@link Theme} coloring them
+     * @param pattern A {@link String}: The pattern, e.g. <code>"%d{HH:mm:ss.SSS} %c{1}#%M %p - %m%n"</code>
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     * @param theme A {@link Theme}: The colors of the {@link Level}s, or null to use the global colors
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public LogFormatter(String pattern, TimestampCache timestamps, Theme theme) {
+        this(timestamps, theme, PatternLayout.compile(pattern, timestamps, theme));
+    }
+
+    /**
+     * The Constructor: Stores the {@link TimestampCache}, the {@link Theme} and the compiled {@link PatternLayout},
+     * which tells whether the log messages are {@link PatternLayout#isDetailed() detailed}
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     * @param theme A {@link Theme}: The colors the layout was compiled with, or null
+     * @param layout A {@link PatternLayout}: The compiled layout
+     */
+    private LogFormatter(TimestampCache timestamps, Theme theme, PatternLayout layout) {
+        if (timestamps == null) {
+            throw new NullPointerException("timestamps");
+        }
+        isDetailed = layout.isDetailed();
+        this.timestamps = timestamps;
+        this.theme = theme;
+        this.layout = layout;
     }
 
     /**
@@ -69,195 +152,268 @@ public class LogFormatter extends Formatter {
      */
     @Override
     public String format(LogRecord logRecord) {
-        // This example will print date/time, class, and log level in yellow,
-        // followed by the log message and it's parameters in white .
-        StringBuilder builder = new StringBuilder();
-        builder.append(getLevelColor(logRecord.getLevel()));
-
-        builder.append("[");
-        builder.append(calcDate(logRecord.getMillis()));
-        builder.append("]");
-
-        builder.append(" [");
-        builder.append(logRecord.getSourceClassName());
-        if (isDetailed) {
-            builder.append("#");
-            builder.append(logRecord.getSourceMethodName());
+        StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+        formatTo(logRecord, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Appends the formatted log record to the passed {@link StringBuilder} instead of creating a new {@link String},
+     * so a caller reusing its {@link StringBuilder} formats without allocating anything per record. Emits a
+     * {@link FormatEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The log record to be formatted
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    public void formatTo(LogRecord logRecord, StringBuilder builder) {
+        FormatEvent event = new FormatEvent();
+        event.begin();
+        int start = builder.length();
+        layout.formatTo(logRecord, builder);
+        if (event.shouldCommit()) {
+            event.set(logRecord, builder.length() - start);
+            event.commit();
         }
-        builder.append("]");
+    }
 
-        builder.append(" [");
-        builder.append(logRecord.getLevel().getName());
-        builder.append("]");
+    /**
+     * Appends the formatted log record to the passed {@link Appendable}.
+     * @param logRecord A {@link LogRecord}: The log record to be formatted
+     * @param appendable An {@link Appendable}: The {@link Appendable} to append to
+     * @throws IOException if the {@link Appendable} fails to append
+     */
+    public void formatTo(LogRecord logRecord, Appendable appendable) throws IOException {
+        if (appendable instanceof StringBuilder builder) {
+            formatTo(logRecord, builder);
+            return;
+        }
+        StringBuilder builder = acquireBuilder();
+        formatTo(logRecord, builder);
+        appendable.append(builder);
+        builder.setLength(0);
+    }
 
-        builder.append(FormatColor.WHITE);
-        builder.append(" - ");
-        builder.append(logRecord.getMessage());
+    /**
+     * Encodes the formatted log record as UTF-8 straight into the passed {@link ByteBuffer}, starting at its position.
+     * @param logRecord A {@link LogRecord}: The log record to be formatted
+     * @param target A {@link ByteBuffer}: The {@link ByteBuffer} to write to
+     * @throws BufferOverflowException if the {@link ByteBuffer} has not enough space left, its position is left
+     *                                 unchanged in that case
+     */
+    public void formatTo(LogRecord logRecord, ByteBuffer target) {
+        StringBuilder builder = acquireBuilder();
+        try {
+            formatTo(logRecord, builder);
+            Utf8Buffer encoded = ENCODED.get();
+            encoded.encode(builder);
+            encoded.writeTo(target);
+        } finally {
+            builder.setLength(0);
+        }
+    }
 
-        Object[] params = logRecord.getParameters();
+    /**
+     * Gets the {@link StringBuilder} of the current thread, or a new one if that is still in use, e.g. because a
+     * parameter logs something itself while it is converted to a {@link String}.
+     * @return A {@link StringBuilder}: An empty {@link StringBuilder}
+     */
+    private static StringBuilder acquireBuilder() {
+        StringBuilder builder = BUILDERS.get();
+        return builder.length() == 0 ? builder : new StringBuilder(INITIAL_CAPACITY);
+    }
 
-        if (params != null) {
-            builder.append("\t");
-            for (int i = 0; i < params.length; i++) {
-                builder.append(params[i]);
-                if (i < params.length - 1)
-                    builder.append(", ");
-            }
-        }
+    /**
+     * Gets the compiled {@link PatternLayout} of the log messages.
+     * @return A {@link PatternLayout}: The {@link #layout}
+     */
+    public PatternLayout getLayout() {
+        return layout;
+    }
 
-        builder.append(FormatColor.RESET);
-        builder.append("\n");
-        return builder.toString();
+    /**
+     * Gets whether the log messages print their method of origin as well as their class.
+     * @return A {@link Boolean}: The {@link #isDetailed} flag
+     */
+    public boolean isDetailed() {
+        return isDetailed;
+    }
+
+    /**
+     * Gets the {@link TimestampCache} rendering the date and time of the log messages.
+     * @return A {@link TimestampCache}: The {@link #timestamps}
+     */
+    public TimestampCache getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Gets the {@link Theme} coloring the log messages.
+     * @return A {@link Theme}: The {@link #theme}, or null if the global colors are used
+     */
+    public Theme getTheme() {
+        return theme;
     }
 
     /**
-     * Gets the time of the log message and formats it to show the date and time.
-     * @param milliSecs A {@link Long}: The time of the log message
-     * @return The time of the log message, converted to <code>yyyy-MM-dd HH:mm:ss</code>
+     * Checks whether another {@link LogFormatter} turns every record into the same text as this one, because both lay
+     * it out with the same pattern, {@link TimestampCache} and {@link Theme}. Handlers whose formatters format alike
+     * can share one formatted copy of a record. Subclasses may format differently and never match.
+     * @param other A {@link LogFormatter}: The other formatter, or null
+     * @return A {@link Boolean}: Whether both formatters produce the same output
      */
-    private static String calcDate(long milliSecs) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        Date resultDate = new Date(milliSecs);
-        return dateFormat.format(resultDate);
+    public boolean formatsLike(LogFormatter other) {
+        if (other == this) {
+            return true;
+        }
+        return other != null && getClass() == LogFormatter.class && other.getClass() == LogFormatter.class
+                && timestamps == other.timestamps && Objects.equals(theme, other.theme)
+                && layout.getPattern().equals(other.layout.getPattern());
     }
 
     /**
-     * Determines the color for the log message depending on the {@link Level}.
+     * Determines the color for the log message depending on the {@link Level}, using the global {@link Theme}.
      * @param level A {@link Level}: The {@link Level} of the log message
      * @return A {@link String}: The appropriate color for the log message
      */
-    private String getLevelColor(Level level) {
-        String color;
-        switch (level.toString()) {
-            case "SEVERE" -> color = severeColor;
-            case "WARNING" -> color = warningColor;
-            case "INFO" -> color = infoColor;
-            case "CONFIG" -> color = configColor;
-            case "FINE" -> color = fineColor;
-            case "FINER" -> color = finerColor;
-            case "FINEST" -> color = finestColor;
-            default -> color = FormatColor.WHITE;
+    static String getLevelColor(Level level) {
+        return GLOBAL_THEME.get().colorOf(level);
+    }
+
+    /**
+     * Gets the global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own.
+     * @return A {@link Theme}: The global {@link Theme}
+     */
+    public static Theme getGlobalTheme() {
+        return GLOBAL_THEME.get();
+    }
+
+    /**
+     * Replaces the global {@link Theme}, used by all {@link LogFormatter}s without a {@link Theme} of their own.
+     * @param theme A {@link Theme}: The new global {@link Theme}
+     */
+    public static void setGlobalTheme(Theme theme) {
+        if (theme == null) {
+            throw new NullPointerException("theme");
         }
-        return color;
+        GLOBAL_THEME.set(theme);
     }
 
     /**
-     * Gets the {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
-     * @return A {@link String}: The {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
+     * Gets the color for the {@link Level} {@link Level#SEVERE SEVERE}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#SEVERE SEVERE}
      */
     public static String getSevereColor() {
-        return severeColor;
+        return GLOBAL_THEME.get().severeColor();
     }
 
     /**
-     * Sets the {@link #severeColor color} for the {@link Level} {@link Level#SEVERE SEVERE}
-     * @param severeColor A {@link String}:    The {@link #severeColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#SEVERE SEVERE}
+     * @param severeColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#SEVERE SEVERE}
      */
     public static void setSevereColor(String severeColor) {
-        LogFormatter.severeColor = severeColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.SEVERE, severeColor));
     }
 
     /**
-     * Sets the {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
-     * @return A {@link String}: The {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
+     * Sets the color for the {@link Level} {@link Level#WARNING WARNING}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#WARNING WARNING}
      */
     public static String getWarningColor() {
-        return warningColor;
+        return GLOBAL_THEME.get().warningColor();
     }
 
     /**
-     * Sets the {@link #warningColor color} for the {@link Level} {@link Level#WARNING WARNING}
-     * @param warningColor A {@link String}:    The {@link #warningColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#WARNING WARNING}
+     * @param warningColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#WARNING WARNING}
      */
     public static void setWarningColor(String warningColor) {
-        LogFormatter.warningColor = warningColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.WARNING, warningColor));
     }
 
     /**
-     * Gets the {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
-     * @return A {@link String}: The {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
+     * Gets the color for the {@link Level} {@link Level#INFO INFO}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#INFO INFO}
      */
     public static String getInfoColor() {
-        return infoColor;
+        return GLOBAL_THEME.get().infoColor();
     }
 
     /**
-     * Sets the {@link #infoColor color} for the {@link Level} {@link Level#INFO INFO}
-     * @param infoColor A {@link String}:    The {@link #infoColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#INFO INFO}
+     * @param infoColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#INFO INFO}
      */
     public static void setInfoColor(String infoColor) {
-        LogFormatter.infoColor = infoColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.INFO, infoColor));
     }
 
     /**
-     * Gets the {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
-     * @return A {@link String}: The {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
+     * Gets the color for the {@link Level} {@link Level#CONFIG CONFIG}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#CONFIG CONFIG}
      */
     public static String getConfigColor() {
-        return configColor;
+        return GLOBAL_THEME.get().configColor();
     }
 
     /**
-     * Sets the {@link #configColor color} for the {@link Level} {@link Level#CONFIG CONFIG}
-     * @param configColor A {@link String}:    The {@link #configColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#CONFIG CONFIG}
+     * @param configColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#CONFIG CONFIG}
      */
     public static void setConfigColor(String configColor) {
-        LogFormatter.configColor = configColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.CONFIG, configColor));
     }
 
     /**
-     * Gets the {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
-     * @return A {@link String}: The {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
+     * Gets the color for the {@link Level} {@link Level#FINE FINE}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#FINE FINE}
      */
     public static String getFineColor() {
-        return fineColor;
+        return GLOBAL_THEME.get().fineColor();
     }
 
     /**
-     * Sets the {@link #fineColor color} for the {@link Level} {@link Level#FINE FINE}
-     * @param fineColor A {@link String}:    The {@link #fineColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#FINE FINE}
+     * @param fineColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#FINE FINE}
      */
     public static void setFineColor(String fineColor) {
-        LogFormatter.fineColor = fineColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINE, fineColor));
     }
 
     /**
-     * Gets the {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
-     * @return A {@link String}: The {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
+     * Gets the color for the {@link Level} {@link Level#FINER FINER}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#FINER FINER}
      */
     public static String getFinerColor() {
-        return finerColor;
+        return GLOBAL_THEME.get().finerColor();
     }
 
     /**
-     * Sets the {@link #finerColor color} for the {@link Level} {@link Level#FINER FINER}
-     * @param finerColor A {@link String}:    The {@link #finerColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#FINER FINER}
+     * @param finerColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#FINER FINER}
      */
     public static void setFinerColor(String finerColor) {
-        LogFormatter.finerColor = finerColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINER, finerColor));
     }
 
     /**
-     * Gets the {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
-     * @return A {@link String}: The {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
+     * Gets the color for the {@link Level} {@link Level#FINEST FINEST}
+     * @return A {@link String}: The color for the {@link Level} {@link Level#FINEST FINEST}
      */
     public static String getFinestColor() {
-        return finestColor;
+        return GLOBAL_THEME.get().finestColor();
     }
 
     /**
-     * Sets the {@link #finestColor color} for the {@link Level} {@link Level#FINEST FINEST}
-     * @param finestColor A {@link String}:    The {@link #finestColor color} for the {@link Level}
+     * Sets the color for the {@link Level} {@link Level#FINEST FINEST}
+     * @param finestColor A {@link String}:    The color for the {@link Level}
      *                                          {@link Level#FINEST FINEST}
      */
     public static void setFinestColor(String finestColor) {
-        LogFormatter.finestColor = finestColor;
+        GLOBAL_THEME.updateAndGet(theme -> theme.withColor(Level.FINEST, finestColor));
     }
 
 
@@ -0,0 +1,552 @@
+package de.custom.formatter;
+
+import de.custom.colors.FormatColor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A layout for the log lines, compiled once from a pattern such as <code>"%d{HH:mm:ss.SSS} %c{1}#%M %p - %m%n"</code>
+ * into an array of {@link Segment}s. Formatting a record is then a single loop over the segments, without parsing the
+ * pattern or checking any configuration again. <br>
+ * The following conversions are supported:
+ * <ul>
+ *     <li><code>%d</code>: The date and time, rendered by the {@link TimestampCache} of the {@link LogFormatter}</li>
+ *     <li><code>%d{pattern}</code>: The date and time in a {@link DateTimeFormatter} pattern, cached per second</li>
+ *     <li><code>%c</code>, <code>%c{n}</code>: The name of the logger, optionally only its last n parts</li>
+ *     <li><code>%C</code>, <code>%C{n}</code>: The source class, optionally only its last n parts</li>
+ *     <li><code>%M</code>: The source method</li>
+ *     <li><code>%location</code>: The source class and method as <code>class#method</code>, pre-rendered if the
+ *     record was created by a {@link Callsite}</li>
+ *     <li><code>%p</code>: The name of the {@link Level}</li>
+ *     <li><code>%m</code>: The message</li>
+ *     <li><code>%params</code>: A tab followed by the parameters of the message, if there are any</li>
+ *     <li><code>%t</code>: The id of the thread that logged the message</li>
+ *     <li><code>%n</code>: The line separator of the platform</li>
+ *     <li><code>%color</code>: The {@link FormatColor color} of the {@link Level}</li>
+ *     <li><code>%ansi{NAME}</code>: The {@link FormatColor} constant with the passed name, e.g. <code>WHITE</code></li>
+ *     <li><code>%reset</code>: {@link FormatColor#RESET}</li>
+ *     <li><code>%%</code>: A percent sign</li>
+ * </ul>
+ * A conversion ends where its name does, so text may follow it directly, e.g. <code>%mfoo</code> is the message
+ * followed by <code>foo</code>. Where names share a beginning, the longest one is taken, so <code>%params</code> is
+ * the parameters and not the level followed by <code>arams</code>.
+ */
+@SuppressWarnings("unused")
+public final class PatternLayout {
+
+    /**
+     * The layout of a normal {@link java.util.logging.Logger Logger}:
+     * <code>[date] [class] [LEVEL] - message\tparams</code>
+     */
+    public static final String DEFAULT_PATTERN = "%color[%d] [%C] [%p]%ansi{WHITE} - %m%params%reset\n";
+
+    /**
+     * The layout of a detailed {@link java.util.logging.Logger Logger}:
+     * <code>[date] [class#method] [LEVEL] - message\tparams</code>
+     */
+    public static final String DETAILED_PATTERN = "%color[%d] [%location] [%p]%ansi{WHITE} - %m%params%reset\n";
+
+    /**
+     * The names of the conversions, longest first, so a name is never matched by a shorter one it starts with
+     */
+    private static final String[] NAMES = {"location", "params", "color", "reset", "ansi", "d", "c", "C", "M", "p",
+            "m", "t", "n"};
+
+    /**
+     * The pattern this layout was compiled from
+     */
+    private final String pattern;
+
+    /**
+     * The compiled segments, appended one after the other for every record
+     */
+    private final Segment[] segments;
+
+    /**
+     * Whether a segment prints the method of origin, i.e. the pattern has a <code>%M</code> or <code>%location</code>
+     * conversion
+     */
+    private final boolean detailed;
+
+    /**
+     * The Constructor: Stores the compiled segments
+     * @param pattern A {@link String}: The pattern the layout was compiled from
+     * @param segments A {@link Segment} array: The compiled segments
+     * @param detailed A {@link Boolean}: Whether a segment prints the method of origin
+     */
+    private PatternLayout(String pattern, Segment[] segments, boolean detailed) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.detailed = detailed;
+    }
+
+    /**
+     * Compiles the pattern, rendering the date and time in the system default time zone.
+     * @param pattern A {@link String}: The pattern to compile
+     * @return A {@link PatternLayout}: The compiled layout
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public static PatternLayout compile(String pattern) {
+        return compile(pattern, new TimestampCache());
+    }
+
+    /**
+     * Compiles the pattern.
+     * @param pattern A {@link String}: The pattern to compile
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering <code>%d</code>, its time zone
+     *                   is used for <code>%d{pattern}</code> as well
+     * @return A {@link PatternLayout}: The compiled layout
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public static PatternLayout compile(String pattern, TimestampCache timestamps) {
+        return compile(pattern, timestamps, null);
+    }
+
+    /**
+     * Compiles the pattern with fixed colors for <code>%color</code>.
+     * @param pattern A {@link String}: The pattern to compile
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering <code>%d</code>, its time zone
+     *                   is used for <code>%d{pattern}</code> as well
+     * @param theme A {@link Theme}: The colors of the {@link Level}s, or null to use the global colors of the
+     *              {@link LogFormatter}
+     * @return A {@link PatternLayout}: The compiled layout
+     * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+     */
+    public static PatternLayout compile(String pattern, TimestampCache timestamps, Theme theme) {
+        if (pattern == null || timestamps == null) {
+            throw new NullPointerException(pattern == null ? "pattern" : "timestamps");
+        }
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean detailed = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i++);
+            if (c != '%') {
+                literal.append(c);
+                continue;
+            }
+            if (i == pattern.length()) {
+                throw new IllegalArgumentException("Dangling '%' at the end of the pattern: " + pattern);
+            }
+            if (pattern.charAt(i) == '%') {
+                literal.append('%');
+                i++;
+                continue;
+            }
+            String name = nameAt(pattern, i);
+            i += name.length();
+            String option = null;
+            if (i < pattern.length() && pattern.charAt(i) == '{') {
+                int end = pattern.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed '{' at index " + i + " of the pattern: " + pattern);
+                }
+                option = pattern.substring(i + 1, end);
+                i = end + 1;
+            }
+            if (literal.length() > 0) {
+                segments.add(literal(literal.toString()));
+                literal.setLength(0);
+            }
+            segments.add(conversion(name, option, timestamps, theme, pattern));
+            detailed |= name.equals("M") || name.equals("location");
+        }
+        if (literal.length() > 0) {
+            segments.add(literal(literal.toString()));
+        }
+        return new PatternLayout(pattern, segments.toArray(new Segment[0]), detailed);
+    }
+
+    /**
+     * Appends the formatted record to the {@link StringBuilder}.
+     * @param logRecord A {@link LogRecord}: The log record to be formatted
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    public void formatTo(LogRecord logRecord, StringBuilder builder) {
+        for (Segment segment : segments) {
+            segment.append(logRecord, builder);
+        }
+    }
+
+    /**
+     * Gets the pattern this layout was compiled from.
+     * @return A {@link String}: The pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Gets whether the layout prints the method of origin, i.e. whether the pattern has a <code>%M</code> or
+     * <code>%location</code> conversion. An escaped <code>%%M</code> does not count.
+     * @return A {@link Boolean}: The {@link #detailed} flag
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+
+    /**
+     * Gets the pattern this layout was compiled from.
+     * @return A {@link String}: The pattern
+     */
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * Finds the name of the conversion starting at an index of the pattern.
+     * @param pattern A {@link String}: The whole pattern
+     * @param index An {@link Integer}: The index following the percent sign
+     * @return A {@link String}: The longest known name the pattern continues with
+     * @throws IllegalArgumentException if no known name starts at the index
+     */
+    private static String nameAt(String pattern, int index) {
+        for (String name : NAMES) {
+            if (pattern.startsWith(name, index)) {
+                return name;
+            }
+        }
+        int end = index;
+        while (end < pattern.length() && Character.isLetter(pattern.charAt(end))) {
+            end++;
+        }
+        String name = end > index ? pattern.substring(index, end) : String.valueOf(pattern.charAt(index));
+        throw new IllegalArgumentException("Unknown conversion '%" + name + "' in the pattern: " + pattern);
+    }
+
+    /**
+     * Creates the {@link Segment} appending a fixed text.
+     * @param text A {@link String}: The text to append
+     * @return A {@link Segment}: The compiled literal
+     */
+    private static Segment literal(String text) {
+        return (logRecord, builder) -> builder.append(text);
+    }
+
+    /**
+     * Creates the {@link Segment} for a conversion.
+     * @param name A {@link String}: The name of the conversion, without the percent sign
+     * @param option A {@link String}: The text between the braces following the name, or null
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering <code>%d</code>
+     * @param theme A {@link Theme}: The colors of <code>%color</code>, or null for the global colors
+     * @param pattern A {@link String}: The whole pattern, for error messages
+     * @return A {@link Segment}: The compiled conversion
+     */
+    private static Segment conversion(String name, String option, TimestampCache timestamps, Theme theme,
+                                      String pattern) {
+        switch (name) {
+            case "d" -> {
+                return option == null ? timestamp(timestamps) : date(option, timestamps.getZone());
+            }
+            case "c" -> {
+                return abbreviated(LogRecord::getLoggerName, depth(option, pattern));
+            }
+            case "C" -> {
+                return abbreviated(LogRecord::getSourceClassName, depth(option, pattern));
+            }
+            case "M" -> {
+                return (logRecord, builder) -> builder.append(logRecord.getSourceMethodName());
+            }
+            case "location" -> {
+                return Callsite::appendLocation;
+            }
+            case "p" -> {
+                return (logRecord, builder) -> builder.append(logRecord.getLevel().getName());
+            }
+            case "m" -> {
+                return (logRecord, builder) -> builder.append(logRecord.getMessage());
+            }
+            case "params" -> {
+                return PatternLayout::appendParameters;
+            }
+            case "t" -> {
+                return (logRecord, builder) -> builder.append(logRecord.getLongThreadID());
+            }
+            case "n" -> {
+                return literal(System.lineSeparator());
+            }
+            case "color" -> {
+                if (theme != null) {
+                    return (logRecord, builder) -> builder.append(theme.colorOf(logRecord.getLevel()));
+                }
+                return (logRecord, builder) -> builder.append(LogFormatter.getLevelColor(logRecord.getLevel()));
+            }
+            case "ansi" -> {
+                return literal(ansi(option, pattern));
+            }
+            case "reset" -> {
+                return literal(FormatColor.RESET);
+            }
+            default -> throw new IllegalArgumentException("Unknown conversion '%" + name + "' in the pattern: " + pattern);
+        }
+    }
+
+    /**
+     * Appends a tab followed by the parameters of the message, separated by commas, if the record has any.
+     * @param logRecord A {@link LogRecord}: The log record to be formatted
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    private static void appendParameters(LogRecord logRecord, StringBuilder builder) {
+        Object[] params = logRecord.getParameters();
+        if (params != null) {
+            builder.append("\t");
+            for (int i = 0; i < params.length; i++) {
+                builder.append(params[i]);
+                if (i < params.length - 1)
+                    builder.append(", ");
+            }
+        }
+    }
+
+    /**
+     * Parses the number of name parts of <code>%c{n}</code> and <code>%C{n}</code>.
+     * @param option A {@link String}: The text between the braces, or null to keep the whole name
+     * @param pattern A {@link String}: The whole pattern, for error messages
+     * @return An {@link Integer}: The number of parts to keep, 0 for the whole name
+     */
+    private static int depth(String option, String pattern) {
+        if (option == null) {
+            return 0;
+        }
+        try {
+            int depth = Integer.parseInt(option.trim());
+            if (depth > 0) {
+                return depth;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a positive number instead of '" + option + "' in the pattern: "
+                + pattern);
+    }
+
+    /**
+     * Creates the {@link Segment} appending a dot-separated name, shortened to its last parts. The shortened names are
+     * cached, as a logger only ever sees a handful of them.
+     * @param accessor A {@link NameAccessor}: Reads the name from the record
+     * @param depth An {@link Integer}: The number of parts to keep, 0 for the whole name
+     * @return A {@link Segment}: The compiled conversion
+     */
+    private static Segment abbreviated(NameAccessor accessor, int depth) {
+        if (depth == 0) {
+            return (logRecord, builder) -> builder.append(accessor.get(logRecord));
+        }
+        Map<String, String> cache = new ConcurrentHashMap<>();
+        return (logRecord, builder) -> {
+            String name = accessor.get(logRecord);
+            if (name == null) {
+                builder.append((String) null);
+                return;
+            }
+            String shortName = cache.get(name);
+            if (shortName == null) {
+                shortName = cache.computeIfAbsent(name, key -> lastParts(key, depth));
+            }
+            builder.append(shortName);
+        };
+    }
+
+    /**
+     * Cuts a dot-separated name down to its last parts.
+     * @param name A {@link String}: The name, e.g. <code>de.custom.Main</code>
+     * @param depth An {@link Integer}: The number of parts to keep
+     * @return A {@link String}: The shortened name, e.g. <code>Main</code> for a depth of 1
+     */
+    private static String lastParts(String name, int depth) {
+        int index = name.length();
+        for (int i = 0; i < depth; i++) {
+            index = name.lastIndexOf('.', index - 1);
+            if (index < 0) {
+                return name;
+            }
+        }
+        return name.substring(index + 1);
+    }
+
+    /**
+     * Looks up the {@link FormatColor} constant for <code>%ansi{NAME}</code>.
+     * @param option A {@link String}: The name of the constant
+     * @param pattern A {@link String}: The whole pattern, for error messages
+     * @return A {@link String}: The ANSI escape sequence
+     */
+    private static String ansi(String option, String pattern) {
+        try {
+            return Theme.colorNamed(option);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown color '" + option + "' in the pattern: " + pattern);
+        }
+    }
+
+    /**
+     * Creates the {@link Segment} appending the date and time rendered by a {@link TimestampCache}.
+     * @param timestamps A {@link TimestampCache}: The {@link TimestampCache} rendering the date and time
+     * @return A {@link Segment}: The compiled conversion
+     */
+    private static Segment timestamp(TimestampCache timestamps) {
+        return (logRecord, builder) -> {
+            if (logRecord instanceof LogEvent event) {
+                timestamps.formatTo(event.getEpochSecond(), event.getNano(), builder);
+            } else {
+                timestamps.formatTo(logRecord.getInstant(), builder);
+            }
+        };
+    }
+
+    /**
+     * Creates the {@link Segment} for <code>%d{pattern}</code>. The default layout and its millisecond and
+     * microsecond variants use a {@link TimestampCache}; any other pattern is rendered by a {@link DateTimeFormatter}
+     * once per second, with a trailing fraction of seconds appended separately.
+     * @param datePattern A {@link String}: The {@link DateTimeFormatter} pattern
+     * @param zone A {@link ZoneId}: The time zone the date and time are rendered in
+     * @return A {@link Segment}: The compiled conversion
+     */
+    private static Segment date(String datePattern, ZoneId zone) {
+        switch (datePattern) {
+            case "yyyy-MM-dd HH:mm:ss" -> {
+                return timestamp(new TimestampCache(zone, TimestampCache.Precision.SECONDS));
+            }
+            case "yyyy-MM-dd HH:mm:ss.SSS" -> {
+                return timestamp(new TimestampCache(zone, TimestampCache.Precision.MILLISECONDS));
+            }
+            case "yyyy-MM-dd HH:mm:ss.SSSSSS" -> {
+                return timestamp(new TimestampCache(zone, TimestampCache.Precision.MICROSECONDS));
+            }
+            default -> {
+                return new DateSegment(datePattern, zone);
+            }
+        }
+    }
+
+    /**
+     * A compiled part of the pattern, appending one piece of the log line.
+     */
+    @FunctionalInterface
+    interface Segment {
+
+        /**
+         * Appends this part of the log line.
+         * @param logRecord A {@link LogRecord}: The log record to be formatted
+         * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+         */
+        void append(LogRecord logRecord, StringBuilder builder);
+    }
+
+    /**
+     * Reads a name from a {@link LogRecord}.
+     */
+    @FunctionalInterface
+    private interface NameAccessor {
+
+        /**
+         * Reads the name.
+         * @param logRecord A {@link LogRecord}: The log record
+         * @return A {@link String}: The name
+         */
+        String get(LogRecord logRecord);
+    }
+
+    /**
+     * The {@link Segment} of <code>%d{pattern}</code> for patterns not covered by a {@link TimestampCache}.
+     */
+    private static final class DateSegment implements Segment {
+
+        /**
+         * The {@link DateTimeFormatter} rendering everything but a trailing fraction of seconds
+         */
+        private final DateTimeFormatter formatter;
+
+        /**
+         * The separator in front of the trailing fraction of seconds, or 0 if there is none
+         */
+        private final char fractionSeparator;
+
+        /**
+         * The number of digits of the trailing fraction of seconds
+         */
+        private final int fractionDigits;
+
+        /**
+         * Whether the pattern prints something finer than seconds elsewhere, which rules out the cache
+         */
+        private final boolean cacheable;
+
+        /**
+         * The last rendered second
+         */
+        private volatile Entry cache;
+
+        /**
+         * The Constructor: Splits off a trailing fraction of seconds, such as <code>.SSS</code>, so the rest can be
+         * cached per second
+         * @param datePattern A {@link String}: The {@link DateTimeFormatter} pattern
+         * @param zone A {@link ZoneId}: The time zone the date and time are rendered in
+         */
+        private DateSegment(String datePattern, ZoneId zone) {
+            int digits = 0;
+            while (digits < datePattern.length() && datePattern.charAt(datePattern.length() - 1 - digits) == 'S') {
+                digits++;
+            }
+            int separatorIndex = datePattern.length() - 1 - digits;
+            String prefix = datePattern;
+            char separator = 0;
+            if (digits > 0 && digits <= 9 && separatorIndex >= 0
+                    && (datePattern.charAt(separatorIndex) == '.' || datePattern.charAt(separatorIndex) == ',')) {
+                prefix = datePattern.substring(0, separatorIndex);
+                separator = datePattern.charAt(separatorIndex);
+            } else {
+                digits = 0;
+            }
+            this.formatter = DateTimeFormatter.ofPattern(prefix).withZone(zone);
+            this.fractionSeparator = separator;
+            this.fractionDigits = digits;
+            this.cacheable = prefix.chars().noneMatch(c -> c == 'S' || c == 'n' || c == 'N' || c == 'A');
+        }
+
+        /**
+         * Appends the date and time of the record.
+         * @param logRecord A {@link LogRecord}: The log record to be formatted
+         * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+         */
+        @Override
+        public void append(LogRecord logRecord, StringBuilder builder) {
+            if (!cacheable) {
+                formatter.formatTo(logRecord.getInstant(), builder);
+            } else {
+                long epochSecond = logRecord instanceof LogEvent event ? event.getEpochSecond()
+                        : logRecord.getInstant().getEpochSecond();
+                Entry entry = cache;
+                if (entry == null || entry.epochSecond != epochSecond) {
+                    entry = new Entry(epochSecond, formatter.format(Instant.ofEpochSecond(epochSecond)));
+                    cache = entry;
+                }
+                builder.append(entry.text);
+            }
+            if (fractionDigits > 0) {
+                builder.append(fractionSeparator);
+                int nanos = logRecord instanceof LogEvent event ? event.getNano() : logRecord.getInstant().getNano();
+                int divisor = 100_000_000;
+                for (int i = 0; i < fractionDigits; i++) {
+                    builder.append((char) ('0' + nanos / divisor % 10));
+                    divisor /= 10;
+                }
+            }
+        }
+
+        /**
+         * An immutable, rendered second.
+         * @param epochSecond A {@link Long}: The seconds since the epoch
+         * @param text A {@link String}: The rendered date and time
+         */
+        private record Entry(long epochSecond, String text) {}
+    }
+}
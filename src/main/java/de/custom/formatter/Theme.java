@@ -0,0 +1,259 @@
+package de.custom.formatter;
+
+import de.custom.colors.FormatColor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.logging.Level;
+
+/**
+ * An immutable set of {@link FormatColor colors} for the {@link Level}s. The global colors of the {@link LogFormatter}
+ * are a {@link Theme} replaced as a whole whenever a color changes, so every thread sees all colors of one theme; a
+ * {@link LogFormatter} created with a theme of its own keeps it no matter what the global colors are changed to. <br>
+ * The colors of levels whose {@link Level#intValue() value} is a multiple of 100 between 0 and 1000, which includes
+ * all standard levels, are found by indexing an array with the value divided by 100, without comparing any names.
+ * Colors of other custom levels are kept in a small map.
+ * Levels without a color are {@link FormatColor#WHITE white}.
+ */
+@SuppressWarnings("unused")
+public final class Theme {
+
+    /**
+     * The number of array slots: one per multiple of 100 from 0 to 1000
+     */
+    private static final int SLOTS = 11;
+
+    /**
+     * The color of levels without one
+     */
+    private static final String WHITE = FormatColor.WHITE;
+
+    /**
+     * The colors a {@link LogFormatter} starts with
+     */
+    public static final Theme DEFAULT = new Theme(FormatColor.RED_BOLD_BRIGHT, FormatColor.YELLOW_BRIGHT,
+            FormatColor.GREEN_BACKGROUND, FormatColor.CYAN, FormatColor.BLUE, FormatColor.PURPLE,
+            FormatColor.BLACK_BRIGHT);
+
+    /**
+     * The colors of the levels whose value is a multiple of 100, by the value divided by 100
+     */
+    private final String[] slots;
+
+    /**
+     * The colors of the other levels, by their value
+     */
+    private final Map<Integer, String> custom;
+
+    /**
+     * The Constructor: Sets the colors of the seven standard {@link Level}s
+     * @param severeColor A {@link String}: The color for the {@link Level} {@link Level#SEVERE SEVERE}
+     * @param warningColor A {@link String}: The color for the {@link Level} {@link Level#WARNING WARNING}
+     * @param infoColor A {@link String}: The color for the {@link Level} {@link Level#INFO INFO}
+     * @param configColor A {@link String}: The color for the {@link Level} {@link Level#CONFIG CONFIG}
+     * @param fineColor A {@link String}: The color for the {@link Level} {@link Level#FINE FINE}
+     * @param finerColor A {@link String}: The color for the {@link Level} {@link Level#FINER FINER}
+     * @param finestColor A {@link String}: The color for the {@link Level} {@link Level#FINEST FINEST}
+     */
+    public Theme(String severeColor, String warningColor, String infoColor, String configColor, String fineColor,
+                 String finerColor, String finestColor) {
+        this(new String[SLOTS], Map.of());
+        slots[slotOf(Level.SEVERE.intValue())] = Objects.requireNonNull(severeColor, "color");
+        slots[slotOf(Level.WARNING.intValue())] = Objects.requireNonNull(warningColor, "color");
+        slots[slotOf(Level.INFO.intValue())] = Objects.requireNonNull(infoColor, "color");
+        slots[slotOf(Level.CONFIG.intValue())] = Objects.requireNonNull(configColor, "color");
+        slots[slotOf(Level.FINE.intValue())] = Objects.requireNonNull(fineColor, "color");
+        slots[slotOf(Level.FINER.intValue())] = Objects.requireNonNull(finerColor, "color");
+        slots[slotOf(Level.FINEST.intValue())] = Objects.requireNonNull(finestColor, "color");
+    }
+
+    /**
+     * The Constructor: Stores the colors
+     * @param slots A {@link String} array: The colors of the levels whose value is a multiple of 100
+     * @param custom A {@link Map}: The colors of the other levels, sorted by value
+     */
+    private Theme(String[] slots, Map<Integer, String> custom) {
+        this.slots = slots;
+        this.custom = custom;
+    }
+
+    /**
+     * Gets the global colors of the {@link LogFormatter}.
+     * @return A {@link Theme}: The colors currently set on the {@link LogFormatter}
+     */
+    public static Theme current() {
+        return LogFormatter.getGlobalTheme();
+    }
+
+    /**
+     * Looks up a {@link FormatColor} constant by its name.
+     * @param name A {@link String}: The name of the constant, e.g. <code>RED_BOLD_BRIGHT</code>
+     * @return A {@link String}: The ANSI escape sequence
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    public static String colorNamed(String name) {
+        if (name != null) {
+            try {
+                Field field = FormatColor.class.getField(name.trim());
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class) {
+                    return (String) field.get(null);
+                }
+            } catch (NoSuchFieldException | IllegalAccessException e) {
+                // reported below
+            }
+        }
+        throw new IllegalArgumentException("Unknown color: " + name);
+    }
+
+    /**
+     * Determines the color for the log message depending on the {@link Level}.
+     * @param level A {@link Level}: The {@link Level} of the log message
+     * @return A {@link String}: The color of the {@link Level}, {@link FormatColor#WHITE} if it has none
+     */
+    public String colorOf(Level level) {
+        return colorOf(level.intValue());
+    }
+
+    /**
+     * Creates a copy of this theme with another color for one {@link Level}, which may be a custom {@link Level}.
+     * @param level A {@link Level}: The {@link Level}, except {@link Level#ALL} and {@link Level#OFF}
+     * @param color A {@link String}: The new color of the {@link Level}
+     * @return A {@link Theme}: The changed copy
+     * @throws IllegalArgumentException if the {@link Level} is {@link Level#ALL} or {@link Level#OFF}
+     */
+    public Theme withColor(Level level, String color) {
+        int value = level.intValue();
+        if (value == Level.ALL.intValue() || value == Level.OFF.intValue()) {
+            throw new IllegalArgumentException("Cannot color the level " + level);
+        }
+        Objects.requireNonNull(color, "color");
+        int slot = slotOf(value);
+        if (slot >= 0) {
+            String[] copy = slots.clone();
+            copy[slot] = color;
+            return new Theme(copy, custom);
+        }
+        Map<Integer, String> copy = new TreeMap<>(custom);
+        copy.put(value, color);
+        return new Theme(slots, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#SEVERE SEVERE}.
+     * @return A {@link String}: The color
+     */
+    public String severeColor() {
+        return colorOf(Level.SEVERE);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#WARNING WARNING}.
+     * @return A {@link String}: The color
+     */
+    public String warningColor() {
+        return colorOf(Level.WARNING);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#INFO INFO}.
+     * @return A {@link String}: The color
+     */
+    public String infoColor() {
+        return colorOf(Level.INFO);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#CONFIG CONFIG}.
+     * @return A {@link String}: The color
+     */
+    public String configColor() {
+        return colorOf(Level.CONFIG);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#FINE FINE}.
+     * @return A {@link String}: The color
+     */
+    public String fineColor() {
+        return colorOf(Level.FINE);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#FINER FINER}.
+     * @return A {@link String}: The color
+     */
+    public String finerColor() {
+        return colorOf(Level.FINER);
+    }
+
+    /**
+     * Gets the color for the {@link Level} {@link Level#FINEST FINEST}.
+     * @return A {@link String}: The color
+     */
+    public String finestColor() {
+        return colorOf(Level.FINEST);
+    }
+
+    /**
+     * Compares the colors of two themes.
+     * @param o An {@link Object}: The other theme
+     * @return A {@link Boolean}: Whether both themes have the same colors for all levels
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Theme other && Arrays.equals(slots, other.slots) && custom.equals(other.custom);
+    }
+
+    /**
+     * Hashes the colors of this theme.
+     * @return An {@link Integer}: The hash code
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(slots) + custom.hashCode();
+    }
+
+    /**
+     * Describes the colors of this theme, by level value.
+     * @return A {@link String}: The colors
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Theme[");
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (slots[slot] != null) {
+                builder.append(slot * 100).append('=').append(slots[slot]).append(", ");
+            }
+        }
+        for (Map.Entry<Integer, String> entry : custom.entrySet()) {
+            builder.append(entry.getKey()).append('=').append(entry.getValue()).append(", ");
+        }
+        builder.setLength(builder.length() - 2);
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Finds the color of a level value.
+     * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+     * @return A {@link String}: The color, {@link #WHITE} if the level has none
+     */
+    private String colorOf(int value) {
+        int slot = slotOf(value);
+        String color = slot >= 0 ? slots[slot] : custom.isEmpty() ? null : custom.get(value);
+        return color != null ? color : WHITE;
+    }
+
+    /**
+     * Gets the array slot of a level value.
+     * @param value An {@link Integer}: The {@link Level#intValue() value} of the level
+     * @return An {@link Integer}: The slot, or -1 if the value is not a multiple of 100 between 0 and 1000
+     */
+    private static int slotOf(int value) {
+        return value >= 0 && value <= 1000 && value % 100 == 0 ? value / 100 : -1;
+    }
+}
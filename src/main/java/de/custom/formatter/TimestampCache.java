@@ -0,0 +1,311 @@
+package de.custom.formatter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Renders timestamps as <code>yyyy-MM-dd HH:mm:ss</code>, optionally followed by milliseconds or microseconds. <br>
+ * The rendered date and time is cached per second: Within the same minute only the two second digits are patched into
+ * the previous text, and only a new minute is rendered from scratch. The cache is an immutable snapshot published
+ * through a volatile field, so one instance can be shared by any number of formatters on any number of threads.
+ */
+@SuppressWarnings("unused")
+public final class TimestampCache {
+
+    /**
+     * The precision of the fraction printed after the seconds
+     */
+    public enum Precision {
+        /**
+         * Prints no fraction: <code>yyyy-MM-dd HH:mm:ss</code>
+         */
+        SECONDS(0),
+        /**
+         * Prints milliseconds: <code>yyyy-MM-dd HH:mm:ss.SSS</code>
+         */
+        MILLISECONDS(3),
+        /**
+         * Prints microseconds: <code>yyyy-MM-dd HH:mm:ss.SSSSSS</code>
+         */
+        MICROSECONDS(6);
+
+        /**
+         * The number of digits printed after the seconds
+         */
+        private final int digits;
+
+        /**
+         * The Constructor: Sets the number of digits printed after the seconds
+         * @param digits An {@link Integer}: The number of fraction digits
+         */
+        Precision(int digits) {
+            this.digits = digits;
+        }
+
+        /**
+         * Gets the number of digits printed after the seconds.
+         * @return An {@link Integer}: The number of fraction digits
+         */
+        public int getDigits() {
+            return digits;
+        }
+    }
+
+    /**
+     * The length of <code>yyyy-MM-dd HH:mm:ss</code>
+     */
+    private static final int PREFIX_LENGTH = 19;
+
+    /**
+     * The powers of ten used to cut the nanoseconds down to the configured precision
+     */
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+
+    /**
+     * The {@link ZoneId time zone} the timestamps are rendered in
+     */
+    private final ZoneId zone;
+
+    /**
+     * The {@link ZoneRules} of the {@link #zone}
+     */
+    private final ZoneRules rules;
+
+    /**
+     * The {@link Precision} of the fraction printed after the seconds
+     */
+    private final Precision precision;
+
+    /**
+     * The last rendered second, replaced as a whole whenever a new second is rendered
+     */
+    private volatile Entry cache;
+
+    /**
+     * Creates a {@link TimestampCache} printing whole seconds in the system default time zone.
+     */
+    public TimestampCache() {
+        this(ZoneId.systemDefault(), Precision.SECONDS);
+    }
+
+    /**
+     * Creates a {@link TimestampCache} for the passed time zone and precision.
+     * @param zone A {@link ZoneId}: The time zone the timestamps are rendered in
+     * @param precision A {@link Precision}: The precision of the fraction printed after the seconds
+     */
+    public TimestampCache(ZoneId zone, Precision precision) {
+        if (zone == null || precision == null) {
+            throw new NullPointerException(zone == null ? "zone" : "precision");
+        }
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.precision = precision;
+    }
+
+    /**
+     * Gets the time zone the timestamps are rendered in.
+     * @return A {@link ZoneId}: The time zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Gets the precision of the fraction printed after the seconds.
+     * @return A {@link Precision}: The precision
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Renders the passed point in time.
+     * @param instant An {@link Instant}: The point in time to render
+     * @return A {@link String}: The rendered timestamp
+     */
+    public String format(Instant instant) {
+        StringBuilder builder = new StringBuilder(PREFIX_LENGTH + 1 + precision.digits);
+        formatTo(instant, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Renders the passed milliseconds since the epoch.
+     * @param milliSecs A {@link Long}: The point in time to render
+     * @return A {@link String}: The rendered timestamp
+     */
+    public String format(long milliSecs) {
+        return format(Instant.ofEpochMilli(milliSecs));
+    }
+
+    /**
+     * Appends the rendered point in time to the passed {@link StringBuilder}, without creating any object as long as
+     * the second is already cached.
+     * @param instant An {@link Instant}: The point in time to render
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    public void formatTo(Instant instant, StringBuilder builder) {
+        formatTo(instant.getEpochSecond(), instant.getNano(), builder);
+    }
+
+    /**
+     * Appends the rendered point in time to the passed {@link StringBuilder}, given as the parts of an {@link Instant},
+     * e.g. of a {@link LogEvent}.
+     * @param epochSecond A {@link Long}: The seconds since the epoch
+     * @param nano An {@link Integer}: The nanoseconds within the second
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    public void formatTo(long epochSecond, int nano, StringBuilder builder) {
+        builder.append(secondOf(epochSecond).text);
+        if (precision.digits > 0) {
+            builder.append('.');
+            int fraction = nano / POWERS_OF_TEN[9 - precision.digits];
+            for (int divisor = POWERS_OF_TEN[precision.digits - 1]; divisor > 0; divisor /= 10) {
+                builder.append((char) ('0' + fraction / divisor % 10));
+            }
+        }
+    }
+
+    /**
+     * Gets the cached {@link Entry} for the passed second, rendering it if it is not the cached one.
+     * @param epochSecond A {@link Long}: The seconds since the epoch
+     * @return An {@link Entry}: The rendered second
+     */
+    private Entry secondOf(long epochSecond) {
+        Entry entry = cache;
+        if (entry != null && entry.epochSecond == epochSecond) {
+            return entry;
+        }
+        entry = render(entry, epochSecond);
+        cache = entry;
+        return entry;
+    }
+
+    /**
+     * Renders the passed second. If it lies in the same local minute as the previous {@link Entry} and no offset
+     * transition happened in between, only the second digits are patched into the previous text.
+     * @param previous An {@link Entry}: The previously cached second, may be null
+     * @param epochSecond A {@link Long}: The seconds since the epoch
+     * @return An {@link Entry}: The rendered second
+     */
+    private Entry render(Entry previous, long epochSecond) {
+        int offset;
+        long offsetValidFrom;
+        long offsetValidUntil;
+        if (previous != null && epochSecond >= previous.offsetValidFrom && epochSecond < previous.offsetValidUntil) {
+            offset = previous.offset;
+            offsetValidFrom = previous.offsetValidFrom;
+            offsetValidUntil = previous.offsetValidUntil;
+        } else {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            offset = rules.getOffset(instant).getTotalSeconds();
+            ZoneOffsetTransition last = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetValidFrom = last == null ? Long.MIN_VALUE : last.toEpochSecond();
+            offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+        }
+
+        long localSecond = epochSecond + offset;
+        char[] text;
+        if (previous != null && previous.offset == offset
+                && Math.floorDiv(previous.localSecond, 60) == Math.floorDiv(localSecond, 60)) {
+            text = previous.chars.clone();
+        } else {
+            LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+            text = new char[PREFIX_LENGTH];
+            writeDigits(text, 0, dateTime.getYear(), 4);
+            text[4] = '-';
+            writeDigits(text, 5, dateTime.getMonthValue(), 2);
+            text[7] = '-';
+            writeDigits(text, 8, dateTime.getDayOfMonth(), 2);
+            text[10] = ' ';
+            writeDigits(text, 11, dateTime.getHour(), 2);
+            text[13] = ':';
+            writeDigits(text, 14, dateTime.getMinute(), 2);
+            text[16] = ':';
+        }
+        writeDigits(text, 17, Math.floorMod(localSecond, 60), 2);
+        return new Entry(epochSecond, localSecond, offset, offsetValidFrom, offsetValidUntil, text);
+    }
+
+    /**
+     * Writes a zero-padded number into the passed array.
+     * @param text A char array: The array to write into
+     * @param start An {@link Integer}: The index of the first digit
+     * @param value An {@link Integer}: The number to write
+     * @param width An {@link Integer}: The number of digits to write
+     */
+    private static void writeDigits(char[] text, int start, int value, int width) {
+        for (int i = start + width - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * An immutable, rendered second together with the time zone offset it was rendered with.
+     */
+    private static final class Entry {
+
+        /**
+         * The seconds since the epoch
+         */
+        private final long epochSecond;
+
+        /**
+         * The seconds since the epoch, shifted by the {@link #offset}
+         */
+        private final long localSecond;
+
+        /**
+         * The offset of the time zone in seconds
+         */
+        private final int offset;
+
+        /**
+         * The first epoch second the {@link #offset} is valid for
+         */
+        private final long offsetValidFrom;
+
+        /**
+         * The first epoch second the {@link #offset} is no longer valid for
+         */
+        private final long offsetValidUntil;
+
+        /**
+         * The rendered <code>yyyy-MM-dd HH:mm:ss</code>
+         */
+        private final char[] chars;
+
+        /**
+         * The {@link #chars} as a {@link String}, so appending them does not copy the array again
+         */
+        private final String text;
+
+        /**
+         * The Constructor: Stores the rendered second.
+         * @param epochSecond A {@link Long}: The seconds since the epoch
+         * @param localSecond A {@link Long}: The seconds since the epoch, shifted by the offset
+         * @param offset An {@link Integer}: The offset of the time zone in seconds
+         * @param offsetValidFrom A {@link Long}: The first epoch second the offset is valid for
+         * @param offsetValidUntil A {@link Long}: The first epoch second the offset is no longer valid for
+         * @param chars A char array: The rendered <code>yyyy-MM-dd HH:mm:ss</code>
+         */
+        private Entry(long epochSecond, long localSecond, int offset, long offsetValidFrom, long offsetValidUntil,
+                      char[] chars) {
+            this.epochSecond = epochSecond;
+            this.localSecond = localSecond;
+            this.offset = offset;
+            this.offsetValidFrom = offsetValidFrom;
+            this.offsetValidUntil = offsetValidUntil;
+            this.chars = chars;
+            this.text = new String(chars);
+        }
+    }
+}
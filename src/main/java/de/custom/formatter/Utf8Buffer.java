@@ -0,0 +1,210 @@
+package de.custom.formatter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A reusable byte buffer holding formatted log output encoded as UTF-8, without the intermediate
+ * {@link java.nio.CharBuffer}s and arrays of a {@link java.nio.charset.CharsetEncoder}. <br>
+ * Runs of ASCII characters, such as the ANSI colors and brackets of every log line, are copied one byte per
+ * character; only other characters go through the full UTF-8 encoding. Unpaired surrogates are encoded as
+ * <code>'?'</code>, like {@link String#getBytes(java.nio.charset.Charset)} does. <br>
+ * The buffer only grows, so once it fits the longest record, encoding and writing a record allocates nothing. It is
+ * not thread-safe: each handler keeps its own and uses it under its own lock.
+ */
+@SuppressWarnings("unused")
+public final class Utf8Buffer {
+
+    /**
+     * The encoded bytes
+     */
+    private byte[] bytes;
+
+    /**
+     * The {@link ByteBuffer} wrapping {@link #bytes}, handed to channels
+     */
+    private ByteBuffer view;
+
+    /**
+     * The number of encoded bytes
+     */
+    private int length;
+
+    /**
+     * Creates an empty {@link Utf8Buffer}.
+     * @param initialCapacity An {@link Integer}: The initial size of the buffer in bytes
+     */
+    public Utf8Buffer(int initialCapacity) {
+        bytes = new byte[Math.max(16, initialCapacity)];
+        view = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Replaces the content of the buffer with the passed characters, encoded as UTF-8 in a single pass. The exact
+     * length is only measured when the characters might not fit.
+     * @param chars A {@link CharSequence}: The characters to encode
+     */
+    public void encode(CharSequence chars) {
+        if (bytes.length < chars.length() * 3) {
+            int needed = encodedLength(chars);
+            if (bytes.length < needed) {
+                bytes = new byte[Math.max(needed, bytes.length * 2)];
+                view = ByteBuffer.wrap(bytes);
+            }
+        }
+        length = encode(chars, bytes);
+    }
+
+    /**
+     * Replaces the content of the buffer with a copy of the bytes encoded in another buffer.
+     * @param other A {@link Utf8Buffer}: The buffer to copy
+     */
+    public void copyFrom(Utf8Buffer other) {
+        if (bytes.length < other.length) {
+            bytes = new byte[Math.max(other.length, bytes.length * 2)];
+            view = ByteBuffer.wrap(bytes);
+        }
+        System.arraycopy(other.bytes, 0, bytes, 0, other.length);
+        length = other.length;
+    }
+
+    /**
+     * Gets the array holding the encoded bytes, which is only valid up to {@link #length()}.
+     * @return A byte array: The backing array
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of encoded bytes.
+     * @return An {@link Integer}: The number of encoded bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Writes the encoded bytes to an {@link OutputStream}.
+     * @param out An {@link OutputStream}: The {@link OutputStream} to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Copies the encoded bytes into the {@link ByteBuffer}, starting at its position.
+     * @param target A {@link ByteBuffer}: The {@link ByteBuffer} to write to
+     * @throws BufferOverflowException if the {@link ByteBuffer} has not enough space left, its position is left
+     *                                 unchanged in that case
+     */
+    public void writeTo(ByteBuffer target) {
+        target.put(bytes, 0, length);
+    }
+
+    /**
+     * Writes all encoded bytes to a channel.
+     * @param channel A {@link WritableByteChannel}: The channel to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        view.clear().limit(length);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+
+    /**
+     * Calculates how many bytes the passed characters take up in UTF-8.
+     * @param chars A {@link CharSequence}: The characters to measure
+     * @return An {@link Integer}: The number of bytes
+     */
+    private static int encodedLength(CharSequence chars) {
+        int length = chars.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    bytes += 2;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // encoded as a single '?'
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes the passed characters into the array, which must have room for
+     * {@link #encodedLength(CharSequence) all of them}.
+     * @param chars A {@link CharSequence}: The characters to encode
+     * @param target A byte array: The array to write to
+     * @return An {@link Integer}: The number of written bytes
+     */
+    private static int encode(CharSequence chars, byte[] target) {
+        int length = chars.length();
+        int i = 0;
+        int position = 0;
+        while (i < length) {
+            // ASCII fast path
+            char c = chars.charAt(i);
+            while (c < 0x80) {
+                target[position++] = (byte) c;
+                if (++i == length) {
+                    return position;
+                }
+                c = chars.charAt(i);
+            }
+            if (c < 0x800) {
+                target[position++] = (byte) (0xC0 | (c >> 6));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                int codePoint = codePointAt(chars, i, length);
+                if (codePoint < 0) {
+                    target[position++] = (byte) '?';
+                } else {
+                    target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    i++;
+                }
+            } else {
+                target[position++] = (byte) (0xE0 | (c >> 12));
+                target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+            i++;
+        }
+        return position;
+    }
+
+    /**
+     * Gets the code point of the surrogate pair starting at the passed index.
+     * @param chars A {@link CharSequence}: The characters
+     * @param index An {@link Integer}: The index of the surrogate
+     * @param length An {@link Integer}: The number of characters
+     * @return An {@link Integer}: The code point, or -1 if the surrogate is unpaired
+     */
+    private static int codePointAt(CharSequence chars, int index, int length) {
+        char high = chars.charAt(index);
+        if (Character.isHighSurrogate(high) && index + 1 < length) {
+            char low = chars.charAt(index + 1);
+            if (Character.isLowSurrogate(low)) {
+                return Character.toCodePoint(high, low);
+            }
+        }
+        return -1;
+    }
+}
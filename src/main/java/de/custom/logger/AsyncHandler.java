@@ -0,0 +1,578 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} that hands every {@link LogRecord} to a single background thread, which then formats and writes it
+ * through the wrapped target {@link Handler}. <br>
+ * The records are passed through a pre-allocated, bounded ring buffer: producers claim a free sequence number with a
+ * single compare-and-set and publish their slot without taking any lock, so the calling thread never waits for the
+ * console. When the buffer is full, the {@link BackpressurePolicy} decides whether the producer waits for the consumer
+ * to free a slot, or a record is dropped. Dropped records are counted in {@link #getDroppedCount()} and the
+ * {@link LoggerMetrics}, and summed up by level in a single {@link Level#WARNING} line written through the target
+ * {@link Handler} at most once per {@link #getReportInterval() report interval}. <br>
+ * All records published before {@link #close()} are written before it returns, and a shutdown hook closes the handler
+ * when the JVM exits.
+ */
+@SuppressWarnings("unused")
+public class AsyncHandler extends Handler {
+
+    /**
+     * The default number of slots in the ring buffer
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * How long the consumer parks at most before it checks the ring buffer again, even if no producer woke it up
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * How often the consumer spins before it parks when the ring buffer is empty
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * The default time between two summaries of dropped records: 10 seconds
+     */
+    public static final Duration DEFAULT_REPORT_INTERVAL = Duration.ofSeconds(10);
+
+    /**
+     * The mask picking how many written records pass between two checks whether a summary is due
+     */
+    private static final int REPORT_CHECK_MASK = 1023;
+
+    /**
+     * The {@link Handler} doing the actual formatting and writing on the consumer thread
+     */
+    private final Handler target;
+
+    /**
+     * The pre-allocated slots of the ring buffer
+     */
+    private final LogRecord[] slots;
+
+    /**
+     * Stores, for each slot, the sequence number of the record last published into it
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * The mask turning a sequence number into a slot index, the capacity is always a power of two
+     */
+    private final int mask;
+
+    /**
+     * The highest sequence number claimed by a producer so far
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * The highest sequence number taken out of the ring buffer, by the consumer or by a producer dropping the oldest
+     * record; its slot is free again
+     */
+    private final AtomicLong taken = new AtomicLong(-1);
+
+    /**
+     * What happens to a record when the ring buffer is full
+     */
+    private final BackpressurePolicy policy;
+
+    /**
+     * Whether producers take records out of the ring buffer as well, see {@link BackpressurePolicy.Strategy#DROP_OLDEST}.
+     * The consumer then leaves the records in their slots until they are overwritten, as a producer may still reuse a
+     * slot the moment it is taken
+     */
+    private final boolean stealing;
+
+    /**
+     * The time between two summaries of dropped records in nanoseconds
+     */
+    private final long reportIntervalNanos;
+
+    /**
+     * The number of records dropped since the handler was created
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The number of records dropped since the last summary, by {@link Level}
+     */
+    private final Map<Level, LongAdder> unreported = new ConcurrentHashMap<>();
+
+    /**
+     * The time of the last summary, from {@link System#nanoTime()}, used only by the consumer
+     */
+    private long lastReport = System.nanoTime();
+
+    /**
+     * Whether the consumer is about to park and has to be woken up by the next producer
+     */
+    private volatile boolean consumerWaiting;
+
+    /**
+     * Whether the handler was {@link #close() closed}
+     */
+    private volatile boolean closed;
+
+    /**
+     * The background thread draining the ring buffer
+     */
+    private final Thread consumer;
+
+    /**
+     * The shutdown hook draining the ring buffer when the JVM exits
+     */
+    private final Thread shutdownHook;
+
+    /**
+     * The {@link LoggerMetrics} the queued records are counted in
+     */
+    private final LoggerMetrics metrics = LoggerMetrics.global();
+
+    /**
+     * Creates a new {@link AsyncHandler} with the {@link #DEFAULT_CAPACITY default capacity}, waiting for a free slot
+     * when the ring buffer is full.
+     * @param target A {@link Handler}: The {@link Handler} the records are formatted and written with
+     */
+    public AsyncHandler(Handler target) {
+        this(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link AsyncHandler}, waiting for a free slot when the ring buffer is full.
+     * @param target A {@link Handler}: The {@link Handler} the records are formatted and written with
+     * @param capacity An {@link Integer}: The number of slots in the ring buffer, rounded up to the next power of two
+     */
+    public AsyncHandler(Handler target, int capacity) {
+        this(target, capacity, BackpressurePolicy.block(), DEFAULT_REPORT_INTERVAL);
+    }
+
+    /**
+     * Creates a new {@link AsyncHandler} with the {@link #DEFAULT_CAPACITY default capacity} and
+     * {@link #DEFAULT_REPORT_INTERVAL default report interval}.
+     * @param target A {@link Handler}: The {@link Handler} the records are formatted and written with
+     * @param policy A {@link BackpressurePolicy}: What happens to a record when the ring buffer is full
+     */
+    public AsyncHandler(Handler target, BackpressurePolicy policy) {
+        this(target, DEFAULT_CAPACITY, policy, DEFAULT_REPORT_INTERVAL);
+    }
+
+    /**
+     * Creates a new {@link AsyncHandler} and starts its consumer thread.
+     * @param target A {@link Handler}: The {@link Handler} the records are formatted and written with
+     * @param capacity An {@link Integer}: The number of slots in the ring buffer, rounded up to the next power of two
+     * @param policy A {@link BackpressurePolicy}: What happens to a record when the ring buffer is full
+     * @param reportInterval A {@link Duration}: The time between two summaries of dropped records
+     */
+    public AsyncHandler(Handler target, int capacity, BackpressurePolicy policy, Duration reportInterval) {
+        if (target == null) {
+            throw new NullPointerException("target");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (reportInterval.isNegative() || reportInterval.isZero()) {
+            throw new IllegalArgumentException("Report interval must be positive: " + reportInterval);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.target = target;
+        this.slots = new LogRecord[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+        this.stealing = policy.strategy() == BackpressurePolicy.Strategy.DROP_OLDEST;
+        this.reportIntervalNanos = reportInterval.toNanos();
+        setLevel(Level.ALL);
+
+        consumer = new Thread(this::drain, "AsyncHandler-consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+
+        shutdownHook = new Thread(this::close, "AsyncHandler-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Puts the {@link LogRecord} into the ring buffer, so it is formatted and written by the consumer thread. If the
+     * buffer is full, the {@link BackpressurePolicy} decides whether to wait or drop a record. A record published
+     * after the handler is closed is dropped and counted as well. <br>
+     * The source class and method are resolved here, as they can only be inferred on the calling thread. A pooled
+     * {@link LogEvent} is reused once this returns, so a {@link LogEvent#toLogRecord() copy} of it is queued instead.
+     * A queued record emits a {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record to be logged
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (!isLoggable(logRecord)) {
+            return;
+        }
+        if (closed) {
+            drop(logRecord.getLevel());
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        logRecord.getSourceClassName();
+
+        long sequence = claim(logRecord.getLevel());
+        if (sequence < 0) {
+            drop(logRecord.getLevel());
+            return;
+        }
+        int index = (int) (sequence & mask);
+        if (closed) {
+            // the consumer may have stopped before it saw the claim: the empty slot only marks the sequence as taken
+            slots[index] = null;
+            published.set(index, sequence);
+            skipEmptySlots();
+            drop(logRecord.getLevel());
+            return;
+        }
+        slots[index] = logRecord instanceof LogEvent logEvent ? logEvent.toLogRecord() : logRecord;
+        published.set(index, sequence);
+        metrics.enqueued();
+
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+        if (event.shouldCommit()) {
+            event.set(logRecord, this, 0);
+            event.commit();
+        }
+    }
+
+    /**
+     * Claims the next sequence number once its slot is free, applying the {@link #policy} while the ring buffer is
+     * full. A producer gives up once the handler is closed, even while waiting, as the consumer may already be gone. <br>
+     * The caller checks {@link #closed} again after claiming: The consumer only stops once it saw the handler closed
+     * and no sequence claimed beyond the ones it took, so either the caller sees the handler closed, or the consumer
+     * waits for the claimed slot to be published.
+     * @param level A {@link Level}: The {@link Level} of the record to be put into the slot
+     * @return A {@link Long}: The claimed sequence number, or -1 if the record is to be dropped
+     */
+    private long claim(Level level) {
+        long deadline = 0;
+        while (true) {
+            if (closed) {
+                return -1;
+            }
+            long current = claimed.get();
+            if (current - taken.get() < slots.length) {
+                if (claimed.compareAndSet(current, current + 1)) {
+                    return current + 1;
+                }
+                continue;
+            }
+            switch (policy.strategy()) {
+                case DROP_NEWEST:
+                    return -1;
+                case DROP_OLDEST:
+                    dropOldest();
+                    continue;
+                case DROP_BELOW_LEVEL:
+                    if (level.intValue() < policy.threshold().intValue()) {
+                        return -1;
+                    }
+                    break;
+                case BLOCK_WITH_TIMEOUT:
+                    long now = System.nanoTime();
+                    if (deadline == 0) {
+                        deadline = now + policy.timeout().toNanos();
+                    } else if (now - deadline >= 0) {
+                        return -1;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            LockSupport.parkNanos(1);
+        }
+    }
+
+    /**
+     * Takes the empty slots of records claimed while the handler closed, as the consumer may already be gone. Stops at
+     * the first slot that is not yet published or still holds a record, which the consumer takes itself.
+     */
+    private void skipEmptySlots() {
+        while (true) {
+            long head = taken.get();
+            long next = head + 1;
+            int index = (int) (next & mask);
+            if (published.get(index) != next || slots[index] != null || !taken.compareAndSet(head, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest record out of the ring buffer and drops it, unless the consumer or another producer takes it
+     * first. The record is read before its sequence number is taken, and its slot cannot be reused before that.
+     */
+    private void dropOldest() {
+        long head = taken.get();
+        long oldest = head + 1;
+        int index = (int) (oldest & mask);
+        if (published.get(index) != oldest) {
+            Thread.onSpinWait();
+            return;
+        }
+        LogRecord logRecord = slots[index];
+        if (taken.compareAndSet(head, oldest) && logRecord != null) {
+            metrics.dequeued();
+            drop(logRecord.getLevel());
+        }
+    }
+
+    /**
+     * Counts a dropped record for {@link #getDroppedCount()}, the next summary and the {@link LoggerMetrics}.
+     * @param level A {@link Level}: The {@link Level} of the dropped record
+     */
+    private void drop(Level level) {
+        dropped.increment();
+        unreported.computeIfAbsent(level, key -> new LongAdder()).increment();
+        metrics.recordDropped();
+    }
+
+    /**
+     * The loop of the consumer thread: Takes the published records out of the ring buffer in sequence order and passes
+     * them on to the {@link #target}, until the handler is {@link #close() closed} and every claimed slot is taken,
+     * skipping the empty slots of records dropped while it closed. Whenever the ring runs empty after a write, it
+     * flushes the {@link #target} before it parks. In between it writes the summary of dropped records once the
+     * {@link #reportIntervalNanos report interval} has passed.
+     */
+    private void drain() {
+        int idle = 0;
+        long written = 0;
+        boolean unflushed = false;
+        while (true) {
+            long next = taken.get() + 1;
+            int index = (int) (next & mask);
+            if (published.get(index) == next) {
+                LogRecord logRecord = slots[index];
+                if (stealing) {
+                    if (!taken.compareAndSet(next - 1, next)) {
+                        continue;
+                    }
+                } else {
+                    slots[index] = null;
+                    taken.set(next);
+                }
+                idle = 0;
+                if (logRecord == null) {
+                    continue;
+                }
+                write(logRecord);
+                unflushed = true;
+                metrics.dequeued();
+                if ((++written & REPORT_CHECK_MASK) == 0) {
+                    reportDrops(false);
+                }
+            } else if (closed && claimed.get() < next) {
+                break;
+            } else if (idle < SPIN_TRIES) {
+                idle++;
+                Thread.onSpinWait();
+            } else {
+                reportDrops(false);
+                if (unflushed) {
+                    flushTarget();
+                    unflushed = false;
+                }
+                consumerWaiting = true;
+                if (published.get(index) != next && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                consumerWaiting = false;
+            }
+        }
+        reportDrops(true);
+        flushTarget();
+    }
+
+    /**
+     * Writes a single {@link Level#WARNING} line through the {@link #target}, summing up the records dropped since the
+     * last one by level. Called on the consumer thread only.
+     * @param force A {@link Boolean}: Whether to write the summary before the report interval has passed
+     */
+    private void reportDrops(boolean force) {
+        long now = System.nanoTime();
+        if (unreported.isEmpty() || !force && now - lastReport < reportIntervalNanos) {
+            return;
+        }
+        List<Level> levels = new ArrayList<>(unreported.keySet());
+        levels.sort(Comparator.comparingInt(Level::intValue));
+        StringBuilder byLevel = new StringBuilder();
+        long total = 0;
+        for (Level level : levels) {
+            long count = unreported.get(level).sumThenReset();
+            if (count > 0) {
+                byLevel.append(byLevel.length() == 0 ? "" : ", ").append(level.getName()).append(": ").append(count);
+                total += count;
+            }
+        }
+        if (total == 0) {
+            return;
+        }
+        LogRecord summary = new LogRecord(Level.WARNING, "Dropped " + total + " log records in the last "
+                + TimeUnit.NANOSECONDS.toMillis(now - lastReport) + " ms because the queue was full (" + byLevel
+                + "), policy " + policy.strategy());
+        summary.setLoggerName(AsyncHandler.class.getName());
+        summary.setSourceClassName(AsyncHandler.class.getName());
+        summary.setSourceMethodName("reportDrops");
+        lastReport = now;
+        write(summary);
+    }
+
+    /**
+     * Passes a single {@link LogRecord} on to the {@link #target}, reporting any failure to the {@link ErrorManager}
+     * instead of killing the consumer thread.
+     * @param logRecord A {@link LogRecord}: The record to be written
+     */
+    private void write(LogRecord logRecord) {
+        try {
+            target.publish(logRecord);
+        } catch (RuntimeException e) {
+            metrics.recordDropped();
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+     * Flushes the {@link #target}. Called on the consumer thread only, so a failing target cannot stop it.
+     */
+    private void flushTarget() {
+        try {
+            target.flush();
+        } catch (RuntimeException e) {
+            reportError("Failed to flush the target handler", e, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * Gets the number of records waiting in the ring buffer.
+     * @return A {@link Long}: The number of records not yet written
+     */
+    public long getQueueDepth() {
+        return Math.max(0, claimed.get() - taken.get());
+    }
+
+    /**
+     * Gets the number of records dropped because the ring buffer was full or the handler was closed.
+     * @return A {@link Long}: The number of records dropped since the handler was created
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets what happens to a record when the ring buffer is full.
+     * @return A {@link BackpressurePolicy}: The policy of this handler
+     */
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the time between two summaries of dropped records.
+     * @return A {@link Duration}: The report interval
+     */
+    public Duration getReportInterval() {
+        return Duration.ofNanos(reportIntervalNanos);
+    }
+
+    /**
+     * Gets the number of slots in the ring buffer.
+     * @return An {@link Integer}: The capacity of the ring buffer
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Sets the {@link Formatter} of the {@link #target}, as that is where the records are formatted.
+     * @param newFormatter A {@link Formatter}: The {@link Formatter} to use
+     */
+    @Override
+    public synchronized void setFormatter(Formatter newFormatter) {
+        target.setFormatter(newFormatter);
+    }
+
+    /**
+     * Gets the {@link Formatter} of the {@link #target}.
+     * @return A {@link Formatter}: The {@link Formatter} the records are formatted with
+     */
+    @Override
+    public Formatter getFormatter() {
+        return target.getFormatter();
+    }
+
+    /**
+     * Does nothing on the calling thread: The consumer flushes the {@link #target} whenever it runs out of records
+     * after writing some, right before it parks.
+     */
+    @Override
+    public void flush() {
+        // the consumer thread owns the target
+    }
+
+    /**
+     * Stops accepting new records, waits until every record already published is written and then closes the
+     * {@link #target}. Calling this method more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        LockSupport.unpark(consumer);
+        boolean interrupted = false;
+        while (consumer.isAlive()) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        target.close();
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
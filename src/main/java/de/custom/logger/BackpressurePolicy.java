@@ -0,0 +1,124 @@
+package de.custom.logger;
+
+import java.time.Duration;
+import java.util.logging.Level;
+
+/**
+ * What an {@link AsyncHandler} does with a record when its ring buffer is full. Every dropped record is counted and
+ * reported in a periodic summary line, see {@link AsyncHandler}.
+ * @param strategy A {@link Strategy}: What happens to the record
+ * @param timeout A {@link Duration}: How long to wait for a free slot with {@link Strategy#BLOCK_WITH_TIMEOUT}, or null
+ * @param threshold A {@link Level}: The {@link Level} below which records are dropped with
+ *                  {@link Strategy#DROP_BELOW_LEVEL}, or null
+ */
+@SuppressWarnings("unused")
+public record BackpressurePolicy(Strategy strategy, Duration timeout, Level threshold) {
+
+    /**
+     * The Constructor: Checks that exactly the strategies needing a timeout or threshold have one
+     */
+    public BackpressurePolicy {
+        if (strategy == null) {
+            throw new NullPointerException("strategy");
+        }
+        boolean timed = strategy == Strategy.BLOCK_WITH_TIMEOUT;
+        if (timed != (timeout != null)) {
+            throw new IllegalArgumentException(timed ? "A timeout is required for " + strategy
+                    : "No timeout is allowed for " + strategy);
+        }
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative: " + timeout);
+        }
+        boolean leveled = strategy == Strategy.DROP_BELOW_LEVEL;
+        if (leveled != (threshold != null)) {
+            throw new IllegalArgumentException(leveled ? "A threshold is required for " + strategy
+                    : "No threshold is allowed for " + strategy);
+        }
+        if (threshold != null && threshold.intValue() > Level.WARNING.intValue()) {
+            throw new IllegalArgumentException("Records of level WARNING and above are always kept, the threshold "
+                    + "must not be above WARNING: " + threshold);
+        }
+    }
+
+    /**
+     * Creates the {@link Strategy#BLOCK blocking} policy.
+     * @return A {@link BackpressurePolicy}: The policy waiting until a slot is free
+     */
+    public static BackpressurePolicy block() {
+        return new BackpressurePolicy(Strategy.BLOCK, null, null);
+    }
+
+    /**
+     * Creates a {@link Strategy#BLOCK_WITH_TIMEOUT blocking} policy that gives up after a while.
+     * @param timeout A {@link Duration}: How long to wait for a free slot before the record is dropped
+     * @return A {@link BackpressurePolicy}: The policy waiting at most the timeout
+     */
+    public static BackpressurePolicy blockWithTimeout(Duration timeout) {
+        if (timeout == null) {
+            throw new NullPointerException("timeout");
+        }
+        return new BackpressurePolicy(Strategy.BLOCK_WITH_TIMEOUT, timeout, null);
+    }
+
+    /**
+     * Creates the {@link Strategy#DROP_NEWEST} policy.
+     * @return A {@link BackpressurePolicy}: The policy dropping the record that does not fit
+     */
+    public static BackpressurePolicy dropNewest() {
+        return new BackpressurePolicy(Strategy.DROP_NEWEST, null, null);
+    }
+
+    /**
+     * Creates the {@link Strategy#DROP_OLDEST} policy.
+     * @return A {@link BackpressurePolicy}: The policy dropping the oldest waiting record to make room
+     */
+    public static BackpressurePolicy dropOldest() {
+        return new BackpressurePolicy(Strategy.DROP_OLDEST, null, null);
+    }
+
+    /**
+     * Creates a {@link Strategy#DROP_BELOW_LEVEL} policy.
+     * @param threshold A {@link Level}: The {@link Level} below which records are dropped, at most
+     *                  {@link Level#WARNING}
+     * @return A {@link BackpressurePolicy}: The policy dropping records below the threshold and waiting with the others
+     */
+    public static BackpressurePolicy dropBelow(Level threshold) {
+        if (threshold == null) {
+            throw new NullPointerException("threshold");
+        }
+        return new BackpressurePolicy(Strategy.DROP_BELOW_LEVEL, null, threshold);
+    }
+
+    /**
+     * The strategies of a {@link BackpressurePolicy}.
+     */
+    public enum Strategy {
+
+        /**
+         * The logging thread waits until a slot is free, nothing is dropped
+         */
+        BLOCK,
+
+        /**
+         * The logging thread waits until a slot is free, but drops the record once the timeout has passed
+         */
+        BLOCK_WITH_TIMEOUT,
+
+        /**
+         * The record that does not fit is dropped, the logging thread never waits
+         */
+        DROP_NEWEST,
+
+        /**
+         * The oldest record waiting in the ring buffer is dropped to make room, the logging thread never waits for the
+         * console
+         */
+        DROP_OLDEST,
+
+        /**
+         * Records below the threshold are dropped, the logging thread waits with the others, so
+         * {@link Level#WARNING} and {@link Level#SEVERE} records are always kept
+         */
+        DROP_BELOW_LEVEL
+    }
+}
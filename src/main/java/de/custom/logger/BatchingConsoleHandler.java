@@ -0,0 +1,203 @@
+package de.custom.logger;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link ColorConsoleHandler} collecting the encoded records in a large buffer and writing them to the console in
+ * one go, which turns one <code>write</code> system call per record into one per batch. <br>
+ * The batch is written when the next record does not fit into the buffer any more, when the oldest record in it has
+ * waited for the {@link #getMaxDelay() maximum delay}, and right away for records of level {@link Level#SEVERE} or
+ * above, so severe messages are never held back. {@link #flush()} and {@link #close()} write the batch as well.
+ */
+@SuppressWarnings("unused")
+public class BatchingConsoleHandler extends ColorConsoleHandler {
+
+    /**
+     * The default size of the batch buffer: 64 KiB
+     */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    /**
+     * The default time a record may wait in the buffer: 5 milliseconds
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(5);
+
+    /**
+     * The single thread writing batches whose deadline passed, shared by all handlers
+     */
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BatchingConsoleHandler-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The buffer collecting the encoded records
+     */
+    private final byte[] batch;
+
+    /**
+     * The time a record may wait in the buffer
+     */
+    private final Duration maxDelay;
+
+    /**
+     * The task writing the batch once its deadline passed
+     */
+    private final Runnable deadlineFlush = this::flushBatch;
+
+    /**
+     * The number of bytes in the {@link #batch}
+     */
+    private int pending;
+
+    /**
+     * Whether the {@link #deadlineFlush} is scheduled for the records in the {@link #batch}
+     */
+    private boolean scheduled;
+
+    /**
+     * Creates a {@link BatchingConsoleHandler} writing to the standard error stream with the
+     * {@link #DEFAULT_CAPACITY default capacity} and {@link #DEFAULT_MAX_DELAY maximum delay}.
+     */
+    public BatchingConsoleHandler() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Creates a {@link BatchingConsoleHandler} writing to the standard error stream like the
+     * {@link ColorConsoleHandler#ColorConsoleHandler() ColorConsoleHandler}.
+     * @param capacity An {@link Integer}: The size of the batch buffer in bytes
+     * @param maxDelay A {@link Duration}: The time a record may wait in the buffer
+     */
+    public BatchingConsoleHandler(int capacity, Duration maxDelay) {
+        super(FileDescriptor.err);
+        this.batch = new byte[checkCapacity(capacity)];
+        this.maxDelay = checkDelay(maxDelay);
+    }
+
+    /**
+     * Creates a {@link BatchingConsoleHandler} writing to the passed {@link OutputStream}.
+     * @param out An {@link OutputStream}: The {@link OutputStream} the batches are written to
+     * @param capacity An {@link Integer}: The size of the batch buffer in bytes
+     * @param maxDelay A {@link Duration}: The time a record may wait in the buffer
+     */
+    public BatchingConsoleHandler(OutputStream out, int capacity, Duration maxDelay) {
+        super(out);
+        this.batch = new byte[checkCapacity(capacity)];
+        this.maxDelay = checkDelay(maxDelay);
+    }
+
+    /**
+     * Checks the capacity of the batch buffer.
+     * @param capacity An {@link Integer}: The size of the batch buffer in bytes
+     * @return An {@link Integer}: The capacity, if it is positive
+     */
+    private static int checkCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        return capacity;
+    }
+
+    /**
+     * Checks the maximum delay of a record.
+     * @param maxDelay A {@link Duration}: The time a record may wait in the buffer
+     * @return A {@link Duration}: The delay, if it is not negative
+     */
+    private static Duration checkDelay(Duration maxDelay) {
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("Maximum delay must not be negative: " + maxDelay);
+        }
+        return maxDelay;
+    }
+
+    /**
+     * Appends the encoded record to the {@link #batch}, writing the batch first if the record does not fit and
+     * afterwards if the record is {@link Level#SEVERE severe}. Records larger than the whole buffer are written as
+     * they are.
+     * @param src A byte array: The encoded record
+     * @param length An {@link Integer}: The number of bytes of the record
+     * @param level A {@link Level}: The level of the record
+     * @throws IOException if writing fails
+     */
+    @Override
+    protected void write(byte[] src, int length, Level level) throws IOException {
+        if (length > batch.length - pending) {
+            writeBatch();
+        }
+        if (length > batch.length) {
+            writeThrough(src, length);
+            return;
+        }
+        System.arraycopy(src, 0, batch, pending, length);
+        pending += length;
+        if (level.intValue() >= Level.SEVERE.intValue() || maxDelay.isZero()) {
+            writeBatch();
+        } else if (!scheduled) {
+            scheduled = true;
+            FLUSHER.schedule(deadlineFlush, maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes the records collected in the {@link #batch} to the console.
+     * @throws IOException if writing fails
+     */
+    private void writeBatch() throws IOException {
+        if (pending > 0) {
+            int length = pending;
+            pending = 0;
+            writeThrough(batch, length);
+        }
+    }
+
+    /**
+     * Writes the {@link #batch} once its deadline passed, reporting failures to the {@link ErrorManager}.
+     */
+    private void flushBatch() {
+        lock.lock();
+        try {
+            scheduled = false;
+            writeBatch();
+        } catch (IOException e) {
+            reportError("Failed to write log records", e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the size of the batch buffer.
+     * @return An {@link Integer}: The size of the batch buffer in bytes
+     */
+    public int getCapacity() {
+        return batch.length;
+    }
+
+    /**
+     * Gets the time a record may wait in the buffer before the batch is written.
+     * @return A {@link Duration}: The maximum delay of a record
+     */
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Writes the records collected so far and flushes the console.
+     */
+    @Override
+    public void flush() {
+        flushBatch();
+        super.flush();
+    }
+}
@@ -0,0 +1,93 @@
+package de.custom.logger;
+
+import de.custom.formatter.Callsite;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Finds the {@link Callsite} a message is logged from, for detailed loggers. <br>
+ * Instead of letting every {@link java.util.logging.LogRecord LogRecord} infer its caller, a {@link StackWalker} looks
+ * at no more than {@link #MAX_DEPTH} frames and skips the frames of the logging framework itself. Only if all of them
+ * belong to the framework, e.g. behind a deep bridge or wrapper, is the rest of the stack walked as well. The resolved
+ * {@link Callsite}s, and with them their rendered <code>class#method</code> text, are cached per class and method.
+ */
+@SuppressWarnings("unused")
+public final class CallerResolver {
+
+    /**
+     * The number of frames looked at first, which is far more than the logging frames on top of a caller in most cases
+     */
+    static final int MAX_DEPTH = 16;
+
+    /**
+     * The {@link StackWalker} keeping the {@link Class} of each frame, so logging frames are skipped by type
+     */
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /**
+     * The cached {@link Callsite}s of each class, by method name
+     */
+    private static final ClassValue<Map<String, Callsite>> CALLSITES = new ClassValue<>() {
+        @Override
+        protected Map<String, Callsite> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * A private constructor to hide the implicitly public one
+     */
+    private CallerResolver() {}
+
+    /**
+     * Finds the first frame on the stack of the current thread that is not part of the logging framework. The first
+     * {@link #MAX_DEPTH} frames are looked at in one short walk, the rest of the stack only if none of them is the
+     * caller.
+     * @return A {@link Callsite}: The location of the caller, or {@link Callsite#UNKNOWN} if the whole stack belongs
+     *         to the logging framework
+     */
+    public static Callsite resolve() {
+        Optional<StackWalker.StackFrame> caller = WALKER.walk(frames -> frames
+                .limit(MAX_DEPTH)
+                .filter(frame -> !isLoggingFrame(frame.getDeclaringClass()))
+                .findFirst());
+        if (caller.isEmpty()) {
+            caller = WALKER.walk(frames -> frames
+                    .skip(MAX_DEPTH)
+                    .filter(frame -> !isLoggingFrame(frame.getDeclaringClass()))
+                    .findFirst());
+        }
+        if (caller.isEmpty()) {
+            return Callsite.UNKNOWN;
+        }
+        StackWalker.StackFrame frame = caller.get();
+        Class<?> type = frame.getDeclaringClass();
+        String methodName = frame.getMethodName();
+        Map<String, Callsite> callsites = CALLSITES.get(type);
+        Callsite callsite = callsites.get(methodName);
+        if (callsite == null) {
+            callsite = callsites.computeIfAbsent(methodName, name -> Callsite.of(type, name));
+        }
+        return callsite;
+    }
+
+    /**
+     * Checks, whether a frame belongs to the logging framework: a {@link Logger}, the {@link LazyLogger} or this
+     * resolver, the {@link System.Logger} bridges of the JDK, or reflection.
+     * @param type A {@link Class}: The class of the frame
+     * @return A {@link Boolean}: Whether the frame is skipped
+     */
+    private static boolean isLoggingFrame(Class<?> type) {
+        if (Logger.class.isAssignableFrom(type) || type == CallerResolver.class || type == LazyLogger.class) {
+            return true;
+        }
+        String name = type.getName();
+        return name.startsWith("java.lang.reflect.")
+                || name.startsWith("jdk.internal.")
+                || name.startsWith("sun.util.logging.")
+                || name.startsWith("java.lang.System$Logger");
+    }
+}
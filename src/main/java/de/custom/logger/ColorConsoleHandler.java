@@ -0,0 +1,273 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.Utf8Buffer;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A replacement for the {@link ConsoleHandler}, writing to the standard error stream as well. <br>
+ * Instead of creating a {@link String} per record and passing it through a {@link java.io.Writer}, the record is
+ * {@link LogFormatter#formatTo(LogRecord, StringBuilder) formatted} into a {@link StringBuilder}, encoded into a
+ * {@link Utf8Buffer} and written as it is. Both are reused by the thread, so logging allocates nothing per record
+ * once the buffers have grown to fit. <br>
+ * By default the bytes go straight to a {@link FileOutputStream} on {@link FileDescriptor#err}, skipping the locking
+ * and copying of {@link System#err}. Any other {@link OutputStream}, e.g. {@link System#err} after it was redirected
+ * with {@link System#setErr(java.io.PrintStream)}, is passed to {@link #ColorConsoleHandler(OutputStream)}. <br>
+ * The record is formatted before any lock is taken, so threads format in parallel and only wait for each other to
+ * write. The output is guarded by a {@link ReentrantLock} instead of a monitor, so a virtual thread writing a record
+ * does not pin its carrier thread. As an {@link EncodedSink}, it also writes records formatted once for several
+ * handlers.
+ */
+@SuppressWarnings("unused")
+public class ColorConsoleHandler extends Handler implements EncodedSink {
+
+    /**
+     * The initial size of the reused buffers
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * The {@link Buffers} of each thread
+     */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * The {@link ReentrantLock} guarding the output, held while a record is written but not while it is formatted
+     */
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The {@link OutputStream} the records are written to
+     */
+    private final OutputStream out;
+
+    /**
+     * Whether {@link #out} writes straight to a file descriptor, which needs no flushing
+     */
+    private final boolean direct;
+
+    /**
+     * The {@link LoggerMetrics} the formatting and writing is counted in
+     */
+    private final LoggerMetrics metrics = LoggerMetrics.global();
+
+    /**
+     * The number of writes so far, which picks the writes timed by the {@link #metrics}
+     */
+    private long writes;
+
+    /**
+     * Creates a {@link ColorConsoleHandler} writing to the standard error stream, logging {@link Level#ALL all}
+     * messages, straight through {@link FileDescriptor#err}.
+     */
+    public ColorConsoleHandler() {
+        this(FileDescriptor.err);
+    }
+
+    /**
+     * Creates a {@link ColorConsoleHandler} writing straight to a file descriptor, logging {@link Level#ALL all}
+     * messages.
+     * @param fd A {@link FileDescriptor}: {@link FileDescriptor#err} or {@link FileDescriptor#out}
+     */
+    public ColorConsoleHandler(FileDescriptor fd) {
+        this(fd, null);
+    }
+
+    /**
+     * Creates a {@link ColorConsoleHandler} writing to the passed {@link OutputStream}, logging {@link Level#ALL all}
+     * messages.
+     * @param out An {@link OutputStream}: The {@link OutputStream} the records are written to
+     */
+    public ColorConsoleHandler(OutputStream out) {
+        this(null, out);
+    }
+
+    /**
+     * The Constructor: Writes to the file descriptor if there is one, and to the {@link OutputStream} otherwise
+     * @param fd A {@link FileDescriptor}: The file descriptor to write to, or null
+     * @param out An {@link OutputStream}: The {@link OutputStream} to write to if there is no file descriptor
+     */
+    protected ColorConsoleHandler(FileDescriptor fd, OutputStream out) {
+        if (fd == null && out == null) {
+            throw new NullPointerException("out");
+        }
+        this.direct = fd != null;
+        this.out = direct ? new FileOutputStream(fd) : out;
+        setLevel(Level.ALL);
+    }
+
+    /**
+     * Formats the {@link LogRecord} into the buffers of the current thread and writes it to the console, emitting a
+     * {@link PublishEvent} while a flight recording has it enabled. Only the write holds the {@link #lock}.
+     * @param logRecord A {@link LogRecord}: The record to be logged
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (!isLoggable(logRecord)) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        Buffers buffers = BUFFERS.get();
+        if (buffers.inUse) {
+            // a parameter logs something itself while the outer record is formatted
+            buffers = new Buffers();
+        }
+        buffers.inUse = true;
+        try {
+            long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+            try {
+                Formatter formatter = getFormatter();
+                if (formatter instanceof LogFormatter logFormatter) {
+                    logFormatter.formatTo(logRecord, buffers.builder);
+                } else {
+                    buffers.builder.append(formatter.format(logRecord));
+                }
+                buffers.bytes.encode(buffers.builder);
+            } catch (RuntimeException e) {
+                metrics.recordDropped();
+                reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+                return;
+            }
+            metrics.recordFormat(start);
+            publishEncoded(logRecord, buffers.bytes, event);
+        } finally {
+            buffers.builder.setLength(0);
+            buffers.inUse = false;
+        }
+    }
+
+    /**
+     * Writes a record that was formatted and encoded once for several handlers, emitting a {@link PublishEvent} while a
+     * flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     */
+    @Override
+    public void publishEncoded(LogRecord logRecord, Utf8Buffer encoded) {
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        publishEncoded(logRecord, encoded, event);
+    }
+
+    /**
+     * Writes an encoded record under the {@link #lock}, reporting a failure to the
+     * {@link java.util.logging.ErrorManager ErrorManager}.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     * @param event A {@link PublishEvent}: The event begun before the record was formatted
+     */
+    private void publishEncoded(LogRecord logRecord, Utf8Buffer encoded, PublishEvent event) {
+        lock.lock();
+        try {
+            writeRecord(logRecord, encoded, event);
+        } catch (IOException e) {
+            metrics.recordDropped();
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes an encoded record and commits the {@link PublishEvent}. Called while holding the {@link #lock}.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     * @param event A {@link PublishEvent}: The event begun before the record was formatted
+     * @throws IOException if writing fails
+     */
+    private void writeRecord(LogRecord logRecord, Utf8Buffer encoded, PublishEvent event) throws IOException {
+        write(encoded.array(), encoded.length(), logRecord.getLevel());
+        if (event.shouldCommit()) {
+            event.set(logRecord, this, encoded.length());
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes an encoded record to the console. This handler writes every record {@link #writeThrough(byte[], int) right
+     * away}, subclasses may collect them first. Called while holding the {@link #lock}.
+     * @param src A byte array: The encoded record
+     * @param length An {@link Integer}: The number of bytes of the record
+     * @param level A {@link Level}: The level of the record
+     * @throws IOException if writing fails
+     */
+    protected void write(byte[] src, int length, Level level) throws IOException {
+        writeThrough(src, length);
+    }
+
+    /**
+     * Writes the bytes to the console at once, flushing the {@link #out output stream} unless it writes straight to a
+     * file descriptor. Called while holding the {@link #lock}.
+     * @param src A byte array: The bytes to write
+     * @param length An {@link Integer}: The number of bytes to write, starting at the beginning of the array
+     * @throws IOException if writing fails
+     */
+    protected final void writeThrough(byte[] src, int length) throws IOException {
+        long start = LoggerMetrics.startTimer(++writes);
+        out.write(src, 0, length);
+        if (!direct) {
+            out.flush();
+        }
+        metrics.recordWrite(start, length);
+    }
+
+    /**
+     * Flushes the {@link #out output stream}. Writes to the file descriptor are not buffered.
+     */
+    @Override
+    public void flush() {
+        if (direct) {
+            return;
+        }
+        lock.lock();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            reportError("Failed to flush", e, ErrorManager.FLUSH_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the console, but does not close it, just like {@link ConsoleHandler#close()} leaves {@link System#err}
+     * open.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * The reused buffers of one thread.
+     */
+    private static final class Buffers {
+
+        /**
+         * The reused {@link StringBuilder} the records are formatted into
+         */
+        private final StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+        /**
+         * The reused buffer the formatted records are encoded into
+         */
+        private final Utf8Buffer bytes = new Utf8Buffer(INITIAL_CAPACITY);
+
+        /**
+         * Whether a record of this thread is being formatted or written
+         */
+        private boolean inUse;
+    }
+}
@@ -1,17 +1,92 @@
 package de.custom.logger;
 
+import de.custom.formatter.Callsite;
+import de.custom.formatter.LogEvent;
 import de.custom.formatter.LogFormatter;
 
+import de.custom.logger.LoggerConfig.Sink;
+import de.custom.logger.LoggerRegistry.HandlerSpec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.MissingResourceException;
+import java.util.function.Supplier;
 import java.util.logging.*;
 
 @SuppressWarnings("unused")
 public class ColorLogger extends Logger {
 
     /**
-     * Stores, whether the Logger is detailed, meaning it will print its method of origin as well as its class
+     * The {@link Integer} value of {@link Level#OFF}
+     */
+    private static final int OFF_VALUE = Level.OFF.intValue();
+
+    /**
+     * The {@link #threshold} of a logger whose {@link Handler}s take the {@link Level} of its parent
+     */
+    private static final long INHERITED = Long.MIN_VALUE;
+
+    /**
+     * The {@link #threshold} of a logger that is {@link Level#OFF off}, above the value of every {@link Level}
+     */
+    private static final long DISABLED = Long.MAX_VALUE;
+
+    /**
+     * The {@link LoggerMetrics} the records of all {@link ColorLogger}s are counted in
+     */
+    private static final LoggerMetrics METRICS = LoggerMetrics.global();
+
+    /**
+     * The {@link Level} set on this logger with {@link #setLevel(Level)}, which the {@link LevelRules} do not override,
+     * or null
+     */
+    private volatile Level ownLevel;
+
+    /**
+     * The {@link Level} a factory or {@link ConfigWatcher} gave this logger, which the {@link LevelRules} override, or
+     * null if it takes the {@link Level} of its parent
+     */
+    private volatile Level defaultLevel;
+
+    /**
+     * The {@link Handler}s the records are passed to straight away, or null while a {@link Filter} or the parent
+     * {@link Handler}s require the usual way through {@link Logger#log(LogRecord)}
      */
-    private static boolean isDetailed = false;
+    private volatile Handler[] directHandlers;
+
+    /**
+     * The {@link #directHandlers} if none of them keeps a record after {@link Handler#publish(LogRecord) publishing}
+     * it, so the records can be pooled {@link LogEvent}s, otherwise null
+     */
+    private volatile Handler[] eventHandlers;
+
+    /**
+     * The {@link FlightRecorderHandler} getting the records of its own {@link Level}, or null
+     */
+    private volatile FlightRecorderHandler flightRecorder;
+
+    /**
+     * The {@link Level} in effect for this logger: the {@link #ownLevel}, otherwise the one of the closest of the
+     * {@link LevelRules}, otherwise the {@link #defaultLevel}, or null if it takes the {@link Level} of its parent
+     */
+    private volatile Level effectiveLevel;
+
+    /**
+     * The lowest {@link Level#intValue() value} a record needs to be passed to the {@link Handler}s, taken from the
+     * {@link #effectiveLevel}, or {@link #INHERITED}
+     */
+    private volatile long handlerThreshold = INHERITED;
+
+    /**
+     * The lowest {@link Level#intValue() value} a record needs to be passed to the {@link Handler}s or the
+     * {@link #flightRecorder}, or {@link #INHERITED} if the {@link Handler}s take the {@link Level} of the parent. It
+     * is folded from the own, rule, default and recorder {@link Level}s whenever one of them changes, so
+     * {@link #isLoggable(Level)} is a single volatile read
+     */
+    private volatile long threshold = INHERITED;
 
     /**
      * Protected method to construct a logger for a named subsystem.
@@ -32,39 +107,793 @@ public class ColorLogger extends Logger {
      */
     protected ColorLogger(String name, String resourceBundleName) {
         super(name, resourceBundleName);
+        LoggerRegistry.track(this);
+        updateThresholds();
     }
 
     /**
      * Creates a new {@link Logger} with the passed name, {@link Logger#setLevel(Level) sets} the {@link Handler}s and
-     * the {@link Logger}s {@link Level} to log {@link Level#ALL all} messages and adds the {@link LogFormatter}.
+     * the {@link Logger}s {@link Level} to log {@link Level#ALL all} messages and adds the {@link LogFormatter}. <br>
+     * Asking for the same logger again returns it as it is, and all loggers share one console {@link Handler}, see
+     * the {@link LoggerRegistry}. The messages keep the {@link de.custom.formatter.Theme#current() global colors}
+     * set when the logger is created.
      *
      * @param name A {@link String}: The name of the logger
      * @return A {@link Logger}: A {@link Logger}, customised with the {@link LogFormatter}
      */
     public static Logger newLogger(String name) {
-        Logger logger = Logger.getLogger(name);
-        Handler handlerObj = new ConsoleHandler();
-        handlerObj.setLevel(Level.ALL);
-        Formatter f = new LogFormatter(isDetailed);
-        handlerObj.setFormatter(f);
-        logger.addHandler(handlerObj);
-        logger.setLevel(Level.ALL);
-        logger.setUseParentHandlers(false);
+        return register(name, LoggerConfig.builder().build());
+    }
 
-        return logger;
+    /**
+     * Creates a new {@link Logger} with the passed name, writing to the {@link Sink}s of the {@link LoggerConfig} with
+     * a {@link LogFormatter} built from it, and logging {@link Level#ALL all} messages. <br>
+     * Asking for the same logger with an equal configuration returns it as it is, asking for it with another
+     * configuration replaces its {@link Handler}s. Loggers with the same format share their console {@link Handler},
+     * see the {@link LoggerRegistry}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Logger}: A {@link Logger}, customised with the {@link LogFormatter}
+     * @throws IOException if a file cannot be opened
+     */
+    public static Logger newLogger(String name, LoggerConfig config) throws IOException {
+        List<HandlerSpec> specs = new ArrayList<>(config.getSinks().size());
+        for (Sink sink : config.getSinks()) {
+            specs.add(specOf(sink, config));
+        }
+        return LoggerRegistry.configure(name, ColorLogger::getOrCreate, specs);
     }
 
     /**
-     * Sets {@link #isDetailed} to true and then returns the {@link Logger} from
-     * {@link #newLogger(String) newLogger()}. <br>
-     * This logger will also print its method of origin as well as its class.
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, which also prints the method of origin
+     * of its messages as well as their class. Other loggers are not affected.
      *
      * @param name A {@link String}: The name of the logger
      * @return A {@link Logger}: A detailed {@link Logger}, customised with the {@link LogFormatter}
      */
     public static Logger newDetailedLogger(String name) {
-        isDetailed = true;
-        return newLogger(name);
+        return register(name, LoggerConfig.builder().detailed(true).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()} and wraps it into a {@link LazyLogger},
+     * whose messages and parameters are only created if they are logged.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link LazyLogger}: A {@link LazyLogger} over a {@link Logger}, customised with the {@link LogFormatter}
+     */
+    public static LazyLogger newLazyLogger(String name) {
+        return new LazyLogger(newLogger(name));
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, but the console output is handed to an
+     * {@link AsyncHandler}, so the records are formatted and written on a background thread instead of the calling one.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: An asynchronous {@link Logger}, customised with the {@link LogFormatter}
+     */
+    public static Logger newAsyncLogger(String name) {
+        return register(name, LoggerConfig.builder().sink(Sink.asyncConsole()).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newAsyncLogger(String) newAsyncLogger()}, which applies the passed
+     * {@link BackpressurePolicy} when its queue is full instead of waiting, e.g.
+     * {@link BackpressurePolicy#dropBelow(Level) dropping} {@link Level#FINE} records. Dropped records are counted and
+     * summed up in a periodic {@link Level#WARNING} line, see {@link AsyncHandler}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param backpressure A {@link BackpressurePolicy}: What happens to a record when the queue is full
+     * @return A {@link Logger}: An asynchronous {@link Logger}, customised with the {@link LogFormatter}
+     */
+    public static Logger newAsyncLogger(String name, BackpressurePolicy backpressure) {
+        return register(name, LoggerConfig.builder().sink(Sink.asyncConsole(backpressure)).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newAsyncLogger(String) newAsyncLogger()}, which also prints the method
+     * of origin of its messages as well as their class. Other loggers are not affected.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: A detailed, asynchronous {@link Logger}, customised with the {@link LogFormatter}
+     */
+    public static Logger newDetailedAsyncLogger(String name) {
+        return register(name, LoggerConfig.builder().detailed(true).sink(Sink.asyncConsole()).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, but the console output is collected by
+     * a {@link BatchingConsoleHandler} and written in batches, which saves system calls when many messages are logged.
+     * A message may be held back for a few milliseconds, unless it is {@link Level#SEVERE severe}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: A {@link Logger} writing in batches, customised with the {@link LogFormatter}
+     */
+    public static Logger newBatchingLogger(String name) {
+        return register(name, LoggerConfig.builder().sink(Sink.batchedConsole()).build());
     }
-}
 
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, but every thread logging through it
+     * formats its messages into a buffer of its own, which a {@link PerThreadBufferHandler} merges in order on a single
+     * writer thread. Threads logging at the same time therefore do not wait for each other.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: A {@link Logger} with per-thread buffers, customised with the {@link LogFormatter}
+     */
+    public static Logger newPerThreadLogger(String name) {
+        return register(name, LoggerConfig.builder().sink(Sink.perThread()).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, which additionally appends every
+     * message to a file through a {@link MappedFileHandler}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param file A {@link Path}: The log file, created if it does not exist
+     * @return A {@link Logger}: A {@link Logger} logging to the console and the file, customised with the
+     *         {@link LogFormatter}
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static Logger newMappedFileLogger(String name, Path file) throws IOException {
+        return newLogger(name, LoggerConfig.builder().sink(Sink.console()).sink(Sink.mappedFile(file)).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} like {@link #newLogger(String) newLogger()}, which additionally writes every message
+     * to a series of numbered, rolling files through a {@link RollingFileHandler} with its default limits.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param file A {@link Path}: The log file, e.g. <code>logs/app.log</code>, which is numbered when rolling over
+     * @return A {@link Logger}: A {@link Logger} logging to the console and the files, customised with the
+     *         {@link LogFormatter}
+     * @throws IOException if the first file cannot be opened
+     */
+    public static Logger newRollingFileLogger(String name, Path file) throws IOException {
+        return newLogger(name, LoggerConfig.builder().sink(Sink.console()).sink(Sink.rollingFile(file)).build());
+    }
+
+    /**
+     * Creates a new {@link Logger} writing to the console, whose {@link Level}, colors, detail and layout are loaded
+     * from a properties file and reloaded whenever the file changes, see {@link ConfigWatcher}. All loggers of a file
+     * share one console {@link Handler}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param configFile A {@link Path}: The properties file
+     * @return A {@link Logger}: A {@link Logger} following the file, customised with the {@link LogFormatter}
+     * @throws IOException if the file cannot be read or watched
+     * @throws IllegalArgumentException if the file contains an invalid level, color or layout
+     */
+    public static Logger newWatchedLogger(String name, Path configFile) throws IOException {
+        ConfigWatcher watcher = ConfigWatcher.watch(configFile);
+        Logger logger = LoggerRegistry.configure(name, ColorLogger::getOrCreate, List.of(
+                new HandlerSpec("watched:" + watcher.getKey(), () -> {
+                    Handler handlerObj = new ColorConsoleHandler();
+                    handlerObj.setLevel(Level.ALL);
+                    handlerObj.setFormatter(watcher.getFormatter());
+                    return handlerObj;
+                })));
+        watcher.attach(logger);
+        return logger;
+    }
+
+    /**
+     * Attaches a {@link FlightRecorderHandler} to the logger. A {@link ColorLogger} passes it every record of the
+     * {@link Handler#getLevel() level} of the recorder, even records below its own {@link Level}, which are not passed
+     * to its other {@link Handler}s; this way a logger running at {@link Level#INFO} can still record the
+     * {@link Level#FINE} context of an error. Any other {@link Logger} gets the recorder as an ordinary
+     * {@link Handler}, which only sees the records the logger logs.
+     *
+     * @param logger A {@link Logger}: The logger to record
+     * @param recorder A {@link FlightRecorderHandler}: The recorder, replacing the one attached before
+     */
+    public static void attachFlightRecorder(Logger logger, FlightRecorderHandler recorder) {
+        if (recorder == null) {
+            throw new NullPointerException("recorder");
+        }
+        if (logger instanceof ColorLogger colorLogger) {
+            colorLogger.flightRecorder = recorder;
+            colorLogger.updateThresholds();
+        } else {
+            logger.addHandler(recorder);
+        }
+    }
+
+    /**
+     * Detaches a {@link FlightRecorderHandler} attached by {@link #attachFlightRecorder(Logger, FlightRecorderHandler)}.
+     * The recorder is not closed.
+     *
+     * @param logger A {@link Logger}: The recorded logger
+     * @param recorder A {@link FlightRecorderHandler}: The attached recorder
+     */
+    public static void detachFlightRecorder(Logger logger, FlightRecorderHandler recorder) {
+        if (logger instanceof ColorLogger colorLogger) {
+            if (colorLogger.flightRecorder == recorder) {
+                colorLogger.flightRecorder = null;
+                colorLogger.updateThresholds();
+            }
+        } else {
+            logger.removeHandler(recorder);
+        }
+    }
+
+    /**
+     * Gets the counters of all {@link ColorLogger}s and the {@link Handler}s of this package: records per level, bytes
+     * written, records dropped and queued, and the format and write latencies. They are also registered over JMX as
+     * {@value LoggerMetrics#OBJECT_NAME}.
+     *
+     * @return A {@link LoggerMetrics}: The global metrics, see {@link LoggerMetrics#snapshot()}
+     */
+    public static LoggerMetrics getMetrics() {
+        return METRICS;
+    }
+
+    /**
+     * Logs a message from a known {@link Callsite}, so its source class and method do not have to be found by walking
+     * the stack. The {@link Callsite} is best created once and stored in a <code>static final</code> field.
+     *
+     * @param logger A {@link Logger}: The {@link Logger} to log with
+     * @param callsite A {@link Callsite}: The location the message is logged from
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     */
+    public static void logAt(Logger logger, Callsite callsite, Level level, String msg) {
+        if (logger.isLoggable(level)) {
+            publish(logger, newRecord(logger, callsite, level, msg));
+        }
+    }
+
+    /**
+     * Logs a message with parameters from a known {@link Callsite}, see {@link #logAt(Logger, Callsite, Level, String)}.
+     *
+     * @param logger A {@link Logger}: The {@link Logger} to log with
+     * @param callsite A {@link Callsite}: The location the message is logged from
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param params An {@link Object} array: The parameters of the message
+     */
+    public static void logAt(Logger logger, Callsite callsite, Level level, String msg, Object... params) {
+        if (logger.isLoggable(level)) {
+            LogRecord lr = newRecord(logger, callsite, level, msg);
+            lr.setParameters(params);
+            publish(logger, lr);
+        }
+    }
+
+    /**
+     * Logs a message with a {@link Throwable} from a known {@link Callsite}, see
+     * {@link #logAt(Logger, Callsite, Level, String)}.
+     *
+     * @param logger A {@link Logger}: The {@link Logger} to log with
+     * @param callsite A {@link Callsite}: The location the message is logged from
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param thrown A {@link Throwable}: The {@link Throwable} associated with the message
+     */
+    public static void logAt(Logger logger, Callsite callsite, Level level, String msg, Throwable thrown) {
+        if (logger.isLoggable(level)) {
+            LogRecord lr = newRecord(logger, callsite, level, msg);
+            lr.setThrown(thrown);
+            publish(logger, lr);
+        }
+    }
+
+    /**
+     * Checks, whether a message of the passed {@link Level} would be logged, either by the {@link Handler}s of this
+     * logger or by its {@link #flightRecorder}. Unless the logger takes the {@link Level} of its parent, this is a
+     * single read of the {@link #threshold}.
+     *
+     * @param level A {@link Level}: The {@link Level} of a message
+     * @return A {@link Boolean}: Whether the message would be logged
+     */
+    @Override
+    public boolean isLoggable(Level level) {
+        long value = threshold;
+        if (value != INHERITED) {
+            return level.intValue() >= value;
+        }
+        if (super.isLoggable(level)) {
+            return true;
+        }
+        FlightRecorderHandler recorder = flightRecorder;
+        return recorder != null && level.intValue() >= thresholdOf(recorder.getLevel());
+    }
+
+    /**
+     * Checks, whether a message of the passed {@link Level} would be passed to the {@link Handler}s. It is compared to
+     * the {@link #handlerThreshold} directly, if there is one, otherwise the check is left to {@link Logger}, which
+     * takes the {@link Level} of the parent.
+     *
+     * @param level A {@link Level}: The {@link Level} of a message
+     * @return A {@link Boolean}: Whether the message would be passed to the {@link Handler}s
+     */
+    private boolean isLoggedByHandlers(Level level) {
+        long value = handlerThreshold;
+        return value != INHERITED ? level.intValue() >= value : super.isLoggable(level);
+    }
+
+    /**
+     * Folds the {@link #ownLevel}, the {@link Level} of the closest of the {@link LevelRules}, the
+     * {@link #defaultLevel} and the {@link Level} of the {@link #flightRecorder} into the {@link #threshold}. Called
+     * whenever one of them changes; the {@link LevelRules} reach every {@link ColorLogger} through the
+     * {@link LoggerRegistry}. The rules are read while holding the lock of the logger, so a call seeing older rules
+     * cannot overwrite the result of a call seeing newer ones.
+     */
+    synchronized void updateThresholds() {
+        Level level = ownLevel;
+        if (level == null) {
+            level = LevelRules.resolve(getName());
+        }
+        if (level == null) {
+            level = defaultLevel;
+        }
+        long handlers = level == null ? INHERITED : thresholdOf(level);
+        FlightRecorderHandler recorder = flightRecorder;
+        long recorded = recorder == null ? DISABLED : thresholdOf(recorder.getLevel());
+        effectiveLevel = level;
+        handlerThreshold = handlers;
+        threshold = handlers == INHERITED ? INHERITED : Math.min(handlers, recorded);
+    }
+
+    /**
+     * Gets the lowest {@link Level#intValue() value} a record needs to pass a {@link Level}.
+     *
+     * @param level A {@link Level}: The {@link Level} of a logger or {@link Handler}
+     * @return A {@link Long}: The value of the {@link Level}, or {@link #DISABLED} for {@link Level#OFF}
+     */
+    private static long thresholdOf(Level level) {
+        int value = level.intValue();
+        return value == OFF_VALUE ? DISABLED : value;
+    }
+
+    /**
+     * Finds the {@link Callsite} of a message with the {@link CallerResolver}, unless only the {@link #flightRecorder}
+     * takes it. Walking the stack costs more than recording the message, so such a message is recorded without its
+     * source class and method, and rendered with the name of the logger instead.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @return A {@link Callsite}: The location of the caller, or {@link Callsite#UNKNOWN} for the recorder only
+     */
+    private Callsite callerOf(Level level) {
+        return isLoggedByHandlers(level) ? CallerResolver.resolve() : Callsite.UNKNOWN;
+    }
+
+    /**
+     * Logs a {@link LogRecord}. A record created elsewhere, e.g. by {@link Logger#logp(Level, String, String, String)
+     * logp()} or {@link Logger#entering(String, String) entering()}, is {@link LogEvent#renumber(LogRecord) renumbered}
+     * from the counter of the events first. The record is offered to the {@link #flightRecorder} next. If it is
+     * logged, it is counted in the {@link LoggerMetrics} and, without a {@link Filter} and parent {@link Handler}s,
+     * passed straight to the {@link #directHandlers} through the {@link FanOut}, which formats it once for all handlers
+     * formatting alike. Otherwise it takes the usual way through {@link Logger#log(LogRecord)}. A pooled
+     * {@link LogEvent} is replaced by a {@link LogEvent#toLogRecord() copy} unless all handlers are done with it once
+     * they return.
+     *
+     * @param record A {@link LogRecord}: The record to log
+     */
+    @Override
+    public void log(LogRecord record) {
+        LogEvent.renumber(record);
+        FlightRecorderHandler recorder = flightRecorder;
+        if (recorder != null) {
+            recorder.publish(record);
+        }
+        if (!isLoggedByHandlers(record.getLevel())) {
+            return;
+        }
+        METRICS.recordLogged(record.getLevel());
+        Handler[] handlers = directHandlers;
+        if (record instanceof LogEvent event && (handlers == null || handlers != eventHandlers)) {
+            record = event.toLogRecord();
+        }
+        if (handlers == null) {
+            super.log(record);
+            return;
+        }
+        FanOut.publish(handlers, record);
+    }
+
+    /**
+     * Sets the {@link Level} of this logger and keeps it for {@link #isLoggable(Level)}. It takes precedence over the
+     * {@link LevelRules}.
+     *
+     * @param newLevel A {@link Level}: The new {@link Level}, or null to follow the {@link LevelRules} and the default
+     *                 {@link Level} again
+     */
+    @Override
+    public void setLevel(Level newLevel) {
+        ownLevel = newLevel;
+        super.setLevel(newLevel != null ? newLevel : defaultLevel);
+        updateThresholds();
+    }
+
+    /**
+     * Gets the {@link Level} in effect for this logger, which is the {@link Level} of a matching rule of the
+     * {@link LevelRules} unless a {@link Level} was {@link #setLevel(Level) set} on it.
+     *
+     * @return A {@link Level}: The {@link Level} in effect, or null if the logger takes the {@link Level} of its parent
+     */
+    @Override
+    public Level getLevel() {
+        return effectiveLevel;
+    }
+
+    /**
+     * Sets the default {@link Level} of a logger, which a factory or {@link ConfigWatcher} gives it. The
+     * {@link LevelRules} take precedence over it on a {@link ColorLogger}, and so does a {@link Level}
+     * {@link #setLevel(Level) set} on it. Any other {@link Logger} just gets it {@link Logger#setLevel(Level) set}.
+     *
+     * @param logger A {@link Logger}: The logger
+     * @param level A {@link Level}: The default {@link Level}, or null to take the {@link Level} of the parent
+     */
+    static void setDefaultLevel(Logger logger, Level level) {
+        if (logger instanceof ColorLogger colorLogger) {
+            colorLogger.defaultLevel = level;
+            if (colorLogger.ownLevel == null) {
+                colorLogger.superSetLevel(level);
+            }
+            colorLogger.updateThresholds();
+        } else {
+            logger.setLevel(level);
+        }
+    }
+
+    /**
+     * Sets the {@link Level} of {@link Logger} itself, which the loggers below this one without a {@link Level} of
+     * their own take.
+     *
+     * @param newLevel A {@link Level}: The {@link Level}, or null
+     */
+    private void superSetLevel(Level newLevel) {
+        super.setLevel(newLevel);
+    }
+
+    /**
+     * Adds a {@link Handler} and updates the {@link #directHandlers}.
+     *
+     * @param handler A {@link Handler}: The {@link Handler} to add
+     */
+    @Override
+    public synchronized void addHandler(Handler handler) {
+        super.addHandler(handler);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Removes a {@link Handler} and updates the {@link #directHandlers}.
+     *
+     * @param handler A {@link Handler}: The {@link Handler} to remove
+     */
+    @Override
+    public synchronized void removeHandler(Handler handler) {
+        super.removeHandler(handler);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Sets the {@link Filter} and updates the {@link #directHandlers}.
+     *
+     * @param newFilter A {@link Filter}: The new {@link Filter}, or null
+     */
+    @Override
+    public synchronized void setFilter(Filter newFilter) {
+        super.setFilter(newFilter);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Sets, whether the records are passed on to the parent {@link Handler}s, and updates the {@link #directHandlers}.
+     *
+     * @param useParentHandlers A {@link Boolean}: Whether the parent {@link Handler}s are used
+     */
+    @Override
+    public synchronized void setUseParentHandlers(boolean useParentHandlers) {
+        super.setUseParentHandlers(useParentHandlers);
+        updateDirectHandlers();
+    }
+
+    /**
+     * Takes a snapshot of the {@link Handler}s, if the records can be passed to them directly, and notes whether they
+     * can take pooled {@link LogEvent}s.
+     */
+    private void updateDirectHandlers() {
+        Handler[] handlers = getFilter() == null && !getUseParentHandlers() ? getHandlers() : null;
+        directHandlers = handlers;
+        eventHandlers = handlers != null && allReleaseRecords(handlers) ? handlers : null;
+    }
+
+    /**
+     * Checks, whether none of the {@link Handler}s keeps a record after publishing it: {@link EncodedSink}s are done
+     * with it once they return, and an {@link AsyncHandler} queues a copy of a {@link LogEvent}.
+     *
+     * @param handlers A {@link Handler} array: The {@link Handler}s of this logger
+     * @return A {@link Boolean}: Whether the records can be pooled {@link LogEvent}s
+     */
+    private static boolean allReleaseRecords(Handler[] handlers) {
+        for (Handler handler : handlers) {
+            if (!(handler instanceof EncodedSink) && !(handler instanceof AsyncHandler)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Logs a message, finding its source class and method with the {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     */
+    @Override
+    public void log(Level level, String msg) {
+        if (isLoggable(level)) {
+            logAt(this, callerOf(level), level, msg);
+        }
+    }
+
+    /**
+     * Logs a message with one parameter, finding its source class and method with the {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 An {@link Object}: The parameter of the message
+     */
+    @Override
+    public void log(Level level, String msg, Object param1) {
+        if (isLoggable(level)) {
+            LogRecord lr = newRecord(this, callerOf(level), level, msg);
+            if (lr instanceof LogEvent event) {
+                event.setParameter(param1);
+            } else {
+                lr.setParameters(new Object[] {param1});
+            }
+            publish(this, lr);
+        }
+    }
+
+    /**
+     * Logs a message with two parameters, finding its source class and method with the {@link CallerResolver}. Unlike
+     * {@link #log(Level, String, Object[])}, no array is created while the record is a pooled {@link LogEvent}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 An {@link Object}: The first parameter of the message
+     * @param param2 An {@link Object}: The second parameter of the message
+     */
+    public void log(Level level, String msg, Object param1, Object param2) {
+        if (isLoggable(level)) {
+            LogRecord lr = newRecord(this, callerOf(level), level, msg);
+            if (lr instanceof LogEvent event) {
+                event.setParameters(param1, param2);
+            } else {
+                lr.setParameters(new Object[] {param1, param2});
+            }
+            publish(this, lr);
+        }
+    }
+
+    /**
+     * Logs a message with three parameters, finding its source class and method with the {@link CallerResolver}.
+     * Unlike {@link #log(Level, String, Object[])}, no array is created while the record is a pooled {@link LogEvent}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param param1 An {@link Object}: The first parameter of the message
+     * @param param2 An {@link Object}: The second parameter of the message
+     * @param param3 An {@link Object}: The third parameter of the message
+     */
+    public void log(Level level, String msg, Object param1, Object param2, Object param3) {
+        if (isLoggable(level)) {
+            LogRecord lr = newRecord(this, callerOf(level), level, msg);
+            if (lr instanceof LogEvent event) {
+                event.setParameters(param1, param2, param3);
+            } else {
+                lr.setParameters(new Object[] {param1, param2, param3});
+            }
+            publish(this, lr);
+        }
+    }
+
+    /**
+     * Logs a message with parameters, finding its source class and method with the {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param params An {@link Object} array: The parameters of the message
+     */
+    @Override
+    public void log(Level level, String msg, Object[] params) {
+        if (isLoggable(level)) {
+            logAt(this, callerOf(level), level, msg, params);
+        }
+    }
+
+    /**
+     * Logs a message with a {@link Throwable}, finding its source class and method with the {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @param thrown A {@link Throwable}: The {@link Throwable} associated with the message
+     */
+    @Override
+    public void log(Level level, String msg, Throwable thrown) {
+        if (isLoggable(level)) {
+            logAt(this, callerOf(level), level, msg, thrown);
+        }
+    }
+
+    /**
+     * Logs a lazily created message, finding its source class and method with the {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    @Override
+    public void log(Level level, Supplier<String> msgSupplier) {
+        if (isLoggable(level)) {
+            logAt(this, callerOf(level), level, msgSupplier.get());
+        }
+    }
+
+    /**
+     * Logs a lazily created message with a {@link Throwable}, finding its source class and method with the
+     * {@link CallerResolver}.
+     *
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param thrown A {@link Throwable}: The {@link Throwable} associated with the message
+     * @param msgSupplier A {@link Supplier}: Creates the message, only called if the message is logged
+     */
+    @Override
+    public void log(Level level, Throwable thrown, Supplier<String> msgSupplier) {
+        if (isLoggable(level)) {
+            logAt(this, callerOf(level), level, msgSupplier.get(), thrown);
+        }
+    }
+
+    /**
+     * Gets the {@link Logger} with the passed name. A new logger is created as a {@link ColorLogger}, which finds the
+     * source of its messages with the {@link CallerResolver} instead of letting each {@link LogRecord} walk the whole
+     * stack, and passes its records straight to its {@link Handler}s. A logger that already exists is returned as it
+     * is; if it is a plain {@link Logger} created elsewhere, which takes none of these shortcuts, this is reported to
+     * an {@link ErrorManager}.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Logger}: The existing or new {@link Logger}
+     */
+    private static Logger getOrCreate(String name) {
+        LogManager manager = LogManager.getLogManager();
+        Logger logger = manager.getLogger(name);
+        if (logger == null) {
+            LoggerMetrics.registerMBean();
+            Logger created = new ColorLogger(name, null);
+            logger = manager.addLogger(created) ? created : Logger.getLogger(name);
+        }
+        if (!(logger instanceof ColorLogger)) {
+            new ErrorManager().error("The logger " + name + " already exists as a " + logger.getClass().getName()
+                    + " and is configured without the shortcuts of a ColorLogger", null, ErrorManager.GENERIC_FAILURE);
+        }
+        return logger;
+    }
+
+    /**
+     * Fills in the logger name and resource bundle, like {@link Logger#logp(Level, String, String, String)} does, logs
+     * the record and releases it if it is a pooled {@link LogEvent}.
+     *
+     * @param logger A {@link Logger}: The {@link Logger} to log with
+     * @param lr A {@link LogRecord}: The record to log
+     */
+    private static void publish(Logger logger, LogRecord lr) {
+        lr.setLoggerName(logger.getName());
+        String bundleName = logger.getResourceBundleName();
+        if (bundleName != null) {
+            lr.setResourceBundleName(bundleName);
+            lr.setResourceBundle(logger.getResourceBundle());
+        }
+        try {
+            logger.log(lr);
+        } finally {
+            if (lr instanceof LogEvent event) {
+                event.release();
+            }
+        }
+    }
+
+    /**
+     * Creates the record of a message from a {@link Callsite}. While the logger is a {@link ColorLogger} whose
+     * {@link Handler}s are all done with a record once they return, it is the pooled {@link LogEvent} of the thread,
+     * which {@link #publish(Logger, LogRecord)} releases again, otherwise a new record of the {@link Callsite}.
+     *
+     * @param logger A {@link Logger}: The {@link Logger} to log with
+     * @param callsite A {@link Callsite}: The location the message is logged from
+     * @param level A {@link Level}: The {@link Level} of the message
+     * @param msg A {@link String}: The message
+     * @return A {@link LogRecord}: The record
+     */
+    private static LogRecord newRecord(Logger logger, Callsite callsite, Level level, String msg) {
+        if (logger instanceof ColorLogger colorLogger && colorLogger.eventHandlers != null) {
+            return LogEvent.claim(level, msg, callsite);
+        }
+        return callsite.newRecord(level, msg);
+    }
+
+    /**
+     * Creates a {@link ColorConsoleHandler} logging {@link Level#ALL all} messages with the {@link LogFormatter} of the
+     * configuration.
+     *
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Handler}: The {@link ColorConsoleHandler} for a new {@link Logger}
+     */
+    private static Handler newConsoleHandler(LoggerConfig config) {
+        Handler handlerObj = new ColorConsoleHandler();
+        handlerObj.setLevel(Level.ALL);
+        handlerObj.setFormatter(config.newFormatter());
+        return handlerObj;
+    }
+
+    /**
+     * Creates a {@link BatchingConsoleHandler} logging {@link Level#ALL all} messages with the {@link LogFormatter} of
+     * the configuration.
+     *
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Handler}: The {@link BatchingConsoleHandler} for a new {@link Logger}
+     */
+    private static Handler newBatchingConsoleHandler(LoggerConfig config) {
+        Handler handlerObj = new BatchingConsoleHandler();
+        handlerObj.setLevel(Level.ALL);
+        handlerObj.setFormatter(config.newFormatter());
+        return handlerObj;
+    }
+
+    /**
+     * Sets the {@link LogFormatter} of the configuration on a new {@link Handler}.
+     *
+     * @param handler A {@link Handler}: The new {@link Handler}
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Handler}: The passed {@link Handler}
+     */
+    private static Handler withFormatter(Handler handler, LoggerConfig config) {
+        handler.setFormatter(config.newFormatter());
+        return handler;
+    }
+
+    /**
+     * Creates the specification of the {@link Handler} writing to a {@link Sink}. Console {@link Handler}s are shared
+     * by the loggers formatting alike, file {@link Handler}s by all loggers writing to the same file.
+     *
+     * @param sink A {@link Sink}: The target of the {@link Handler}
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link HandlerSpec}: The specification of the {@link Handler}
+     */
+    private static HandlerSpec specOf(Sink sink, LoggerConfig config) {
+        return switch (sink.kind()) {
+            case CONSOLE -> new HandlerSpec("console:" + config.formatKey(), () -> newConsoleHandler(config));
+            case BATCHED_CONSOLE -> new HandlerSpec("batched:" + config.formatKey(),
+                    () -> newBatchingConsoleHandler(config));
+            case ASYNC_CONSOLE -> new HandlerSpec("async:" + sink.backpressure() + '|' + config.formatKey(),
+                    () -> new AsyncHandler(newConsoleHandler(config), sink.backpressure()));
+            case PER_THREAD -> new HandlerSpec("perThread:" + config.formatKey(),
+                    () -> withFormatter(new PerThreadBufferHandler(), config));
+            case MAPPED_FILE -> new HandlerSpec("mapped:" + sink.file(),
+                    () -> withFormatter(new MappedFileHandler(sink.file()), config));
+            case ROLLING_FILE -> new HandlerSpec("rolling:" + sink.file(),
+                    () -> withFormatter(new RollingFileHandler(sink.file()), config));
+        };
+    }
+
+    /**
+     * Gets the {@link Logger} with the passed name from the {@link LoggerRegistry}, configured with a configuration
+     * that writes to the console only and therefore cannot fail.
+     *
+     * @param name A {@link String}: The name of the logger
+     * @param config A {@link LoggerConfig}: The configuration of the logger
+     * @return A {@link Logger}: The configured {@link Logger}
+     */
+    private static Logger register(String name, LoggerConfig config) {
+        try {
+            return newLogger(name, config);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
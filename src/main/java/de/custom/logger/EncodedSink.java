@@ -0,0 +1,26 @@
+package de.custom.logger;
+
+import de.custom.formatter.Utf8Buffer;
+
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} that also takes records which are already formatted with its {@link Handler#getFormatter()
+ * formatter} and encoded as UTF-8. The {@link FanOut} uses it to format a record once for all handlers of a logger
+ * that format alike, instead of once per handler. <br>
+ * The encoded bytes are shared by all these handlers and only valid during the call: A sink writes or copies them, but
+ * neither changes nor keeps them. Neither does it keep the {@link LogRecord} passed to either method, so a
+ * {@link ColorLogger} whose handlers are all sinks can pass them a pooled {@link de.custom.formatter.LogEvent}.
+ */
+@SuppressWarnings("unused")
+public interface EncodedSink {
+
+    /**
+     * Writes a record that already passed {@link Handler#isLoggable(LogRecord)} and was formatted with a formatter
+     * that {@link de.custom.formatter.LogFormatter#formatsLike formats like} the one of this handler.
+     * @param logRecord A {@link LogRecord}: The record, for its level, time and sequence number
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8, to be read only
+     */
+    void publishEncoded(LogRecord logRecord, Utf8Buffer encoded);
+}
@@ -0,0 +1,206 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.Utf8Buffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Passes a record to all {@link Handler}s of a logger, formatting and encoding it only once per distinct formatter.
+ * <br>
+ * The {@link java.util.logging.Level level} and filter of every handler are checked first, so nothing is formatted
+ * for handlers that drop the record. The {@link EncodedSink}s left over are grouped by their formatter, and each group
+ * with more than one member gets a single encoded copy of the record, shared by all of them. A lone sink and every
+ * other {@link Handler}, e.g. an {@link AsyncHandler} formatting on its own thread, get the record as usual. Either
+ * way, the handlers get the record in the order they were added to the logger.
+ */
+final class FanOut {
+
+    /**
+     * The initial size of the reused buffers
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * The most handlers a record is fanned out to, one bit of a {@link Long} each. Loggers with more handlers pass the
+     * record to each of them
+     */
+    private static final int MAX_HANDLERS = Long.SIZE;
+
+    /**
+     * The {@link Buffers} of each thread
+     */
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * The {@link LoggerMetrics} the shared formatting is counted in
+     */
+    private static final LoggerMetrics METRICS = LoggerMetrics.global();
+
+    /**
+     * Private constructor, this is a utility class
+     */
+    private FanOut() {
+    }
+
+    /**
+     * Passes a record to the {@link Handler}s in the order they were added, sharing the formatted record between the
+     * {@link EncodedSink}s that format alike. A group is formatted when its first member is reached, and its bytes are
+     * kept until its last member got them, so every handler still gets the record in turn.
+     * @param handlers A {@link Handler} array: The handlers of the logger
+     * @param logRecord A {@link LogRecord}: The record to publish
+     */
+    static void publish(Handler[] handlers, LogRecord logRecord) {
+        long pending = 0;
+        if (handlers.length > 1 && handlers.length <= MAX_HANDLERS) {
+            for (int i = 0; i < handlers.length; i++) {
+                if (handlers[i] instanceof EncodedSink && handlers[i].isLoggable(logRecord)) {
+                    pending |= 1L << i;
+                }
+            }
+        }
+        if (Long.bitCount(pending) < 2) {
+            for (Handler handler : handlers) {
+                handler.publish(logRecord);
+            }
+            return;
+        }
+        Buffers buffers = BUFFERS.get();
+        if (buffers.inUse) {
+            // a parameter logs something itself while the outer record is formatted
+            buffers = new Buffers();
+        }
+        buffers.inUse = true;
+        try {
+            long shared = 0;
+            int used = 0;
+            for (int i = 0; i < handlers.length; i++) {
+                long bit = 1L << i;
+                if ((pending & bit) != 0) {
+                    long group = groupOf(handlers, pending, i);
+                    pending &= ~group;
+                    if (group != bit) {
+                        Utf8Buffer bytes = buffers.encoded(used);
+                        if (encode(buffers.builder, bytes, handlers[i].getFormatter(), logRecord)) {
+                            used++;
+                            shared |= group;
+                            for (long rest = group; rest != 0; rest &= rest - 1) {
+                                buffers.assigned[Long.numberOfTrailingZeros(rest)] = bytes;
+                            }
+                        }
+                    }
+                }
+                if ((shared & bit) != 0) {
+                    ((EncodedSink) handlers[i]).publishEncoded(logRecord, buffers.assigned[i]);
+                } else {
+                    handlers[i].publish(logRecord);
+                }
+            }
+        } finally {
+            Arrays.fill(buffers.assigned, 0, handlers.length, null);
+            buffers.inUse = false;
+        }
+    }
+
+    /**
+     * Collects the pending {@link EncodedSink}s formatting like the first one of a group.
+     * @param handlers A {@link Handler} array: The handlers of the logger
+     * @param pending A {@link Long}: The bits of the sinks not yet in a group
+     * @param first An {@link Integer}: The index of the first sink of the group
+     * @return A {@link Long}: The bits of the sinks in the group, including the first one
+     */
+    private static long groupOf(Handler[] handlers, long pending, int first) {
+        Formatter formatter = handlers[first].getFormatter();
+        long group = 0;
+        for (long rest = pending; rest != 0; rest &= rest - 1) {
+            int i = Long.numberOfTrailingZeros(rest);
+            if (formatsLike(formatter, handlers[i].getFormatter())) {
+                group |= 1L << i;
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Formats and encodes a record once for a group of {@link EncodedSink}s. If formatting fails, every sink of the
+     * group gets the record as usual instead, so each one reports the failure to its own
+     * {@link java.util.logging.ErrorManager ErrorManager}.
+     * @param builder A {@link StringBuilder}: The reused builder the record is formatted into, left empty
+     * @param bytes A {@link Utf8Buffer}: The buffer the formatted record is encoded into
+     * @param formatter A {@link Formatter}: The formatter of the group
+     * @param logRecord A {@link LogRecord}: The record to format
+     * @return A {@link Boolean}: Whether the record was formatted
+     */
+    private static boolean encode(StringBuilder builder, Utf8Buffer bytes, Formatter formatter, LogRecord logRecord) {
+        long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+        try {
+            if (formatter instanceof LogFormatter logFormatter) {
+                logFormatter.formatTo(logRecord, builder);
+            } else {
+                builder.append(formatter.format(logRecord));
+            }
+            bytes.encode(builder);
+        } catch (RuntimeException e) {
+            return false;
+        } finally {
+            builder.setLength(0);
+        }
+        METRICS.recordFormat(start);
+        return true;
+    }
+
+    /**
+     * Checks whether two handlers can share a formatted record: They use the same formatter, or two
+     * {@link LogFormatter}s that {@link LogFormatter#formatsLike(LogFormatter) format alike}.
+     * @param formatter A {@link Formatter}: The formatter of the first handler
+     * @param other A {@link Formatter}: The formatter of the second handler
+     * @return A {@link Boolean}: Whether both produce the same output
+     */
+    private static boolean formatsLike(Formatter formatter, Formatter other) {
+        return formatter == other || formatter instanceof LogFormatter logFormatter
+                && other instanceof LogFormatter otherFormatter && logFormatter.formatsLike(otherFormatter);
+    }
+
+    /**
+     * The reused buffers of one thread.
+     */
+    private static final class Buffers {
+
+        /**
+         * The reused {@link StringBuilder} the records are formatted into
+         */
+        private final StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+        /**
+         * The reused buffers the formatted records are encoded into and shared from, one per group of a record
+         */
+        private final List<Utf8Buffer> encoded = new ArrayList<>();
+
+        /**
+         * The buffer each handler of the record being published gets, by its index, or null
+         */
+        private final Utf8Buffer[] assigned = new Utf8Buffer[MAX_HANDLERS];
+
+        /**
+         * Whether a record of this thread is being formatted or handed out
+         */
+        private boolean inUse;
+
+        /**
+         * Gets a reused buffer for a group, creating it when a record first has that many groups.
+         * @param index An {@link Integer}: The number of groups of the record formatted before
+         * @return A {@link Utf8Buffer}: The buffer of the group
+         */
+        private Utf8Buffer encoded(int index) {
+            if (index == encoded.size()) {
+                encoded.add(new Utf8Buffer(INITIAL_CAPACITY));
+            }
+            return encoded.get(index);
+        }
+    }
+}
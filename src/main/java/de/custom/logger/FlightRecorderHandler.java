@@ -0,0 +1,698 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogEvent;
+import de.custom.formatter.LogFormatter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} keeping the most recent records in an off-heap ring buffer, so the context leading up to an error
+ * is at hand even if it was logged below the level written to the console. <br>
+ * The records are copied into a direct {@link ByteBuffer} in a compact binary form, without formatting them: the
+ * time, level, sequence number, thread, logger, source, message and its parameters as text. A record is encoded into
+ * a reused char array with {@link String#getChars(int, int, char[], int)} and copied into the buffer in one go, which
+ * costs a fraction of formatting and encoding it. Once the buffer or the maximum number of records is full, the oldest
+ * records are overwritten. When a record of level {@link Level#SEVERE} or above comes in, the recorded records are
+ * rendered with the {@link LogFormatter} of this handler, written to its {@link OutputStream} and cleared. They can
+ * also be {@link #dump() dumped} or {@link #getRecords(Level, Instant, Instant) queried} at any time. <br>
+ * Attached to a {@link ColorLogger} through {@link ColorLogger#attachFlightRecorder(java.util.logging.Logger,
+ * FlightRecorderHandler)}, the handler gets the records of its own {@link #setLevel(Level) level} even if the logger
+ * logs only more severe ones. Thrown exceptions are not recorded. The source class and method of a record the logger
+ * passes to the recorder only are not looked up, so recording it stays cheap; such a record is rendered with the name
+ * of its logger as its location instead.
+ */
+@SuppressWarnings("unused")
+public class FlightRecorderHandler extends Handler {
+
+    /**
+     * The default size of the ring buffer: 4 MiB
+     */
+    public static final int DEFAULT_CAPACITY = 4 * 1024 * 1024;
+
+    /**
+     * The default maximum number of records kept: 10000
+     */
+    public static final int DEFAULT_MAX_RECORDS = 10_000;
+
+    /**
+     * The size of the header of each entry, which holds the length of the entry in chars
+     */
+    private static final int HEADER = 2;
+
+    /**
+     * The header marking the unused end of the buffer before the ring wraps around
+     */
+    private static final int PADDING = -1;
+
+    /**
+     * The {@link ReentrantLock} guarding the ring buffer
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The off-heap ring buffer holding the encoded records, a {@link CharBuffer} view of a direct {@link ByteBuffer}
+     */
+    private final CharBuffer ring;
+
+    /**
+     * The maximum number of records kept
+     */
+    private final int maxRecords;
+
+    /**
+     * The {@link OutputStream} the dumps are written to
+     */
+    private final OutputStream out;
+
+    /**
+     * The array a record is encoded into before it is copied into the {@link #ring}, grown when needed
+     */
+    private char[] scratch = new char[512];
+
+    /**
+     * The number of chars encoded into the {@link #scratch} array
+     */
+    private int length;
+
+    /**
+     * The {@link Level}s of the recorded records, indexed by the id stored in each entry
+     */
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * The ids of the {@link #levels}
+     */
+    private final Map<Level, Integer> levelIds = new IdentityHashMap<>();
+
+    /**
+     * The position of the oldest entry, counted in chars written since the start
+     */
+    private long readPosition;
+
+    /**
+     * The position the next entry is written to, counted in chars written since the start
+     */
+    private long writePosition;
+
+    /**
+     * The number of records in the {@link #ring}
+     */
+    private int count;
+
+    /**
+     * The number of records too large for the {@link #ring}
+     */
+    private long dropped;
+
+    /**
+     * Whether a severe record dumps the recorded records
+     */
+    private volatile boolean dumpOnSevere = true;
+
+    /**
+     * Whether the handler is closed
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@link FlightRecorderHandler} with the {@link #DEFAULT_CAPACITY default capacity} and
+     * {@link #DEFAULT_MAX_RECORDS maximum number of records}, dumping to {@link System#err}.
+     */
+    public FlightRecorderHandler() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_RECORDS);
+    }
+
+    /**
+     * Creates a {@link FlightRecorderHandler} dumping to {@link System#err}.
+     * @param capacity An {@link Integer}: The size of the ring buffer in bytes
+     * @param maxRecords An {@link Integer}: The maximum number of records kept
+     */
+    public FlightRecorderHandler(int capacity, int maxRecords) {
+        this(capacity, maxRecords, System.err);
+    }
+
+    /**
+     * Creates a {@link FlightRecorderHandler}, recording {@link Level#ALL all} messages and rendering them with a
+     * detailed {@link LogFormatter}.
+     * @param capacity An {@link Integer}: The size of the ring buffer in bytes
+     * @param maxRecords An {@link Integer}: The maximum number of records kept
+     * @param out An {@link OutputStream}: The {@link OutputStream} the dumps are written to
+     */
+    public FlightRecorderHandler(int capacity, int maxRecords, OutputStream out) {
+        if (capacity < 64 || maxRecords < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 64 bytes and the maximum number of records "
+                    + "positive: " + capacity + ", " + maxRecords);
+        }
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+        this.ring = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder()).asCharBuffer();
+        this.maxRecords = maxRecords;
+        this.out = out;
+        setLevel(Level.ALL);
+        setFormatter(new LogFormatter(true));
+    }
+
+    /**
+     * Sets the {@link Level} of the records to be recorded, and lets the {@link ColorLogger}s fold it into their
+     * thresholds, as they pass the recorder records below their own {@link Level}.
+     * @param newLevel A {@link Level}: The lowest {@link Level} recorded
+     */
+    @Override
+    public void setLevel(Level newLevel) {
+        super.setLevel(newLevel);
+        LoggerRegistry.updateThresholds();
+    }
+
+    /**
+     * Copies the record into the ring buffer and dumps the recorded records if it is {@link Level#SEVERE severe},
+     * emitting a {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record to be recorded
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (closed || !isLoggable(logRecord)) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        int bytes = 0;
+        boolean severe = logRecord.getLevel().intValue() >= Level.SEVERE.intValue() && dumpOnSevere;
+        List<LogRecord> recorded = null;
+        String[] params;
+        try {
+            params = render(logRecord.getParameters());
+        } catch (RuntimeException e) {
+            reportError("Failed to record log record", e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        lock.lock();
+        try {
+            bytes = record(logRecord, params);
+            if (severe) {
+                recorded = decode(Level.ALL, Instant.MIN, Instant.MAX);
+                clearRing();
+            }
+        } catch (RuntimeException e) {
+            reportError("Failed to record log record", e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+        if (recorded != null) {
+            write(recorded, "before " + logRecord.getLevel().getName());
+        }
+        if (event.shouldCommit()) {
+            event.set(logRecord, this, bytes);
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes all recorded records, keeping them in the ring buffer.
+     */
+    public void dump() {
+        dump(Level.ALL, Instant.MIN, Instant.MAX);
+    }
+
+    /**
+     * Writes the recorded records of at least the passed {@link Level} logged within the time window, keeping them in
+     * the ring buffer.
+     * @param minLevel A {@link Level}: The lowest {@link Level} written
+     * @param from An {@link Instant}: The earliest time written, inclusive
+     * @param to An {@link Instant}: The latest time written, inclusive
+     */
+    public void dump(Level minLevel, Instant from, Instant to) {
+        write(getRecords(minLevel, from, to), "on demand");
+    }
+
+    /**
+     * Gets all recorded records, oldest first.
+     * @return A {@link List}: The decoded records
+     */
+    public List<LogRecord> getRecords() {
+        return getRecords(Level.ALL, Instant.MIN, Instant.MAX);
+    }
+
+    /**
+     * Gets the recorded records of at least the passed {@link Level} logged within the time window, oldest first.
+     * Their parameters are the {@link String}s the parameters were rendered to when they were recorded.
+     * @param minLevel A {@link Level}: The lowest {@link Level} returned
+     * @param from An {@link Instant}: The earliest time returned, inclusive
+     * @param to An {@link Instant}: The latest time returned, inclusive
+     * @return A {@link List}: The decoded records
+     */
+    public List<LogRecord> getRecords(Level minLevel, Instant from, Instant to) {
+        lock.lock();
+        try {
+            return decode(minLevel, from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all recorded records.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            clearRing();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of recorded records.
+     * @return An {@link Integer}: The number of records in the ring buffer
+     */
+    public int getRecordCount() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of records that were not recorded because they were larger than the whole ring buffer.
+     * @return A {@link Long}: The number of dropped records
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the size of the ring buffer.
+     * @return An {@link Integer}: The size in bytes
+     */
+    public int getCapacity() {
+        return ring.capacity() * Character.BYTES;
+    }
+
+    /**
+     * Gets the maximum number of records kept.
+     * @return An {@link Integer}: The {@link #maxRecords}
+     */
+    public int getMaxRecords() {
+        return maxRecords;
+    }
+
+    /**
+     * Gets whether a {@link Level#SEVERE severe} record dumps and clears the recorded records.
+     * @return A {@link Boolean}: The {@link #dumpOnSevere} flag
+     */
+    public boolean isDumpOnSevere() {
+        return dumpOnSevere;
+    }
+
+    /**
+     * Sets whether a {@link Level#SEVERE severe} record dumps and clears the recorded records.
+     * @param dumpOnSevere A {@link Boolean}: Whether to dump on severe records
+     */
+    public void setDumpOnSevere(boolean dumpOnSevere) {
+        this.dumpOnSevere = dumpOnSevere;
+    }
+
+    /**
+     * Flushes the {@link OutputStream} of the dumps.
+     */
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            reportError("Failed to flush", e, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /**
+     * Stops recording and removes all recorded records. The {@link OutputStream} of the dumps is flushed, but not
+     * closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        clear();
+        flush();
+    }
+
+    /**
+     * Renders the parameters of a record to {@link String}s. This happens before the {@link #lock} is taken, as a
+     * parameter may log something itself, which would be encoded into the {@link #scratch} array the outer record is
+     * being encoded into.
+     * @param params An {@link Object} array: The parameters of the record, or null
+     * @return A {@link String} array: The rendered parameters, or null
+     */
+    private static String[] render(Object[] params) {
+        if (params == null) {
+            return null;
+        }
+        String[] rendered = new String[params.length];
+        for (int i = 0; i < params.length; i++) {
+            rendered[i] = String.valueOf(params[i]);
+        }
+        return rendered;
+    }
+
+    /**
+     * Encodes the record and copies it into the {@link #ring}, overwriting the oldest records as needed. Called while
+     * holding the {@link #lock}.
+     * @param logRecord A {@link LogRecord}: The record to be recorded
+     * @param params A {@link String} array: The {@link #render(Object[]) rendered} parameters of the record, or null
+     * @return An {@link Integer}: The number of bytes the record takes up in the {@link #ring}, 0 if it was dropped
+     */
+    private int record(LogRecord logRecord, String[] params) {
+        encode(logRecord, params);
+        int size = HEADER + length;
+        int capacity = ring.capacity();
+        if (size > capacity) {
+            dropped++;
+            return 0;
+        }
+        int offset = offsetOf(writePosition);
+        int remaining = capacity - offset;
+        if (remaining < size) {
+            makeRoom(writePosition + remaining);
+            if (remaining >= HEADER) {
+                putHeader(offset, PADDING);
+            }
+            writePosition += remaining;
+            offset = 0;
+        }
+        while (count >= maxRecords) {
+            evictOldest();
+        }
+        makeRoom(writePosition + size);
+        putHeader(offset, size);
+        ring.put(offset + HEADER, scratch, 0, length);
+        writePosition += size;
+        count++;
+        return size * Character.BYTES;
+    }
+
+    /**
+     * Evicts the oldest entries until the ring holds everything up to the passed position.
+     * @param end A {@link Long}: The position that has to fit into the ring
+     */
+    private void makeRoom(long end) {
+        while (end - readPosition > ring.capacity()) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * Evicts the oldest entry, or skips the padding at the end of the buffer.
+     */
+    private void evictOldest() {
+        int offset = offsetOf(readPosition);
+        int remaining = ring.capacity() - offset;
+        int size = remaining < HEADER ? PADDING : getHeader(offset);
+        if (size == PADDING) {
+            readPosition += remaining;
+        } else {
+            readPosition += size;
+            count--;
+        }
+    }
+
+    /**
+     * Writes the header of an entry.
+     * @param offset An {@link Integer}: The offset of the entry in the {@link #ring}
+     * @param size An {@link Integer}: The size of the entry in chars, or {@link #PADDING}
+     */
+    private void putHeader(int offset, int size) {
+        ring.put(offset, (char) (size >>> 16));
+        ring.put(offset + 1, (char) size);
+    }
+
+    /**
+     * Reads the header of an entry.
+     * @param offset An {@link Integer}: The offset of the entry in the {@link #ring}
+     * @return An {@link Integer}: The size of the entry in chars, or {@link #PADDING}
+     */
+    private int getHeader(int offset) {
+        return ring.get(offset) << 16 | ring.get(offset + 1);
+    }
+
+    /**
+     * Removes all entries from the {@link #ring}.
+     */
+    private void clearRing() {
+        readPosition = writePosition;
+        count = 0;
+    }
+
+    /**
+     * Gets the offset in the {@link #ring} of a position.
+     * @param position A {@link Long}: The position, counted in chars written since the start
+     * @return An {@link Integer}: The offset in the {@link #ring}
+     */
+    private int offsetOf(long position) {
+        return (int) (position % ring.capacity());
+    }
+
+    /**
+     * Encodes the record into the {@link #scratch} array.
+     * @param logRecord A {@link LogRecord}: The record to be encoded
+     * @param params A {@link String} array: The rendered parameters of the record, or null
+     */
+    private void encode(LogRecord logRecord, String[] params) {
+        length = 0;
+        ensureScratch(16);
+        if (logRecord instanceof LogEvent event) {
+            putLong(event.getEpochSecond());
+            putInt(event.getNano());
+        } else {
+            Instant instant = logRecord.getInstant();
+            putLong(instant.getEpochSecond());
+            putInt(instant.getNano());
+        }
+        putInt(levelIdOf(logRecord.getLevel()));
+        putLong(logRecord.getSequenceNumber());
+        putLong(logRecord.getLongThreadID());
+        putString(logRecord.getLoggerName());
+        putString(logRecord.getSourceClassName());
+        putString(logRecord.getSourceMethodName());
+        putString(logRecord.getMessage());
+        ensureScratch(2);
+        putInt(params == null ? -1 : params.length);
+        if (params != null) {
+            for (String param : params) {
+                putString(param);
+            }
+        }
+    }
+
+    /**
+     * Appends a {@link Long} to the {@link #scratch} array as four chars.
+     * @param value A {@link Long}: The value to append
+     */
+    private void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    /**
+     * Appends an {@link Integer} to the {@link #scratch} array as two chars.
+     * @param value An {@link Integer}: The value to append
+     */
+    private void putInt(int value) {
+        scratch[length++] = (char) (value >>> 16);
+        scratch[length++] = (char) value;
+    }
+
+    /**
+     * Appends a {@link String} to the {@link #scratch} array: its length, or -1 for null, followed by its chars.
+     * @param text A {@link String}: The text to append, or null
+     */
+    private void putString(String text) {
+        if (text == null) {
+            ensureScratch(2);
+            putInt(-1);
+            return;
+        }
+        int textLength = text.length();
+        ensureScratch(2 + textLength);
+        putInt(textLength);
+        text.getChars(0, textLength, scratch, length);
+        length += textLength;
+    }
+
+    /**
+     * Grows the {@link #scratch} array if it has less than the passed number of chars left.
+     * @param chars An {@link Integer}: The number of chars about to be written
+     */
+    private void ensureScratch(int chars) {
+        if (scratch.length - length < chars) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, length + chars));
+        }
+    }
+
+    /**
+     * Gets the id of a {@link Level}, assigning a new one the first time it is seen.
+     * @param level A {@link Level}: The {@link Level} of a record
+     * @return An {@link Integer}: The index of the {@link Level} in the {@link #levels}
+     */
+    private int levelIdOf(Level level) {
+        Integer id = levelIds.get(level);
+        if (id == null) {
+            id = levels.size();
+            levels.add(level);
+            levelIds.put(level, id);
+        }
+        return id;
+    }
+
+    /**
+     * Decodes the matching entries of the {@link #ring}. Called while holding the {@link #lock}.
+     * @param minLevel A {@link Level}: The lowest {@link Level} decoded
+     * @param from An {@link Instant}: The earliest time decoded, inclusive
+     * @param to An {@link Instant}: The latest time decoded, inclusive
+     * @return A {@link List}: The decoded records, oldest first
+     */
+    private List<LogRecord> decode(Level minLevel, Instant from, Instant to) {
+        List<LogRecord> records = new ArrayList<>(count);
+        int capacity = ring.capacity();
+        long position = readPosition;
+        while (position < writePosition) {
+            int offset = offsetOf(position);
+            int remaining = capacity - offset;
+            int size = remaining < HEADER ? PADDING : getHeader(offset);
+            if (size == PADDING) {
+                position += remaining;
+                continue;
+            }
+            CharBuffer entry = ring.duplicate();
+            entry.position(offset + HEADER).limit(offset + size);
+            Instant instant = Instant.ofEpochSecond(getLong(entry), getInt(entry));
+            Level level = levels.get(getInt(entry));
+            if (level.intValue() >= minLevel.intValue() && !instant.isBefore(from) && !instant.isAfter(to)) {
+                records.add(decodeRecord(entry, instant, level));
+            }
+            position += size;
+        }
+        return records;
+    }
+
+    /**
+     * Decodes the rest of an entry into a {@link LogRecord}.
+     * @param entry A {@link CharBuffer}: The entry, positioned after its time and level
+     * @param instant An {@link Instant}: The time of the record
+     * @param level A {@link Level}: The {@link Level} of the record
+     * @return A {@link LogRecord}: The decoded record
+     */
+    private static LogRecord decodeRecord(CharBuffer entry, Instant instant, Level level) {
+        long sequence = getLong(entry);
+        long threadId = getLong(entry);
+        String loggerName = getString(entry);
+        String sourceClass = getString(entry);
+        String sourceMethod = getString(entry);
+        LogRecord logRecord = new LogRecord(level, getString(entry));
+        logRecord.setInstant(instant);
+        logRecord.setSequenceNumber(sequence);
+        logRecord.setLongThreadID(threadId);
+        logRecord.setLoggerName(loggerName);
+        logRecord.setSourceClassName(sourceClass);
+        logRecord.setSourceMethodName(sourceMethod);
+        int paramCount = getInt(entry);
+        if (paramCount >= 0) {
+            Object[] params = new Object[paramCount];
+            for (int i = 0; i < paramCount; i++) {
+                params[i] = getString(entry);
+            }
+            logRecord.setParameters(params);
+        }
+        return logRecord;
+    }
+
+    /**
+     * Reads a {@link Long} written by {@link #putLong(long)}.
+     * @param entry A {@link CharBuffer}: The entry, positioned at the value
+     * @return A {@link Long}: The value
+     */
+    private static long getLong(CharBuffer entry) {
+        return (long) getInt(entry) << 32 | getInt(entry) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads an {@link Integer} written by {@link #putInt(int)}.
+     * @param entry A {@link CharBuffer}: The entry, positioned at the value
+     * @return An {@link Integer}: The value
+     */
+    private static int getInt(CharBuffer entry) {
+        return entry.get() << 16 | entry.get();
+    }
+
+    /**
+     * Reads a {@link String} written by {@link #putString(String)}.
+     * @param entry A {@link CharBuffer}: The entry, positioned at the {@link String}
+     * @return A {@link String}: The text, or null
+     */
+    private static String getString(CharBuffer entry) {
+        int length = getInt(entry);
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        entry.get(chars);
+        return new String(chars);
+    }
+
+    /**
+     * Renders the records with the {@link Formatter} of this handler and writes them to the {@link #out} in one go.
+     * @param records A {@link List}: The records to write
+     * @param reason A {@link String}: Why the records are written, for the heading
+     */
+    private void write(List<LogRecord> records, String reason) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Formatter formatter = getFormatter();
+        StringBuilder builder = new StringBuilder(records.size() * 128);
+        builder.append("--- Flight recorder: ").append(records.size()).append(" records ").append(reason)
+                .append(" ---").append(System.lineSeparator());
+        try {
+            for (LogRecord logRecord : records) {
+                if (formatter instanceof LogFormatter logFormatter) {
+                    logFormatter.formatTo(logRecord, builder);
+                } else {
+                    builder.append(formatter.format(logRecord));
+                }
+            }
+        } catch (RuntimeException e) {
+            reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        builder.append("--- End of flight recorder ---").append(System.lineSeparator());
+        try {
+            out.write(builder.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            reportError("Failed to write log records", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package de.custom.logger;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations in nanoseconds with fixed, logarithmic buckets: bucket <code>i</code> counts the durations
+ * from <code>2<sup>i-1</sup></code> up to <code>2<sup>i</sup> - 1</code> nanoseconds, bucket 0 the durations of zero,
+ * and the last bucket everything longer. <br>
+ * The bucket of a duration is found from its number of leading zeros, and every bucket is a {@link LongAdder}, so
+ * {@link #record(long) recording} takes neither a lock nor an allocation and threads recording at the same time do not
+ * contend on one counter. A {@link #snapshot()} is not atomic across buckets, which is fine for monitoring.
+ */
+@SuppressWarnings("unused")
+public final class LatencyHistogram {
+
+    /**
+     * The number of buckets: zero, then one per power of two up to about 9 minutes, then one for everything longer
+     */
+    public static final int BUCKETS = 41;
+
+    /**
+     * The counters of the buckets
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    /**
+     * The sum of all recorded durations
+     */
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * The longest recorded duration
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty {@link LatencyHistogram}.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos A {@link Long}: The duration in nanoseconds, negative durations count as zero
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+        buckets[bucketOf(duration)].increment();
+        total.add(duration);
+        max.accumulate(duration);
+    }
+
+    /**
+     * Gets the bucket of a duration.
+     * @param nanos A {@link Long}: The duration in nanoseconds, not negative
+     * @return An {@link Integer}: The index of the bucket
+     */
+    static int bucketOf(long nanos) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+    /**
+     * Gets the longest duration counted by a bucket.
+     * @param bucket An {@link Integer}: The index of the bucket
+     * @return A {@link Long}: The upper bound of the bucket in nanoseconds, {@link Long#MAX_VALUE} for the last one
+     */
+    public static long upperBoundOf(int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * Takes a copy of the current counts.
+     * @return A {@link Snapshot}: The counts, sum and maximum recorded so far
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, total.sum(), max.get());
+    }
+
+    /**
+     * Sets all counts back to zero.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * A copy of the counts of a {@link LatencyHistogram}.
+     * @param counts A {@link Long} array: The number of durations in each bucket
+     * @param totalNanos A {@link Long}: The sum of all durations in nanoseconds
+     * @param maxNanos A {@link Long}: The longest duration in nanoseconds
+     */
+    public record Snapshot(long[] counts, long totalNanos, long maxNanos) {
+
+        /**
+         * The Constructor: Copies the counts
+         */
+        public Snapshot {
+            counts = counts.clone();
+        }
+
+        /**
+         * Gets the number of durations in each bucket.
+         * @return A {@link Long} array: A copy of the counts, indexed like the buckets of the {@link LatencyHistogram}
+         */
+        @Override
+        public long[] counts() {
+            return counts.clone();
+        }
+
+        /**
+         * Gets the number of recorded durations.
+         * @return A {@link Long}: The sum of all counts
+         */
+        public long count() {
+            long count = 0;
+            for (long bucket : counts) {
+                count += bucket;
+            }
+            return count;
+        }
+
+        /**
+         * Gets the average duration.
+         * @return A {@link Double}: The mean duration in nanoseconds, 0 if nothing was recorded
+         */
+        public double meanNanos() {
+            long count = count();
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Estimates a percentile as the upper bound of the bucket it falls into, capped at the {@link #maxNanos()}.
+         * @param percentile A {@link Double}: The percentile, from 0 to 100
+         * @return A {@link Long}: The duration in nanoseconds at or below which the percentile of durations lie, 0 if
+         *         nothing was recorded
+         */
+        public long percentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+            }
+            long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * Compares the counts of two snapshots.
+         * @param o An {@link Object}: The other snapshot
+         * @return A {@link Boolean}: Whether both snapshots have the same counts, sum and maximum
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Snapshot other && Arrays.equals(counts, other.counts) && totalNanos == other.totalNanos
+                    && maxNanos == other.maxNanos;
+        }
+
+        /**
+         * Hashes the counts of this snapshot.
+         * @return An {@link Integer}: The hash code
+         */
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Arrays.hashCode(counts) + Long.hashCode(totalNanos)) + Long.hashCode(maxNanos);
+        }
+
+        /**
+         * Describes this snapshot by its count, mean, percentiles and maximum.
+         * @return A {@link String}: The summary
+         */
+        @Override
+        public String toString() {
+            return "Snapshot[count=" + count() + ", mean=" + Math.round(meanNanos()) + "ns, p50="
+                    + percentileNanos(50) + "ns, p99=" + percentileNanos(99) + "ns, max=" + maxNanos + "ns]";
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package de.custom.logger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.ErrorManager;
+import java.util.logging.Level;
+
+/**
+ * The per-package and per-class {@link Level}s of the {@link ColorLogger}s, e.g.
+ * <code>com.shop.db=WARNING, com.shop.db.pool=FINE</code>. <br>
+ * A rule applies to the logger of its name and to all loggers below it, unless a rule for a longer name matches as
+ * well. It takes precedence over the default {@link Level} the {@link ColorLogger} factories and the
+ * {@link ConfigWatcher} give a logger, which is {@link Level#ALL} for the factories, but not over a {@link Level} set on
+ * the logger with {@link java.util.logging.Logger#setLevel(Level) setLevel()}. This way a noisy package can be quieted
+ * without touching the code creating its loggers, and code that sets a {@link Level} on purpose keeps it. The rule of
+ * the empty name applies to all loggers. <br>
+ * The rules are kept in an immutable trie keyed by the segments of the names, which is replaced as a whole when a rule
+ * changes. Every change is passed on through the {@link LoggerRegistry} to each {@link ColorLogger}, which resolves
+ * its rule then and folds it into its threshold, so checking a {@link Level} never looks at the rules and costs the
+ * same however many rules there are. <br>
+ * Rules can also be given in the system property {@value #PROPERTY}, which is read when the class is loaded.
+ */
+@SuppressWarnings("unused")
+public final class LevelRules {
+
+    /**
+     * The system property holding the initial rules, in the format of {@link #load(String)}
+     */
+    public static final String PROPERTY = "de.custom.logger.levels";
+
+    /**
+     * The lock serialising changes to the rules, which only happen when they are configured
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * The root of the current trie, replaced on every change
+     */
+    private static volatile Node root = Node.EMPTY;
+
+    static {
+        String rules = System.getProperty(PROPERTY);
+        if (rules != null) {
+            try {
+                load(rules);
+            } catch (IllegalArgumentException e) {
+                new ErrorManager().error("Invalid level rules in " + PROPERTY, e, ErrorManager.GENERIC_FAILURE);
+            }
+        }
+    }
+
+    /**
+     * A private constructor to hide the implicitly public one
+     */
+    private LevelRules() {}
+
+    /**
+     * Sets the {@link Level} of the loggers with the passed name and below it.
+     * @param name A {@link String}: The name of a logger or package, or the empty name for all loggers
+     * @param level A {@link Level}: The {@link Level} of the loggers, or null to remove the rule
+     * @throws IllegalArgumentException if the name has an empty segment
+     */
+    public static void set(String name, Level level) {
+        String[] path = pathOf(name);
+        synchronized (LOCK) {
+            root = root.with(path, 0, level);
+        }
+        LoggerRegistry.updateThresholds();
+    }
+
+    /**
+     * Removes the rule of the passed name. The loggers below it follow the rule of the next shorter name again, or
+     * their own {@link Level} if there is none.
+     * @param name A {@link String}: The name of a logger or package
+     */
+    public static void remove(String name) {
+        set(name, null);
+    }
+
+    /**
+     * Replaces all rules with the rules of a specification of comma separated <code>name=LEVEL</code> pairs, e.g.
+     * <code>com.shop.db=WARNING, com.shop.db.pool=FINE</code>. The levels are {@link Level#parse(String) parsed} like
+     * in the logging properties. If the specification is invalid, the rules stay as they are.
+     * @param rules A {@link String}: The rules, empty for none
+     * @throws IllegalArgumentException if a pair or level is invalid
+     */
+    public static void load(String rules) {
+        Node loaded = Node.EMPTY;
+        for (String pair : rules.split(",")) {
+            String trimmed = pair.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int equals = trimmed.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected name=LEVEL: " + trimmed);
+            }
+            Level level = Level.parse(trimmed.substring(equals + 1).trim());
+            loaded = loaded.with(pathOf(trimmed.substring(0, equals).trim()), 0, level);
+        }
+        synchronized (LOCK) {
+            root = loaded;
+        }
+        LoggerRegistry.updateThresholds();
+    }
+
+    /**
+     * Replaces some rules in one go, e.g. the rules loaded from a file that changed, leaving all other rules as they
+     * are. The loggers never see only a part of the change.
+     * @param previous A {@link Collection}: The names of the rules to remove
+     * @param rules A {@link Map}: The {@link Level}s of the rules to set, by name
+     * @throws IllegalArgumentException if a name has an empty segment, in which case the rules stay as they are
+     */
+    static void replace(Collection<String> previous, Map<String, Level> rules) {
+        Map<String[], Level> paths = new LinkedHashMap<>();
+        for (Map.Entry<String, Level> rule : rules.entrySet()) {
+            paths.put(pathOf(rule.getKey()), rule.getValue());
+        }
+        synchronized (LOCK) {
+            Node replaced = root;
+            for (String name : previous) {
+                replaced = replaced.with(pathOf(name), 0, null);
+            }
+            for (Map.Entry<String[], Level> path : paths.entrySet()) {
+                replaced = replaced.with(path.getKey(), 0, path.getValue());
+            }
+            root = replaced;
+        }
+        LoggerRegistry.updateThresholds();
+    }
+
+    /**
+     * Removes all rules, so every logger follows its own {@link Level} again.
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            root = Node.EMPTY;
+        }
+        LoggerRegistry.updateThresholds();
+    }
+
+    /**
+     * Gets the {@link Level} the rules give a logger: the one of its name or of the closest name above it.
+     * @param name A {@link String}: The name of the logger
+     * @return A {@link Level}: The {@link Level} of the logger, or null if no rule applies
+     */
+    public static Level resolve(String name) {
+        return root.resolve(name);
+    }
+
+    /**
+     * Gets all rules.
+     * @return A {@link Map}: The {@link Level}s by name, sorted by name
+     */
+    public static Map<String, Level> getRules() {
+        Map<String, Level> rules = new TreeMap<>();
+        root.collect(new StringBuilder(), rules);
+        return Collections.unmodifiableMap(rules);
+    }
+
+    /**
+     * Gets the current trie, which stays as it is when the rules change, e.g. to resolve several names against the
+     * same rules.
+     * @return A {@link Node}: The root of the trie
+     */
+    static Node current() {
+        return root;
+    }
+
+    /**
+     * Splits a name into its segments.
+     * @param name A {@link String}: The name of a logger or package
+     * @return A {@link String} array: The segments, none for the empty name
+     * @throws IllegalArgumentException if the name has an empty segment
+     */
+    private static String[] pathOf(String name) {
+        if (name.isEmpty()) {
+            return new String[0];
+        }
+        String[] path = name.split("\\.", -1);
+        for (String segment : path) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Empty segment in logger name: " + name);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * An immutable node of the trie, holding the {@link Level} of one name and the nodes of the names one segment
+     * longer. The children are kept in two parallel arrays, as a package rarely has more than a few of them.
+     */
+    static final class Node {
+
+        /**
+         * The empty trie
+         */
+        private static final Node EMPTY = new Node(null, new String[0], new Node[0]);
+
+        /**
+         * The {@link Level} of the name of this node, or null if it has no rule of its own
+         */
+        private final Level level;
+
+        /**
+         * The segments leading to the children
+         */
+        private final String[] segments;
+
+        /**
+         * The children, at the indices of their {@link #segments}
+         */
+        private final Node[] children;
+
+        /**
+         * The Constructor: Stores the {@link Level} and the children
+         * @param level A {@link Level}: The {@link Level} of the name, or null
+         * @param segments A {@link String} array: The segments leading to the children
+         * @param children A {@link Node} array: The children
+         */
+        private Node(Level level, String[] segments, Node[] children) {
+            this.level = level;
+            this.segments = segments;
+            this.children = children;
+        }
+
+        /**
+         * Walks the segments of a name down the trie, without splitting it, and keeps the last {@link Level} passed.
+         * @param name A {@link String}: The name of a logger, or null for an anonymous one
+         * @return A {@link Level}: The {@link Level} of the longest name with a rule, or null if there is none
+         */
+        Level resolve(String name) {
+            Level found = level;
+            if (name == null || name.isEmpty()) {
+                return found;
+            }
+            Node node = this;
+            int start = 0;
+            while (true) {
+                int dot = name.indexOf('.', start);
+                int end = dot < 0 ? name.length() : dot;
+                node = node.child(name, start, end - start);
+                if (node == null) {
+                    return found;
+                }
+                if (node.level != null) {
+                    found = node.level;
+                }
+                if (dot < 0) {
+                    return found;
+                }
+                start = dot + 1;
+            }
+        }
+
+        /**
+         * Finds the child of a segment given as a region of a name.
+         * @param name A {@link String}: The name holding the segment
+         * @param start An {@link Integer}: The index of the segment in the name
+         * @param length An {@link Integer}: The length of the segment
+         * @return A {@link Node}: The child, or null if there is none
+         */
+        private Node child(String name, int start, int length) {
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.length() == length && name.regionMatches(start, segment, 0, length)) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Creates a copy of this node with a rule set or removed, dropping the nodes left without rules. A change that
+         * changes nothing returns this node, so the loggers keep their cached rules.
+         * @param path A {@link String} array: The segments of the name of the rule
+         * @param depth An {@link Integer}: The number of segments leading to this node
+         * @param newLevel A {@link Level}: The {@link Level} of the rule, or null to remove it
+         * @return A {@link Node}: The changed copy, which may be empty, or this node if nothing changed
+         */
+        private Node with(String[] path, int depth, Level newLevel) {
+            if (depth == path.length) {
+                return newLevel == level ? this : new Node(newLevel, segments, children);
+            }
+            int index = Arrays.asList(segments).indexOf(path[depth]);
+            Node child = (index < 0 ? EMPTY : children[index]).with(path, depth + 1, newLevel);
+            if (index >= 0 && child == children[index]) {
+                return this;
+            }
+            if (child.isEmpty()) {
+                if (index < 0) {
+                    return this;
+                }
+                String[] fewerSegments = new String[segments.length - 1];
+                Node[] fewerChildren = new Node[children.length - 1];
+                System.arraycopy(segments, 0, fewerSegments, 0, index);
+                System.arraycopy(segments, index + 1, fewerSegments, index, segments.length - index - 1);
+                System.arraycopy(children, 0, fewerChildren, 0, index);
+                System.arraycopy(children, index + 1, fewerChildren, index, children.length - index - 1);
+                return new Node(level, fewerSegments, fewerChildren);
+            }
+            if (index < 0) {
+                String[] moreSegments = Arrays.copyOf(segments, segments.length + 1);
+                Node[] moreChildren = Arrays.copyOf(children, children.length + 1);
+                moreSegments[segments.length] = path[depth];
+                moreChildren[children.length] = child;
+                return new Node(level, moreSegments, moreChildren);
+            }
+            Node[] changedChildren = children.clone();
+            changedChildren[index] = child;
+            return new Node(level, segments, changedChildren);
+        }
+
+        /**
+         * Checks whether neither this node nor any node below it has a rule.
+         * @return A {@link Boolean}: Whether the node can be dropped
+         */
+        private boolean isEmpty() {
+            return level == null && children.length == 0;
+        }
+
+        /**
+         * Adds the rules of this node and the nodes below it to a map.
+         * @param name A {@link StringBuilder}: The name of this node, restored before returning
+         * @param rules A {@link Map}: The rules collected so far
+         */
+        private void collect(StringBuilder name, Map<String, Level> rules) {
+            if (level != null) {
+                rules.put(name.toString(), level);
+            }
+            int length = name.length();
+            for (int i = 0; i < segments.length; i++) {
+                if (length > 0) {
+                    name.append('.');
+                }
+                children[i].collect(name.append(segments[i]), rules);
+                name.setLength(length);
+            }
+        }
+    }
+}
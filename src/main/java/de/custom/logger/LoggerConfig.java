@@ -0,0 +1,418 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.PatternLayout;
+import de.custom.formatter.Theme;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Handler;
+
+/**
+ * The immutable configuration of a logger created through {@link ColorLogger#newLogger(String, LoggerConfig)}: the
+ * detail of its messages, their {@link Theme} and layout, and the {@link Sink}s they are written to. <br>
+ * Every {@link Handler} of the logger gets a {@link LogFormatter} of its own, built from this configuration, which
+ * keeps all of it in final fields. Nothing a configuration sets is shared with loggers of another configuration, and
+ * nothing is looked up again while a record is formatted. A configuration built without a {@link Theme} takes the
+ * {@link Theme#current() global colors} of the moment it is built, so changing them later does not change it.
+ */
+@SuppressWarnings("unused")
+public final class LoggerConfig {
+
+    /**
+     * Plain messages on the console, in the {@link Theme#DEFAULT default colors}
+     */
+    public static final LoggerConfig DEFAULT = builder().theme(Theme.DEFAULT).build();
+
+    /**
+     * Detailed messages on the console, in the {@link Theme#DEFAULT default colors}
+     */
+    public static final LoggerConfig DETAILED = builder().detailed(true).theme(Theme.DEFAULT).build();
+
+    /**
+     * Whether the messages print their method of origin as well as their class
+     */
+    private final boolean detailed;
+
+    /**
+     * The {@link Theme} coloring the messages
+     */
+    private final Theme theme;
+
+    /**
+     * The {@link PatternLayout pattern} of the messages
+     */
+    private final String layout;
+
+    /**
+     * The {@link Sink}s the messages are written to
+     */
+    private final List<Sink> sinks;
+
+    /**
+     * The Constructor: Copies the settings of the {@link Builder}
+     * @param builder A {@link Builder}: The {@link Builder} holding the settings
+     */
+    private LoggerConfig(Builder builder) {
+        detailed = builder.layout != null ? PatternLayout.compile(builder.layout).isDetailed() : builder.detailed;
+        theme = builder.theme != null ? builder.theme : Theme.current();
+        layout = builder.layout != null ? builder.layout : defaultLayout(detailed);
+        sinks = builder.sinks.isEmpty() ? List.of(Sink.console()) : List.copyOf(builder.sinks);
+    }
+
+    /**
+     * Creates a {@link Builder} for plain messages on the console.
+     * @return A {@link Builder}: A new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a {@link Builder} starting with the settings of this configuration.
+     * @return A {@link Builder}: A new {@link Builder}
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.detailed = detailed;
+        builder.theme = theme;
+        builder.layout = layout.equals(defaultLayout(detailed)) ? null : layout;
+        builder.sinks.addAll(sinks);
+        return builder;
+    }
+
+    /**
+     * Gets the pattern used when no layout is set.
+     * @param detailed A {@link Boolean}: Whether the messages are detailed
+     * @return A {@link String}: The {@link PatternLayout#DETAILED_PATTERN detailed} or
+     *         {@link PatternLayout#DEFAULT_PATTERN default} pattern
+     */
+    private static String defaultLayout(boolean detailed) {
+        return detailed ? PatternLayout.DETAILED_PATTERN : PatternLayout.DEFAULT_PATTERN;
+    }
+
+    /**
+     * Creates a new {@link LogFormatter} with the {@link #layout} and {@link #theme} of this configuration.
+     * @return A {@link LogFormatter}: The {@link LogFormatter} for one {@link Handler}
+     */
+    public LogFormatter newFormatter() {
+        return new LogFormatter(layout, theme);
+    }
+
+    /**
+     * Gets whether the messages print their method of origin as well as their class. With a layout, this is whether
+     * the layout is {@link PatternLayout#isDetailed() detailed}.
+     * @return A {@link Boolean}: The {@link #detailed} flag
+     */
+    public boolean isDetailed() {
+        return detailed;
+    }
+
+    /**
+     * Gets the {@link Theme} coloring the messages.
+     * @return A {@link Theme}: The {@link #theme}, the global colors at the time of building unless one was set
+     */
+    public Theme getTheme() {
+        return theme;
+    }
+
+    /**
+     * Gets the pattern of the messages, the {@link PatternLayout#DEFAULT_PATTERN default} or
+     * {@link PatternLayout#DETAILED_PATTERN detailed} one unless a layout was set.
+     * @return A {@link String}: The {@link #layout}
+     */
+    public String getLayout() {
+        return layout;
+    }
+
+    /**
+     * Gets the {@link Sink}s the messages are written to.
+     * @return A {@link List}: The unmodifiable {@link #sinks}
+     */
+    public List<Sink> getSinks() {
+        return sinks;
+    }
+
+    /**
+     * Gets the part of a {@link LoggerRegistry.HandlerSpec#key() handler key} telling apart {@link Handler}s that
+     * format differently, so loggers only share a {@link Handler} if it formats exactly like their own would.
+     * @return A {@link String}: The layout and theme of this configuration
+     */
+    String formatKey() {
+        return layout + '|' + theme;
+    }
+
+    /**
+     * Compares the settings of two configurations.
+     * @param o An {@link Object}: The other configuration
+     * @return A {@link Boolean}: Whether both configurations have the same settings
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LoggerConfig other && detailed == other.detailed && layout.equals(other.layout)
+                && Objects.equals(theme, other.theme) && sinks.equals(other.sinks);
+    }
+
+    /**
+     * Hashes the settings of this configuration.
+     * @return An {@link Integer}: The hash code
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(detailed, theme, layout, sinks);
+    }
+
+    /**
+     * Describes the settings of this configuration.
+     * @return A {@link String}: The settings
+     */
+    @Override
+    public String toString() {
+        return "LoggerConfig[detailed=" + detailed + ", theme=" + theme + ", layout=" + layout + ", sinks=" + sinks
+                + "]";
+    }
+
+    /**
+     * Collects the settings of a {@link LoggerConfig}. A {@link Builder} is not thread-safe, the
+     * {@link LoggerConfig} it builds is.
+     */
+    public static final class Builder {
+
+        /**
+         * Whether the messages print their method of origin as well as their class
+         */
+        private boolean detailed;
+
+        /**
+         * The {@link Theme} coloring the messages, or null for the global colors at the time of building
+         */
+        private Theme theme;
+
+        /**
+         * The pattern of the messages, or null for the one matching {@link #detailed}
+         */
+        private String layout;
+
+        /**
+         * The {@link Sink}s the messages are written to, the console if none are added
+         */
+        private final List<Sink> sinks = new ArrayList<>();
+
+        /**
+         * A private constructor, see {@link LoggerConfig#builder()}
+         */
+        private Builder() {}
+
+        /**
+         * Sets whether the messages print their method of origin as well as their class. Without a
+         * {@link #layout(String) layout}, this picks the {@link PatternLayout#DETAILED_PATTERN detailed} or
+         * {@link PatternLayout#DEFAULT_PATTERN default} pattern. With a layout, it is ignored, as the layout alone
+         * decides whether the method is printed.
+         * @param detailed A {@link Boolean}: Whether the messages are detailed
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder detailed(boolean detailed) {
+            this.detailed = detailed;
+            return this;
+        }
+
+        /**
+         * Sets the fixed colors of the messages.
+         * @param theme A {@link Theme}: The colors of the {@link java.util.logging.Level Level}s, or null to use the
+         *              global colors of the {@link LogFormatter} as they are when {@link #build()} is called
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder theme(Theme theme) {
+            this.theme = theme;
+            return this;
+        }
+
+        /**
+         * Sets the pattern of the messages, see {@link PatternLayout} for the supported conversions.
+         * @param layout A {@link String}: The pattern, or null for the one matching {@link #detailed(boolean)}
+         * @return A {@link Builder}: This {@link Builder}
+         * @throws IllegalArgumentException if the pattern contains an unknown or malformed conversion
+         */
+        public Builder layout(String layout) {
+            if (layout != null) {
+                PatternLayout.compile(layout);
+            }
+            this.layout = layout;
+            return this;
+        }
+
+        /**
+         * Adds a {@link Sink} the messages are written to.
+         * @param sink A {@link Sink}: The {@link Sink} to add
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder sink(Sink sink) {
+            if (sink == null) {
+                throw new NullPointerException("sink");
+            }
+            sinks.add(sink);
+            return this;
+        }
+
+        /**
+         * Removes all {@link Sink}s added so far.
+         * @return A {@link Builder}: This {@link Builder}
+         */
+        public Builder clearSinks() {
+            sinks.clear();
+            return this;
+        }
+
+        /**
+         * Builds the immutable {@link LoggerConfig}.
+         * @return A {@link LoggerConfig}: The configuration with the settings of this {@link Builder}
+         */
+        public LoggerConfig build() {
+            return new LoggerConfig(this);
+        }
+    }
+
+    /**
+     * The kinds of {@link Sink}s.
+     */
+    public enum Kind {
+
+        /**
+         * The console, written through a {@link ColorConsoleHandler}
+         */
+        CONSOLE,
+
+        /**
+         * The console, written in batches through a {@link BatchingConsoleHandler}
+         */
+        BATCHED_CONSOLE,
+
+        /**
+         * The console, written on a background thread through an {@link AsyncHandler}
+         */
+        ASYNC_CONSOLE,
+
+        /**
+         * The console, written from per-thread buffers through a {@link PerThreadBufferHandler}
+         */
+        PER_THREAD,
+
+        /**
+         * A file, written through a {@link MappedFileHandler}
+         */
+        MAPPED_FILE,
+
+        /**
+         * A series of rolling files, written through a {@link RollingFileHandler}
+         */
+        ROLLING_FILE
+    }
+
+    /**
+     * A target the messages of a logger are written to. A file is written by a single {@link Handler}, so loggers
+     * sharing a file share the format of the logger that opened it first.
+     * @param kind A {@link Kind}: The kind of the target
+     * @param file A {@link Path}: The absolute, normalised file of a file target, or null
+     * @param backpressure A {@link BackpressurePolicy}: What the {@link AsyncHandler} of an
+     *                     {@link Kind#ASYNC_CONSOLE asynchronous console} does when its queue is full, or null
+     */
+    public record Sink(Kind kind, Path file, BackpressurePolicy backpressure) {
+
+        /**
+         * The Constructor: Checks that exactly the file targets have a file, and only the asynchronous console a
+         * {@link BackpressurePolicy}, which is {@link BackpressurePolicy#block() blocking} unless one is passed
+         */
+        public Sink {
+            if (kind == null) {
+                throw new NullPointerException("kind");
+            }
+            boolean isFile = kind == Kind.MAPPED_FILE || kind == Kind.ROLLING_FILE;
+            if (isFile != (file != null)) {
+                throw new IllegalArgumentException(isFile ? "A file is required for " + kind
+                        : "No file is allowed for " + kind);
+            }
+            if (file != null) {
+                file = file.toAbsolutePath().normalize();
+            }
+            if (kind == Kind.ASYNC_CONSOLE) {
+                backpressure = backpressure != null ? backpressure : BackpressurePolicy.block();
+            } else if (backpressure != null) {
+                throw new IllegalArgumentException("No backpressure policy is allowed for " + kind);
+            }
+        }
+
+        /**
+         * The Constructor: Creates a target without a {@link BackpressurePolicy} of its own
+         * @param kind A {@link Kind}: The kind of the target
+         * @param file A {@link Path}: The file of a file target, or null
+         */
+        public Sink(Kind kind, Path file) {
+            this(kind, file, null);
+        }
+
+        /**
+         * Creates the {@link Kind#CONSOLE console} target.
+         * @return A {@link Sink}: The console
+         */
+        public static Sink console() {
+            return new Sink(Kind.CONSOLE, null);
+        }
+
+        /**
+         * Creates the {@link Kind#BATCHED_CONSOLE batched console} target, which holds records back for up to
+         * {@link BatchingConsoleHandler#DEFAULT_MAX_DELAY a few milliseconds} to write them in one go.
+         * @return A {@link Sink}: The console, written in batches
+         */
+        public static Sink batchedConsole() {
+            return new Sink(Kind.BATCHED_CONSOLE, null);
+        }
+
+        /**
+         * Creates the {@link Kind#ASYNC_CONSOLE asynchronous console} target, waiting when its queue is full.
+         * @return A {@link Sink}: The console, written on a background thread
+         */
+        public static Sink asyncConsole() {
+            return new Sink(Kind.ASYNC_CONSOLE, null);
+        }
+
+        /**
+         * Creates an {@link Kind#ASYNC_CONSOLE asynchronous console} target.
+         * @param backpressure A {@link BackpressurePolicy}: What happens to a record when the queue is full
+         * @return A {@link Sink}: The console, written on a background thread
+         */
+        public static Sink asyncConsole(BackpressurePolicy backpressure) {
+            if (backpressure == null) {
+                throw new NullPointerException("backpressure");
+            }
+            return new Sink(Kind.ASYNC_CONSOLE, null, backpressure);
+        }
+
+        /**
+         * Creates the {@link Kind#PER_THREAD per-thread console} target.
+         * @return A {@link Sink}: The console, written from per-thread buffers
+         */
+        public static Sink perThread() {
+            return new Sink(Kind.PER_THREAD, null);
+        }
+
+        /**
+         * Creates a {@link Kind#MAPPED_FILE memory-mapped file} target.
+         * @param file A {@link Path}: The log file, created if it does not exist
+         * @return A {@link Sink}: The file
+         */
+        public static Sink mappedFile(Path file) {
+            return new Sink(Kind.MAPPED_FILE, file);
+        }
+
+        /**
+         * Creates a {@link Kind#ROLLING_FILE rolling file} target.
+         * @param file A {@link Path}: The log file, which is numbered when rolling over
+         * @return A {@link Sink}: The rolling files
+         */
+        public static Sink rollingFile(Path file) {
+            return new Sink(Kind.ROLLING_FILE, file);
+        }
+    }
+}
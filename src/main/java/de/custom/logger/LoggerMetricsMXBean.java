@@ -0,0 +1,95 @@
+package de.custom.logger;
+
+import java.util.Map;
+
+/**
+ * The JMX view of the {@link LoggerMetrics}, registered as {@value LoggerMetrics#OBJECT_NAME}. Durations are in
+ * nanoseconds and taken from every {@value LoggerMetrics#SAMPLE_INTERVAL}th record or write, and the percentiles are
+ * the upper bounds of the {@link LatencyHistogram} buckets they fall into.
+ */
+@SuppressWarnings("unused")
+public interface LoggerMetricsMXBean {
+
+    /**
+     * Gets the number of records passed to the handlers.
+     * @return A {@link Long}: The number of records of all levels
+     */
+    long getRecordCount();
+
+    /**
+     * Gets the number of records passed to the handlers, by level.
+     * @return A {@link Map}: The number of records by the name of their level
+     */
+    Map<String, Long> getRecordsPerLevel();
+
+    /**
+     * Gets the number of bytes written to the console and files.
+     * @return A {@link Long}: The number of bytes
+     */
+    long getBytesWritten();
+
+    /**
+     * Gets the number of records lost because they could not be formatted, written or queued.
+     * @return A {@link Long}: The number of dropped records
+     */
+    long getDroppedRecords();
+
+    /**
+     * Gets the number of records waiting in the queues of the background handlers.
+     * @return A {@link Long}: The number of queued records
+     */
+    long getQueueDepth();
+
+    /**
+     * Gets the average time to format and encode a record.
+     * @return A {@link Double}: The mean duration in nanoseconds
+     */
+    double getFormatLatencyMeanNanos();
+
+    /**
+     * Gets the 99th percentile of the time to format and encode a record.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    long getFormatLatencyP99Nanos();
+
+    /**
+     * Gets the longest time to format and encode a record.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    long getFormatLatencyMaxNanos();
+
+    /**
+     * Gets the counts of the format latency histogram.
+     * @return A {@link Long} array: The counts, indexed like the buckets of the {@link LatencyHistogram}
+     */
+    long[] getFormatLatencyHistogram();
+
+    /**
+     * Gets the average time of a write to the console or a file.
+     * @return A {@link Double}: The mean duration in nanoseconds
+     */
+    double getWriteLatencyMeanNanos();
+
+    /**
+     * Gets the 99th percentile of the time of a write to the console or a file.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    long getWriteLatencyP99Nanos();
+
+    /**
+     * Gets the longest write to the console or a file.
+     * @return A {@link Long}: The duration in nanoseconds
+     */
+    long getWriteLatencyMaxNanos();
+
+    /**
+     * Gets the counts of the write latency histogram.
+     * @return A {@link Long} array: The counts, indexed like the buckets of the {@link LatencyHistogram}
+     */
+    long[] getWriteLatencyHistogram();
+
+    /**
+     * Sets all counters and histograms back to zero, except the queue depth.
+     */
+    void reset();
+}
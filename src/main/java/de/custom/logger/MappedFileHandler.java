@@ -0,0 +1,362 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.Utf8Buffer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} appending the formatted records to a file through a {@link MappedByteBuffer}, so writing a record
+ * is little more than copying its bytes into memory. <br>
+ * The file is mapped in segments of a fixed size. While one segment is filled, the next one is already mapped and
+ * loaded on a background thread, so switching segments does not wait for the file system. As the mapping grows the
+ * file ahead of the data, {@link #close()} truncates it to the length actually written. As an {@link EncodedSink}, it
+ * also copies records formatted once for several handlers.
+ */
+@SuppressWarnings("unused")
+public class MappedFileHandler extends Handler implements EncodedSink {
+
+    /**
+     * The default size of a mapped segment: 16 MiB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The initial size of the reused buffers
+     */
+    private static final int INITIAL_CAPACITY = 512;
+
+    /**
+     * The {@link ReentrantLock} guarding the current file, used instead of a monitor so a virtual thread writing a
+     * record does not pin its carrier thread
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The {@link FileChannel} of the log file
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of a mapped segment in bytes
+     */
+    private final int segmentSize;
+
+    /**
+     * The background thread mapping the next segment
+     */
+    private final ExecutorService mapper;
+
+    /**
+     * The reused {@link StringBuilder} the records are formatted into
+     */
+    private final StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+    /**
+     * The reused buffer the formatted records are encoded into
+     */
+    private final Utf8Buffer bytes = new Utf8Buffer(INITIAL_CAPACITY);
+
+    /**
+     * The {@link LoggerMetrics} the formatting and writing is counted in
+     */
+    private final LoggerMetrics metrics = LoggerMetrics.global();
+
+    /**
+     * The segment currently written to
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * The position of the {@link #segment} in the file
+     */
+    private long segmentStart;
+
+    /**
+     * The segment following the current one, mapped in the background
+     */
+    private Future<MappedByteBuffer> nextSegment;
+
+    /**
+     * Whether the handler was {@link #close() closed}
+     */
+    private boolean closed;
+
+    /**
+     * The length the file was truncated to when the handler was {@link #close() closed}
+     */
+    private long closedLength;
+
+    /**
+     * Creates a {@link MappedFileHandler} appending to the passed file in segments of the
+     * {@link #DEFAULT_SEGMENT_SIZE default size}.
+     * @param file A {@link Path}: The log file, created if it does not exist
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedFileHandler(Path file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Creates a {@link MappedFileHandler} appending to the passed file, logging {@link Level#ALL all} messages with a
+     * {@link LogFormatter}.
+     * @param file A {@link Path}: The log file, created if it does not exist
+     * @param segmentSize An {@link Integer}: The size of a mapped segment in bytes
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedFileHandler(Path file, int segmentSize) throws IOException {
+        if (segmentSize < 1) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.mapper = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MappedFileHandler-mapper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            segmentStart = channel.size();
+            segment = map(segmentStart);
+            mapNext();
+        } catch (IOException | RuntimeException e) {
+            mapper.shutdownNow();
+            channel.close();
+            throw e;
+        }
+        setLevel(Level.ALL);
+        setFormatter(new LogFormatter(false));
+    }
+
+    /**
+     * Formats the {@link LogRecord} and copies it into the mapped file, emitting a {@link PublishEvent} while a flight
+     * recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record to be logged
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (!isLoggable(logRecord)) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+            Formatter formatter = getFormatter();
+            if (formatter instanceof LogFormatter logFormatter) {
+                logFormatter.formatTo(logRecord, builder);
+            } else {
+                builder.append(formatter.format(logRecord));
+            }
+            bytes.encode(builder);
+            long formatted = metrics.recordFormat(start);
+            writeRecord(logRecord, bytes, formatted, event);
+        } catch (IOException e) {
+            metrics.recordDropped();
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        } catch (RuntimeException e) {
+            metrics.recordDropped();
+            reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+        } finally {
+            builder.setLength(0);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies a record that was formatted and encoded once for several handlers into the mapped file, emitting a
+     * {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     */
+    @Override
+    public void publishEncoded(LogRecord logRecord, Utf8Buffer encoded) {
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            writeRecord(logRecord, encoded, LoggerMetrics.startTimer(logRecord.getSequenceNumber()), event);
+        } catch (IOException e) {
+            metrics.recordDropped();
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies an encoded record into the mapped file, counts the write and commits the {@link PublishEvent}. Called
+     * while holding the {@link #lock}.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     * @param start A {@link Long}: The start of the timed write, or 0 if it is not timed
+     * @param event A {@link PublishEvent}: The event begun before the {@link #lock} was taken
+     * @throws IOException if the next segment could not be mapped
+     */
+    private void writeRecord(LogRecord logRecord, Utf8Buffer encoded, long start, PublishEvent event)
+            throws IOException {
+        write(encoded.array(), encoded.length());
+        metrics.recordWrite(start, encoded.length());
+        if (event.shouldCommit()) {
+            event.set(logRecord, this, encoded.length());
+            event.commit();
+        }
+    }
+
+    /**
+     * Copies the bytes into the mapped segments, moving on to the next segment whenever the current one is full.
+     * @param src A byte array: The bytes to write
+     * @param length An {@link Integer}: The number of bytes to write
+     * @throws IOException if the next segment could not be mapped
+     */
+    private void write(byte[] src, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            if (!segment.hasRemaining()) {
+                advance();
+            }
+            int chunk = Math.min(length - offset, segment.remaining());
+            segment.put(src, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Switches to the segment mapped in the background and starts mapping the one after it.
+     * @throws IOException if the next segment could not be mapped
+     */
+    private void advance() throws IOException {
+        MappedByteBuffer next = await(nextSegment);
+        segmentStart += segmentSize;
+        segment = next;
+        mapNext();
+    }
+
+    /**
+     * Starts mapping the segment following the current one on the background thread.
+     */
+    private void mapNext() {
+        long position = segmentStart + segmentSize;
+        nextSegment = mapper.submit(() -> map(position).load());
+    }
+
+    /**
+     * Maps a segment of the file, growing the file if it is shorter.
+     * @param position A {@link Long}: The position of the segment in the file
+     * @return A {@link MappedByteBuffer}: The mapped segment
+     * @throws IOException if the segment could not be mapped
+     */
+    private MappedByteBuffer map(long position) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, position, segmentSize);
+    }
+
+    /**
+     * Waits for a segment mapped in the background.
+     * @param future A {@link Future}: The mapping in progress
+     * @return A {@link MappedByteBuffer}: The mapped segment
+     * @throws IOException if the segment could not be mapped or the thread was interrupted
+     */
+    private static MappedByteBuffer await(Future<MappedByteBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while mapping the next segment");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to map the next segment", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the number of bytes written to the file.
+     * @return A {@link Long}: The length of the file once it is {@link #close() closed}
+     */
+    public long getWrittenLength() {
+        lock.lock();
+        try {
+            return closed ? closedLength : segmentStart + segment.position();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current segment to be written to the storage device.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (!closed) {
+                segment.force();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the current segment to the storage device, truncates the file to the length actually written and closes
+     * it. Calling this method more than once has no further effect.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            mapper.shutdown();
+            try {
+                long length = segmentStart + segment.position();
+                closedLength = length;
+                segment.force();
+                try {
+                    await(nextSegment);
+                } catch (IOException e) {
+                    // the segment is cut off below anyway
+                }
+                segment = null;
+                nextSegment = null;
+                channel.truncate(length);
+            } catch (IOException e) {
+                reportError("Failed to truncate the log file", e, ErrorManager.CLOSE_FAILURE);
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    reportError("Failed to close the log file", e, ErrorManager.CLOSE_FAILURE);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
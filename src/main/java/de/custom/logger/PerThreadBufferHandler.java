@@ -0,0 +1,707 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.Utf8Buffer;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} giving every logging thread a buffer of its own, so threads logging at the same time never wait
+ * for each other. <br>
+ * Each thread formats and encodes its records into its own single-producer, single-consumer ring of slots. A single
+ * writer thread drains all rings, always taking the waiting record with the lowest
+ * {@link LogRecord#getSequenceNumber() sequence number} next, and writes them to the console in batches. While a
+ * thread is formatting a record, the writer holds back every record with a higher sequence number, so the records of
+ * all threads come out in sequence order once they have reached the handler. A record that only reaches the handler
+ * after a record with a higher number was written, e.g. because its thread was descheduled between creating and
+ * publishing it, is written as soon as possible instead. The records of one thread always keep their order. A thread
+ * only waits when its own ring is full. <br>
+ * Like the {@link ColorConsoleHandler}, it writes straight to {@link FileDescriptor#err} unless it is passed another
+ * {@link OutputStream}. All records published before {@link #close()} are written before it returns, records arriving
+ * while it closes are counted as dropped, and a shutdown hook closes the handler when the JVM exits. The rings of
+ * threads that have died are dropped once they are empty. As every thread keeps a ring, the handler is meant for pools
+ * of platform threads rather than for many short-lived virtual threads. As an {@link EncodedSink}, it also takes
+ * records formatted once for several handlers and copies them into the ring.
+ */
+@SuppressWarnings("unused")
+public class PerThreadBufferHandler extends Handler implements EncodedSink {
+
+    /**
+     * The default number of slots in the ring of each thread
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The size of the batches the writer collects before it writes to the console
+     */
+    private static final int BATCH_SIZE = 64 * 1024;
+
+    /**
+     * The initial size of the buffers of a slot
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * How long the writer parks at most before it checks the rings again, even if no producer woke it up
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * How often the writer spins before it parks when all rings are empty
+     */
+    private static final int SPIN_TRIES = 100;
+
+    /**
+     * The {@link Ring#inFlight} of a ring whose owner is not formatting a record
+     */
+    private static final long IDLE = Long.MAX_VALUE;
+
+    /**
+     * The {@link OutputStream} the records are written to
+     */
+    private final OutputStream out;
+
+    /**
+     * Whether {@link #out} writes straight to a file descriptor, which needs no flushing
+     */
+    private final boolean direct;
+
+    /**
+     * The number of slots in each ring
+     */
+    private final int capacity;
+
+    /**
+     * The rings of all threads that have logged through this handler
+     */
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+
+    /**
+     * The ring of the current thread, registered on its first record
+     */
+    private final ThreadLocal<Ring> ring = ThreadLocal.withInitial(this::register);
+
+    /**
+     * The batch the writer collects the records in
+     */
+    private final byte[] batch = new byte[BATCH_SIZE];
+
+    /**
+     * The number of bytes in the {@link #batch}
+     */
+    private int pending;
+
+    /**
+     * Whether the writer is about to park and has to be woken up by the next producer
+     */
+    private volatile boolean writerWaiting;
+
+    /**
+     * Whether the handler was {@link #close() closed}
+     */
+    private volatile boolean closed;
+
+    /**
+     * The background thread draining the rings
+     */
+    private final Thread writer;
+
+    /**
+     * The shutdown hook draining the rings when the JVM exits
+     */
+    private final Thread shutdownHook;
+
+    /**
+     * The {@link LoggerMetrics} the formatting and writing is counted in
+     */
+    private final LoggerMetrics metrics = LoggerMetrics.global();
+
+    /**
+     * The number of writes so far, which picks the writes timed by the {@link #metrics}, used only by the writer
+     */
+    private long writes;
+
+    /**
+     * Creates a {@link PerThreadBufferHandler} writing to the standard error stream with the
+     * {@link #DEFAULT_CAPACITY default capacity}.
+     */
+    public PerThreadBufferHandler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a {@link PerThreadBufferHandler} writing to the standard error stream.
+     * @param capacity An {@link Integer}: The number of slots in the ring of each thread
+     */
+    public PerThreadBufferHandler(int capacity) {
+        this(new FileOutputStream(FileDescriptor.err), capacity);
+    }
+
+    /**
+     * Creates a {@link PerThreadBufferHandler} writing to the passed {@link OutputStream}, logging {@link Level#ALL all}
+     * messages with a {@link LogFormatter}, and starts its writer thread.
+     * @param out An {@link OutputStream}: The {@link OutputStream} the records are written to
+     * @param capacity An {@link Integer}: The number of slots in the ring of each thread
+     */
+    public PerThreadBufferHandler(OutputStream out, int capacity) {
+        if (out == null) {
+            throw new NullPointerException("out");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.out = out;
+        this.direct = out instanceof FileOutputStream;
+        this.capacity = capacity;
+        setLevel(Level.ALL);
+        setFormatter(new LogFormatter(false));
+
+        writer = new Thread(this::drain, "PerThreadBufferHandler-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        shutdownHook = new Thread(this::close, "PerThreadBufferHandler-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Creates and registers the ring of the current thread.
+     * @return A {@link Ring}: The new ring
+     */
+    private Ring register() {
+        Ring created = new Ring(Thread.currentThread(), capacity);
+        rings.add(created);
+        return created;
+    }
+
+    /**
+     * Formats the {@link LogRecord} on the calling thread and puts it into the ring of that thread, so it is written by
+     * the writer thread. Emits a {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record to be logged
+     */
+    @Override
+    public void publish(LogRecord logRecord) {
+        if (closed || !isLoggable(logRecord)) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        Ring own = ring.get();
+        if (own.inFlight != IDLE) {
+            defer(own, logRecord, null, event);
+            return;
+        }
+        Slot slot = claim(own, logRecord.getSequenceNumber());
+        if (slot == null) {
+            return;
+        }
+        boolean formatted = false;
+        try {
+            long start = LoggerMetrics.startTimer(logRecord.getSequenceNumber());
+            format(logRecord, own.builder);
+            slot.bytes.encode(own.builder);
+            metrics.recordFormat(start);
+            formatted = true;
+        } catch (RuntimeException e) {
+            metrics.recordDropped();
+            reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+        } finally {
+            own.builder.setLength(0);
+            if (!formatted) {
+                own.inFlight = IDLE;
+            }
+        }
+        if (formatted) {
+            enqueue(own, slot, logRecord.getSequenceNumber());
+            commit(event, logRecord, slot.bytes.length());
+        }
+        enqueueDeferred(own);
+    }
+
+    /**
+     * Copies a record that was formatted and encoded once for several handlers into the ring of the calling thread, so
+     * it is written by the writer thread. Emits a {@link PublishEvent} while a flight recording has it enabled.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param encoded A {@link Utf8Buffer}: The formatted record, encoded as UTF-8
+     */
+    @Override
+    public void publishEncoded(LogRecord logRecord, Utf8Buffer encoded) {
+        if (closed) {
+            return;
+        }
+        PublishEvent event = new PublishEvent();
+        event.begin();
+        Ring own = ring.get();
+        if (own.inFlight != IDLE) {
+            defer(own, logRecord, encoded, event);
+            return;
+        }
+        Slot slot = claim(own, logRecord.getSequenceNumber());
+        if (slot == null) {
+            return;
+        }
+        slot.bytes.copyFrom(encoded);
+        enqueue(own, slot, logRecord.getSequenceNumber());
+        commit(event, logRecord, encoded.length());
+    }
+
+    /**
+     * Formats a record with the formatter of this handler.
+     * @param logRecord A {@link LogRecord}: The record
+     * @param builder A {@link StringBuilder}: The {@link StringBuilder} to append to
+     */
+    private void format(LogRecord logRecord, StringBuilder builder) {
+        Formatter formatter = getFormatter();
+        if (formatter instanceof LogFormatter logFormatter) {
+            logFormatter.formatTo(logRecord, builder);
+        } else {
+            builder.append(formatter.format(logRecord));
+        }
+    }
+
+    /**
+     * Claims the next slot of the ring of the calling thread and marks the record as {@link Ring#inFlight in flight},
+     * so the writer holds back records with higher sequence numbers until it is published. If the handler is closed
+     * meanwhile, the record is counted as dropped instead: The owner marks the ring before it checks whether the handler
+     * is closed, and the writer checks the marks after the handler is closed, so either the owner sees that it is
+     * closed, or the writer waits for the record.
+     * @param own A {@link Ring}: The ring of the calling thread
+     * @param sequence A {@link Long}: The sequence number of the record
+     * @return A {@link Slot}: The claimed slot, or null if the record is dropped
+     */
+    private Slot claim(Ring own, long sequence) {
+        Slot slot = own.claim(this);
+        if (slot != null) {
+            own.inFlight = sequence;
+            if (!closed) {
+                return slot;
+            }
+            own.inFlight = IDLE;
+        }
+        metrics.recordDropped();
+        return null;
+    }
+
+    /**
+     * Hands a filled slot over to the writer thread, clears the {@link Ring#inFlight in flight} mark and wakes the
+     * writer up if it is waiting.
+     * @param own A {@link Ring}: The ring of the calling thread
+     * @param slot A {@link Slot}: The claimed slot, holding the encoded record
+     * @param sequence A {@link Long}: The sequence number of the record
+     */
+    private void enqueue(Ring own, Slot slot, long sequence) {
+        slot.sequence = sequence;
+        own.publish();
+        own.inFlight = IDLE;
+        metrics.enqueued();
+
+        if (writerWaiting) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Commits the {@link PublishEvent} of a record, if a flight recording has it enabled.
+     * @param event A {@link PublishEvent}: The event begun when the record came in
+     * @param logRecord A {@link LogRecord}: The record
+     * @param length An {@link Integer}: The number of encoded bytes
+     */
+    private void commit(PublishEvent event, LogRecord logRecord, int length) {
+        if (event.shouldCommit()) {
+            event.set(logRecord, this, length);
+            event.commit();
+        }
+    }
+
+    /**
+     * Keeps a record logged while the calling thread is formatting another one, e.g. by the <code>toString()</code> of a
+     * parameter. Its slot would be the one of the outer record, so it is encoded into a buffer of its own and put into
+     * the ring once the outer record is published.
+     * @param own A {@link Ring}: The ring of the calling thread
+     * @param logRecord A {@link LogRecord}: The nested record
+     * @param encoded A {@link Utf8Buffer}: The nested record, already encoded, or null to format it here
+     * @param event A {@link PublishEvent}: The event begun when the record came in
+     */
+    private void defer(Ring own, LogRecord logRecord, Utf8Buffer encoded, PublishEvent event) {
+        Utf8Buffer bytes = new Utf8Buffer(INITIAL_CAPACITY);
+        if (encoded != null) {
+            bytes.copyFrom(encoded);
+        } else {
+            try {
+                StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+                format(logRecord, builder);
+                bytes.encode(builder);
+            } catch (RuntimeException e) {
+                metrics.recordDropped();
+                reportError("Failed to format log record", e, ErrorManager.FORMAT_FAILURE);
+                return;
+            }
+        }
+        if (own.deferred == null) {
+            own.deferred = new ArrayList<>();
+        }
+        own.deferred.add(new Deferred(logRecord.getSequenceNumber(), bytes));
+        commit(event, logRecord, bytes.length());
+    }
+
+    /**
+     * Puts the records {@link #defer(Ring, LogRecord, Utf8Buffer, PublishEvent) deferred} while the calling thread was
+     * formatting into its ring, after the record that was being formatted.
+     * @param own A {@link Ring}: The ring of the calling thread
+     */
+    private void enqueueDeferred(Ring own) {
+        List<Deferred> deferred = own.deferred;
+        if (deferred == null) {
+            return;
+        }
+        own.deferred = null;
+        for (Deferred record : deferred) {
+            Slot slot = claim(own, record.sequence());
+            if (slot != null) {
+                slot.bytes.copyFrom(record.bytes());
+                enqueue(own, slot, record.sequence());
+            }
+        }
+    }
+
+    /**
+     * The loop of the writer thread: Repeatedly takes the record with the lowest sequence number from the heads of all
+     * rings, unless a record with a lower number is still {@link Ring#inFlight in flight}, and writes the collected
+     * batch once it has to wait. It stops once the handler is {@link #close() closed}, no record is in flight and all
+     * rings are empty.
+     */
+    private void drain() {
+        int idle = 0;
+        while (true) {
+            // the marks are read before the heads: a cleared mark means the record is already in its ring
+            long barrier = lowestInFlight();
+            Ring next = null;
+            long lowest = Long.MAX_VALUE;
+            for (Ring candidate : rings) {
+                if (candidate.hasNext() && candidate.peek().sequence <= lowest) {
+                    next = candidate;
+                    lowest = candidate.peek().sequence;
+                }
+            }
+            if (next != null && (lowest < barrier || barrier == IDLE)) {
+                append(next.peek().bytes);
+                next.advance();
+                metrics.dequeued();
+                idle = 0;
+                continue;
+            }
+            writeBatch();
+            if (closed) {
+                // the handler is known to be closed before the marks are read again, see claim()
+                if (lowestInFlight() == IDLE && !hasPending()) {
+                    break;
+                }
+                Thread.onSpinWait();
+            } else if (idle < SPIN_TRIES) {
+                idle++;
+                Thread.onSpinWait();
+            } else {
+                rings.removeIf(Ring::isAbandoned);
+                writerWaiting = true;
+                if (!closed && !hasPending()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerWaiting = false;
+            }
+        }
+    }
+
+    /**
+     * Gets the lowest sequence number of the records that are being formatted.
+     * @return A {@link Long}: The lowest {@link Ring#inFlight} of all rings, {@link #IDLE} if there is none
+     */
+    private long lowestInFlight() {
+        long lowest = IDLE;
+        for (Ring candidate : rings) {
+            lowest = Math.min(lowest, candidate.inFlight);
+        }
+        return lowest;
+    }
+
+    /**
+     * Checks, whether any ring has a record left.
+     * @return A {@link Boolean}: Whether there is a record to write
+     */
+    private boolean hasPending() {
+        for (Ring candidate : rings) {
+            if (candidate.hasNext()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the bytes of a record to the {@link #batch}, writing the batch first if they do not fit. Records larger than
+     * the whole batch are written as they are.
+     * @param bytes A {@link Utf8Buffer}: The encoded record
+     */
+    private void append(Utf8Buffer bytes) {
+        int length = bytes.length();
+        if (length > batch.length - pending) {
+            writeBatch();
+        }
+        if (length > batch.length) {
+            write(bytes.array(), length);
+            return;
+        }
+        System.arraycopy(bytes.array(), 0, batch, pending, length);
+        pending += length;
+    }
+
+    /**
+     * Writes the records collected in the {@link #batch} to the console.
+     */
+    private void writeBatch() {
+        if (pending > 0) {
+            write(batch, pending);
+            pending = 0;
+        }
+    }
+
+    /**
+     * Writes the bytes to the console, reporting failures to the {@link ErrorManager} instead of killing the writer
+     * thread.
+     * @param src A byte array: The bytes to write
+     * @param length An {@link Integer}: The number of bytes to write, starting at the beginning of the array
+     */
+    private void write(byte[] src, int length) {
+        try {
+            long start = LoggerMetrics.startTimer(++writes);
+            out.write(src, 0, length);
+            if (!direct) {
+                out.flush();
+            }
+            metrics.recordWrite(start, length);
+        } catch (IOException e) {
+            reportError("Failed to write log records", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+     * Gets the number of records waiting in the rings of all threads.
+     * @return A {@link Long}: The number of records not yet written
+     */
+    public long getQueueDepth() {
+        long depth = 0;
+        for (Ring candidate : rings) {
+            depth += candidate.size();
+        }
+        return depth;
+    }
+
+    /**
+     * Gets the number of threads that currently have a ring.
+     * @return An {@link Integer}: The number of rings
+     */
+    public int getThreadCount() {
+        return rings.size();
+    }
+
+    /**
+     * Does nothing on the calling thread: The writer writes its batch whenever it runs out of records.
+     */
+    @Override
+    public void flush() {
+        // the writer thread owns the output
+    }
+
+    /**
+     * Stops accepting new records and waits until every record already published is written. Calling this method more
+     * than once has no further effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // the JVM is already shutting down
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A slot of a {@link Ring}, holding one encoded record.
+     */
+    private static final class Slot {
+
+        /**
+         * The reused buffer the record is encoded into
+         */
+        private final Utf8Buffer bytes = new Utf8Buffer(INITIAL_CAPACITY);
+
+        /**
+         * The {@link LogRecord#getSequenceNumber() sequence number} of the record
+         */
+        private long sequence;
+    }
+
+    /**
+     * The single-producer, single-consumer ring of one thread: Only its owner publishes into it, and only the writer
+     * takes records out of it.
+     */
+    private static final class Ring {
+
+        /**
+         * The thread publishing into this ring
+         */
+        private final Thread owner;
+
+        /**
+         * The reused {@link StringBuilder} the owner formats its records into
+         */
+        private final StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+
+        /**
+         * The slots, created when they are first used
+         */
+        private final Slot[] slots;
+
+        /**
+         * The number of records the owner has published, written only by the owner
+         */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * The number of records the writer has taken out, written only by the writer
+         */
+        private final AtomicLong head = new AtomicLong();
+
+        /**
+         * The sequence number of the record the owner has claimed a slot for but not yet published, or {@link #IDLE}
+         */
+        private volatile long inFlight = IDLE;
+
+        /**
+         * The records logged by the owner while it was formatting another one, or null, used only by the owner
+         */
+        private List<Deferred> deferred;
+
+        /**
+         * Creates an empty {@link Ring}.
+         * @param owner A {@link Thread}: The thread publishing into the ring
+         * @param capacity An {@link Integer}: The number of slots
+         */
+        private Ring(Thread owner, int capacity) {
+            this.owner = owner;
+            this.slots = new Slot[capacity];
+        }
+
+        /**
+         * Gets the next free slot for the owner, waiting for the writer while the ring is full.
+         * @param handler A {@link PerThreadBufferHandler}: The handler whose writer is woken up while waiting
+         * @return A {@link Slot}: The slot to encode the next record into, or null if the handler was closed while
+         *         waiting, as its writer may already be gone
+         */
+        private Slot claim(PerThreadBufferHandler handler) {
+            long position = tail.get();
+            while (position - head.get() >= slots.length) {
+                if (handler.closed) {
+                    return null;
+                }
+                if (handler.writerWaiting) {
+                    LockSupport.unpark(handler.writer);
+                }
+                LockSupport.parkNanos(1);
+            }
+            int index = (int) (position % slots.length);
+            Slot slot = slots[index];
+            if (slot == null) {
+                slot = new Slot();
+                slots[index] = slot;
+            }
+            return slot;
+        }
+
+        /**
+         * Makes the slot last {@link #claim(PerThreadBufferHandler) claimed} visible to the writer.
+         */
+        private void publish() {
+            tail.lazySet(tail.get() + 1);
+        }
+
+        /**
+         * Checks, whether the writer has a record to take out.
+         * @return A {@link Boolean}: Whether the ring is not empty
+         */
+        private boolean hasNext() {
+            return head.get() < tail.get();
+        }
+
+        /**
+         * Gets the oldest record in the ring, which must not be empty.
+         * @return A {@link Slot}: The slot of the oldest record
+         */
+        private Slot peek() {
+            return slots[(int) (head.get() % slots.length)];
+        }
+
+        /**
+         * Frees the slot of the oldest record for the owner.
+         */
+        private void advance() {
+            head.lazySet(head.get() + 1);
+        }
+
+        /**
+         * Gets the number of records in the ring.
+         * @return A {@link Long}: The number of records not yet taken out
+         */
+        private long size() {
+            return tail.get() - head.get();
+        }
+
+        /**
+         * Checks, whether the owner has died and left nothing to write, so the ring can be dropped.
+         * @return A {@link Boolean}: Whether the ring is no longer needed
+         */
+        private boolean isAbandoned() {
+            return !owner.isAlive() && !hasNext() && inFlight == IDLE;
+        }
+    }
+
+    /**
+     * A record logged while its thread was formatting another one, kept until that one is published.
+     * @param sequence A {@link Long}: The sequence number of the record
+     * @param bytes A {@link Utf8Buffer}: The encoded record
+     */
+    private record Deferred(long sequence, Utf8Buffer bytes) {}
+}
@@ -0,0 +1,234 @@
+package de.custom.formatter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the pooling of the {@link LogEvent}s: each thread reuses its own event once it is released, a nested message
+ * gets an event of its own, releasing drops the references of the message, a copy outlives the event, and all events
+ * and records of a {@link Callsite} share one sequence.
+ */
+class LogEventTest {
+
+    /**
+     * The location of the messages
+     */
+    private static final Callsite CALLSITE = Callsite.of("de.custom.Shop", "checkout");
+
+    /**
+     * Checks that a thread gets its own event back once it has released it, filled for the new message.
+     */
+    @Test
+    void reusesTheEventOfTheThreadOnceReleased() {
+        LogEvent first = LogEvent.claim(Level.INFO, "first", CALLSITE);
+        first.release();
+        LogEvent second = LogEvent.claim(Level.WARNING, "second", CALLSITE);
+        second.release();
+
+        assertSame(first, second);
+        assertEquals(Level.WARNING, second.getLevel());
+        assertEquals("second", second.getMessage());
+        assertEquals("de.custom.Shop", second.getSourceClassName());
+        assertEquals("checkout", second.getSourceMethodName());
+    }
+
+    /**
+     * Checks that a message claimed while the event of the thread is still claimed gets a new event, and the pooled
+     * event is reused again afterwards.
+     */
+    @Test
+    void nestedClaimGetsANewEvent() {
+        LogEvent outer = LogEvent.claim(Level.INFO, "outer", CALLSITE);
+        LogEvent inner = LogEvent.claim(Level.INFO, "inner", CALLSITE);
+        inner.release();
+        outer.release();
+
+        assertNotSame(outer, inner);
+        assertEquals("outer", outer.getMessage());
+        LogEvent next = LogEvent.claim(Level.INFO, "next", CALLSITE);
+        next.release();
+        assertSame(outer, next);
+    }
+
+    /**
+     * Checks that the threads do not share their events.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void threadsHaveEventsOfTheirOwn() throws InterruptedException {
+        LogEvent own = LogEvent.claim(Level.INFO, "own", CALLSITE);
+        own.release();
+        AtomicReference<LogEvent> other = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            LogEvent event = LogEvent.claim(Level.INFO, "other", CALLSITE);
+            event.release();
+            other.set(event);
+        });
+        thread.start();
+        thread.join();
+
+        assertNotSame(own, other.get());
+        assertEquals(thread.getId(), other.get().getLongThreadID());
+    }
+
+    /**
+     * Checks that releasing an event drops its parameters and {@link Throwable}, including the ones in the reused
+     * parameter arrays, so they do not outlive the message.
+     */
+    @Test
+    void releaseDropsTheReferencesOfTheMessage() {
+        LogEvent event = LogEvent.claim(Level.INFO, "{0} {1} {2}", CALLSITE);
+        event.setParameters("a", "b", "c");
+        Object[] params = event.getParameters();
+        event.setThrown(new IllegalStateException());
+        event.setLoggerName("de.custom.Shop");
+        event.release();
+
+        assertNull(event.getParameters());
+        assertNull(event.getThrown());
+        assertNull(event.getLoggerName());
+        assertArrayEquals(new Object[3], params);
+    }
+
+    /**
+     * Checks that the parameter arrays are reused without allocating a new one per message.
+     */
+    @Test
+    void reusesTheParameterArrays() {
+        LogEvent event = LogEvent.claim(Level.INFO, "{0}", CALLSITE);
+        event.setParameter("a");
+        Object[] one = event.getParameters();
+        event.release();
+        event = LogEvent.claim(Level.INFO, "{0}", CALLSITE);
+        event.setParameter("b");
+
+        assertSame(one, event.getParameters());
+        assertArrayEquals(new Object[] {"b"}, event.getParameters());
+        event.release();
+    }
+
+    /**
+     * Checks that a copy keeps the message after the event is released and reused.
+     */
+    @Test
+    void copyOutlivesTheEvent() {
+        LogEvent event = LogEvent.claim(Level.INFO, "{0} and {1}", CALLSITE);
+        event.setParameters("a", "b");
+        event.setLoggerName("de.custom.Shop");
+        LogRecord copy = event.toLogRecord();
+        long sequence = event.getSequenceNumber();
+        Instant instant = event.getInstant();
+        event.release();
+        LogEvent reused = LogEvent.claim(Level.SEVERE, "reused", CALLSITE);
+        reused.setParameters("x", "y");
+        reused.release();
+
+        assertFalse(copy instanceof LogEvent);
+        assertEquals(Level.INFO, copy.getLevel());
+        assertEquals("{0} and {1}", copy.getMessage());
+        assertArrayEquals(new Object[] {"a", "b"}, copy.getParameters());
+        assertEquals("de.custom.Shop", copy.getLoggerName());
+        assertEquals("de.custom.Shop", copy.getSourceClassName());
+        assertEquals("checkout", copy.getSourceMethodName());
+        assertEquals(sequence, copy.getSequenceNumber());
+        assertEquals(instant, copy.getInstant());
+    }
+
+    /**
+     * Checks that the time of an event is kept as seconds and nanoseconds, also before the epoch.
+     */
+    @Test
+    void keepsTheTimeWithoutAnInstant() {
+        LogEvent event = LogEvent.claim(Level.INFO, "time", CALLSITE);
+        try {
+            event.setMillis(-1);
+            assertEquals(-1, event.getEpochSecond());
+            assertEquals(999_000_000, event.getNano());
+            assertEquals(-1, event.getMillis());
+
+            event.setInstant(Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+            assertEquals(1_700_000_000_123L, event.getMillis());
+            assertEquals(Instant.ofEpochSecond(1_700_000_000L, 123_456_789), event.getInstant());
+        } finally {
+            event.release();
+        }
+    }
+
+    /**
+     * Checks that events, records of a {@link Callsite} and renumbered records take increasing numbers from one
+     * sequence, while a renumbered event keeps its number.
+     */
+    @Test
+    void sharesOneSequenceWithCallsiteRecords() {
+        LogEvent event = LogEvent.claim(Level.INFO, "event", CALLSITE);
+        long eventSequence = event.getSequenceNumber();
+        LogEvent.renumber(event);
+        assertEquals(eventSequence, event.getSequenceNumber());
+        event.release();
+
+        LogRecord callsiteRecord = CALLSITE.newRecord(Level.INFO, "callsite");
+        long callsiteSequence = callsiteRecord.getSequenceNumber();
+        LogEvent.renumber(callsiteRecord);
+        LogRecord plain = new LogRecord(Level.INFO, "plain");
+        LogEvent.renumber(plain);
+
+        assertTrue(eventSequence < callsiteSequence);
+        assertEquals(callsiteSequence, callsiteRecord.getSequenceNumber());
+        assertTrue(callsiteSequence < plain.getSequenceNumber());
+    }
+
+    /**
+     * Checks that threads claiming events at once never get the same event or the same sequence number.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentClaimsNeverShareAnEventOrNumber() throws InterruptedException {
+        int threads = 8;
+        int claims = 10_000;
+        Set<Long> sequences = ConcurrentHashMap.newKeySet();
+        Set<LogEvent> events = ConcurrentHashMap.newKeySet();
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> claimers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String name = "thread" + t;
+            claimers.add(new Thread(() -> {
+                Set<LogEvent> own = new HashSet<>();
+                for (int i = 0; i < claims; i++) {
+                    LogEvent event = LogEvent.claim(Level.INFO, name, CALLSITE);
+                    sequences.add(event.getSequenceNumber());
+                    own.add(event);
+                    if (!name.equals(event.getMessage())) {
+                        failure.set("Event shared with another thread: " + event.getMessage());
+                    }
+                    event.release();
+                }
+                events.addAll(own);
+            }));
+        }
+        claimers.forEach(Thread::start);
+        for (Thread claimer : claimers) {
+            claimer.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(threads * claims, sequences.size());
+        assertEquals(threads, events.size());
+    }
+}
@@ -0,0 +1,144 @@
+package de.custom.formatter;
+
+import de.custom.colors.FormatColor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the compilation of a {@link PatternLayout}: every conversion renders its part of the record, names sharing a
+ * beginning are matched longest first, text may follow a conversion directly, the detail flag follows the method
+ * conversions, and malformed patterns are rejected with the offending conversion in the message.
+ */
+class PatternLayoutTest {
+
+    /**
+     * The {@link TimestampCache} of the layouts, in UTC so the rendered time does not depend on the machine
+     */
+    private static final TimestampCache UTC =
+            new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.MILLISECONDS);
+
+    /**
+     * Checks that each conversion renders its part of the record.
+     */
+    @Test
+    void rendersEachConversion() {
+        LogRecord logRecord = record("order {0}", "4711", "paid");
+
+        assertEquals("2024-02-29 23:59:58.123", format("%d", logRecord));
+        assertEquals("23:59:58", format("%d{HH:mm:ss}", logRecord));
+        assertEquals("23:59:58,1234", format("%d{HH:mm:ss,SSSS}", logRecord));
+        assertEquals("de.custom.shop.Cart Cart shop.Cart", format("%c %c{1} %c{2}", logRecord));
+        assertEquals("de.custom.shop.Checkout Checkout#pay", format("%C %C{1}#%M", logRecord));
+        assertEquals("de.custom.shop.Checkout#pay", format("%location", logRecord));
+        assertEquals("[WARNING] order {0}\t4711, paid", format("[%p] %m%params", logRecord));
+        assertEquals(logRecord.getLongThreadID() + " 100%" + System.lineSeparator(), format("%t 100%%%n", logRecord));
+        assertEquals(FormatColor.WHITE + "x" + FormatColor.RESET, format("%ansi{WHITE}x%reset", logRecord));
+        StringBuilder colored = new StringBuilder();
+        PatternLayout.compile("%color", UTC, Theme.DEFAULT).formatTo(logRecord, colored);
+        assertEquals(Theme.DEFAULT.colorOf(Level.WARNING), colored.toString());
+    }
+
+    /**
+     * Checks that names sharing a beginning are matched longest first, and that text may follow a conversion directly.
+     */
+    @Test
+    void matchesTheLongestNameFirst() {
+        LogRecord logRecord = record("message");
+
+        assertEquals("", format("%params", logRecord));
+        assertEquals("\ta", format("%params", record("message", "a")));
+        assertEquals("WARNING arams", format("%p arams", logRecord));
+        assertEquals("messagefoo", format("%mfoo", logRecord));
+        assertEquals("Cartolor", format("%c{1}olor", logRecord));
+        assertEquals("de.custom.shop.Checkout#pay-", format("%location-", logRecord));
+    }
+
+    /**
+     * Checks that a layout is detailed exactly if it prints the method of origin.
+     */
+    @Test
+    void isDetailedWithAMethodConversion() {
+        assertTrue(PatternLayout.compile("%C#%M %m", UTC).isDetailed());
+        assertTrue(PatternLayout.compile("[%location] %m", UTC).isDetailed());
+        assertTrue(PatternLayout.compile(PatternLayout.DETAILED_PATTERN, UTC).isDetailed());
+        assertFalse(PatternLayout.compile(PatternLayout.DEFAULT_PATTERN, UTC).isDetailed());
+        assertFalse(PatternLayout.compile("%%M %m %params", UTC).isDetailed());
+    }
+
+    /**
+     * Checks that malformed patterns are rejected, naming what is wrong.
+     */
+    @Test
+    void rejectsMalformedPatterns() {
+        assertMessage("Unknown conversion '%x'", "%x");
+        assertMessage("Unknown conversion '%q'", "[%q] %m");
+        assertMessage("Unknown conversion '%{'", "%{1}");
+        assertMessage("Dangling '%'", "%m %");
+        assertMessage("Unclosed '{'", "%d{HH:mm");
+        assertMessage("Expected a positive number instead of '0'", "%c{0}");
+        assertMessage("Expected a positive number instead of 'x'", "%C{x}");
+        assertMessage("Unknown color 'PURPLISH'", "%ansi{PURPLISH}");
+        assertThrows(NullPointerException.class, () -> PatternLayout.compile(null, UTC));
+    }
+
+    /**
+     * Checks that a compiled layout keeps its pattern.
+     */
+    @Test
+    void keepsThePattern() {
+        PatternLayout layout = PatternLayout.compile("%p %m", UTC);
+
+        assertEquals("%p %m", layout.getPattern());
+        assertEquals("%p %m", layout.toString());
+    }
+
+    /**
+     * Creates a {@link Level#WARNING} record logged from <code>de.custom.shop.Checkout#pay</code>.
+     * @param msg A {@link String}: The message
+     * @param params An {@link Object} array: The parameters of the message
+     * @return A {@link LogRecord}: The record
+     */
+    private static LogRecord record(String msg, Object... params) {
+        LogRecord logRecord = new LogRecord(Level.WARNING, msg);
+        logRecord.setLoggerName("de.custom.shop.Cart");
+        logRecord.setSourceClassName("de.custom.shop.Checkout");
+        logRecord.setSourceMethodName("pay");
+        logRecord.setInstant(Instant.parse("2024-02-29T23:59:58.123456789Z"));
+        if (params.length > 0) {
+            logRecord.setParameters(params);
+        }
+        return logRecord;
+    }
+
+    /**
+     * Compiles a pattern and formats a record with it.
+     * @param pattern A {@link String}: The pattern
+     * @param logRecord A {@link LogRecord}: The record
+     * @return A {@link String}: The formatted record
+     */
+    private static String format(String pattern, LogRecord logRecord) {
+        StringBuilder builder = new StringBuilder();
+        PatternLayout.compile(pattern, UTC).formatTo(logRecord, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Asserts that compiling a pattern fails with a message starting as expected.
+     * @param expected A {@link String}: The beginning of the message
+     * @param pattern A {@link String}: The malformed pattern
+     */
+    private static void assertMessage(String expected, String pattern) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> PatternLayout.compile(pattern, UTC));
+        assertTrue(e.getMessage().startsWith(expected), e.getMessage());
+    }
+}
@@ -0,0 +1,137 @@
+package de.custom.formatter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the {@link TimestampCache}: the second digits patched into a cached minute match a full rendering, a new
+ * minute, hour or day is rendered from scratch, offset transitions of the time zone are followed in both directions,
+ * and the fraction is cut to the configured precision.
+ */
+class TimestampCacheTest {
+
+    /**
+     * The layout the cached text is compared against
+     */
+    private static final DateTimeFormatter EXPECTED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Checks that consecutive seconds running over minute, hour, day and year boundaries are rendered as a full
+     * rendering would, forwards and backwards.
+     */
+    @Test
+    void patchedSecondsMatchAFullRendering() {
+        TimestampCache cache = new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.SECONDS);
+        long start = LocalDateTime.of(2023, 12, 31, 23, 58, 30).toEpochSecond(ZoneOffset.UTC);
+        for (long second = start; second < start + 200; second++) {
+            assertRendered(cache, ZoneOffset.UTC, second);
+        }
+        for (long second = start + 200; second >= start; second -= 7) {
+            assertRendered(cache, ZoneOffset.UTC, second);
+        }
+    }
+
+    /**
+     * Checks that the hour jumping forward and falling back is followed, second by second, in zones with whole and
+     * half hour offsets.
+     */
+    @Test
+    void followsOffsetTransitions() {
+        for (ZoneId zone : List.of(ZoneId.of("Europe/Berlin"), ZoneId.of("Australia/Lord_Howe"))) {
+            TimestampCache cache = new TimestampCache(zone, TimestampCache.Precision.SECONDS);
+            ZoneOffsetTransition transition = zone.getRules().nextTransition(Instant.parse("2024-01-01T00:00:00Z"));
+            for (int i = 0; i < 2; i++) {
+                long at = transition.toEpochSecond();
+                for (long second = at - 90; second < at + 90; second++) {
+                    assertRendered(cache, zone, second);
+                }
+                assertRendered(cache, zone, at - 1);
+                assertRendered(cache, zone, at);
+                transition = zone.getRules().nextTransition(transition.getInstant());
+            }
+        }
+    }
+
+    /**
+     * Checks that the fraction is cut, not rounded, to milliseconds and microseconds.
+     */
+    @Test
+    void cutsTheFractionToThePrecision() {
+        Instant instant = Instant.parse("2024-02-29T23:59:58.123456789Z");
+
+        assertEquals("2024-02-29 23:59:58",
+                new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.SECONDS).format(instant));
+        assertEquals("2024-02-29 23:59:58.123",
+                new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.MILLISECONDS).format(instant));
+        assertEquals("2024-02-29 23:59:58.123456",
+                new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.MICROSECONDS).format(instant));
+        assertEquals("2024-02-29 23:59:58.009",
+                new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.MILLISECONDS).format(1_709_251_198_009L));
+    }
+
+    /**
+     * Checks that points in time before the epoch are rendered with the second they fall into.
+     */
+    @Test
+    void rendersPointsBeforeTheEpoch() {
+        TimestampCache cache = new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.MILLISECONDS);
+
+        assertEquals("1969-12-31 23:59:59.999", cache.format(-1));
+        assertEquals("1970-01-01 00:00:00.000", cache.format(0));
+        assertEquals("1969-12-31 23:59:58.500", cache.format(-1_500));
+    }
+
+    /**
+     * Checks that threads rendering different seconds through one cache each get their own second.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentThreadsGetTheirOwnSecond() throws InterruptedException {
+        TimestampCache cache = new TimestampCache(ZoneOffset.UTC, TimestampCache.Precision.SECONDS);
+        long start = LocalDateTime.of(2024, 6, 30, 23, 0).toEpochSecond(ZoneOffset.UTC);
+        AtomicReference<String> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t * 37L;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    long second = start + offset + i % 150;
+                    String expected = EXPECTED.format(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC));
+                    String actual = cache.format(second * 1_000);
+                    if (!expected.equals(actual)) {
+                        failure.set(expected + " rendered as " + actual);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(failure.get());
+    }
+
+    /**
+     * Asserts that a second is rendered like the {@link #EXPECTED} layout renders it in the time zone.
+     * @param cache A {@link TimestampCache}: The cache under test
+     * @param zone A {@link ZoneId}: The time zone of the cache
+     * @param epochSecond A {@link Long}: The second to render
+     */
+    private static void assertRendered(TimestampCache cache, ZoneId zone, long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        assertEquals(EXPECTED.format(instant.atZone(zone)), cache.format(instant), instant.toString());
+    }
+}
@@ -0,0 +1,438 @@
+package de.custom.logger;
+
+import de.custom.formatter.Callsite;
+import de.custom.formatter.LogEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the lock-free ring buffer of the {@link AsyncHandler}: records keep their order while the ring wraps around
+ * many times, concurrent producers lose nothing, the target is flushed once the ring runs empty, every
+ * {@link BackpressurePolicy} treats a full ring as it promises, and closing the handler while producers are still
+ * publishing neither hangs nor writes a record twice.
+ */
+@Timeout(30)
+class AsyncHandlerTest {
+
+    /**
+     * The report interval of the handlers, long enough to only report drops when the handler closes
+     */
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    /**
+     * Checks that the capacity is rounded up to the next power of two.
+     */
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        AsyncHandler handler = new AsyncHandler(new Gate(true), 5);
+        try {
+            assertEquals(8, handler.getCapacity());
+        } finally {
+            handler.close();
+        }
+    }
+
+    /**
+     * Checks that a single producer's records come out in order while a tiny ring wraps around thousands of times.
+     */
+    @Test
+    void keepsTheOrderWhileTheRingWrapsAround() {
+        Gate gate = new Gate(true);
+        AsyncHandler handler = new AsyncHandler(gate, 4);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            handler.publish(record(Level.INFO, Integer.toString(i)));
+            expected.add(Integer.toString(i));
+        }
+        handler.close();
+
+        assertEquals(expected, gate.messages());
+        assertEquals(0, handler.getQueueDepth());
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    /**
+     * Checks that concurrent producers racing for the slots of a small ring lose no record and that the records of each
+     * producer keep their order.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentProducersLoseNothing() throws InterruptedException {
+        int threads = 8;
+        int records = 5_000;
+        Gate gate = new Gate(true);
+        AsyncHandler handler = new AsyncHandler(gate, 16);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < records; i++) {
+                    handler.publish(record(Level.INFO, thread + ":" + i));
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        handler.close();
+
+        List<String> messages = gate.messages();
+        assertEquals(threads * records, messages.size());
+        Map<String, Integer> last = new HashMap<>();
+        for (String message : messages) {
+            String[] parts = message.split(":");
+            int previous = last.getOrDefault(parts[0], -1);
+            assertEquals(previous + 1, Integer.parseInt(parts[1]), message);
+            last.put(parts[0], previous + 1);
+        }
+    }
+
+    /**
+     * Checks that a pooled {@link LogEvent} is copied when it is queued, so reusing it does not change the queued
+     * record.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void queuesACopyOfAPooledEvent() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = new AsyncHandler(gate, 4, BackpressurePolicy.block(), NEVER);
+        handler.publish(record(Level.INFO, "first"));
+        assertTrue(gate.entered.await(10, TimeUnit.SECONDS));
+
+        Callsite callsite = Callsite.of("de.custom.Test", "run");
+        LogEvent event = LogEvent.claim(Level.INFO, "queued", callsite);
+        handler.publish(event);
+        event.release();
+        LogEvent.claim(Level.INFO, "reused", callsite).release();
+        gate.release.countDown();
+        handler.close();
+
+        assertEquals(List.of("first", "queued"), gate.messages());
+    }
+
+    /**
+     * Checks that {@link BackpressurePolicy#block()} makes the producer wait for a free slot and drops nothing.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void blockWaitsForAFreeSlot() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = fill(gate, BackpressurePolicy.block());
+        Thread producer = new Thread(() -> handler.publish(record(Level.INFO, "5")));
+        producer.start();
+        producer.join(200);
+        boolean waited = producer.isAlive();
+        gate.release.countDown();
+        producer.join();
+        handler.close();
+
+        assertTrue(waited);
+        assertEquals(0, handler.getDroppedCount());
+        assertEquals(List.of("0", "1", "2", "3", "4", "5"), gate.messages());
+    }
+
+    /**
+     * Checks that {@link BackpressurePolicy#blockWithTimeout(Duration)} gives up on a full ring after the timeout.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void blockWithTimeoutDropsAfterTheTimeout() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = fill(gate, BackpressurePolicy.blockWithTimeout(Duration.ofMillis(100)));
+        long start = System.nanoTime();
+        handler.publish(record(Level.INFO, "5"));
+        long waited = System.nanoTime() - start;
+        gate.release.countDown();
+        handler.close();
+
+        assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(100), waited + " ns");
+        assertEquals(1, handler.getDroppedCount());
+        assertEquals(List.of("0", "1", "2", "3", "4"), gate.messages());
+    }
+
+    /**
+     * Checks that {@link BackpressurePolicy#dropNewest()} drops the records that do not fit and reports them in a
+     * single summary.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void dropNewestDropsTheIncomingRecords() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = fill(gate, BackpressurePolicy.dropNewest());
+        handler.publish(record(Level.INFO, "5"));
+        handler.publish(record(Level.SEVERE, "6"));
+        assertEquals(2, handler.getDroppedCount());
+        assertEquals(4, handler.getQueueDepth());
+        gate.release.countDown();
+        handler.close();
+
+        assertEquals(List.of("0", "1", "2", "3", "4"), gate.messages());
+        List<LogRecord> summaries = gate.summaries();
+        assertEquals(1, summaries.size());
+        assertEquals(Level.WARNING, summaries.get(0).getLevel());
+        assertTrue(summaries.get(0).getMessage().startsWith("Dropped 2 log records"), summaries.get(0).getMessage());
+        assertTrue(summaries.get(0).getMessage().contains("INFO: 1, SEVERE: 1"), summaries.get(0).getMessage());
+    }
+
+    /**
+     * Checks that {@link BackpressurePolicy#dropOldest()} makes room by dropping the oldest queued records.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void dropOldestDropsTheQueuedRecords() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = fill(gate, BackpressurePolicy.dropOldest());
+        handler.publish(record(Level.INFO, "5"));
+        handler.publish(record(Level.INFO, "6"));
+        assertEquals(2, handler.getDroppedCount());
+        gate.release.countDown();
+        handler.close();
+
+        assertEquals(List.of("0", "3", "4", "5", "6"), gate.messages());
+    }
+
+    /**
+     * Checks that {@link BackpressurePolicy#dropBelow(Level)} drops the records below the threshold and waits for a
+     * free slot for the others.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void dropBelowDropsOnlyTheLowerLevels() throws InterruptedException {
+        Gate gate = new Gate(false);
+        AsyncHandler handler = fill(gate, BackpressurePolicy.dropBelow(Level.INFO));
+        handler.publish(record(Level.FINE, "5"));
+        Thread producer = new Thread(() -> handler.publish(record(Level.WARNING, "6")));
+        producer.start();
+        producer.join(200);
+        boolean waited = producer.isAlive();
+        gate.release.countDown();
+        producer.join();
+        handler.close();
+
+        assertTrue(waited);
+        assertEquals(1, handler.getDroppedCount());
+        assertEquals(List.of("0", "1", "2", "3", "4", "6"), gate.messages());
+    }
+
+    /**
+     * Checks that the consumer flushes the target once it has written the queued records, without waiting for the
+     * handler to close.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void flushesTheTargetOnceTheRingRunsEmpty() throws InterruptedException {
+        Gate gate = new Gate(true);
+        AsyncHandler handler = new AsyncHandler(gate, 4);
+        try {
+            handler.publish(record(Level.INFO, "0"));
+
+            assertTrue(gate.flushed.await(10, TimeUnit.SECONDS));
+            assertEquals(List.of("0"), gate.messages());
+        } finally {
+            handler.close();
+        }
+    }
+
+    /**
+     * Checks that closing the handler while producers keep publishing returns, writes every record at most once, and
+     * ignores the records published afterwards, while every published record is either written or counted as dropped.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void closeWhilePublishingNeitherHangsNorDuplicates() throws InterruptedException {
+        for (BackpressurePolicy policy : List.of(BackpressurePolicy.block(), BackpressurePolicy.dropOldest())) {
+            Gate gate = new Gate(true);
+            AsyncHandler handler = new AsyncHandler(gate, 8, policy, NEVER);
+            AtomicBoolean stop = new AtomicBoolean();
+            AtomicLong published = new AtomicLong();
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                producers.add(new Thread(() -> {
+                    for (int i = 0; !stop.get(); i++) {
+                        handler.publish(record(Level.INFO, thread + ":" + i));
+                        published.incrementAndGet();
+                    }
+                }));
+            }
+            producers.forEach(Thread::start);
+            while (published.get() < 10_000) {
+                Thread.onSpinWait();
+            }
+            handler.close();
+            int written = gate.messages().size();
+            handler.publish(record(Level.INFO, "late"));
+            published.incrementAndGet();
+            stop.set(true);
+            for (Thread producer : producers) {
+                producer.join();
+            }
+
+            List<String> messages = gate.messages();
+            assertEquals(written, messages.size());
+            assertFalse(messages.contains("late"));
+            assertEquals(messages.size(), new HashSet<>(messages).size());
+            assertEquals(published.get(), messages.size() + handler.getDroppedCount());
+            assertEquals(0, handler.getQueueDepth());
+        }
+    }
+
+    /**
+     * Creates an {@link AsyncHandler} with a ring of four slots, whose consumer is stuck writing record "0" and whose
+     * ring holds the records "1" to "4".
+     * @param gate A {@link Gate}: The target, holding the consumer until it is released
+     * @param policy A {@link BackpressurePolicy}: The policy of the handler
+     * @return An {@link AsyncHandler}: The handler with a full ring
+     * @throws InterruptedException if the test is interrupted
+     */
+    private static AsyncHandler fill(Gate gate, BackpressurePolicy policy) throws InterruptedException {
+        AsyncHandler handler = new AsyncHandler(gate, 4, policy, NEVER);
+        handler.publish(record(Level.INFO, "0"));
+        assertTrue(gate.entered.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i <= 4; i++) {
+            handler.publish(record(Level.INFO, Integer.toString(i)));
+        }
+        assertEquals(4, handler.getQueueDepth());
+        return handler;
+    }
+
+    /**
+     * Creates a record.
+     * @param level A {@link Level}: The {@link Level} of the record
+     * @param msg A {@link String}: The message of the record
+     * @return A {@link LogRecord}: The record, with its source set so it is not inferred
+     */
+    private static LogRecord record(Level level, String msg) {
+        LogRecord logRecord = new LogRecord(level, msg);
+        logRecord.setSourceClassName(AsyncHandlerTest.class.getName());
+        logRecord.setSourceMethodName("record");
+        return logRecord;
+    }
+
+    /**
+     * A target {@link Handler} collecting the records, which holds the consumer in the first record until it is
+     * released.
+     */
+    private static final class Gate extends Handler {
+
+        /**
+         * Counted down once the consumer writes the first record
+         */
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        /**
+         * Lets the consumer go on
+         */
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        /**
+         * Counted down once the consumer flushes the target
+         */
+        private final CountDownLatch flushed = new CountDownLatch(1);
+
+        /**
+         * The written records
+         */
+        private final List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * Creates a {@link Gate}.
+         * @param open A {@link Boolean}: Whether the consumer is never held
+         */
+        private Gate(boolean open) {
+            if (open) {
+                release.countDown();
+            }
+        }
+
+        /**
+         * Collects the record and waits until the {@link Gate} is released.
+         * @param logRecord A {@link LogRecord}: The written record
+         */
+        @Override
+        public void publish(LogRecord logRecord) {
+            records.add(logRecord);
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Notes the flush, as the records are collected in memory.
+         */
+        @Override
+        public void flush() {
+            flushed.countDown();
+        }
+
+        /**
+         * Does nothing, so the records can be checked after the {@link AsyncHandler} is closed.
+         */
+        @Override
+        public void close() {}
+
+        /**
+         * Gets the messages of the written records, without the summaries of dropped records.
+         * @return A {@link List}: The messages in the order they were written
+         */
+        private List<String> messages() {
+            List<String> messages = new ArrayList<>();
+            synchronized (records) {
+                for (LogRecord logRecord : records) {
+                    if (!isSummary(logRecord)) {
+                        messages.add(logRecord.getMessage());
+                    }
+                }
+            }
+            return messages;
+        }
+
+        /**
+         * Gets the written summaries of dropped records.
+         * @return A {@link List}: The summaries
+         */
+        private List<LogRecord> summaries() {
+            List<LogRecord> summaries = new ArrayList<>();
+            synchronized (records) {
+                for (LogRecord logRecord : records) {
+                    if (isSummary(logRecord)) {
+                        summaries.add(logRecord);
+                    }
+                }
+            }
+            return summaries;
+        }
+
+        /**
+         * Checks whether a record is a summary of dropped records.
+         * @param logRecord A {@link LogRecord}: The written record
+         * @return A {@link Boolean}: Whether the {@link AsyncHandler} wrote it
+         */
+        private static boolean isSummary(LogRecord logRecord) {
+            return AsyncHandler.class.getName().equals(logRecord.getLoggerName());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.custom.logger;
+
+import de.custom.logger.BackpressurePolicy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests that a {@link BackpressurePolicy} only carries the settings its {@link Strategy} uses. How the
+ * {@link AsyncHandler} applies each strategy to a full ring is tested in {@link AsyncHandlerTest}.
+ */
+class BackpressurePolicyTest {
+
+    /**
+     * Checks that the factories create the policies of their strategies.
+     */
+    @Test
+    void factoriesSetTheirStrategy() {
+        assertEquals(Strategy.BLOCK, BackpressurePolicy.block().strategy());
+        assertEquals(Strategy.DROP_NEWEST, BackpressurePolicy.dropNewest().strategy());
+        assertEquals(Strategy.DROP_OLDEST, BackpressurePolicy.dropOldest().strategy());
+
+        BackpressurePolicy timed = BackpressurePolicy.blockWithTimeout(Duration.ofMillis(5));
+        assertEquals(Strategy.BLOCK_WITH_TIMEOUT, timed.strategy());
+        assertEquals(Duration.ofMillis(5), timed.timeout());
+        assertNull(timed.threshold());
+
+        BackpressurePolicy leveled = BackpressurePolicy.dropBelow(Level.INFO);
+        assertEquals(Strategy.DROP_BELOW_LEVEL, leveled.strategy());
+        assertEquals(Level.INFO, leveled.threshold());
+        assertNull(leveled.timeout());
+    }
+
+    /**
+     * Checks that a timeout is required for, and only allowed for, {@link Strategy#BLOCK_WITH_TIMEOUT}, and must not
+     * be negative.
+     */
+    @Test
+    void timeoutBelongsToBlockWithTimeout() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackpressurePolicy(Strategy.BLOCK_WITH_TIMEOUT, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackpressurePolicy(Strategy.BLOCK, Duration.ofMillis(5), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> BackpressurePolicy.blockWithTimeout(Duration.ofMillis(-1)));
+        assertThrows(NullPointerException.class, () -> BackpressurePolicy.blockWithTimeout(null));
+        assertEquals(Duration.ZERO, BackpressurePolicy.blockWithTimeout(Duration.ZERO).timeout());
+    }
+
+    /**
+     * Checks that a threshold is required for, and only allowed for, {@link Strategy#DROP_BELOW_LEVEL}, and must not
+     * be above {@link Level#WARNING}.
+     */
+    @Test
+    void thresholdBelongsToDropBelowLevel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackpressurePolicy(Strategy.DROP_BELOW_LEVEL, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BackpressurePolicy(Strategy.DROP_NEWEST, null, Level.INFO));
+        assertThrows(IllegalArgumentException.class, () -> BackpressurePolicy.dropBelow(Level.SEVERE));
+        assertThrows(NullPointerException.class, () -> BackpressurePolicy.dropBelow(null));
+        assertEquals(Level.WARNING, BackpressurePolicy.dropBelow(Level.WARNING).threshold());
+    }
+
+    /**
+     * Checks that a policy needs a strategy.
+     */
+    @Test
+    void strategyIsRequired() {
+        assertThrows(NullPointerException.class, () -> new BackpressurePolicy(null, null, null));
+    }
+}
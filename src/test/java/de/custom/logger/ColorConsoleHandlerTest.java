@@ -0,0 +1,162 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the locking of the {@link ColorConsoleHandler}: records are formatted without holding its lock and written
+ * while holding it, so threads format in parallel and their lines never interleave.
+ */
+class ColorConsoleHandlerTest {
+
+    /**
+     * Checks that the lock is held while the record is written, but not while it is formatted.
+     */
+    @Test
+    void formatsOutsideTheLockAndWritesUnderIt() {
+        AtomicBoolean lockedWhileFormatting = new AtomicBoolean(true);
+        AtomicBoolean lockedWhileWriting = new AtomicBoolean(false);
+        ColorConsoleHandler[] handler = new ColorConsoleHandler[1];
+        handler[0] = new ColorConsoleHandler(new OutputStream() {
+            @Override
+            public void write(int b) {
+                lockedWhileWriting.set(handler[0].lock.isHeldByCurrentThread());
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                lockedWhileWriting.set(handler[0].lock.isHeldByCurrentThread());
+            }
+        });
+        handler[0].setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord logRecord) {
+                lockedWhileFormatting.set(handler[0].lock.isHeldByCurrentThread());
+                return logRecord.getMessage();
+            }
+        });
+
+        handler[0].publish(new LogRecord(Level.INFO, "message"));
+
+        assertFalse(lockedWhileFormatting.get());
+        assertTrue(lockedWhileWriting.get());
+    }
+
+    /**
+     * Checks that a thread taking long to format a record does not keep another thread from writing.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void slowFormattingDoesNotBlockOtherWriters() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColorConsoleHandler handler = new ColorConsoleHandler(out);
+        CountDownLatch formatting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord logRecord) {
+                if (logRecord.getMessage().equals("slow")) {
+                    formatting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return logRecord.getMessage() + "\n";
+            }
+        });
+        Thread slow = new Thread(() -> handler.publish(new LogRecord(Level.INFO, "slow")));
+        slow.start();
+        assertTrue(formatting.await(10, TimeUnit.SECONDS));
+
+        Thread fast = new Thread(() -> handler.publish(new LogRecord(Level.INFO, "fast")));
+        fast.start();
+        fast.join(TimeUnit.SECONDS.toMillis(10));
+        boolean fastDone = !fast.isAlive();
+        release.countDown();
+        slow.join();
+
+        assertTrue(fastDone);
+        assertEquals("fast\nslow\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that the lines written by many threads at once arrive whole and complete.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void linesOfConcurrentThreadsDoNotInterleave() throws InterruptedException {
+        int threads = 8;
+        int records = 2_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColorConsoleHandler handler = new ColorConsoleHandler(out);
+        handler.setFormatter(new LogFormatter("%m%n"));
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < records; i++) {
+                    handler.publish(new LogRecord(Level.INFO, thread + ":" + i + ":" + "x".repeat(i % 50)));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split(System.lineSeparator());
+        assertEquals(threads * records, lines.length);
+        Set<String> seen = new HashSet<>();
+        for (String line : lines) {
+            String[] parts = line.split(":", -1);
+            assertEquals(3, parts.length, line);
+            assertEquals(Integer.parseInt(parts[1]) % 50, parts[2].length(), line);
+            assertTrue(seen.add(parts[0] + ":" + parts[1]), line);
+        }
+    }
+
+    /**
+     * Checks that a record logged while another one of the same thread is formatted, e.g. by a parameter, does not
+     * overwrite the buffers of the outer record.
+     */
+    @Test
+    void nestedRecordKeepsTheOuterOneIntact() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ColorConsoleHandler handler = new ColorConsoleHandler(out);
+        handler.setFormatter(new LogFormatter("%m%params%n"));
+        Object parameter = new Object() {
+            @Override
+            public String toString() {
+                handler.publish(new LogRecord(Level.INFO, "inner"));
+                return "parameter";
+            }
+        };
+        LogRecord outer = new LogRecord(Level.INFO, "outer");
+        outer.setParameters(new Object[] {parameter});
+
+        handler.publish(outer);
+
+        String separator = System.lineSeparator();
+        assertEquals("inner" + separator + "outer\tparameter" + separator, out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,262 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import de.custom.formatter.Utf8Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the grouping of the {@link FanOut}: sinks formatting alike share one encoded record, sinks formatting
+ * differently and other handlers get the record on their own, every handler gets it in the order it was added, and a
+ * record that cannot be shared is passed on as usual.
+ */
+class FanOutTest {
+
+    /**
+     * Checks that sinks with the same or alike formatters are formatted once per group, each group on its own, while
+     * every handler still gets the record in the order it was added.
+     */
+    @Test
+    void formatsOncePerGroupInHandlerOrder() {
+        List<String> received = new ArrayList<>();
+        CountingFormatter counting = new CountingFormatter();
+        Handler[] handlers = {
+                new Sink("a", counting, received),
+                new Plain("plain", received),
+                new Sink("b", new LogFormatter("%p %m%n"), received),
+                new Sink("c", counting, received),
+                new Sink("d", new LogFormatter("%p %m%n"), received),
+                new Sink("e", new LogFormatter("%m%n"), received)
+        };
+
+        FanOut.publish(handlers, new LogRecord(Level.INFO, "message"));
+
+        assertEquals(1, counting.calls.get());
+        assertEquals(List.of("a encoded #message", "plain published", "b encoded INFO message",
+                "c encoded #message", "d encoded INFO message", "e published message"), trimmed(received));
+    }
+
+    /**
+     * Checks that a sink whose level drops the record is left out of its group, and a group left with a single sink
+     * gets the record as usual.
+     */
+    @Test
+    void leavesOutSinksThatDropTheRecord() {
+        List<String> received = new ArrayList<>();
+        CountingFormatter counting = new CountingFormatter();
+        Sink quiet = new Sink("quiet", counting, received);
+        quiet.setLevel(Level.WARNING);
+        Handler[] handlers = {quiet, new Sink("a", counting, received), new Sink("b", counting, received)};
+
+        FanOut.publish(handlers, new LogRecord(Level.INFO, "message"));
+        assertEquals(List.of("a encoded #message", "b encoded #message"), trimmed(received));
+
+        received.clear();
+        FanOut.publish(new Handler[] {quiet, handlers[1]}, new LogRecord(Level.INFO, "message"));
+        assertEquals(List.of("a published #message"), trimmed(received));
+        assertEquals(2, counting.calls.get());
+    }
+
+    /**
+     * Checks that every sink of a group gets the record as usual if the shared formatting fails.
+     */
+    @Test
+    void passesTheRecordOnIfFormattingFails() {
+        List<String> received = new ArrayList<>();
+        Formatter failing = new Formatter() {
+            @Override
+            public String format(LogRecord logRecord) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        Handler[] handlers = {new Sink("a", failing, received), new Sink("b", failing, received)};
+
+        FanOut.publish(handlers, new LogRecord(Level.INFO, "message"));
+
+        assertEquals(List.of("a failed", "b failed"), trimmed(received));
+    }
+
+    /**
+     * Checks that a record fanned out while the parameter of another one is formatted on the same thread does not
+     * overwrite the bytes of the outer record.
+     */
+    @Test
+    void nestedRecordGetsBuffersOfItsOwn() {
+        List<String> received = new ArrayList<>();
+        LogFormatter formatter = new LogFormatter("%m%params%n");
+        Handler[] handlers = {new Sink("a", formatter, received), new Sink("b", formatter, received)};
+        Object parameter = new Object() {
+            @Override
+            public String toString() {
+                FanOut.publish(handlers, new LogRecord(Level.INFO, "inner"));
+                return "parameter";
+            }
+        };
+        LogRecord outer = new LogRecord(Level.INFO, "outer");
+        outer.setParameters(new Object[] {parameter});
+
+        FanOut.publish(handlers, outer);
+
+        assertEquals(List.of("a encoded inner", "b encoded inner", "a encoded outer\tparameter",
+                "b encoded outer\tparameter"), trimmed(received));
+    }
+
+    /**
+     * Removes the line separators the formatters end the records with.
+     * @param received A {@link List}: What the handlers received
+     * @return A {@link List}: The same entries without line separators
+     */
+    private static List<String> trimmed(List<String> received) {
+        List<String> trimmed = new ArrayList<>(received.size());
+        for (String entry : received) {
+            trimmed.add(entry.replace(System.lineSeparator(), "").replace("\n", ""));
+        }
+        return trimmed;
+    }
+
+    /**
+     * A {@link Formatter} counting how often it formats a record.
+     */
+    private static final class CountingFormatter extends Formatter {
+
+        /**
+         * The number of formatted records
+         */
+        private final AtomicInteger calls = new AtomicInteger();
+
+        /**
+         * Formats the message behind a number sign and counts the call.
+         * @param logRecord A {@link LogRecord}: The record
+         * @return A {@link String}: The formatted record
+         */
+        @Override
+        public String format(LogRecord logRecord) {
+            calls.incrementAndGet();
+            return "#" + logRecord.getMessage() + "\n";
+        }
+    }
+
+    /**
+     * An {@link EncodedSink} noting how it got each record.
+     */
+    private static final class Sink extends Handler implements EncodedSink {
+
+        /**
+         * The name the entries start with
+         */
+        private final String name;
+
+        /**
+         * The entries of all handlers of a test, in the order they got the records
+         */
+        private final List<String> received;
+
+        /**
+         * Creates a {@link Sink}.
+         * @param name A {@link String}: The name the entries start with
+         * @param formatter A {@link Formatter}: The formatter of the sink
+         * @param received A {@link List}: The entries of all handlers of a test
+         */
+        private Sink(String name, Formatter formatter, List<String> received) {
+            this.name = name;
+            this.received = received;
+            setFormatter(formatter);
+        }
+
+        /**
+         * Notes the record formatted by the sink itself, or that formatting it failed.
+         * @param logRecord A {@link LogRecord}: The record
+         */
+        @Override
+        public void publish(LogRecord logRecord) {
+            if (!isLoggable(logRecord)) {
+                return;
+            }
+            try {
+                received.add(name + " published " + getFormatter().format(logRecord));
+            } catch (RuntimeException e) {
+                received.add(name + " failed");
+            }
+        }
+
+        /**
+         * Notes the shared, encoded record.
+         * @param logRecord A {@link LogRecord}: The record
+         * @param encoded A {@link Utf8Buffer}: The formatted record
+         */
+        @Override
+        public void publishEncoded(LogRecord logRecord, Utf8Buffer encoded) {
+            received.add(name + " encoded "
+                    + new String(encoded.array(), 0, encoded.length(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Does nothing, as the entries are kept in memory.
+         */
+        @Override
+        public void flush() {}
+
+        /**
+         * Does nothing, as the entries are kept in memory.
+         */
+        @Override
+        public void close() {}
+    }
+
+    /**
+     * A {@link Handler} that is no {@link EncodedSink}, noting that it got a record.
+     */
+    private static final class Plain extends Handler {
+
+        /**
+         * The name the entries start with
+         */
+        private final String name;
+
+        /**
+         * The entries of all handlers of a test, in the order they got the records
+         */
+        private final List<String> received;
+
+        /**
+         * Creates a {@link Plain} handler.
+         * @param name A {@link String}: The name the entries start with
+         * @param received A {@link List}: The entries of all handlers of a test
+         */
+        private Plain(String name, List<String> received) {
+            this.name = name;
+            this.received = received;
+        }
+
+        /**
+         * Notes that the handler got the record.
+         * @param logRecord A {@link LogRecord}: The record
+         */
+        @Override
+        public void publish(LogRecord logRecord) {
+            received.add(name + " published");
+        }
+
+        /**
+         * Does nothing, as the entries are kept in memory.
+         */
+        @Override
+        public void flush() {}
+
+        /**
+         * Does nothing, as the entries are kept in memory.
+         */
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,194 @@
+package de.custom.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the off-heap ring of the {@link FlightRecorderHandler}: the oldest records are evicted once the buffer or the
+ * maximum number of records is full, entries stay intact where the ring wraps around, records larger than the buffer
+ * are dropped, and a severe record dumps and clears what was recorded.
+ */
+class FlightRecorderHandlerTest {
+
+    /**
+     * Checks that only the newest records are kept once the maximum number of records is reached.
+     */
+    @Test
+    void evictsTheOldestBeyondTheMaximumNumberOfRecords() {
+        FlightRecorderHandler handler = new FlightRecorderHandler(4096, 3, new ByteArrayOutputStream());
+        for (int i = 0; i < 10; i++) {
+            handler.publish(record(Level.INFO, Integer.toString(i)));
+        }
+
+        assertEquals(3, handler.getRecordCount());
+        assertEquals(List.of("7", "8", "9"), messages(handler.getRecords()));
+    }
+
+    /**
+     * Checks that records of changing sizes wrap around a small ring at every possible offset, the oldest ones are
+     * evicted to make room, and the records left are decoded intact and in order.
+     */
+    @Test
+    void wrapsAroundTheRingAndEvictsTheOldest() {
+        FlightRecorderHandler handler = new FlightRecorderHandler(512, 1000, new ByteArrayOutputStream());
+        List<String> published = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String message = i + ":" + "x".repeat(i % 37);
+            published.add(message);
+            handler.publish(record(Level.INFO, message));
+
+            List<String> recorded = messages(handler.getRecords());
+            assertEquals(handler.getRecordCount(), recorded.size());
+            assertTrue(recorded.size() > 0);
+            assertEquals(published.subList(published.size() - recorded.size(), published.size()), recorded);
+        }
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    /**
+     * Checks that the fields and the rendered parameters of a record survive the round trip through the ring.
+     */
+    @Test
+    void decodesTheRecordAsItWasRecorded() {
+        FlightRecorderHandler handler = new FlightRecorderHandler(4096, 10, new ByteArrayOutputStream());
+        LogRecord logRecord = record(Level.FINE, "order {0} took {1} ms");
+        logRecord.setLoggerName("de.custom.shop");
+        logRecord.setInstant(Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+        StringBuilder parameter = new StringBuilder("4711");
+        logRecord.setParameters(new Object[] {parameter, null});
+
+        handler.publish(logRecord);
+        parameter.append("-changed");
+        LogRecord decoded = handler.getRecords().get(0);
+
+        assertEquals(Level.FINE, decoded.getLevel());
+        assertEquals("order {0} took {1} ms", decoded.getMessage());
+        assertEquals("de.custom.shop", decoded.getLoggerName());
+        assertEquals(FlightRecorderHandlerTest.class.getName(), decoded.getSourceClassName());
+        assertEquals("record", decoded.getSourceMethodName());
+        assertEquals(logRecord.getInstant(), decoded.getInstant());
+        assertEquals(logRecord.getSequenceNumber(), decoded.getSequenceNumber());
+        assertEquals(logRecord.getLongThreadID(), decoded.getLongThreadID());
+        assertArrayEquals(new Object[] {"4711", "null"}, decoded.getParameters());
+    }
+
+    /**
+     * Checks that a record larger than the whole ring is dropped and counted, and the records before it are kept.
+     */
+    @Test
+    void dropsARecordLargerThanTheRing() {
+        FlightRecorderHandler handler = new FlightRecorderHandler(256, 10, new ByteArrayOutputStream());
+        handler.publish(record(Level.INFO, "kept"));
+        handler.publish(record(Level.INFO, "x".repeat(200)));
+
+        assertEquals(1, handler.getDroppedCount());
+        assertEquals(List.of("kept"), messages(handler.getRecords()));
+    }
+
+    /**
+     * Checks that a severe record writes the records leading up to it and clears the ring, unless that is turned off.
+     */
+    @Test
+    void severeRecordDumpsAndClears() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FlightRecorderHandler handler = new FlightRecorderHandler(4096, 10, out);
+        handler.publish(record(Level.FINE, "context"));
+        handler.publish(record(Level.SEVERE, "failure"));
+
+        String dump = out.toString(StandardCharsets.UTF_8);
+        assertTrue(dump.indexOf("context") >= 0 && dump.indexOf("context") < dump.indexOf("failure"), dump);
+        assertEquals(0, handler.getRecordCount());
+
+        handler.setDumpOnSevere(false);
+        handler.publish(record(Level.SEVERE, "kept"));
+        assertEquals(1, handler.getRecordCount());
+        assertEquals(dump, out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that the records can be queried by {@link Level} and time.
+     */
+    @Test
+    void filtersByLevelAndTime() {
+        FlightRecorderHandler handler = new FlightRecorderHandler(4096, 10, new ByteArrayOutputStream());
+        handler.setDumpOnSevere(false);
+        Instant start = Instant.ofEpochSecond(1_700_000_000L);
+        Level[] levels = {Level.FINE, Level.INFO, Level.WARNING, Level.SEVERE};
+        for (int i = 0; i < levels.length; i++) {
+            LogRecord logRecord = record(levels[i], Integer.toString(i));
+            logRecord.setInstant(start.plusSeconds(i));
+            handler.publish(logRecord);
+        }
+
+        assertEquals(List.of("1", "2", "3"), messages(handler.getRecords(Level.INFO, Instant.MIN, Instant.MAX)));
+        assertEquals(List.of("1", "2"), messages(handler.getRecords(Level.ALL, start.plusSeconds(1),
+                start.plusSeconds(2))));
+    }
+
+    /**
+     * Checks that records published by many threads at once are each recorded whole.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentThreadsRecordWholeEntries() throws InterruptedException {
+        FlightRecorderHandler handler = new FlightRecorderHandler(65536, 100, new ByteArrayOutputStream());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    handler.publish(record(Level.INFO, thread + ":" + i + ":" + "x".repeat(i % 23)));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<String> recorded = messages(handler.getRecords());
+        assertEquals(100, recorded.size());
+        for (String message : recorded) {
+            String[] parts = message.split(":", -1);
+            assertEquals(3, parts.length, message);
+            assertEquals(Integer.parseInt(parts[1]) % 23, parts[2].length(), message);
+        }
+    }
+
+    /**
+     * Creates a record.
+     * @param level A {@link Level}: The {@link Level} of the record
+     * @param msg A {@link String}: The message of the record
+     * @return A {@link LogRecord}: The record, with its source set
+     */
+    private static LogRecord record(Level level, String msg) {
+        LogRecord logRecord = new LogRecord(level, msg);
+        logRecord.setSourceClassName(FlightRecorderHandlerTest.class.getName());
+        logRecord.setSourceMethodName("record");
+        return logRecord;
+    }
+
+    /**
+     * Collects the messages of records.
+     * @param records A {@link List}: The records
+     * @return A {@link List}: Their messages, in the same order
+     */
+    private static List<String> messages(List<LogRecord> records) {
+        List<String> messages = new ArrayList<>(records.size());
+        for (LogRecord logRecord : records) {
+            messages.add(logRecord.getMessage());
+        }
+        return messages;
+    }
+}
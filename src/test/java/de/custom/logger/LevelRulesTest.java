@@ -0,0 +1,268 @@
+package de.custom.logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the trie of the {@link LevelRules}: the rule of the longest matching name wins, names only match at segment
+ * boundaries, removed rules are pruned, a change replaces the trie without touching the old one, and a
+ * {@link ColorLogger} picks up a changed rule and the {@link Level} of its {@link FlightRecorderHandler}.
+ */
+class LevelRulesTest {
+
+    /**
+     * Removes the rules of a test, as they are global.
+     */
+    @AfterEach
+    void clearRules() {
+        LevelRules.clear();
+    }
+
+    /**
+     * Checks that a logger gets the rule of the longest name above it.
+     */
+    @Test
+    void longestMatchingNameWins() {
+        LevelRules.set("com.shop.db", Level.WARNING);
+        LevelRules.set("com.shop.db.pool", Level.FINE);
+
+        assertEquals(Level.FINE, LevelRules.resolve("com.shop.db.pool.Connection"));
+        assertEquals(Level.FINE, LevelRules.resolve("com.shop.db.pool"));
+        assertEquals(Level.WARNING, LevelRules.resolve("com.shop.db.Query"));
+        assertEquals(Level.WARNING, LevelRules.resolve("com.shop.db"));
+        assertNull(LevelRules.resolve("com.shop"));
+        assertNull(LevelRules.resolve("com.shop.web.Controller"));
+    }
+
+    /**
+     * Checks that a name only matches whole segments, not any prefix of a longer name.
+     */
+    @Test
+    void namesMatchWholeSegmentsOnly() {
+        LevelRules.set("com.shop.db", Level.WARNING);
+
+        assertNull(LevelRules.resolve("com.shop.dbx"));
+        assertNull(LevelRules.resolve("com.shop.d"));
+        assertNull(LevelRules.resolve("com.sho"));
+    }
+
+    /**
+     * Checks that the rule of the empty name applies to every logger, including anonymous ones.
+     */
+    @Test
+    void emptyNameAppliesToAllLoggers() {
+        LevelRules.set("", Level.SEVERE);
+        LevelRules.set("com.shop", Level.INFO);
+
+        assertEquals(Level.SEVERE, LevelRules.resolve("org.other"));
+        assertEquals(Level.SEVERE, LevelRules.resolve(""));
+        assertEquals(Level.SEVERE, LevelRules.resolve(null));
+        assertEquals(Level.INFO, LevelRules.resolve("com.shop.Cart"));
+    }
+
+    /**
+     * Checks that removing a rule falls back to the next shorter name and prunes the nodes left without rules.
+     */
+    @Test
+    void removingARuleFallsBackAndPrunes() {
+        LevelRules.set("com", Level.INFO);
+        LevelRules.set("com.shop.db.pool", Level.FINE);
+        LevelRules.remove("com.shop.db.pool");
+
+        assertEquals(Level.INFO, LevelRules.resolve("com.shop.db.pool"));
+        assertEquals(Map.of("com", Level.INFO), LevelRules.getRules());
+
+        LevelRules.remove("com");
+        assertTrue(LevelRules.getRules().isEmpty());
+        assertNull(LevelRules.resolve("com"));
+    }
+
+    /**
+     * Checks that removing a rule that does not exist keeps the trie as it is.
+     */
+    @Test
+    void removingAnUnknownRuleKeepsTheTrie() {
+        LevelRules.set("com.shop", Level.INFO);
+        LevelRules.Node before = LevelRules.current();
+        LevelRules.remove("com.shop.db");
+        LevelRules.remove("org");
+
+        assertSame(before, LevelRules.current());
+    }
+
+    /**
+     * Checks that a change replaces the trie and leaves the previous one as it was, so a logger holding it sees a
+     * consistent set of rules.
+     */
+    @Test
+    void changesLeaveThePreviousTrieIntact() {
+        LevelRules.set("com.shop", Level.INFO);
+        LevelRules.Node before = LevelRules.current();
+        LevelRules.set("com.shop", Level.SEVERE);
+        LevelRules.set("com.shop.db", Level.FINE);
+
+        assertEquals(Level.INFO, before.resolve("com.shop.db"));
+        assertEquals(Level.FINE, LevelRules.current().resolve("com.shop.db"));
+    }
+
+    /**
+     * Checks that loading rules replaces all of them, and that an invalid specification keeps the rules as they are.
+     */
+    @Test
+    void loadReplacesAllRulesOrNone() {
+        LevelRules.set("org", Level.FINE);
+        LevelRules.load("com.shop=INFO, com.shop.db = WARNING,,");
+
+        assertEquals(Map.of("com.shop", Level.INFO, "com.shop.db", Level.WARNING), LevelRules.getRules());
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.load("com.shop=INFO, broken"));
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.load("com.shop=LOUD"));
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.load("com..shop=INFO"));
+        assertEquals(Map.of("com.shop", Level.INFO, "com.shop.db", Level.WARNING), LevelRules.getRules());
+    }
+
+    /**
+     * Checks that replacing some rules leaves the others as they are.
+     */
+    @Test
+    void replaceChangesOnlyThePassedRules() {
+        LevelRules.set("org", Level.FINE);
+        LevelRules.set("com.shop", Level.INFO);
+        LevelRules.replace(List.of("com.shop"), Map.of("com.shop.db", Level.WARNING));
+
+        assertEquals(Map.of("org", Level.FINE, "com.shop.db", Level.WARNING), LevelRules.getRules());
+    }
+
+    /**
+     * Checks that a name with an empty segment is rejected.
+     */
+    @Test
+    void emptySegmentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.set("com..shop", Level.INFO));
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.set(".com", Level.INFO));
+        assertThrows(IllegalArgumentException.class, () -> LevelRules.set("com.", Level.INFO));
+    }
+
+    /**
+     * Checks that a {@link ColorLogger} follows a changed rule, and that a {@link Level} set on it takes precedence.
+     */
+    @Test
+    void colorLoggerFollowsChangedRules() {
+        Logger logger = ColorLogger.newLogger("de.custom.logger.LevelRulesTest.logger");
+        try {
+            assertTrue(logger.isLoggable(Level.FINEST));
+            LevelRules.set("de.custom.logger.LevelRulesTest", Level.WARNING);
+            assertFalse(logger.isLoggable(Level.INFO));
+            LevelRules.set("de.custom.logger.LevelRulesTest", Level.FINE);
+            assertTrue(logger.isLoggable(Level.FINE));
+            assertFalse(logger.isLoggable(Level.FINER));
+
+            logger.setLevel(Level.SEVERE);
+            assertFalse(logger.isLoggable(Level.WARNING));
+            logger.setLevel(null);
+            LevelRules.clear();
+            assertTrue(logger.isLoggable(Level.FINEST));
+        } finally {
+            LoggerRegistry.release("de.custom.logger.LevelRulesTest.logger");
+        }
+    }
+
+    /**
+     * Checks that a {@link ColorLogger} the registry no longer configures still follows changed rules.
+     */
+    @Test
+    void releasedColorLoggerFollowsChangedRules() {
+        Logger logger = ColorLogger.newLogger("de.custom.logger.LevelRulesTest.released");
+        LoggerRegistry.release("de.custom.logger.LevelRulesTest.released");
+        LevelRules.set("de.custom.logger.LevelRulesTest.released", Level.SEVERE);
+
+        assertFalse(logger.isLoggable(Level.WARNING));
+        assertEquals(Level.SEVERE, logger.getLevel());
+    }
+
+    /**
+     * Checks that a {@link ColorLogger} takes the messages its {@link FlightRecorderHandler} records, follows a changed
+     * {@link Level} of the recorder, and stops taking them once the recorder is detached.
+     */
+    @Test
+    void colorLoggerFollowsItsFlightRecorder() {
+        Logger logger = ColorLogger.newLogger("de.custom.logger.LevelRulesTest.recorded");
+        FlightRecorderHandler recorder = new FlightRecorderHandler(4096, 10, new ByteArrayOutputStream());
+        try {
+            LevelRules.set("de.custom.logger.LevelRulesTest.recorded", Level.INFO);
+            recorder.setLevel(Level.FINE);
+            ColorLogger.attachFlightRecorder(logger, recorder);
+            assertTrue(logger.isLoggable(Level.FINE));
+            assertFalse(logger.isLoggable(Level.FINER));
+
+            recorder.setLevel(Level.OFF);
+            assertFalse(logger.isLoggable(Level.FINE));
+            assertTrue(logger.isLoggable(Level.INFO));
+
+            recorder.setLevel(Level.FINEST);
+            ColorLogger.detachFlightRecorder(logger, recorder);
+            assertFalse(logger.isLoggable(Level.FINE));
+        } finally {
+            LoggerRegistry.release("de.custom.logger.LevelRulesTest.recorded");
+            recorder.close();
+        }
+    }
+
+    /**
+     * Checks that concurrent changes lose no rule, and that readers always see a complete trie meanwhile.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentChangesLoseNoRule() throws InterruptedException {
+        int threads = 4;
+        int rules = 500;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (!done.get()) {
+                    Level level = LevelRules.resolve("writer0.rule0.Class");
+                    if (level != null && level != Level.FINE) {
+                        throw new AssertionError("Unexpected level: " + level);
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < rules; i++) {
+                    LevelRules.set("writer" + thread + ".rule" + i, Level.FINE);
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(threads * rules, LevelRules.getRules().size());
+    }
+}
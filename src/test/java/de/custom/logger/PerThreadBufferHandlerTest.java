@@ -0,0 +1,248 @@
+package de.custom.logger;
+
+import de.custom.formatter.LogFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the per-thread rings of the {@link PerThreadBufferHandler}: they wrap around without losing or reordering
+ * records, the writer holds back records while one with a lower sequence number is still being formatted, nested
+ * records are kept, and closing the handler while threads are still logging neither hangs nor tears a line apart.
+ */
+@Timeout(30)
+class PerThreadBufferHandlerTest {
+
+    /**
+     * The line separator the {@link LogFormatter} ends a record with
+     */
+    private static final String SEPARATOR = System.lineSeparator();
+
+    /**
+     * Checks that the records of a single thread keep their order while a ring of one slot wraps around thousands of
+     * times.
+     */
+    @Test
+    void keepsTheOrderWhileTheRingWrapsAround() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PerThreadBufferHandler handler = handler(out, 1);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            handler.publish(new LogRecord(Level.INFO, Integer.toString(i)));
+            expected.append(i).append(SEPARATOR);
+        }
+        handler.close();
+
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, handler.getQueueDepth());
+    }
+
+    /**
+     * Checks that the records of many threads logging at once all arrive whole, and that the records of each thread
+     * keep their order.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void concurrentThreadsLoseNothing() throws InterruptedException {
+        int threads = 8;
+        int records = 5_000;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PerThreadBufferHandler handler = handler(out, 4);
+        List<Thread> loggers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            loggers.add(new Thread(() -> {
+                for (int i = 0; i < records; i++) {
+                    handler.publish(new LogRecord(Level.INFO, thread + ":" + i));
+                }
+            }));
+        }
+        loggers.forEach(Thread::start);
+        for (Thread logger : loggers) {
+            logger.join();
+        }
+        handler.close();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split(SEPARATOR);
+        assertEquals(threads * records, lines.length);
+        Map<String, Integer> last = new HashMap<>();
+        for (String line : lines) {
+            String[] parts = line.split(":");
+            assertEquals(2, parts.length, line);
+            int previous = last.getOrDefault(parts[0], -1);
+            assertEquals(previous + 1, Integer.parseInt(parts[1]), line);
+            last.put(parts[0], previous + 1);
+        }
+    }
+
+    /**
+     * Checks that the writer holds back a record while a record with a lower sequence number is still being formatted
+     * by another thread, and writes both in sequence order.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void holdsBackRecordsBehindOneBeingFormatted() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PerThreadBufferHandler handler = new PerThreadBufferHandler(out, 4);
+        CountDownLatch formatting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord logRecord) {
+                if (logRecord.getMessage().equals("slow")) {
+                    formatting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return logRecord.getMessage() + "\n";
+            }
+        });
+        LogRecord slow = new LogRecord(Level.INFO, "slow");
+        LogRecord fast = new LogRecord(Level.INFO, "fast");
+        assertTrue(slow.getSequenceNumber() < fast.getSequenceNumber());
+
+        Thread slowThread = new Thread(() -> handler.publish(slow));
+        slowThread.start();
+        assertTrue(formatting.await(10, TimeUnit.SECONDS));
+        Thread fastThread = new Thread(() -> handler.publish(fast));
+        fastThread.start();
+        fastThread.join();
+        Thread.sleep(100);
+        String heldBack = out.toString(StandardCharsets.UTF_8);
+        release.countDown();
+        slowThread.join();
+        handler.close();
+
+        assertEquals("", heldBack);
+        assertEquals("slow\nfast\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that a record logged while another one of the same thread is formatted, e.g. by a parameter, is written
+     * after the outer one without overwriting its slot.
+     */
+    @Test
+    void nestedRecordIsWrittenAfterTheOuterOne() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PerThreadBufferHandler handler = new PerThreadBufferHandler(out, 1);
+        handler.setFormatter(new LogFormatter("%m%params%n"));
+        Object parameter = new Object() {
+            @Override
+            public String toString() {
+                handler.publish(new LogRecord(Level.INFO, "inner"));
+                return "parameter";
+            }
+        };
+        LogRecord outer = new LogRecord(Level.INFO, "outer");
+        outer.setParameters(new Object[] {parameter});
+
+        handler.publish(outer);
+        handler.close();
+
+        assertEquals("outer\tparameter" + SEPARATOR + "inner" + SEPARATOR, out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks that closing the handler while threads keep logging returns, writes only whole lines, each at most once,
+     * and ignores the records published afterwards.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void closeWhilePublishingNeitherHangsNorTearsLines() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PerThreadBufferHandler handler = handler(out, 2);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong published = new AtomicLong();
+        List<Thread> loggers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            loggers.add(new Thread(() -> {
+                for (int i = 0; !stop.get(); i++) {
+                    handler.publish(new LogRecord(Level.INFO, thread + ":" + i));
+                    published.incrementAndGet();
+                }
+            }));
+        }
+        loggers.forEach(Thread::start);
+        while (published.get() < 10_000) {
+            Thread.onSpinWait();
+        }
+        handler.close();
+        String written = out.toString(StandardCharsets.UTF_8);
+        handler.publish(new LogRecord(Level.INFO, "late"));
+        stop.set(true);
+        for (Thread logger : loggers) {
+            logger.join();
+        }
+
+        assertEquals(written, out.toString(StandardCharsets.UTF_8));
+        assertTrue(written.endsWith(SEPARATOR));
+        String[] lines = written.split(SEPARATOR);
+        assertFalse(List.of(lines).contains("late"));
+        assertEquals(lines.length, new HashSet<>(List.of(lines)).size());
+        for (String line : lines) {
+            assertTrue(line.matches("\\d:\\d+"), line);
+        }
+        assertEquals(0, handler.getQueueDepth());
+    }
+
+    /**
+     * Checks that the rings of threads that have died are dropped once they are empty.
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void dropsTheRingsOfDeadThreads() throws InterruptedException {
+        PerThreadBufferHandler handler = handler(new ByteArrayOutputStream(), 4);
+        try {
+            List<Thread> loggers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                loggers.add(new Thread(() -> handler.publish(new LogRecord(Level.INFO, "message"))));
+            }
+            loggers.forEach(Thread::start);
+            for (Thread logger : loggers) {
+                logger.join();
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (handler.getThreadCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals(0, handler.getThreadCount());
+        } finally {
+            handler.close();
+        }
+    }
+
+    /**
+     * Creates a {@link PerThreadBufferHandler} writing the bare messages.
+     * @param out A {@link ByteArrayOutputStream}: The stream the records are written to
+     * @param capacity An {@link Integer}: The number of slots in the ring of each thread
+     * @return A {@link PerThreadBufferHandler}: The handler
+     */
+    private static PerThreadBufferHandler handler(ByteArrayOutputStream out, int capacity) {
+        PerThreadBufferHandler handler = new PerThreadBufferHandler(out, capacity);
+        handler.setFormatter(new LogFormatter("%m%n"));
+        return handler;
+    }
+}